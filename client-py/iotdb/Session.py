@@ -21,6 +21,7 @@ import time
 from thrift.protocol import TBinaryProtocol, TCompactProtocol
 from thrift.transport import TSocket, TTransport
 
+from iotdb.utils.ArrowSessionDataSet import ArrowSessionDataSet
 from iotdb.utils.SessionDataSet import SessionDataSet
 from .template.Template import Template
 from .template.TemplateQueryType import TemplateQueryType
@@ -935,6 +936,34 @@ class Session(object):
             resp.ignoreTimeStamp,
         )
 
+    def execute_arrow_query_statement(self, sql, timeout=0):
+        """
+        execute query sql statement and returns the results in Apache Arrow format,
+        pyarrow is required to use it
+        :param sql: String, query sql statement
+        :return: ArrowSessionDataSet, iterates the query results as pyarrow.RecordBatch
+        """
+        request = TSExecuteStatementReq(
+            self.__session_id,
+            sql,
+            self.__statement_id,
+            self.__fetch_size,
+            timeout,
+            arrowFormat=True,
+        )
+        resp = self.__client.executeQueryStatement(request)
+        Session.verify_success(resp.status)
+        return ArrowSessionDataSet(
+            sql,
+            resp.queryId,
+            self.__client,
+            self.__statement_id,
+            self.__session_id,
+            resp.arrowBatches,
+            self.__fetch_size,
+            timeout,
+        )
+
     def execute_non_query_statement(self, sql):
         """
         execute non-query sql statement
@@ -0,0 +1,143 @@
+# Licensed to the Apache Software Foundation (ASF) under one
+# or more contributor license agreements.  See the NOTICE file
+# distributed with this work for additional information
+# regarding copyright ownership.  The ASF licenses this file
+# to you under the Apache License, Version 2.0 (the
+# "License"); you may not use this file except in compliance
+# with the License.  You may obtain a copy of the License at
+#
+#     http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing,
+# software distributed under the License is distributed on an
+# "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+# KIND, either express or implied.  See the License for the
+# specific language governing permissions and limitations
+# under the License.
+#
+
+
+import logging
+
+from thrift.transport import TTransport
+from iotdb.thrift.rpc.IClientRPCService import TSFetchResultsReq, TSCloseOperationReq
+
+logger = logging.getLogger("IoTDB")
+
+
+class ArrowSessionDataSet(object):
+    """
+    query results in Apache Arrow format, fetched from the server batch by batch,
+    pyarrow is required to use it
+    """
+
+    def __init__(
+        self,
+        sql,
+        query_id,
+        client,
+        statement_id,
+        session_id,
+        arrow_batches,
+        fetch_size,
+        time_out=0,
+    ):
+        import pyarrow.ipc
+
+        self.__ipc = pyarrow.ipc
+        self.__sql = sql
+        self.__query_id = query_id
+        self.__client = client
+        self.__statement_id = statement_id
+        self.__session_id = session_id
+        self.__fetch_size = fetch_size
+        self.__time_out = time_out
+        self.__cached_batches = list(arrow_batches) if arrow_batches else []
+        self.__empty_result_set = not self.__cached_batches
+        self.__is_closed = False
+
+    def __enter__(self):
+        return self
+
+    def __exit__(self, exc_type, exc_val, exc_tb):
+        self.close_operation_handle()
+
+    def __iter__(self):
+        while self.has_next():
+            yield self.next()
+
+    def get_fetch_size(self):
+        return self.__fetch_size
+
+    def set_fetch_size(self, fetch_size):
+        self.__fetch_size = fetch_size
+
+    def has_next(self):
+        while not self.__cached_batches:
+            if self.__empty_result_set or self.__is_closed:
+                self.close_operation_handle()
+                return False
+            self.fetch_results()
+        return True
+
+    def next(self):
+        """
+        :return: pyarrow.RecordBatch, the next record batch, None if there is no more
+        """
+        if not self.has_next():
+            return None
+        batch = self.__cached_batches.pop(0)
+        return self.__ipc.open_stream(batch).read_next_batch()
+
+    def read_all(self):
+        """
+        :return: pyarrow.Table, the rest of the results in one table
+        """
+        import pyarrow as pa
+
+        return pa.Table.from_batches(list(self))
+
+    def fetch_results(self):
+        request = TSFetchResultsReq(
+            self.__session_id,
+            self.__sql,
+            self.__fetch_size,
+            self.__query_id,
+            True,
+            self.__time_out,
+            True,
+        )
+        try:
+            resp = self.__client.fetchResults(request)
+            if not resp.hasResultSet or not resp.arrowBatches:
+                self.__empty_result_set = True
+            else:
+                self.__cached_batches.extend(resp.arrowBatches)
+            return resp.hasResultSet
+        except TTransport.TException as e:
+            raise RuntimeError(
+                "Cannot fetch result from server, because of network connection: ", e
+            )
+
+    def close_operation_handle(self):
+        if self.__is_closed:
+            return
+        try:
+            status = self.__client.closeOperation(
+                TSCloseOperationReq(
+                    self.__session_id, self.__query_id, self.__statement_id
+                )
+            )
+            logger.debug(
+                "close session {}, message: {}".format(
+                    self.__session_id, status.message
+                )
+            )
+        except TTransport.TException as e:
+            raise RuntimeError(
+                "close session {} failed because: ".format(self.__session_id), e
+            )
+        finally:
+            self.__cached_batches = []
+            self.__is_closed = True
+            self.__client = None
@@ -63,6 +63,10 @@ import java.util.Map;
 public class IoTDBPreparedStatement extends IoTDBStatement implements PreparedStatement {
 
   private String sql;
+
+  /** parts of the SQL separated by the parameters, split only once for all the executions. */
+  private final List<String> sqlParts;
+
   private static final String METHOD_NOT_SUPPORTED_STRING = "Method not supported";
   private static final Logger logger = LoggerFactory.getLogger(IoTDBPreparedStatement.class);
 
@@ -74,6 +78,7 @@ public class IoTDBPreparedStatement extends IoTDBStatement implements PreparedSt
       throws SQLException {
     super(connection, client, sessionId, zoneId);
     this.sql = sql;
+    this.sqlParts = splitSqlStatement(sql);
   }
 
   @Override
@@ -951,7 +956,7 @@ public class IoTDBPreparedStatement extends IoTDBStatement implements PreparedSt
 
   private String createCompleteSql(final String sql, Map<Integer, String> parameters)
       throws SQLException {
-    List<String> parts = splitSqlStatement(sql);
+    List<String> parts = sqlParts;
 
     StringBuilder newSql = new StringBuilder(parts.get(0));
     for (int i = 1; i < parts.size(); i++) {
@@ -39,6 +39,7 @@ import org.apache.iotdb.rpc.RpcTransportFactory;
 import org.apache.iotdb.rpc.RpcUtils;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.fileSystem.FSType;
@@ -52,6 +53,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -175,7 +177,10 @@ public class IoTDBConfig {
   /** Max number of wal nodes, each node corresponds to one wal directory */
   private int maxWalNodesNum = 0;
 
-  /** Duration a wal flush operation will wait before calling fsync. Unit: millisecond */
+  /**
+   * Max duration a wal flush operation will wait before calling fsync, fsync is called earlier when
+   * the group commit thresholds are reached. Unit: millisecond
+   */
   private volatile long fsyncWalDelayInMs = 3;
 
   /** Buffer size of each wal node. Unit: byte */
@@ -184,8 +189,17 @@ public class IoTDBConfig {
   /** Buffer entry size of each wal buffer. Unit: byte */
   private int walBufferEntrySize = 16 * 1024;
 
-  /** Blocking queue capacity of each wal buffer */
-  private int walBufferQueueCapacity = 50;
+  /** Bytes of pending wal entries which trigger a group commit (fsync) at once. Unit: byte */
+  private volatile int walGroupCommitSizeInByte = 256 * 1024;
+
+  /** Number of writers waiting for fsync which trigger a group commit (fsync) at once */
+  private volatile int walGroupCommitWaiterNum = 16;
+
+  /**
+   * Compression type of wal files, each synced wal buffer is compressed as a block when it isn't
+   * UNCOMPRESSED
+   */
+  private volatile CompressionType walCompressionType = CompressionType.UNCOMPRESSED;
 
   /** Size threshold of each wal file. Unit: byte */
   private volatile long walFileSizeThresholdInByte = 10 * 1024 * 1024;
@@ -311,6 +325,24 @@ public class IoTDBConfig {
   /** How many threads can concurrently flush. When <= 0, use CPU core number. */
   private int concurrentFlushThread = Runtime.getRuntime().availableProcessors();
 
+  /**
+   * How many threads can concurrently encode series of one flushing memtable. When <= 0, use a
+   * quarter of CPU core number.
+   */
+  private int flushEncodingThreadNum = Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+
+  /**
+   * Storage groups whose data regions keep the memtable data of non-aligned series of fixed-width
+   * types in off-heap memory. Empty means all memtables are on heap.
+   */
+  private Set<String> offHeapMemTableStorageGroups = Collections.emptySet();
+
+  /**
+   * Proportion of the max direct memory of the JVM (-XX:MaxDirectMemorySize) that off-heap
+   * memtables may use. The rest is left to other users of direct memory, e.g., WAL buffers.
+   */
+  private double offHeapMemTableMemoryProportion = 0.5;
+
   /** How many threads can concurrently execute query statement. When <= 0, use CPU core number. */
   private int concurrentQueryThread = Runtime.getRuntime().availableProcessors();
 
@@ -459,6 +491,12 @@ public class IoTDBConfig {
   /** The max candidate file num in inner space compaction */
   private int maxInnerCompactionCandidateFileNum = 30;
 
+  /**
+   * The min score of the inner space compaction task selected by the hybrid selector. The score is
+   * the reduction of files read per query divided by the write amplification of the task.
+   */
+  private double minInnerCompactionTaskScore = 2.0;
+
   /** The max candidate file num in cross space compaction */
   private int maxCrossCompactionCandidateFileNum = 1000;
 
@@ -486,6 +524,50 @@ public class IoTDBConfig {
   /** Memory allocated for chunk cache in read process */
   private long allocateMemoryForChunkCache = allocateMemoryForRead * 100 / 1001;
 
+  /** whether to cache decoded pages of chunks read from disk or not. */
+  private boolean enablePageCache = false;
+
+  /** Proportion of the chunk cache memory that is handed over to the decoded page cache */
+  private double pageCacheProportion = 0.5;
+
+  /** Memory allocated for decoded page cache in read process, carved out of chunk cache */
+  private long allocateMemoryForPageCache = 0;
+
+  /** whether to read sealed TsFiles through memory-mapped regions or not. */
+  private boolean enableTsFileMmapRead = false;
+
+  /** The upper bound of the total size of sealed TsFiles that are memory-mapped at the same time */
+  private long maxTsFileMmapSizeInByte = 8L * 1024 * 1024 * 1024;
+
+  /** whether to answer aggregations from a per-file index of page statistics or not. */
+  private boolean enablePageIndex = false;
+
+  /** Proportion of the timeseries metadata cache memory that is handed over to page index cache */
+  private double pageIndexCacheProportion = 0.2;
+
+  /**
+   * Memory allocated for page index cache in read process, carved out of timeseries metadata cache
+   */
+  private long allocateMemoryForPageIndexCache = 0;
+
+  /** whether to read chunks of sequence files ahead into chunk cache in series scan or not. */
+  private boolean enableChunkPrefetch = false;
+
+  /** The max number of chunks that are read ahead of the scan of one series */
+  private int chunkPrefetchNum = 4;
+
+  /** The number of threads that read chunks ahead into chunk cache */
+  private int chunkPrefetchThreadNum = Math.max(Runtime.getRuntime().availableProcessors() / 2, 1);
+
+  /**
+   * Whether to split a series scan of a large data region into several drivers reading disjoint
+   * time ranges in parallel
+   */
+  private boolean enableRegionScanSplit = false;
+
+  /** The min number of sequence files read by each driver of a split series scan */
+  private int regionScanSplitMinFileNum = 4;
+
   /** Memory allocated for operators */
   private long allocateMemoryForCoordinator = allocateMemoryForRead * 50 / 1001;
 
@@ -647,6 +729,36 @@ public class IoTDBConfig {
   /** The limit of compaction merge can reach per second */
   private int compactionWriteThroughputMbPerSec = 16;
 
+  /** The limit of compaction read throughput per second, 0 means no limit. Unit: MB. */
+  private int compactionReadThroughputMbPerSec = 0;
+
+  /**
+   * Whether to adjust the compaction IO budget and sub task concurrency according to the pressure
+   * of flush and query.
+   */
+  private boolean enableAdaptiveCompactionIOControl = true;
+
+  /**
+   * The lowest ratio of the compaction IO budget and sub task concurrency to the configured ones,
+   * so that compaction is never starved by the foreground load.
+   */
+  private double compactionIOMinBudgetRatio = 0.2;
+
+  /**
+   * Compaction backs off when the total IO wait of queries divided by the wall time exceeds this
+   * value, that is, the average number of queries waiting for disk.
+   */
+  private double compactionIOQueryWaitRatioThreshold = 0.5;
+
+  /**
+   * Whether to rewrite single files that most of the data is deleted or expired by TTL, so that the
+   * disk space is reclaimed without waiting for the files to be compacted with others.
+   */
+  private boolean enableCleanupCompaction = false;
+
+  /** A file is cleaned up when the estimated ratio of its deleted and expired data reaches it. */
+  private double cleanupCompactionMinDeletedRatio = 0.3;
+
   /**
    * How many thread will be set up to perform compaction, 10 by default. Set to 1 when less than or
    * equal to 0.
@@ -911,6 +1023,12 @@ public class IoTDBConfig {
   /** Thread keep alive time in ms of mpp data exchange. */
   private int mppDataExchangeKeepAliveTimeInMs = 1000;
 
+  /**
+   * Compression type of the TsBlocks sent to other data nodes by mpp data exchange. The receiver
+   * reads the compression type of each TsBlock, so nodes may use different types.
+   */
+  private CompressionType mppDataExchangeCompressionType = CompressionType.UNCOMPRESSED;
+
   /** Thrift socket and connection timeout between data node and config node. */
   private int connectionTimeoutInMS = (int) TimeUnit.SECONDS.toMillis(20);
 
@@ -938,6 +1056,22 @@ public class IoTDBConfig {
    */
   private int partitionCacheSize = 1000;
 
+  /**
+   * Whether to reuse the analysis of a query whose SQL only differs from a former one in the time
+   * literals of WHERE and GROUP BY, see {@link
+   * org.apache.iotdb.db.mpp.plan.analyze.cache.AnalysisCache}
+   */
+  private boolean enableAnalysisCache = false;
+
+  /** Max number of query templates in the analysis cache */
+  private int analysisCacheSize = 1000;
+
+  /**
+   * Expire time in ms of the analysis cache, which bounds how long schema changes made on other
+   * data nodes stay invisible to a cached query
+   */
+  private long analysisCacheExpireTimeInMs = 60_000L;
+
   /** Cache size of user and role */
   private int authorCacheSize = 100;
 
@@ -990,6 +1124,21 @@ public class IoTDBConfig {
   /** Maximum execution time of a DriverTask */
   private int driverTaskExecutionTimeSliceInMs = 100;
 
+  /**
+   * How the fragment instances are grouped for sharing the query threads: "none", "user" or
+   * "session"
+   */
+  private String queryResourceGroupPolicy = "none";
+
+  /**
+   * The cpu shares of the resource groups, e.g. "root:4,guest:1". The groups not listed get 1. Only
+   * works when the resource groups are by user.
+   */
+  private String queryResourceGroupCpuShares = "";
+
+  /** Max number of DriverTasks of a resource group ready or running at once, 0 for no limit */
+  private int queryResourceGroupMaxRunningDrivers = 0;
+
   /** Maximum size of wal buffer used in MultiLeader consensus. Unit: byte */
   private long throttleThreshold = 50 * 1024 * 1024 * 1024L;
 
@@ -1397,6 +1546,30 @@ public class IoTDBConfig {
     this.concurrentFlushThread = concurrentFlushThread;
   }
 
+  public int getFlushEncodingThreadNum() {
+    return flushEncodingThreadNum;
+  }
+
+  public void setFlushEncodingThreadNum(int flushEncodingThreadNum) {
+    this.flushEncodingThreadNum = flushEncodingThreadNum;
+  }
+
+  public Set<String> getOffHeapMemTableStorageGroups() {
+    return offHeapMemTableStorageGroups;
+  }
+
+  public void setOffHeapMemTableStorageGroups(Set<String> offHeapMemTableStorageGroups) {
+    this.offHeapMemTableStorageGroups = offHeapMemTableStorageGroups;
+  }
+
+  public double getOffHeapMemTableMemoryProportion() {
+    return offHeapMemTableMemoryProportion;
+  }
+
+  public void setOffHeapMemTableMemoryProportion(double offHeapMemTableMemoryProportion) {
+    this.offHeapMemTableMemoryProportion = offHeapMemTableMemoryProportion;
+  }
+
   public int getConcurrentQueryThread() {
     return concurrentQueryThread;
   }
@@ -1607,7 +1780,7 @@ public class IoTDBConfig {
     return fsyncWalDelayInMs;
   }
 
-  void setFsyncWalDelayInMs(long fsyncWalDelayInMs) {
+  public void setFsyncWalDelayInMs(long fsyncWalDelayInMs) {
     this.fsyncWalDelayInMs = fsyncWalDelayInMs;
   }
 
@@ -1627,12 +1800,28 @@ public class IoTDBConfig {
     this.walBufferEntrySize = walBufferEntrySize;
   }
 
-  public int getWalBufferQueueCapacity() {
-    return walBufferQueueCapacity;
+  public int getWalGroupCommitSizeInByte() {
+    return walGroupCommitSizeInByte;
+  }
+
+  void setWalGroupCommitSizeInByte(int walGroupCommitSizeInByte) {
+    this.walGroupCommitSizeInByte = walGroupCommitSizeInByte;
+  }
+
+  public int getWalGroupCommitWaiterNum() {
+    return walGroupCommitWaiterNum;
+  }
+
+  public void setWalGroupCommitWaiterNum(int walGroupCommitWaiterNum) {
+    this.walGroupCommitWaiterNum = walGroupCommitWaiterNum;
+  }
+
+  public CompressionType getWalCompressionType() {
+    return walCompressionType;
   }
 
-  void setWalBufferQueueCapacity(int walBufferQueueCapacity) {
-    this.walBufferQueueCapacity = walBufferQueueCapacity;
+  public void setWalCompressionType(CompressionType walCompressionType) {
+    this.walCompressionType = walCompressionType;
   }
 
   public long getWalFileSizeThresholdInByte() {
@@ -1845,6 +2034,54 @@ public class IoTDBConfig {
     this.compactionWriteThroughputMbPerSec = compactionWriteThroughputMbPerSec;
   }
 
+  public int getCompactionReadThroughputMbPerSec() {
+    return compactionReadThroughputMbPerSec;
+  }
+
+  public void setCompactionReadThroughputMbPerSec(int compactionReadThroughputMbPerSec) {
+    this.compactionReadThroughputMbPerSec = compactionReadThroughputMbPerSec;
+  }
+
+  public boolean isEnableAdaptiveCompactionIOControl() {
+    return enableAdaptiveCompactionIOControl;
+  }
+
+  public void setEnableAdaptiveCompactionIOControl(boolean enableAdaptiveCompactionIOControl) {
+    this.enableAdaptiveCompactionIOControl = enableAdaptiveCompactionIOControl;
+  }
+
+  public double getCompactionIOMinBudgetRatio() {
+    return compactionIOMinBudgetRatio;
+  }
+
+  public void setCompactionIOMinBudgetRatio(double compactionIOMinBudgetRatio) {
+    this.compactionIOMinBudgetRatio = compactionIOMinBudgetRatio;
+  }
+
+  public double getCompactionIOQueryWaitRatioThreshold() {
+    return compactionIOQueryWaitRatioThreshold;
+  }
+
+  public void setCompactionIOQueryWaitRatioThreshold(double compactionIOQueryWaitRatioThreshold) {
+    this.compactionIOQueryWaitRatioThreshold = compactionIOQueryWaitRatioThreshold;
+  }
+
+  public boolean isEnableCleanupCompaction() {
+    return enableCleanupCompaction;
+  }
+
+  public void setEnableCleanupCompaction(boolean enableCleanupCompaction) {
+    this.enableCleanupCompaction = enableCleanupCompaction;
+  }
+
+  public double getCleanupCompactionMinDeletedRatio() {
+    return cleanupCompactionMinDeletedRatio;
+  }
+
+  public void setCleanupCompactionMinDeletedRatio(double cleanupCompactionMinDeletedRatio) {
+    this.cleanupCompactionMinDeletedRatio = cleanupCompactionMinDeletedRatio;
+  }
+
   public boolean isEnableMemControl() {
     return enableMemControl;
   }
@@ -1962,6 +2199,110 @@ public class IoTDBConfig {
     return allocateMemoryForChunkCache;
   }
 
+  public boolean isEnablePageCache() {
+    return enablePageCache;
+  }
+
+  public void setEnablePageCache(boolean enablePageCache) {
+    this.enablePageCache = enablePageCache;
+  }
+
+  public double getPageCacheProportion() {
+    return pageCacheProportion;
+  }
+
+  public void setPageCacheProportion(double pageCacheProportion) {
+    this.pageCacheProportion = pageCacheProportion;
+  }
+
+  public long getAllocateMemoryForPageCache() {
+    return allocateMemoryForPageCache;
+  }
+
+  public void setAllocateMemoryForPageCache(long allocateMemoryForPageCache) {
+    this.allocateMemoryForPageCache = allocateMemoryForPageCache;
+  }
+
+  public boolean isEnableTsFileMmapRead() {
+    return enableTsFileMmapRead;
+  }
+
+  public void setEnableTsFileMmapRead(boolean enableTsFileMmapRead) {
+    this.enableTsFileMmapRead = enableTsFileMmapRead;
+  }
+
+  public long getMaxTsFileMmapSizeInByte() {
+    return maxTsFileMmapSizeInByte;
+  }
+
+  public void setMaxTsFileMmapSizeInByte(long maxTsFileMmapSizeInByte) {
+    this.maxTsFileMmapSizeInByte = maxTsFileMmapSizeInByte;
+  }
+
+  public boolean isEnablePageIndex() {
+    return enablePageIndex;
+  }
+
+  public void setEnablePageIndex(boolean enablePageIndex) {
+    this.enablePageIndex = enablePageIndex;
+  }
+
+  public double getPageIndexCacheProportion() {
+    return pageIndexCacheProportion;
+  }
+
+  public void setPageIndexCacheProportion(double pageIndexCacheProportion) {
+    this.pageIndexCacheProportion = pageIndexCacheProportion;
+  }
+
+  public long getAllocateMemoryForPageIndexCache() {
+    return allocateMemoryForPageIndexCache;
+  }
+
+  public void setAllocateMemoryForPageIndexCache(long allocateMemoryForPageIndexCache) {
+    this.allocateMemoryForPageIndexCache = allocateMemoryForPageIndexCache;
+  }
+
+  public boolean isEnableChunkPrefetch() {
+    return enableChunkPrefetch;
+  }
+
+  public void setEnableChunkPrefetch(boolean enableChunkPrefetch) {
+    this.enableChunkPrefetch = enableChunkPrefetch;
+  }
+
+  public int getChunkPrefetchNum() {
+    return chunkPrefetchNum;
+  }
+
+  public void setChunkPrefetchNum(int chunkPrefetchNum) {
+    this.chunkPrefetchNum = chunkPrefetchNum;
+  }
+
+  public int getChunkPrefetchThreadNum() {
+    return chunkPrefetchThreadNum;
+  }
+
+  public void setChunkPrefetchThreadNum(int chunkPrefetchThreadNum) {
+    this.chunkPrefetchThreadNum = chunkPrefetchThreadNum;
+  }
+
+  public boolean isEnableRegionScanSplit() {
+    return enableRegionScanSplit;
+  }
+
+  public void setEnableRegionScanSplit(boolean enableRegionScanSplit) {
+    this.enableRegionScanSplit = enableRegionScanSplit;
+  }
+
+  public int getRegionScanSplitMinFileNum() {
+    return regionScanSplitMinFileNum;
+  }
+
+  public void setRegionScanSplitMinFileNum(int regionScanSplitMinFileNum) {
+    this.regionScanSplitMinFileNum = regionScanSplitMinFileNum;
+  }
+
   public void setAllocateMemoryForChunkCache(long allocateMemoryForChunkCache) {
     this.allocateMemoryForChunkCache = allocateMemoryForChunkCache;
   }
@@ -2722,6 +3063,14 @@ public class IoTDBConfig {
     this.maxInnerCompactionCandidateFileNum = maxInnerCompactionCandidateFileNum;
   }
 
+  public double getMinInnerCompactionTaskScore() {
+    return minInnerCompactionTaskScore;
+  }
+
+  public void setMinInnerCompactionTaskScore(double minInnerCompactionTaskScore) {
+    this.minInnerCompactionTaskScore = minInnerCompactionTaskScore;
+  }
+
   public int getMaxCrossCompactionCandidateFileNum() {
     return maxCrossCompactionCandidateFileNum;
   }
@@ -2914,6 +3263,14 @@ public class IoTDBConfig {
     this.mppDataExchangeKeepAliveTimeInMs = mppDataExchangeKeepAliveTimeInMs;
   }
 
+  public CompressionType getMppDataExchangeCompressionType() {
+    return mppDataExchangeCompressionType;
+  }
+
+  public void setMppDataExchangeCompressionType(CompressionType mppDataExchangeCompressionType) {
+    this.mppDataExchangeCompressionType = mppDataExchangeCompressionType;
+  }
+
   public int getConnectionTimeoutInMS() {
     return connectionTimeoutInMS;
   }
@@ -2986,6 +3343,30 @@ public class IoTDBConfig {
     this.partitionCacheSize = partitionCacheSize;
   }
 
+  public boolean isEnableAnalysisCache() {
+    return enableAnalysisCache;
+  }
+
+  public void setEnableAnalysisCache(boolean enableAnalysisCache) {
+    this.enableAnalysisCache = enableAnalysisCache;
+  }
+
+  public int getAnalysisCacheSize() {
+    return analysisCacheSize;
+  }
+
+  public void setAnalysisCacheSize(int analysisCacheSize) {
+    this.analysisCacheSize = analysisCacheSize;
+  }
+
+  public long getAnalysisCacheExpireTimeInMs() {
+    return analysisCacheExpireTimeInMs;
+  }
+
+  public void setAnalysisCacheExpireTimeInMs(long analysisCacheExpireTimeInMs) {
+    this.analysisCacheExpireTimeInMs = analysisCacheExpireTimeInMs;
+  }
+
   public int getAuthorCacheSize() {
     return authorCacheSize;
   }
@@ -3126,6 +3507,30 @@ public class IoTDBConfig {
     this.driverTaskExecutionTimeSliceInMs = driverTaskExecutionTimeSliceInMs;
   }
 
+  public String getQueryResourceGroupPolicy() {
+    return queryResourceGroupPolicy;
+  }
+
+  public void setQueryResourceGroupPolicy(String queryResourceGroupPolicy) {
+    this.queryResourceGroupPolicy = queryResourceGroupPolicy;
+  }
+
+  public String getQueryResourceGroupCpuShares() {
+    return queryResourceGroupCpuShares;
+  }
+
+  public void setQueryResourceGroupCpuShares(String queryResourceGroupCpuShares) {
+    this.queryResourceGroupCpuShares = queryResourceGroupCpuShares;
+  }
+
+  public int getQueryResourceGroupMaxRunningDrivers() {
+    return queryResourceGroupMaxRunningDrivers;
+  }
+
+  public void setQueryResourceGroupMaxRunningDrivers(int queryResourceGroupMaxRunningDrivers) {
+    this.queryResourceGroupMaxRunningDrivers = queryResourceGroupMaxRunningDrivers;
+  }
+
   public double getWriteProportion() {
     return writeProportion;
   }
@@ -44,6 +44,7 @@ import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
 import org.apache.iotdb.metrics.config.ReloadLevel;
 import org.apache.iotdb.rpc.RpcTransportFactory;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.fileSystem.FSType;
@@ -64,7 +65,9 @@ import java.net.URL;
 import java.net.UnknownHostException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.HashSet;
 import java.util.Properties;
+import java.util.Set;
 
 public class IoTDBDescriptor {
 
@@ -303,6 +306,72 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "meta_data_cache_enable", Boolean.toString(conf.isMetaDataCacheEnable()))));
 
+    conf.setEnablePageCache(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_page_cache", Boolean.toString(conf.isEnablePageCache()))));
+
+    conf.setPageCacheProportion(
+        Double.parseDouble(
+            properties.getProperty(
+                "page_cache_proportion", Double.toString(conf.getPageCacheProportion()))));
+
+    conf.setEnablePageIndex(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_page_index", Boolean.toString(conf.isEnablePageIndex()))));
+
+    conf.setPageIndexCacheProportion(
+        Double.parseDouble(
+            properties.getProperty(
+                "page_index_cache_proportion",
+                Double.toString(conf.getPageIndexCacheProportion()))));
+
+    conf.setEnableChunkPrefetch(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_chunk_prefetch", Boolean.toString(conf.isEnableChunkPrefetch()))));
+
+    int chunkPrefetchNum =
+        Integer.parseInt(
+            properties.getProperty(
+                "chunk_prefetch_num", Integer.toString(conf.getChunkPrefetchNum())));
+    if (chunkPrefetchNum > 0) {
+      conf.setChunkPrefetchNum(chunkPrefetchNum);
+    }
+
+    int chunkPrefetchThreadNum =
+        Integer.parseInt(
+            properties.getProperty(
+                "chunk_prefetch_thread_num", Integer.toString(conf.getChunkPrefetchThreadNum())));
+    if (chunkPrefetchThreadNum > 0) {
+      conf.setChunkPrefetchThreadNum(chunkPrefetchThreadNum);
+    }
+
+    conf.setEnableRegionScanSplit(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_region_scan_split", Boolean.toString(conf.isEnableRegionScanSplit()))));
+
+    int regionScanSplitMinFileNum =
+        Integer.parseInt(
+            properties.getProperty(
+                "region_scan_split_min_file_num",
+                Integer.toString(conf.getRegionScanSplitMinFileNum())));
+    if (regionScanSplitMinFileNum > 0) {
+      conf.setRegionScanSplitMinFileNum(regionScanSplitMinFileNum);
+    }
+
+    conf.setEnableTsFileMmapRead(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_tsfile_mmap_read", Boolean.toString(conf.isEnableTsFileMmapRead()))));
+
+    conf.setMaxTsFileMmapSizeInByte(
+        Long.parseLong(
+            properties.getProperty(
+                "max_tsfile_mmap_size_in_byte", Long.toString(conf.getMaxTsFileMmapSizeInByte()))));
+
     initMemoryAllocate(properties);
 
     loadWALProps(properties);
@@ -510,6 +579,37 @@ public class IoTDBDescriptor {
       conf.setConcurrentFlushThread(Runtime.getRuntime().availableProcessors());
     }
 
+    conf.setFlushEncodingThreadNum(
+        Integer.parseInt(
+            properties.getProperty(
+                "flush_encoding_thread_num", Integer.toString(conf.getFlushEncodingThreadNum()))));
+
+    if (conf.getFlushEncodingThreadNum() <= 0) {
+      conf.setFlushEncodingThreadNum(Math.max(1, Runtime.getRuntime().availableProcessors() / 4));
+    }
+
+    Set<String> offHeapMemTableStorageGroups = new HashSet<>();
+    for (String storageGroup :
+        properties.getProperty("off_heap_memtable_storage_groups", "").split(",")) {
+      if (!storageGroup.trim().isEmpty()) {
+        offHeapMemTableStorageGroups.add(storageGroup.trim());
+      }
+    }
+    conf.setOffHeapMemTableStorageGroups(offHeapMemTableStorageGroups);
+
+    double offHeapMemTableMemoryProportion =
+        Double.parseDouble(
+            properties.getProperty(
+                "off_heap_memtable_memory_proportion",
+                Double.toString(conf.getOffHeapMemTableMemoryProportion())));
+    if (offHeapMemTableMemoryProportion > 0 && offHeapMemTableMemoryProportion <= 1) {
+      conf.setOffHeapMemTableMemoryProportion(offHeapMemTableMemoryProportion);
+    } else {
+      logger.warn(
+          "off_heap_memtable_memory_proportion should be in (0, 1], use the default value {}",
+          conf.getOffHeapMemTableMemoryProportion());
+    }
+
     // start: index parameter setting
     conf.setIndexRootFolder(properties.getProperty("index_root_dir", conf.getIndexRootFolder()));
 
@@ -642,6 +742,11 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "max_inner_compaction_candidate_file_num",
                 Integer.toString(conf.getMaxInnerCompactionCandidateFileNum()))));
+    conf.setMinInnerCompactionTaskScore(
+        Double.parseDouble(
+            properties.getProperty(
+                "min_inner_compaction_task_score",
+                Double.toString(conf.getMinInnerCompactionTaskScore()))));
     conf.setMaxCrossCompactionCandidateFileNum(
         Integer.parseInt(
             properties.getProperty(
@@ -654,6 +759,47 @@ public class IoTDBDescriptor {
                 "compaction_write_throughput_mb_per_sec",
                 Integer.toString(conf.getCompactionWriteThroughputMbPerSec()))));
 
+    conf.setCompactionReadThroughputMbPerSec(
+        Integer.parseInt(
+            properties.getProperty(
+                "compaction_read_throughput_mb_per_sec",
+                Integer.toString(conf.getCompactionReadThroughputMbPerSec()))));
+
+    conf.setEnableAdaptiveCompactionIOControl(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_adaptive_compaction_io_control",
+                Boolean.toString(conf.isEnableAdaptiveCompactionIOControl()))));
+
+    double compactionIOMinBudgetRatio =
+        Double.parseDouble(
+            properties.getProperty(
+                "compaction_io_min_budget_ratio",
+                Double.toString(conf.getCompactionIOMinBudgetRatio())));
+    if (compactionIOMinBudgetRatio > 0 && compactionIOMinBudgetRatio <= 1) {
+      conf.setCompactionIOMinBudgetRatio(compactionIOMinBudgetRatio);
+    }
+
+    conf.setCompactionIOQueryWaitRatioThreshold(
+        Double.parseDouble(
+            properties.getProperty(
+                "compaction_io_query_wait_ratio_threshold",
+                Double.toString(conf.getCompactionIOQueryWaitRatioThreshold()))));
+
+    conf.setEnableCleanupCompaction(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_cleanup_compaction", Boolean.toString(conf.isEnableCleanupCompaction()))));
+
+    double cleanupCompactionMinDeletedRatio =
+        Double.parseDouble(
+            properties.getProperty(
+                "cleanup_compaction_min_deleted_ratio",
+                Double.toString(conf.getCleanupCompactionMinDeletedRatio())));
+    if (cleanupCompactionMinDeletedRatio > 0 && cleanupCompactionMinDeletedRatio <= 1) {
+      conf.setCleanupCompactionMinDeletedRatio(cleanupCompactionMinDeletedRatio);
+    }
+
     conf.setEnablePartialInsert(
         Boolean.parseBoolean(
             properties.getProperty(
@@ -1048,13 +1194,11 @@ public class IoTDBDescriptor {
       conf.setWalBufferEntrySize(walBufferEntrySize);
     }
 
-    int walBufferQueueCapacity =
-        Integer.parseInt(
-            properties.getProperty(
-                "wal_buffer_queue_capacity", Integer.toString(conf.getWalBufferQueueCapacity())));
-    if (walBufferQueueCapacity > 0) {
-      conf.setWalBufferQueueCapacity(walBufferQueueCapacity);
-    }
+    conf.setWalCompressionType(
+        CompressionType.valueOf(
+            properties
+                .getProperty("wal_compression_type", conf.getWalCompressionType().toString())
+                .trim()));
 
     loadWALHotModifiedProps(properties);
   }
@@ -1068,6 +1212,24 @@ public class IoTDBDescriptor {
       conf.setFsyncWalDelayInMs(fsyncWalDelayInMs);
     }
 
+    int walGroupCommitSize =
+        Integer.parseInt(
+            properties.getProperty(
+                "wal_group_commit_size_in_byte",
+                Integer.toString(conf.getWalGroupCommitSizeInByte())));
+    if (walGroupCommitSize > 0) {
+      conf.setWalGroupCommitSizeInByte(walGroupCommitSize);
+    }
+
+    int walGroupCommitWaiterNum =
+        Integer.parseInt(
+            properties.getProperty(
+                "wal_group_commit_waiter_num",
+                Integer.toString(conf.getWalGroupCommitWaiterNum())));
+    if (walGroupCommitWaiterNum > 0) {
+      conf.setWalGroupCommitWaiterNum(walGroupCommitWaiterNum);
+    }
+
     long walFileSizeThreshold =
         Long.parseLong(
             properties.getProperty(
@@ -1461,6 +1623,11 @@ public class IoTDBDescriptor {
               properties.getProperty(
                   "merge_write_throughput_mb_per_sec",
                   Integer.toString(conf.getCompactionWriteThroughputMbPerSec()))));
+      conf.setCompactionReadThroughputMbPerSec(
+          Integer.parseInt(
+              properties.getProperty(
+                  "compaction_read_throughput_mb_per_sec",
+                  Integer.toString(conf.getCompactionReadThroughputMbPerSec()))));
 
       // update insert-tablet-plan's row limit for select-into
       conf.setSelectIntoInsertTabletPlanRowLimit(
@@ -1606,6 +1773,29 @@ public class IoTDBDescriptor {
           conf.getAllocateMemoryForDataExchange() + partForDataExchange);
       conf.setAllocateMemoryForOperators(conf.getAllocateMemoryForOperators() + partForOperators);
     }
+
+    // decoded page cache shares the memory of chunk cache
+    if (conf.isMetaDataCacheEnable() && conf.isEnablePageCache()) {
+      long pageCacheMemory =
+          (long) (conf.getAllocateMemoryForChunkCache() * conf.getPageCacheProportion());
+      conf.setAllocateMemoryForPageCache(pageCacheMemory);
+      conf.setAllocateMemoryForChunkCache(conf.getAllocateMemoryForChunkCache() - pageCacheMemory);
+    } else {
+      conf.setAllocateMemoryForPageCache(0);
+    }
+
+    // page index cache shares the memory of timeseries metadata cache
+    if (conf.isMetaDataCacheEnable() && conf.isEnablePageIndex()) {
+      long pageIndexCacheMemory =
+          (long)
+              (conf.getAllocateMemoryForTimeSeriesMetaDataCache()
+                  * conf.getPageIndexCacheProportion());
+      conf.setAllocateMemoryForPageIndexCache(pageIndexCacheMemory);
+      conf.setAllocateMemoryForTimeSeriesMetaDataCache(
+          conf.getAllocateMemoryForTimeSeriesMetaDataCache() - pageIndexCacheMemory);
+    } else {
+      conf.setAllocateMemoryForPageIndexCache(0);
+    }
   }
 
   private void initStorageEngineAllocate(Properties properties) {
@@ -1839,16 +2029,65 @@ public class IoTDBDescriptor {
                 "mpp_data_exchange_keep_alive_time_in_ms",
                 Integer.toString(conf.getMppDataExchangeKeepAliveTimeInMs()))));
 
+    conf.setMppDataExchangeCompressionType(
+        CompressionType.valueOf(
+            properties
+                .getProperty(
+                    "mpp_data_exchange_compression_type",
+                    conf.getMppDataExchangeCompressionType().toString())
+                .trim()));
+
     conf.setPartitionCacheSize(
         Integer.parseInt(
             properties.getProperty(
                 "partition_cache_size", Integer.toString(conf.getPartitionCacheSize()))));
 
+    conf.setEnableAnalysisCache(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_analysis_cache", Boolean.toString(conf.isEnableAnalysisCache()))));
+
+    int analysisCacheSize =
+        Integer.parseInt(
+            properties.getProperty(
+                "analysis_cache_size", Integer.toString(conf.getAnalysisCacheSize())));
+    if (analysisCacheSize > 0) {
+      conf.setAnalysisCacheSize(analysisCacheSize);
+    }
+
+    long analysisCacheExpireTimeInMs =
+        Long.parseLong(
+            properties.getProperty(
+                "analysis_cache_expire_time_in_ms",
+                Long.toString(conf.getAnalysisCacheExpireTimeInMs())));
+    if (analysisCacheExpireTimeInMs > 0) {
+      conf.setAnalysisCacheExpireTimeInMs(analysisCacheExpireTimeInMs);
+    }
+
     conf.setDriverTaskExecutionTimeSliceInMs(
         Integer.parseInt(
             properties.getProperty(
                 "driver_task_execution_time_slice_in_ms",
                 Integer.toString(conf.getDriverTaskExecutionTimeSliceInMs()))));
+
+    conf.setQueryResourceGroupPolicy(
+        properties
+            .getProperty("query_resource_group_policy", conf.getQueryResourceGroupPolicy())
+            .trim());
+
+    conf.setQueryResourceGroupCpuShares(
+        properties
+            .getProperty("query_resource_group_cpu_shares", conf.getQueryResourceGroupCpuShares())
+            .trim());
+
+    int queryResourceGroupMaxRunningDrivers =
+        Integer.parseInt(
+            properties.getProperty(
+                "query_resource_group_max_running_drivers",
+                Integer.toString(conf.getQueryResourceGroupMaxRunningDrivers())));
+    if (queryResourceGroupMaxRunningDrivers >= 0) {
+      conf.setQueryResourceGroupMaxRunningDrivers(queryResourceGroupMaxRunningDrivers);
+    }
   }
 
   /** Get default encode algorithm by data type */
@@ -124,6 +124,22 @@ public class ChunkCache {
         chunkMetaData.getStatistics());
   }
 
+  public boolean isEnabled() {
+    return CACHE_ENABLE;
+  }
+
+  /** Whether the chunk is cached, without affecting the hit rate. */
+  public boolean contains(ChunkMetadata chunkMetaData) {
+    return CACHE_ENABLE && lruCache.asMap().containsKey(chunkMetaData);
+  }
+
+  /** Load the chunk into the cache if it is not cached, used by read-ahead. */
+  public void prefetch(ChunkMetadata chunkMetaData) {
+    if (CACHE_ENABLE) {
+      lruCache.get(chunkMetaData);
+    }
+  }
+
   public double calculateChunkHitRatio() {
     return lruCache.stats().hitRate();
   }
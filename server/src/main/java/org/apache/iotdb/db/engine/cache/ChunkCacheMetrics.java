@@ -44,12 +44,21 @@ public class ChunkCacheMetrics implements IMetricSet {
         o -> (long) o.getHitRate(),
         Tag.NAME.toString(),
         "chunk");
+    metricService.getOrCreateAutoGauge(
+        Metric.CACHE_HIT.toString(),
+        MetricLevel.IMPORTANT,
+        PageCache.getInstance(),
+        o -> (long) o.getHitRate(),
+        Tag.NAME.toString(),
+        "page");
   }
 
   @Override
   public void unbindFrom(AbstractMetricService metricService) {
     metricService.remove(
         MetricType.GAUGE, Metric.CACHE_HIT.toString(), Tag.NAME.toString(), "chunk");
+    metricService.remove(
+        MetricType.GAUGE, Metric.CACHE_HIT.toString(), Tag.NAME.toString(), "page");
   }
 
   @Override
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.cache;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.utils.RamUsageEstimator;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class is used to cache decoded pages of <code>Chunk</code> in IoTDB. It is layered under
+ * {@link ChunkCache}: ChunkCache keeps the compressed bytes of a chunk, while this cache keeps the
+ * uncompressed and decoded content of each page as a <code>TsBlock</code>, so that a hot page is
+ * not uncompressed and decoded again on each query. The cached TsBlock contains all points of the
+ * page, filters and deletions are applied by the reader. The caching strategy is LRU.
+ */
+public class PageCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(PageCache.class);
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private static final long MEMORY_THRESHOLD_IN_PAGE_CACHE = config.getAllocateMemoryForPageCache();
+  private static final boolean CACHE_ENABLE =
+      config.isMetaDataCacheEnable() && config.isEnablePageCache();
+
+  private final Cache<PageCacheKey, TsBlock> lruCache;
+  // the cached keys of each TsFile, so that the pages of a file are removed without a full scan
+  private final Map<String, Set<PageCacheKey>> keysOfFile = new ConcurrentHashMap<>();
+
+  private PageCache() {
+    if (CACHE_ENABLE) {
+      logger.info("PageCache size = " + MEMORY_THRESHOLD_IN_PAGE_CACHE);
+    }
+    lruCache =
+        Caffeine.newBuilder()
+            .maximumWeight(MEMORY_THRESHOLD_IN_PAGE_CACHE)
+            .weigher(
+                (Weigher<PageCacheKey, TsBlock>)
+                    (key, page) ->
+                        (int)
+                            (RamUsageEstimator.NUM_BYTES_OBJECT_REF
+                                + RamUsageEstimator.shallowSizeOf(key)
+                                + page.getRetainedSizeInBytes()))
+            .recordStats()
+            // called synchronously within the eviction, so that it never races with a reload of the
+            // same key; the explicit removals maintain keysOfFile by themselves
+            .evictionListener(
+                (PageCacheKey key, TsBlock page, RemovalCause cause) -> {
+                  if (key != null) {
+                    removeKeyOfFile(key);
+                  }
+                })
+            .build();
+  }
+
+  public static PageCache getInstance() {
+    return PageCacheHolder.INSTANCE;
+  }
+
+  public boolean isEnabled() {
+    return CACHE_ENABLE;
+  }
+
+  /**
+   * Get the decoded page of the key. If it is not cached, the page is decoded by the loader and put
+   * into the cache.
+   */
+  public TsBlock get(PageCacheKey key, PageLoader loader) throws IOException {
+    if (!CACHE_ENABLE) {
+      return loader.load();
+    }
+    try {
+      // concurrent misses of the same page wait for one loading instead of decoding it again
+      return lruCache.get(
+          key,
+          k -> {
+            try {
+              TsBlock page = loader.load();
+              keysOfFile.computeIfAbsent(k.filePath, f -> ConcurrentHashMap.newKeySet()).add(k);
+              return page;
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private void removeKeyOfFile(PageCacheKey key) {
+    keysOfFile.computeIfPresent(
+        key.filePath,
+        (filePath, keys) -> {
+          keys.remove(key);
+          return keys.isEmpty() ? null : keys;
+        });
+  }
+
+  public double getHitRate() {
+    return lruCache.stats().hitRate() * 100;
+  }
+
+  public long getEvictionCount() {
+    return lruCache.stats().evictionCount();
+  }
+
+  public long getMaxMemory() {
+    return MEMORY_THRESHOLD_IN_PAGE_CACHE;
+  }
+
+  /** clear LRUCache. */
+  public void clear() {
+    lruCache.invalidateAll();
+    lruCache.cleanUp();
+    keysOfFile.clear();
+  }
+
+  /**
+   * Remove all cached pages of the given TsFile, e.g., after a deletion is written into its
+   * modification file, or after the file is removed.
+   */
+  public void remove(String filePath) {
+    if (!CACHE_ENABLE) {
+      return;
+    }
+    Set<PageCacheKey> keys = keysOfFile.remove(filePath);
+    if (keys != null) {
+      lruCache.invalidateAll(keys);
+    }
+  }
+
+  @TestOnly
+  public boolean isEmpty() {
+    return lruCache.asMap().isEmpty();
+  }
+
+  @FunctionalInterface
+  public interface PageLoader {
+
+    TsBlock load() throws IOException;
+  }
+
+  public static class PageCacheKey {
+
+    private final String filePath;
+    private final long offsetOfChunkHeader;
+    // index of the page in the chunk, counting the pages filtered out as well
+    private final int pageIndex;
+
+    public PageCacheKey(String filePath, long offsetOfChunkHeader, int pageIndex) {
+      this.filePath = filePath;
+      this.offsetOfChunkHeader = offsetOfChunkHeader;
+      this.pageIndex = pageIndex;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      PageCacheKey that = (PageCacheKey) o;
+      return offsetOfChunkHeader == that.offsetOfChunkHeader
+          && pageIndex == that.pageIndex
+          && filePath.equals(that.filePath);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(filePath, offsetOfChunkHeader, pageIndex);
+    }
+
+    @Override
+    public String toString() {
+      return "PageCacheKey{"
+          + "filePath='"
+          + filePath
+          + '\''
+          + ", offsetOfChunkHeader="
+          + offsetOfChunkHeader
+          + ", pageIndex="
+          + pageIndex
+          + '}';
+    }
+  }
+
+  /** singleton pattern. */
+  private static class PageCacheHolder {
+
+    private static final PageCache INSTANCE = new PageCache();
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.cache;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.cache.TsFilePageIndex.ChunkPageIndex;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.utils.RamUsageEstimator;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * This class is used to cache the {@link TsFilePageIndex} of sealed TsFiles. It shares memory with
+ * {@link TimeSeriesMetadataCache}. The page index of a TsFile is loaded from its sidecar file, or
+ * built and persisted on first use. The caching strategy is LRU.
+ */
+public class PageIndexCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(PageIndexCache.class);
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private static final long MEMORY_THRESHOLD_IN_PAGE_INDEX_CACHE =
+      config.getAllocateMemoryForPageIndexCache();
+  private static final boolean CACHE_ENABLE =
+      config.isMetaDataCacheEnable() && config.isEnablePageIndex();
+
+  private final Cache<String, TsFilePageIndex> lruCache;
+
+  private PageIndexCache() {
+    if (CACHE_ENABLE) {
+      logger.info("PageIndexCache size = " + MEMORY_THRESHOLD_IN_PAGE_INDEX_CACHE);
+    }
+    lruCache =
+        Caffeine.newBuilder()
+            .maximumWeight(MEMORY_THRESHOLD_IN_PAGE_INDEX_CACHE)
+            .weigher(
+                (Weigher<String, TsFilePageIndex>)
+                    (filePath, pageIndex) ->
+                        (int)
+                            (RamUsageEstimator.NUM_BYTES_OBJECT_REF
+                                + RamUsageEstimator.sizeOf(filePath)
+                                + pageIndex.getRetainedSizeInBytes()))
+            .recordStats()
+            .build();
+  }
+
+  public static PageIndexCache getInstance() {
+    return PageIndexCacheHolder.INSTANCE;
+  }
+
+  public boolean isEnabled() {
+    return CACHE_ENABLE;
+  }
+
+  /**
+   * Get the page index of the chunk, or null if the cache is disabled or the chunk is not indexed,
+   * e.g., it is in an unsealed or old TsFile, it has only one page, or it is aligned.
+   */
+  public ChunkPageIndex get(ChunkMetadata chunkMetadata) throws IOException {
+    if (!CACHE_ENABLE || !chunkMetadata.isClosed() || chunkMetadata.isFromOldTsFile()) {
+      return null;
+    }
+    TsFilePageIndex pageIndex;
+    try {
+      pageIndex =
+          lruCache.get(
+              chunkMetadata.getFilePath(),
+              filePath -> {
+                try {
+                  return TsFilePageIndex.loadOrBuild(filePath);
+                } catch (IOException e) {
+                  throw new UncheckedIOException(e);
+                }
+              });
+    } catch (UncheckedIOException e) {
+      logger.error("Something wrong happened in loading page index of {}", chunkMetadata, e);
+      throw e.getCause();
+    }
+    return pageIndex.getChunkPageIndex(chunkMetadata.getOffsetOfChunkHeader());
+  }
+
+  public double getHitRate() {
+    return lruCache.stats().hitRate() * 100;
+  }
+
+  /** clear LRUCache. */
+  public void clear() {
+    lruCache.invalidateAll();
+    lruCache.cleanUp();
+  }
+
+  /** Remove the cached page index of the given TsFile, e.g., after the file is removed. */
+  public void remove(String filePath) {
+    if (!CACHE_ENABLE) {
+      return;
+    }
+    lruCache.invalidate(filePath);
+  }
+
+  @TestOnly
+  public boolean isEmpty() {
+    return lruCache.asMap().isEmpty();
+  }
+
+  /** singleton pattern. */
+  private static class PageIndexCacheHolder {
+
+    private static final PageIndexCache INSTANCE = new PageIndexCache();
+  }
+}
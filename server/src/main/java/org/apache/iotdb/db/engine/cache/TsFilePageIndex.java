@@ -0,0 +1,323 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.cache;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.file.MetaMarker;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.utils.RamUsageEstimator;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Page index of a sealed TsFile, i.e., the offset, sizes and statistics of each page of the
+ * non-aligned chunks which have more than one page. It is persisted as a sidecar file of the TsFile
+ * (with suffix {@link #FILE_SUFFIX}), so that the page headers are scanned only once.
+ *
+ * <p>Chunks with only one page are not indexed, as their page statistics equal the chunk
+ * statistics. Aligned chunks and chunks with empty pages are not indexed either.
+ */
+public class TsFilePageIndex {
+
+  private static final Logger logger = LoggerFactory.getLogger(TsFilePageIndex.class);
+
+  public static final String FILE_SUFFIX = ".pageidx";
+  private static final String TEMP_SUFFIX = ".temp";
+
+  /** offset of chunk header -> page index of the chunk */
+  private final Map<Long, ChunkPageIndex> chunkPageIndexMap;
+
+  private final long retainedSizeInBytes;
+
+  private TsFilePageIndex(Map<Long, ChunkPageIndex> chunkPageIndexMap) {
+    this.chunkPageIndexMap = chunkPageIndexMap;
+    long size = RamUsageEstimator.shallowSizeOf(chunkPageIndexMap);
+    for (ChunkPageIndex chunkPageIndex : chunkPageIndexMap.values()) {
+      size += RamUsageEstimator.NUM_BYTES_OBJECT_REF * 2L + chunkPageIndex.calculateRamSize();
+    }
+    this.retainedSizeInBytes = size;
+  }
+
+  /** Returns null if the chunk is not indexed */
+  public ChunkPageIndex getChunkPageIndex(long offsetOfChunkHeader) {
+    return chunkPageIndexMap.get(offsetOfChunkHeader);
+  }
+
+  public int getChunkNum() {
+    return chunkPageIndexMap.size();
+  }
+
+  public long getRetainedSizeInBytes() {
+    return retainedSizeInBytes;
+  }
+
+  /** Load the page index from the sidecar file of the TsFile, build and persist it if missing. */
+  public static TsFilePageIndex loadOrBuild(String tsFilePath) throws IOException {
+    File indexFile = new File(tsFilePath + FILE_SUFFIX);
+    if (indexFile.exists()) {
+      try (InputStream inputStream =
+          new BufferedInputStream(Files.newInputStream(indexFile.toPath()))) {
+        return deserialize(inputStream);
+      } catch (IOException | RuntimeException e) {
+        // broken index file, rebuild it
+        logger.warn("Page index of {} is broken, rebuild it", tsFilePath, e);
+        Files.deleteIfExists(indexFile.toPath());
+      }
+    }
+    TsFilePageIndex pageIndex = build(tsFilePath);
+    File tempFile = new File(indexFile.getPath() + TEMP_SUFFIX);
+    try {
+      try (OutputStream outputStream =
+          new BufferedOutputStream(Files.newOutputStream(tempFile.toPath()))) {
+        pageIndex.serialize(outputStream);
+      }
+      Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      // the page index is still usable, it will be built again next time
+      logger.warn("Failed to persist page index of {}", tsFilePath, e);
+      Files.deleteIfExists(tempFile.toPath());
+    }
+    return pageIndex;
+  }
+
+  /** Scan the chunk headers and page headers of the TsFile, page data is skipped. */
+  public static TsFilePageIndex build(String tsFilePath) throws IOException {
+    Map<Long, ChunkPageIndex> chunkPageIndexMap = new HashMap<>();
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(tsFilePath, false)) {
+      reader.position((long) TSFileConfig.MAGIC_STRING.getBytes().length + Byte.BYTES);
+      byte marker;
+      while ((marker = reader.readMarker()) != MetaMarker.SEPARATOR) {
+        switch (marker) {
+          case MetaMarker.CHUNK_HEADER:
+          case MetaMarker.TIME_CHUNK_HEADER:
+          case MetaMarker.VALUE_CHUNK_HEADER:
+          case MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER:
+          case MetaMarker.ONLY_ONE_PAGE_TIME_CHUNK_HEADER:
+          case MetaMarker.ONLY_ONE_PAGE_VALUE_CHUNK_HEADER:
+            long offsetOfChunkHeader = reader.position() - 1;
+            ChunkHeader chunkHeader = reader.readChunkHeader(marker);
+            long endOfChunk = reader.position() + chunkHeader.getDataSize();
+            if (marker == MetaMarker.CHUNK_HEADER) {
+              ChunkPageIndex chunkPageIndex = readChunkPageIndex(reader, chunkHeader, endOfChunk);
+              if (chunkPageIndex != null) {
+                chunkPageIndexMap.put(offsetOfChunkHeader, chunkPageIndex);
+              }
+            }
+            reader.position(endOfChunk);
+            break;
+          case MetaMarker.CHUNK_GROUP_HEADER:
+            reader.readChunkGroupHeader();
+            break;
+          case MetaMarker.OPERATION_INDEX_RANGE:
+            reader.readPlanIndex();
+            break;
+          default:
+            MetaMarker.handleUnexpectedMarker(marker);
+        }
+      }
+    }
+    return new TsFilePageIndex(chunkPageIndexMap);
+  }
+
+  private static ChunkPageIndex readChunkPageIndex(
+      TsFileSequenceReader reader, ChunkHeader chunkHeader, long endOfChunk) throws IOException {
+    List<Long> pageDataOffsets = new ArrayList<>();
+    List<PageHeader> pageHeaders = new ArrayList<>();
+    while (reader.position() < endOfChunk) {
+      PageHeader pageHeader = reader.readPageHeader(chunkHeader.getDataType(), true);
+      if (pageHeader.getUncompressedSize() == 0) {
+        // empty page
+        return null;
+      }
+      pageDataOffsets.add(reader.position());
+      pageHeaders.add(pageHeader);
+      reader.skipPageData(pageHeader);
+    }
+    int pageNum = pageHeaders.size();
+    long[] offsets = new long[pageNum];
+    int[] uncompressedSizes = new int[pageNum];
+    int[] compressedSizes = new int[pageNum];
+    Statistics[] statistics = new Statistics[pageNum];
+    for (int i = 0; i < pageNum; i++) {
+      offsets[i] = pageDataOffsets.get(i);
+      uncompressedSizes[i] = pageHeaders.get(i).getUncompressedSize();
+      compressedSizes[i] = pageHeaders.get(i).getCompressedSize();
+      statistics[i] = pageHeaders.get(i).getStatistics();
+    }
+    return new ChunkPageIndex(
+        chunkHeader.getDataType(),
+        chunkHeader.getEncodingType(),
+        chunkHeader.getCompressionType(),
+        offsets,
+        uncompressedSizes,
+        compressedSizes,
+        statistics);
+  }
+
+  public void serialize(OutputStream outputStream) throws IOException {
+    ReadWriteIOUtils.write(chunkPageIndexMap.size(), outputStream);
+    for (Map.Entry<Long, ChunkPageIndex> entry : chunkPageIndexMap.entrySet()) {
+      ReadWriteIOUtils.write(entry.getKey(), outputStream);
+      entry.getValue().serialize(outputStream);
+    }
+  }
+
+  public static TsFilePageIndex deserialize(InputStream inputStream) throws IOException {
+    int chunkNum = ReadWriteIOUtils.readInt(inputStream);
+    Map<Long, ChunkPageIndex> chunkPageIndexMap = new HashMap<>(chunkNum);
+    for (int i = 0; i < chunkNum; i++) {
+      long offsetOfChunkHeader = ReadWriteIOUtils.readLong(inputStream);
+      chunkPageIndexMap.put(offsetOfChunkHeader, ChunkPageIndex.deserialize(inputStream));
+    }
+    return new TsFilePageIndex(chunkPageIndexMap);
+  }
+
+  /** Pages of one chunk, in the order they are written in the chunk */
+  public static class ChunkPageIndex {
+
+    private final TSDataType dataType;
+    private final TSEncoding encoding;
+    private final CompressionType compressionType;
+    /** file offset of each page's data, i.e., the end of its page header */
+    private final long[] pageDataOffsets;
+
+    private final int[] uncompressedSizes;
+    private final int[] compressedSizes;
+    private final Statistics[] statistics;
+
+    private ChunkPageIndex(
+        TSDataType dataType,
+        TSEncoding encoding,
+        CompressionType compressionType,
+        long[] pageDataOffsets,
+        int[] uncompressedSizes,
+        int[] compressedSizes,
+        Statistics[] statistics) {
+      this.dataType = dataType;
+      this.encoding = encoding;
+      this.compressionType = compressionType;
+      this.pageDataOffsets = pageDataOffsets;
+      this.uncompressedSizes = uncompressedSizes;
+      this.compressedSizes = compressedSizes;
+      this.statistics = statistics;
+    }
+
+    public TSDataType getDataType() {
+      return dataType;
+    }
+
+    public TSEncoding getEncoding() {
+      return encoding;
+    }
+
+    public CompressionType getCompressionType() {
+      return compressionType;
+    }
+
+    public int getPageNum() {
+      return pageDataOffsets.length;
+    }
+
+    public long getPageDataOffset(int pageIndex) {
+      return pageDataOffsets[pageIndex];
+    }
+
+    /** Returns a new page header, as page headers may be marked as modified by readers */
+    @SuppressWarnings("unchecked")
+    public PageHeader getPageHeader(int pageIndex) {
+      return new PageHeader(
+          uncompressedSizes[pageIndex],
+          compressedSizes[pageIndex],
+          (Statistics<? extends Serializable>) statistics[pageIndex]);
+    }
+
+    private long calculateRamSize() {
+      long size =
+          RamUsageEstimator.sizeOf(pageDataOffsets)
+              + RamUsageEstimator.sizeOf(uncompressedSizes)
+              + RamUsageEstimator.sizeOf(compressedSizes)
+              + RamUsageEstimator.shallowSizeOf(statistics);
+      for (Statistics pageStatistics : statistics) {
+        size += pageStatistics.calculateRamSize();
+      }
+      return size;
+    }
+
+    private void serialize(OutputStream outputStream) throws IOException {
+      ReadWriteIOUtils.write(dataType, outputStream);
+      ReadWriteIOUtils.write(encoding, outputStream);
+      ReadWriteIOUtils.write(compressionType, outputStream);
+      ReadWriteIOUtils.write(pageDataOffsets.length, outputStream);
+      for (int i = 0; i < pageDataOffsets.length; i++) {
+        ReadWriteIOUtils.write(pageDataOffsets[i], outputStream);
+        ReadWriteIOUtils.write(uncompressedSizes[i], outputStream);
+        ReadWriteIOUtils.write(compressedSizes[i], outputStream);
+        statistics[i].serialize(outputStream);
+      }
+    }
+
+    private static ChunkPageIndex deserialize(InputStream inputStream) throws IOException {
+      TSDataType dataType = ReadWriteIOUtils.readDataType(inputStream);
+      TSEncoding encoding = ReadWriteIOUtils.readEncoding(inputStream);
+      CompressionType compressionType = ReadWriteIOUtils.readCompressionType(inputStream);
+      int pageNum = ReadWriteIOUtils.readInt(inputStream);
+      long[] pageDataOffsets = new long[pageNum];
+      int[] uncompressedSizes = new int[pageNum];
+      int[] compressedSizes = new int[pageNum];
+      Statistics[] statistics = new Statistics[pageNum];
+      for (int i = 0; i < pageNum; i++) {
+        pageDataOffsets[i] = ReadWriteIOUtils.readLong(inputStream);
+        uncompressedSizes[i] = ReadWriteIOUtils.readInt(inputStream);
+        compressedSizes[i] = ReadWriteIOUtils.readInt(inputStream);
+        statistics[i] = Statistics.deserialize(inputStream, dataType);
+      }
+      return new ChunkPageIndex(
+          dataType,
+          encoding,
+          compressionType,
+          pageDataOffsets,
+          uncompressedSizes,
+          compressedSizes,
+          statistics);
+    }
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction;
+
+import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.flush.FlushManager;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CompactionIOController gives way to the foreground load by adjusting the read and write
+ * throughput and the sub task concurrency of compaction. Every second, it checks whether flush
+ * tasks are waiting in the flush pool or queries are waiting for disk in {@link
+ * org.apache.iotdb.db.mpp.execution.operator.source.SeriesScanUtil}. If so, the budget ratio is
+ * halved, otherwise it is increased step by step until the configured budget is restored. The ratio
+ * never drops below {@link IoTDBConfig#getCompactionIOMinBudgetRatio()}, so that compaction keeps
+ * making progress.
+ *
+ * <p>If the throughput is not limited by the configuration, the budget is a ratio of the peak
+ * compaction throughput observed when compaction is not throttled, which is what the device can
+ * serve.
+ */
+public class CompactionIOController {
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(IoTDBConstant.COMPACTION_LOGGER_NAME);
+
+  private static final long ADJUST_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+  private static final double RECOVER_STEP = 0.1;
+  // the decay of the peak throughput in each interval, so that it follows the device slowly
+  private static final double PEAK_THROUGHPUT_DECAY = 0.95;
+
+  private static final CompactionIOController INSTANCE = new CompactionIOController();
+
+  private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  private final RateLimiter writeRateLimiter = RateLimiter.create(Double.MAX_VALUE);
+  private final RateLimiter readRateLimiter = RateLimiter.create(Double.MAX_VALUE);
+
+  // statistics of the current interval
+  private final AtomicLong queryIOWaitNanos = new AtomicLong(0);
+  private final AtomicLong writtenBytes = new AtomicLong(0);
+  private final AtomicLong readBytes = new AtomicLong(0);
+
+  private volatile long lastAdjustTime = System.nanoTime();
+  private volatile double budgetRatio = 1.0;
+  private double peakWriteBytesPerSec = 0;
+  private double peakReadBytesPerSec = 0;
+
+  public static CompactionIOController getInstance() {
+    return INSTANCE;
+  }
+
+  /** Called by queries after reading metadata or chunks of TsFiles. */
+  public void recordQueryIOWait(long nanos) {
+    queryIOWaitNanos.addAndGet(nanos);
+  }
+
+  /** Wait until the compaction is allowed to write the bytes. */
+  public void acquireWrite(long bytesLength) {
+    writtenBytes.addAndGet(bytesLength);
+    CompactionTaskManager.mergeRateLimiterAcquire(getWriteRateLimiter(), bytesLength);
+  }
+
+  /** Wait until the compaction is allowed to read the bytes. */
+  public void acquireRead(long bytesLength) {
+    readBytes.addAndGet(bytesLength);
+    CompactionTaskManager.mergeRateLimiterAcquire(getReadRateLimiter(), bytesLength);
+  }
+
+  public RateLimiter getWriteRateLimiter() {
+    maybeAdjust();
+    setRate(writeRateLimiter, config.getCompactionWriteThroughputMbPerSec(), peakWriteBytesPerSec);
+    return writeRateLimiter;
+  }
+
+  public RateLimiter getReadRateLimiter() {
+    maybeAdjust();
+    setRate(readRateLimiter, config.getCompactionReadThroughputMbPerSec(), peakReadBytesPerSec);
+    return readRateLimiter;
+  }
+
+  /** The number of sub tasks a compaction task can be split into at present. */
+  public int getSubCompactionTaskNum() {
+    maybeAdjust();
+    int subTaskNum = config.getSubCompactionTaskNum();
+    return Math.max(1, Math.min(subTaskNum, (int) Math.round(subTaskNum * budgetRatio)));
+  }
+
+  public double getBudgetRatio() {
+    return budgetRatio;
+  }
+
+  private void maybeAdjust() {
+    if (System.nanoTime() - lastAdjustTime < ADJUST_INTERVAL_NANOS) {
+      return;
+    }
+    synchronized (this) {
+      long now = System.nanoTime();
+      long elapsedNanos = now - lastAdjustTime;
+      if (elapsedNanos < ADJUST_INTERVAL_NANOS) {
+        return;
+      }
+      lastAdjustTime = now;
+      adjust(elapsedNanos, FlushManager.getInstance().getNumberOfPendingTasks());
+    }
+  }
+
+  /**
+   * Adjust the budget ratio by the statistics collected in the last interval.
+   *
+   * @param elapsedNanos the length of the last interval
+   * @param pendingFlushTaskNum the number of flush tasks waiting for a flush thread
+   */
+  synchronized void adjust(long elapsedNanos, int pendingFlushTaskNum) {
+    double elapsedSeconds = elapsedNanos / 1_000_000_000.0;
+    double queryIOWaitRatio = queryIOWaitNanos.getAndSet(0) / (double) elapsedNanos;
+    double writeBytesPerSec = writtenBytes.getAndSet(0) / elapsedSeconds;
+    double readBytesPerSec = readBytes.getAndSet(0) / elapsedSeconds;
+
+    if (budgetRatio >= 1.0) {
+      // only the throughput of unthrottled compaction reflects the capacity of the device
+      peakWriteBytesPerSec = updatePeak(peakWriteBytesPerSec, writeBytesPerSec);
+      peakReadBytesPerSec = updatePeak(peakReadBytesPerSec, readBytesPerSec);
+    }
+
+    double oldRatio = budgetRatio;
+    if (!config.isEnableAdaptiveCompactionIOControl()) {
+      budgetRatio = 1.0;
+    } else if (pendingFlushTaskNum > 0
+        || queryIOWaitRatio > config.getCompactionIOQueryWaitRatioThreshold()) {
+      budgetRatio = Math.max(config.getCompactionIOMinBudgetRatio(), budgetRatio / 2);
+    } else {
+      budgetRatio = Math.min(1.0, budgetRatio + RECOVER_STEP);
+    }
+    if (budgetRatio != oldRatio) {
+      LOGGER.debug(
+          "[Compaction] IO budget ratio changes from {} to {}, pending flush tasks: {}, "
+              + "query IO wait ratio: {}",
+          oldRatio,
+          budgetRatio,
+          pendingFlushTaskNum,
+          queryIOWaitRatio);
+    }
+  }
+
+  private double updatePeak(double peak, double current) {
+    // idle intervals say nothing about the device
+    return current > 0 ? Math.max(current, peak * PEAK_THROUGHPUT_DECAY) : peak;
+  }
+
+  private void setRate(RateLimiter limiter, int throughputMbPerSec, double peakBytesPerSec) {
+    double rate;
+    if (throughputMbPerSec > 0) {
+      rate = throughputMbPerSec * 1024.0 * 1024.0 * budgetRatio;
+    } else if (budgetRatio < 1.0 && peakBytesPerSec > 0) {
+      rate = peakBytesPerSec * budgetRatio;
+    } else {
+      // if throughput = 0 and compaction is not throttled, disable rate limiting
+      rate = Double.MAX_VALUE;
+    }
+    if (limiter.getRate() != rate) {
+      limiter.setRate(rate);
+    }
+  }
+
+  @TestOnly
+  public synchronized void reset() {
+    queryIOWaitNanos.set(0);
+    writtenBytes.set(0);
+    readBytes.set(0);
+    lastAdjustTime = System.nanoTime();
+    budgetRatio = 1.0;
+    peakWriteBytesPerSec = 0;
+    peakReadBytesPerSec = 0;
+  }
+}
@@ -25,6 +25,8 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.compaction.cross.CrossSpaceCompactionTask;
 import org.apache.iotdb.db.engine.compaction.cross.ICrossSpaceSelector;
 import org.apache.iotdb.db.engine.compaction.inner.InnerSpaceCompactionTask;
+import org.apache.iotdb.db.engine.compaction.inner.cleanup.CleanupCompactionSelector;
+import org.apache.iotdb.db.engine.compaction.inner.cleanup.CleanupCompactionTask;
 import org.apache.iotdb.db.engine.compaction.performer.ICompactionPerformer;
 import org.apache.iotdb.db.engine.compaction.task.ICompactionSelector;
 import org.apache.iotdb.db.engine.storagegroup.TsFileManager;
@@ -61,6 +63,9 @@ public class CompactionScheduler {
           tsFileManager.getDataRegionId(),
           timePartition,
           tsFileManager);
+      // the files selected to clean up are not selected by the other inner space tasks
+      tryToSubmitCleanupCompactionTask(timePartition, tsFileManager, true);
+      tryToSubmitCleanupCompactionTask(timePartition, tsFileManager, false);
       tryToSubmitInnerSpaceCompactionTask(
           tsFileManager.getStorageGroupName(),
           tsFileManager.getDataRegionId(),
@@ -108,7 +113,8 @@ public class CompactionScheduler {
             sequence
                 ? tsFileManager.getSequenceListByTimePartition(timePartition)
                 : tsFileManager.getUnsequenceListByTimePartition(timePartition));
-    for (List<TsFileResource> task : taskList) {
+    List<Double> taskScores = innerSpaceCompactionSelector.getCompactionTaskScores();
+    for (int i = 0, size = taskList.size(); i < size; ++i) {
       ICompactionPerformer performer =
           sequence
               ? IoTDBDescriptor.getInstance()
@@ -119,16 +125,57 @@ public class CompactionScheduler {
                   .getConfig()
                   .getInnerUnseqCompactionPerformer()
                   .createInstance();
-      CompactionTaskManager.getInstance()
-          .addTaskToWaitingQueue(
-              new InnerSpaceCompactionTask(
-                  timePartition,
-                  tsFileManager,
-                  task,
-                  sequence,
-                  performer,
-                  CompactionTaskManager.currentTaskNum,
-                  tsFileManager.getNextCompactionTaskId()));
+      InnerSpaceCompactionTask task =
+          new InnerSpaceCompactionTask(
+              timePartition,
+              tsFileManager,
+              taskList.get(i),
+              sequence,
+              performer,
+              CompactionTaskManager.currentTaskNum,
+              tsFileManager.getNextCompactionTaskId());
+      if (i < taskScores.size()) {
+        task.getSummary().setSelectionScore(taskScores.get(i));
+      }
+      CompactionTaskManager.getInstance().addTaskToWaitingQueue(task);
+    }
+  }
+
+  /**
+   * Submit the tasks rewriting the files in which much of the data is deleted or expired, see
+   * {@link CleanupCompactionSelector}.
+   */
+  public static void tryToSubmitCleanupCompactionTask(
+      long timePartition, TsFileManager tsFileManager, boolean sequence)
+      throws InterruptedException {
+    if (!config.isEnableCleanupCompaction()
+        || (!config.isEnableSeqSpaceCompaction() && sequence)
+        || (!config.isEnableUnseqSpaceCompaction() && !sequence)) {
+      return;
+    }
+    CleanupCompactionSelector selector =
+        new CleanupCompactionSelector(
+            tsFileManager.getStorageGroupName(),
+            tsFileManager.getDataRegionId(),
+            timePartition,
+            tsFileManager);
+    List<List<TsFileResource>> taskList =
+        selector.selectInnerSpaceTask(
+            sequence
+                ? tsFileManager.getSequenceListByTimePartition(timePartition)
+                : tsFileManager.getUnsequenceListByTimePartition(timePartition));
+    List<Double> taskScores = selector.getCompactionTaskScores();
+    for (int i = 0, size = taskList.size(); i < size; ++i) {
+      CleanupCompactionTask task =
+          new CleanupCompactionTask(
+              timePartition,
+              tsFileManager,
+              taskList.get(i),
+              sequence,
+              CompactionTaskManager.currentTaskNum,
+              tsFileManager.getNextCompactionTaskId());
+      task.getSummary().setSelectionScore(taskScores.get(i));
+      CompactionTaskManager.getInstance().addTaskToWaitingQueue(task);
     }
   }
 
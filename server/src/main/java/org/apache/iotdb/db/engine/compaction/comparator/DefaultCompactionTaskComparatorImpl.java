@@ -24,7 +24,9 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.compaction.constant.CompactionPriority;
 import org.apache.iotdb.db.engine.compaction.cross.CrossSpaceCompactionTask;
 import org.apache.iotdb.db.engine.compaction.inner.InnerSpaceCompactionTask;
+import org.apache.iotdb.db.engine.compaction.inner.cleanup.CleanupCompactionTask;
 import org.apache.iotdb.db.engine.compaction.task.AbstractCompactionTask;
+import org.apache.iotdb.db.engine.compaction.task.CompactionTaskSummary;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 
 import java.util.List;
@@ -54,11 +56,25 @@ public class DefaultCompactionTaskComparatorImpl implements ICompactionTaskCompa
 
   public int compareInnerSpaceCompactionTask(
       InnerSpaceCompactionTask o1, InnerSpaceCompactionTask o2) {
+    if ((o1 instanceof CleanupCompactionTask) ^ (o2 instanceof CleanupCompactionTask)) {
+      // prioritize cleanup compaction, which only rewrites one file and reclaims disk space
+      return o1 instanceof CleanupCompactionTask ? -1 : 1;
+    }
+
     if (o1.isSequence() ^ o2.isSequence()) {
       // prioritize sequence file compaction
       return o1.isSequence() ? -1 : 1;
     }
 
+    // if both tasks are scored by the selector, we prefer the task with higher score
+    CompactionTaskSummary summaryOfO1 = o1.getSummary();
+    CompactionTaskSummary summaryOfO2 = o2.getSummary();
+    if (summaryOfO1.hasSelectionScore()
+        && summaryOfO2.hasSelectionScore()
+        && summaryOfO1.getSelectionScore() != summaryOfO2.getSelectionScore()) {
+      return Double.compare(summaryOfO2.getSelectionScore(), summaryOfO1.getSelectionScore());
+    }
+
     // if the sum of compaction count of the selected files are different
     // we prefer to execute task with smaller compaction count
     // this can reduce write amplification
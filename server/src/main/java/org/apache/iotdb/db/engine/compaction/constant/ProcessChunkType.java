@@ -20,6 +20,7 @@ package org.apache.iotdb.db.engine.compaction.constant;
 
 public enum ProcessChunkType {
   FLUSH_CHUNK,
+  FLUSH_PAGE,
   MERGE_CHUNK,
   DESERIALIZE_CHUNK
 }
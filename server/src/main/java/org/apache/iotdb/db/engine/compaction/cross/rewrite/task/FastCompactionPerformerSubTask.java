@@ -0,0 +1,462 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.cross.rewrite.task;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.compaction.CompactionIOController;
+import org.apache.iotdb.db.engine.compaction.performer.impl.ReadPointCompactionPerformer;
+import org.apache.iotdb.db.engine.compaction.reader.IDataBlockReader;
+import org.apache.iotdb.db.engine.compaction.writer.AbstractCompactionWriter;
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.service.metrics.recorder.CompactionMetricsRecorder;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.file.MetaMarker;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.reader.page.PageReader;
+import org.apache.iotdb.tsfile.utils.Pair;
+import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * This class is used to compact the non aligned measurements of a device in parallel by the fast
+ * compaction performer. Instead of deserializing all the points, it walks through the chunk and
+ * page statistics of all the source files in time order. A chunk or page which does not overlap
+ * with any other one is written into the target file without being decompressed, and only the
+ * overlapped pages are deserialized and merged point by point.
+ *
+ * <p>If the data of a series is overwritten, the data in the chunk with larger version, or with
+ * larger offset in the same file, is retained.
+ */
+public class FastCompactionPerformerSubTask implements Callable<Void> {
+  private static final long chunkSizeLowerBound =
+      IoTDBDescriptor.getInstance().getConfig().getChunkSizeLowerBoundInCompaction();
+  private static final long chunkPointNumLowerBound =
+      IoTDBDescriptor.getInstance().getConfig().getChunkPointNumLowerBoundInCompaction();
+
+  private final String device;
+  private final Set<String> measurementList;
+  private final Map<String, List<Pair<TsFileSequenceReader, List<ChunkMetadata>>>>
+      readerAndChunkMetadataMap;
+  private final FragmentInstanceContext fragmentInstanceContext;
+  private final QueryDataSource queryDataSource;
+  private final AbstractCompactionWriter compactionWriter;
+  private final Map<String, MeasurementSchema> schemaMap;
+  private final int taskId;
+
+  // chunks of the current series which have not been compacted, ordered by start time
+  private final PriorityQueue<ChunkMetadataElement> chunkQueue =
+      new PriorityQueue<>(Comparator.comparingLong(e -> e.startTime));
+
+  // pages of the chunks which have been split, ordered by start time
+  private final PriorityQueue<PageElement> pageQueue =
+      new PriorityQueue<>(Comparator.comparingLong(e -> e.startTime));
+
+  // deserialized pages which are being merged, ordered by the time of their next point, and the
+  // page with higher priority comes first if the times are equal
+  private final PriorityQueue<PointElement> pointQueue =
+      new PriorityQueue<>(
+          (o1, o2) -> {
+            int timeCompare = Long.compare(o1.currentTime(), o2.currentTime());
+            return timeCompare != 0 ? timeCompare : o2.compareTo(o1);
+          });
+
+  private MeasurementSchema currentSchema;
+
+  private TsBlockBuilder tsBlockBuilder;
+
+  public FastCompactionPerformerSubTask(
+      String device,
+      Set<String> measurementList,
+      Map<String, List<Pair<TsFileSequenceReader, List<ChunkMetadata>>>> readerAndChunkMetadataMap,
+      FragmentInstanceContext fragmentInstanceContext,
+      QueryDataSource queryDataSource,
+      AbstractCompactionWriter compactionWriter,
+      Map<String, MeasurementSchema> schemaMap,
+      int taskId) {
+    this.device = device;
+    this.measurementList = measurementList;
+    this.readerAndChunkMetadataMap = readerAndChunkMetadataMap;
+    this.fragmentInstanceContext = fragmentInstanceContext;
+    this.queryDataSource = queryDataSource;
+    this.compactionWriter = compactionWriter;
+    this.schemaMap = schemaMap;
+    this.taskId = taskId;
+  }
+
+  @Override
+  public Void call() throws Exception {
+    for (String measurement : measurementList) {
+      currentSchema = schemaMap.get(measurement);
+      List<Pair<TsFileSequenceReader, List<ChunkMetadata>>> readerAndChunkMetadataList =
+          readerAndChunkMetadataMap.get(measurement);
+      if (currentSchema == null || readerAndChunkMetadataList == null) {
+        continue;
+      }
+      List<ChunkMetadataElement> chunkMetadataElements = new ArrayList<>();
+      boolean isDataTypeMatched = true;
+      for (Pair<TsFileSequenceReader, List<ChunkMetadata>> readerAndChunkMetadata :
+          readerAndChunkMetadataList) {
+        for (ChunkMetadata chunkMetadata : readerAndChunkMetadata.right) {
+          // set the file path to get the version of chunk
+          chunkMetadata.setFilePath(readerAndChunkMetadata.left.getFileName());
+          chunkMetadataElements.add(
+              new ChunkMetadataElement(readerAndChunkMetadata.left, chunkMetadata));
+          isDataTypeMatched &= chunkMetadata.getDataType() == currentSchema.getType();
+        }
+      }
+      if (chunkMetadataElements.isEmpty()) {
+        continue;
+      }
+
+      List<IMeasurementSchema> measurementSchemas = Collections.singletonList(currentSchema);
+      if (!isDataTypeMatched) {
+        // the data type of the series has been altered, so the points have to be converted
+        compactWithReadPoint(measurement, measurementSchemas);
+        continue;
+      }
+
+      compactionWriter.startMeasurement(measurementSchemas, taskId);
+      tsBlockBuilder = new TsBlockBuilder(Collections.singletonList(currentSchema.getType()));
+      chunkQueue.addAll(chunkMetadataElements);
+      compactSeries();
+      compactionWriter.endMeasurement(taskId);
+    }
+    return null;
+  }
+
+  private void compactWithReadPoint(String measurement, List<IMeasurementSchema> measurementSchemas)
+      throws Exception {
+    IDataBlockReader dataBlockReader =
+        ReadPointCompactionPerformer.constructReader(
+            device,
+            Collections.singletonList(measurement),
+            measurementSchemas,
+            measurementList,
+            fragmentInstanceContext,
+            queryDataSource,
+            false);
+    if (dataBlockReader.hasNextBatch()) {
+      compactionWriter.startMeasurement(measurementSchemas, taskId);
+      ReadPointCompactionPerformer.writeWithReader(
+          compactionWriter, dataBlockReader, taskId, false);
+      compactionWriter.endMeasurement(taskId);
+    }
+  }
+
+  private void compactSeries() throws Exception {
+    while (!chunkQueue.isEmpty() || !pageQueue.isEmpty() || !pointQueue.isEmpty()) {
+      if (!pointQueue.isEmpty()) {
+        mergePoints();
+      } else if (isChunkNext()) {
+        compactChunk(chunkQueue.poll());
+      } else {
+        compactPage(pageQueue.poll());
+      }
+    }
+    flushTsBlock();
+  }
+
+  /**
+   * Write the chunk into the target file directly if it does not overlap with others, is not
+   * modified and is large enough. Otherwise, split it into pages.
+   */
+  private void compactChunk(ChunkMetadataElement element) throws Exception {
+    Chunk chunk = readChunk(element);
+    if (!element.chunkMetadata.isModified()
+        && element.endTime < getNextStartTime()
+        && !isSmallChunk(chunk)) {
+      flushTsBlock();
+      if (compactionWriter.flushNonAlignedChunk(chunk, element.chunkMetadata, taskId)) {
+        return;
+      }
+    }
+    splitChunkIntoPages(element, chunk);
+  }
+
+  private Chunk readChunk(ChunkMetadataElement element) throws IOException {
+    Chunk chunk = element.reader.readMemChunk(element.chunkMetadata);
+    long readBytes = chunk.getHeader().getSerializedSize() + chunk.getHeader().getDataSize();
+    CompactionIOController.getInstance().acquireRead(readBytes);
+    CompactionMetricsRecorder.recordReadInfo(readBytes);
+    return chunk;
+  }
+
+  /**
+   * Append the compressed page into the chunk writer directly if it does not overlap with others
+   * and is not modified. Otherwise, deserialize it and merge its points.
+   */
+  private void compactPage(PageElement element) throws Exception {
+    if (!element.pageHeader.isModified()
+        && element.endTime < getNextStartTime()
+        && isSameFormatAsSchema(element.chunkHeader)) {
+      flushTsBlock();
+      if (compactionWriter.flushNonAlignedPage(
+          element.compressedPageData.duplicate(), element.pageHeader, taskId)) {
+        return;
+      }
+    }
+    deserializePage(element);
+  }
+
+  /**
+   * Merge the points of the deserialized pages in time order. The chunks and pages starting before
+   * the next point may overlap with it, so they are deserialized first.
+   */
+  private void mergePoints() throws Exception {
+    long nextStartTime = getNextStartTime();
+    while (nextStartTime <= pointQueue.peek().currentTime()) {
+      if (isChunkNext()) {
+        ChunkMetadataElement element = chunkQueue.poll();
+        splitChunkIntoPages(element, readChunk(element));
+      } else {
+        deserializePage(pageQueue.poll());
+      }
+      nextStartTime = getNextStartTime();
+    }
+
+    while (!pointQueue.isEmpty() && pointQueue.peek().currentTime() < nextStartTime) {
+      PointElement pointElement = pointQueue.poll();
+      long time = pointElement.currentTime();
+      tsBlockBuilder.getTimeColumnBuilder().writeLong(time);
+      tsBlockBuilder
+          .getColumnBuilder(0)
+          .write(pointElement.tsBlock.getColumn(0), pointElement.index);
+      tsBlockBuilder.declarePosition();
+      nextPoint(pointElement);
+      // skip the overwritten points with the same timestamp
+      while (!pointQueue.isEmpty() && pointQueue.peek().currentTime() == time) {
+        nextPoint(pointQueue.poll());
+      }
+      if (tsBlockBuilder.isFull()) {
+        flushTsBlock();
+      }
+    }
+  }
+
+  private void nextPoint(PointElement pointElement) {
+    if (++pointElement.index < pointElement.tsBlock.getPositionCount()) {
+      pointQueue.add(pointElement);
+    }
+  }
+
+  private void splitChunkIntoPages(ChunkMetadataElement element, Chunk chunk) {
+    ChunkHeader chunkHeader = chunk.getHeader();
+    ByteBuffer chunkDataBuffer = chunk.getData();
+    List<TimeRange> deleteIntervalList = element.chunkMetadata.getDeleteIntervalList();
+    while (chunkDataBuffer.remaining() > 0) {
+      PageHeader pageHeader;
+      if (((byte) (chunkHeader.getChunkType() & 0x3F)) == MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER) {
+        pageHeader = PageHeader.deserializeFrom(chunkDataBuffer, chunk.getChunkStatistic());
+      } else {
+        pageHeader = PageHeader.deserializeFrom(chunkDataBuffer, chunkHeader.getDataType());
+      }
+      ByteBuffer compressedPageData = chunkDataBuffer.slice();
+      compressedPageData.limit(pageHeader.getCompressedSize());
+      chunkDataBuffer.position(chunkDataBuffer.position() + pageHeader.getCompressedSize());
+      if (pageHeader.getUncompressedSize() == 0 || isPageDeleted(pageHeader, deleteIntervalList)) {
+        continue;
+      }
+      pageQueue.add(
+          new PageElement(
+              element, chunkHeader, pageHeader, compressedPageData, deleteIntervalList));
+    }
+  }
+
+  private boolean isPageDeleted(PageHeader pageHeader, List<TimeRange> deleteIntervalList) {
+    if (deleteIntervalList == null) {
+      return false;
+    }
+    for (TimeRange range : deleteIntervalList) {
+      if (range.contains(pageHeader.getStartTime(), pageHeader.getEndTime())) {
+        return true;
+      }
+      if (range.overlaps(new TimeRange(pageHeader.getStartTime(), pageHeader.getEndTime()))) {
+        pageHeader.setModified(true);
+      }
+    }
+    return false;
+  }
+
+  private void deserializePage(PageElement element) throws IOException {
+    ChunkHeader chunkHeader = element.chunkHeader;
+    ByteBuffer compressedPageData = element.compressedPageData;
+    byte[] uncompressedPageData = new byte[element.pageHeader.getUncompressedSize()];
+    IUnCompressor.getUnCompressor(chunkHeader.getCompressionType())
+        .uncompress(
+            compressedPageData.array(),
+            compressedPageData.arrayOffset() + compressedPageData.position(),
+            compressedPageData.remaining(),
+            uncompressedPageData,
+            0);
+    PageReader pageReader =
+        new PageReader(
+            element.pageHeader,
+            ByteBuffer.wrap(uncompressedPageData),
+            chunkHeader.getDataType(),
+            Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType()),
+            Decoder.getDecoderByType(
+                TSEncoding.valueOf(TSFileDescriptor.getInstance().getConfig().getTimeEncoder()),
+                TSDataType.INT64),
+            null);
+    pageReader.setDeleteIntervalList(element.deleteIntervalList);
+    TsBlock tsBlock = pageReader.getAllSatisfiedData();
+    if (!tsBlock.isEmpty()) {
+      pointQueue.add(new PointElement(element, tsBlock));
+    }
+  }
+
+  private void flushTsBlock() throws IOException {
+    if (tsBlockBuilder.isEmpty()) {
+      return;
+    }
+    TsBlock tsBlock = tsBlockBuilder.build();
+    compactionWriter.write(
+        tsBlock.getTimeColumn(), tsBlock.getValueColumns(), taskId, tsBlock.getPositionCount());
+    tsBlockBuilder.reset();
+  }
+
+  private boolean isChunkNext() {
+    return !chunkQueue.isEmpty()
+        && (pageQueue.isEmpty() || chunkQueue.peek().startTime <= pageQueue.peek().startTime);
+  }
+
+  /** Get the start time of the next chunk or page which has not been deserialized. */
+  private long getNextStartTime() {
+    long nextStartTime = Long.MAX_VALUE;
+    if (!chunkQueue.isEmpty()) {
+      nextStartTime = chunkQueue.peek().startTime;
+    }
+    if (!pageQueue.isEmpty()) {
+      nextStartTime = Math.min(nextStartTime, pageQueue.peek().startTime);
+    }
+    return nextStartTime;
+  }
+
+  private boolean isSmallChunk(Chunk chunk) {
+    return chunk.getHeader().getDataSize() < chunkSizeLowerBound
+        && chunk.getChunkStatistic().getCount() < chunkPointNumLowerBound;
+  }
+
+  /** The compressed page can be appended into the chunk writer only if it is in the same format. */
+  private boolean isSameFormatAsSchema(ChunkHeader chunkHeader) {
+    return chunkHeader.getDataType() == currentSchema.getType()
+        && chunkHeader.getEncodingType() == currentSchema.getEncodingType()
+        && chunkHeader.getCompressionType() == currentSchema.getCompressor();
+  }
+
+  /**
+   * The base class of the chunks, pages and points to be compacted. The data in the element with
+   * larger version, or with larger chunk offset in the same file, has higher priority.
+   */
+  private abstract static class Element implements Comparable<Element> {
+    protected final long startTime;
+    protected final long endTime;
+    protected final long version;
+    protected final long offset;
+
+    protected Element(long startTime, long endTime, long version, long offset) {
+      this.startTime = startTime;
+      this.endTime = endTime;
+      this.version = version;
+      this.offset = offset;
+    }
+
+    @Override
+    public int compareTo(Element o) {
+      int versionCompare = Long.compare(version, o.version);
+      return versionCompare != 0 ? versionCompare : Long.compare(offset, o.offset);
+    }
+  }
+
+  private static class ChunkMetadataElement extends Element {
+    private final TsFileSequenceReader reader;
+    private final ChunkMetadata chunkMetadata;
+
+    private ChunkMetadataElement(TsFileSequenceReader reader, ChunkMetadata chunkMetadata) {
+      super(
+          chunkMetadata.getStartTime(),
+          chunkMetadata.getEndTime(),
+          chunkMetadata.getVersion(),
+          chunkMetadata.getOffsetOfChunkHeader());
+      this.reader = reader;
+      this.chunkMetadata = chunkMetadata;
+    }
+  }
+
+  private static class PageElement extends Element {
+    private final ChunkHeader chunkHeader;
+    private final PageHeader pageHeader;
+    private final ByteBuffer compressedPageData;
+    private final List<TimeRange> deleteIntervalList;
+
+    private PageElement(
+        Element chunkElement,
+        ChunkHeader chunkHeader,
+        PageHeader pageHeader,
+        ByteBuffer compressedPageData,
+        List<TimeRange> deleteIntervalList) {
+      super(
+          pageHeader.getStartTime(),
+          pageHeader.getEndTime(),
+          chunkElement.version,
+          chunkElement.offset);
+      this.chunkHeader = chunkHeader;
+      this.pageHeader = pageHeader;
+      this.compressedPageData = compressedPageData;
+      this.deleteIntervalList = deleteIntervalList;
+    }
+  }
+
+  private static class PointElement extends Element {
+    private final TsBlock tsBlock;
+    private int index = 0;
+
+    private PointElement(Element pageElement, TsBlock tsBlock) {
+      super(pageElement.startTime, pageElement.endTime, pageElement.version, pageElement.offset);
+      this.tsBlock = tsBlock;
+    }
+
+    private long currentTime() {
+      return tsBlock.getTimeByIndex(index);
+    }
+  }
+}
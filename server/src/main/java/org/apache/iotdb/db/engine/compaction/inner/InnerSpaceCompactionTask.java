@@ -103,10 +103,11 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
     // get resource of target file
     String dataDirectory = selectedTsFileResourceList.get(0).getTsFile().getParent();
     LOGGER.info(
-        "{}-{} [Compaction] starting compaction task with {} files",
+        "{}-{} [Compaction] starting compaction task with {} files, selection score is {}",
         storageGroupName,
         dataRegionId,
-        selectedTsFileResourceList.size());
+        selectedTsFileResourceList.size(),
+        summary.getSelectionScore());
     try {
       targetTsFileResource =
           TsFileNameGenerator.getInnerCompactionTargetFileResource(
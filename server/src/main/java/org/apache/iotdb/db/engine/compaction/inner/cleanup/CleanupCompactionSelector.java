@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.inner.cleanup;
+
+import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.compaction.task.ICompactionSelector;
+import org.apache.iotdb.db.engine.modification.Deletion;
+import org.apache.iotdb.db.engine.modification.Modification;
+import org.apache.iotdb.db.engine.modification.ModificationFile;
+import org.apache.iotdb.db.engine.storagegroup.TsFileManager;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
+import org.apache.iotdb.db.engine.storagegroup.timeindex.TimeIndexLevel;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apache.iotdb.commons.conf.IoTDBConstant.ONE_LEVEL_PATH_WILDCARD;
+
+/**
+ * CleanupCompactionSelector selects the files most of whose data is deleted by the .mods file or
+ * expired by TTL, each of which is rewritten alone by a {@link CleanupCompactionTask}. The deleted
+ * ratio of a file is estimated without reading it: for each device in the device time index, it is
+ * the part of the device time range covered by the deletions of the device and the TTL. A deletion
+ * of any measurement is regarded as a deletion of the whole device, so the ratio is an upper bound.
+ * A file only having file time index is estimated by the TTL only.
+ *
+ * <p>The score of each task is the estimated size of the deleted data, so that the tasks reclaiming
+ * the most disk space are executed first.
+ */
+public class CleanupCompactionSelector implements ICompactionSelector {
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(IoTDBConstant.COMPACTION_LOGGER_NAME);
+  protected String storageGroupName;
+  protected String dataRegionId;
+  protected long timePartition;
+  protected TsFileManager tsFileManager;
+
+  // the score of each selected task, in the same order as the selected tasks
+  private final List<Double> taskScores = new ArrayList<>();
+
+  public CleanupCompactionSelector(
+      String storageGroupName,
+      String dataRegionId,
+      long timePartition,
+      TsFileManager tsFileManager) {
+    this.storageGroupName = storageGroupName;
+    this.dataRegionId = dataRegionId;
+    this.timePartition = timePartition;
+    this.tsFileManager = tsFileManager;
+  }
+
+  @Override
+  public List<List<TsFileResource>> selectInnerSpaceTask(List<TsFileResource> tsFileResources) {
+    taskScores.clear();
+    try {
+      double minDeletedRatio =
+          IoTDBDescriptor.getInstance().getConfig().getCleanupCompactionMinDeletedRatio();
+      long ttlLowerBound = getTTLLowerBound(tsFileManager.getDataTTL());
+      List<List<TsFileResource>> taskList = new ArrayList<>();
+      for (TsFileResource resource : tsFileResources) {
+        if (resource.getStatus() != TsFileResourceStatus.CLOSED) {
+          continue;
+        }
+        double deletedRatio = estimateDeletedRatio(resource, ttlLowerBound);
+        if (deletedRatio < minDeletedRatio) {
+          continue;
+        }
+        LOGGER.debug(
+            "{}-{} [Compaction] select {} to clean up, estimated deleted ratio is {}",
+            storageGroupName,
+            dataRegionId,
+            resource,
+            deletedRatio);
+        taskList.add(new ArrayList<>(Collections.singletonList(resource)));
+        taskScores.add(deletedRatio * resource.getTsFileSize());
+      }
+      return taskList;
+    } catch (Exception e) {
+      LOGGER.error("Exception occurs while selecting files to clean up", e);
+    }
+    taskScores.clear();
+    return Collections.emptyList();
+  }
+
+  @Override
+  public List<Double> getCompactionTaskScores() {
+    return taskScores;
+  }
+
+  /** @return the min timestamp not expired, or Long.MIN_VALUE if TTL is not set */
+  public static long getTTLLowerBound(long dataTTL) {
+    return dataTTL == Long.MAX_VALUE ? Long.MIN_VALUE : System.currentTimeMillis() - dataTTL;
+  }
+
+  /**
+   * Estimate the ratio of the data in the file deleted by the mods file or expired by TTL.
+   *
+   * @param ttlLowerBound the data before it is expired
+   */
+  public static double estimateDeletedRatio(TsFileResource resource, long ttlLowerBound) {
+    List<Deletion> deletions = new ArrayList<>();
+    ModificationFile modFile = resource.getModFile();
+    if (modFile.exists()) {
+      for (Modification modification : modFile.getModifications()) {
+        if (modification instanceof Deletion) {
+          deletions.add((Deletion) modification);
+        }
+      }
+    }
+    if (TimeIndexLevel.valueOf(resource.getTimeIndexType()) != TimeIndexLevel.DEVICE_TIME_INDEX) {
+      // only the TTL can be applied to a file without device time index
+      return getCoveredRatio(
+          resource.getFileStartTime(),
+          resource.getFileEndTime(),
+          Collections.emptyList(),
+          ttlLowerBound);
+    }
+    if (deletions.isEmpty() && ttlLowerBound == Long.MIN_VALUE) {
+      return 0;
+    }
+    double ratioSum = 0;
+    int deviceNum = 0;
+    for (String device : resource.getDevices()) {
+      List<long[]> deletedRanges = new ArrayList<>();
+      if (!deletions.isEmpty()) {
+        PartialPath seriesOfDevice;
+        try {
+          seriesOfDevice = new PartialPath(device).concatNode(ONE_LEVEL_PATH_WILDCARD);
+        } catch (IllegalPathException e) {
+          continue;
+        }
+        for (Deletion deletion : deletions) {
+          if (deletion.getPath().overlapWith(seriesOfDevice)) {
+            deletedRanges.add(new long[] {deletion.getStartTime(), deletion.getEndTime()});
+          }
+        }
+      }
+      ratioSum +=
+          getCoveredRatio(
+              resource.getStartTime(device),
+              resource.getEndTime(device),
+              deletedRanges,
+              ttlLowerBound);
+      deviceNum++;
+    }
+    return deviceNum == 0 ? 0 : ratioSum / deviceNum;
+  }
+
+  /** The ratio of [startTime, endTime] covered by the union of the ranges and the expired part. */
+  private static double getCoveredRatio(
+      long startTime, long endTime, List<long[]> deletedRanges, long ttlLowerBound) {
+    if (startTime > endTime) {
+      return 0;
+    }
+    List<long[]> ranges = new ArrayList<>(deletedRanges);
+    if (ttlLowerBound != Long.MIN_VALUE) {
+      ranges.add(new long[] {Long.MIN_VALUE, ttlLowerBound - 1});
+    }
+    ranges.sort((o1, o2) -> Long.compare(o1[0], o2[0]));
+    // use double to avoid overflow when the time range is wide
+    double coveredLength = 0;
+    long coveredEndTime = startTime - 1;
+    for (long[] range : ranges) {
+      long rangeStart = Math.max(Math.max(range[0], startTime), coveredEndTime + 1);
+      long rangeEnd = Math.min(range[1], endTime);
+      if (rangeStart > rangeEnd) {
+        continue;
+      }
+      coveredLength += (double) rangeEnd - rangeStart + 1;
+      coveredEndTime = rangeEnd;
+    }
+    return coveredLength / ((double) endTime - startTime + 1);
+  }
+}
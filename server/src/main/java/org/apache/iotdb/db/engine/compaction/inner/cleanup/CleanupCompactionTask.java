@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.inner.cleanup;
+
+import org.apache.iotdb.db.engine.compaction.inner.InnerSpaceCompactionTask;
+import org.apache.iotdb.db.engine.compaction.performer.impl.ReadChunkCompactionPerformer;
+import org.apache.iotdb.db.engine.storagegroup.TsFileManager;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * CleanupCompactionTask rewrites a single file to drop its data deleted by the .mods file or
+ * expired by TTL. It reuses the log, replacement and recovery of {@link InnerSpaceCompactionTask},
+ * and always uses {@link ReadChunkCompactionPerformer}, since the chunks of a series in a single
+ * file never overlap: the chunks and pages totally deleted are dropped by their statistics, the
+ * ones not touched are copied without being decompressed, and only the partially deleted pages are
+ * decoded. If all the data is deleted, no target file is left.
+ */
+public class CleanupCompactionTask extends InnerSpaceCompactionTask {
+
+  public CleanupCompactionTask(
+      long timePartition,
+      TsFileManager tsFileManager,
+      List<TsFileResource> selectedTsFileResourceList,
+      boolean sequence,
+      AtomicInteger currentTaskNum,
+      long serialId) {
+    super(
+        timePartition,
+        tsFileManager,
+        selectedTsFileResourceList,
+        sequence,
+        new ReadChunkCompactionPerformer(),
+        currentTaskNum,
+        serialId);
+  }
+
+  @Override
+  protected void doCompaction() {
+    // the TTL may be changed after the task is submitted
+    ((ReadChunkCompactionPerformer) performer)
+        .setTTLLowerBound(CleanupCompactionSelector.getTTLLowerBound(tsFileManager.getDataTTL()));
+    super.doCompaction();
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.inner.hybrid;
+
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.timeindex.TimeIndexLevel;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * CompactionCandidate accumulates the consecutive files of a candidate inner space compaction task,
+ * and scores the task with a cost model:
+ *
+ * <p>score = fileReductionPerQuery * (1 + overlapRatio) / writeAmplification
+ *
+ * <ul>
+ *   <li>fileReductionPerQuery is the average number of files saved by a query on one device after
+ *       compaction, which is calculated by the device time index of the files. A file only having
+ *       file time index is regarded as containing all the devices.
+ *   <li>overlapRatio is the ratio of the files whose device time range overlaps with the previous
+ *       files. Overlapped files have to be merged during query, so compacting them benefits more.
+ *   <li>writeAmplification is the bytes written by the task divided by the bytes of the files
+ *       except the largest one. Merging files of similar size like tiered compaction has a low
+ *       write amplification, while merging small files into a large one like leveled compaction has
+ *       a high one.
+ * </ul>
+ */
+public class CompactionCandidate {
+  private final int startIndex;
+  private int fileNum = 0;
+  private long totalFileSize = 0L;
+  private long maxFileSize = 0L;
+
+  // files only having file time index
+  private int degradedFileNum = 0;
+  private int overlappedDegradedFileNum = 0;
+  private long minStartTime = Long.MAX_VALUE;
+  private long maxEndTime = Long.MIN_VALUE;
+
+  private final Map<String, DeviceStatistics> deviceStatisticsMap = new HashMap<>();
+  private int deviceFileNum = 0;
+  private int overlappedDeviceFileNum = 0;
+
+  /** @param startIndex the index of the first file of the candidate in the file list */
+  public CompactionCandidate(int startIndex) {
+    this.startIndex = startIndex;
+  }
+
+  public void addFile(TsFileResource resource) {
+    long fileSize = resource.getTsFileSize();
+    totalFileSize += fileSize;
+    maxFileSize = Math.max(maxFileSize, fileSize);
+
+    if (TimeIndexLevel.valueOf(resource.getTimeIndexType()) == TimeIndexLevel.DEVICE_TIME_INDEX) {
+      for (String device : resource.getDevices()) {
+        long startTime = resource.getStartTime(device);
+        long endTime = resource.getEndTime(device);
+        DeviceStatistics statistics =
+            deviceStatisticsMap.computeIfAbsent(device, d -> new DeviceStatistics());
+        if (statistics.fileNum > 0
+            && startTime <= statistics.maxEndTime
+            && endTime >= statistics.minStartTime) {
+          overlappedDeviceFileNum++;
+        }
+        statistics.update(startTime, endTime);
+        deviceFileNum++;
+        minStartTime = Math.min(minStartTime, startTime);
+        maxEndTime = Math.max(maxEndTime, endTime);
+      }
+    } else {
+      long startTime = resource.getFileStartTime();
+      long endTime = resource.getFileEndTime();
+      if (fileNum > 0 && startTime <= maxEndTime && endTime >= minStartTime) {
+        overlappedDegradedFileNum++;
+      }
+      degradedFileNum++;
+      minStartTime = Math.min(minStartTime, startTime);
+      maxEndTime = Math.max(maxEndTime, endTime);
+    }
+    fileNum++;
+  }
+
+  public double getFileReductionPerQuery() {
+    if (deviceStatisticsMap.isEmpty()) {
+      return Math.max(0, fileNum - 1);
+    }
+    // each device is read from all the files containing it and all the degraded files
+    return (double) deviceFileNum / deviceStatisticsMap.size() + degradedFileNum - 1;
+  }
+
+  public double getOverlapRatio() {
+    int totalFileNum = deviceFileNum + degradedFileNum;
+    if (totalFileNum == 0) {
+      return 0;
+    }
+    return (double) (overlappedDeviceFileNum + overlappedDegradedFileNum) / totalFileNum;
+  }
+
+  public double getWriteAmplification() {
+    if (totalFileSize == 0L) {
+      return 1;
+    }
+    if (totalFileSize == maxFileSize) {
+      // all the data is in one file, the compaction only rewrites it
+      return Double.POSITIVE_INFINITY;
+    }
+    return (double) totalFileSize / (totalFileSize - maxFileSize);
+  }
+
+  public double getScore() {
+    return getFileReductionPerQuery() * (1 + getOverlapRatio()) / getWriteAmplification();
+  }
+
+  public int getStartIndex() {
+    return startIndex;
+  }
+
+  public int getFileNum() {
+    return fileNum;
+  }
+
+  public long getTotalFileSize() {
+    return totalFileSize;
+  }
+
+  private static class DeviceStatistics {
+    private int fileNum = 0;
+    private long minStartTime = Long.MAX_VALUE;
+    private long maxEndTime = Long.MIN_VALUE;
+
+    private void update(long startTime, long endTime) {
+      fileNum++;
+      minStartTime = Math.min(minStartTime, startTime);
+      maxEndTime = Math.max(maxEndTime, endTime);
+    }
+  }
+}
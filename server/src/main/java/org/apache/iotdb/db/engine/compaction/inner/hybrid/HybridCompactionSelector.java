@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.inner.hybrid;
+
+import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.compaction.inner.IInnerSeqSpaceSelector;
+import org.apache.iotdb.db.engine.compaction.inner.IInnerUnseqSpaceSelector;
+import org.apache.iotdb.db.engine.storagegroup.TsFileManager;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * HybridCompactionSelector mixes tiered and leveled compaction. Unlike {@link
+ * org.apache.iotdb.db.engine.compaction.inner.sizetiered.SizeTieredCompactionSelector}, it does not
+ * require the selected files to be in the same level. Every run of consecutive closed files within
+ * the size and number thresholds is a candidate task, which is scored by the cost model in {@link
+ * CompactionCandidate}. The candidates are selected greedily from the highest score, and each file
+ * is selected at most once.
+ *
+ * <p>A candidate is selected if its score reaches {@link
+ * IoTDBConfig#getMinInnerCompactionTaskScore()}, or it reaches the size or number thresholds as in
+ * tiered compaction, so that the number of files is always bounded. If there is a next time
+ * partition, which means the files will not be written any more, any candidate can be selected.
+ */
+public class HybridCompactionSelector implements IInnerSeqSpaceSelector, IInnerUnseqSpaceSelector {
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(IoTDBConstant.COMPACTION_LOGGER_NAME);
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  protected String storageGroupName;
+  protected String dataRegionId;
+  protected long timePartition;
+  protected boolean sequence;
+  protected TsFileManager tsFileManager;
+  protected boolean hasNextTimePartition;
+
+  // the score of each selected task, in the same order as the selected tasks
+  private final List<Double> taskScores = new ArrayList<>();
+
+  public HybridCompactionSelector(
+      String storageGroupName,
+      String dataRegionId,
+      long timePartition,
+      boolean sequence,
+      TsFileManager tsFileManager) {
+    this.storageGroupName = storageGroupName;
+    this.dataRegionId = dataRegionId;
+    this.timePartition = timePartition;
+    this.sequence = sequence;
+    this.tsFileManager = tsFileManager;
+    hasNextTimePartition = tsFileManager.hasNextTimePartition(timePartition, sequence);
+  }
+
+  @Override
+  public List<List<TsFileResource>> selectInnerSpaceTask(List<TsFileResource> tsFileResources) {
+    taskScores.clear();
+    try {
+      List<ScoredTask> candidates = collectCandidates(tsFileResources);
+      // select the candidates from the highest score, and skip the ones sharing files with the
+      // selected ones
+      candidates.sort((o1, o2) -> Double.compare(o2.score, o1.score));
+      boolean[] isSelected = new boolean[tsFileResources.size()];
+      List<List<TsFileResource>> taskList = new ArrayList<>();
+      for (ScoredTask candidate : candidates) {
+        if (!candidate.isSelectable || isAnySelected(isSelected, candidate)) {
+          continue;
+        }
+        List<TsFileResource> selectedFiles = new ArrayList<>(candidate.fileNum);
+        for (int i = candidate.startIndex; i < candidate.startIndex + candidate.fileNum; i++) {
+          isSelected[i] = true;
+          selectedFiles.add(tsFileResources.get(i));
+        }
+        LOGGER.debug(
+            "{}-{} [Compaction] select {} files with score {}",
+            storageGroupName,
+            dataRegionId,
+            selectedFiles.size(),
+            candidate.score);
+        taskList.add(selectedFiles);
+        taskScores.add(candidate.score);
+      }
+      return taskList;
+    } catch (Exception e) {
+      LOGGER.error("Exception occurs while selecting files", e);
+    }
+    taskScores.clear();
+    return Collections.emptyList();
+  }
+
+  @Override
+  public List<Double> getCompactionTaskScores() {
+    return taskScores;
+  }
+
+  private List<ScoredTask> collectCandidates(List<TsFileResource> tsFileResources) {
+    long targetCompactionFileSize = config.getTargetCompactionFileSize();
+    int maxFileNum = config.getMaxInnerCompactionCandidateFileNum();
+    double minScore = config.getMinInnerCompactionTaskScore();
+    List<ScoredTask> candidates = new ArrayList<>();
+    for (int start = 0; start < tsFileResources.size(); start++) {
+      if (!isCandidateFile(tsFileResources.get(start))) {
+        continue;
+      }
+      CompactionCandidate candidate = new CompactionCandidate(start);
+      candidate.addFile(tsFileResources.get(start));
+      for (int end = start + 1;
+          end < tsFileResources.size()
+              && candidate.getFileNum() < maxFileNum
+              && candidate.getTotalFileSize() < targetCompactionFileSize
+              && isCandidateFile(tsFileResources.get(end));
+          end++) {
+        candidate.addFile(tsFileResources.get(end));
+        double score = candidate.getScore();
+        boolean reachThreshold =
+            candidate.getFileNum() >= maxFileNum
+                || candidate.getTotalFileSize() >= targetCompactionFileSize;
+        candidates.add(
+            new ScoredTask(
+                start,
+                candidate.getFileNum(),
+                score,
+                hasNextTimePartition || reachThreshold || score >= minScore));
+      }
+    }
+    return candidates;
+  }
+
+  private boolean isCandidateFile(TsFileResource resource) {
+    return resource.getStatus() == TsFileResourceStatus.CLOSED;
+  }
+
+  private boolean isAnySelected(boolean[] isSelected, ScoredTask candidate) {
+    for (int i = candidate.startIndex; i < candidate.startIndex + candidate.fileNum; i++) {
+      if (isSelected[i]) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static class ScoredTask {
+    private final int startIndex;
+    private final int fileNum;
+    private final double score;
+    private final boolean isSelectable;
+
+    private ScoredTask(int startIndex, int fileNum, double score, boolean isSelectable) {
+      this.startIndex = startIndex;
+      this.fileNum = fileNum;
+      this.score = score;
+      this.isSelectable = isSelectable;
+    }
+  }
+}
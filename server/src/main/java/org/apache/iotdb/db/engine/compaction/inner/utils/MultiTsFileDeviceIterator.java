@@ -20,6 +20,7 @@ package org.apache.iotdb.db.engine.compaction.inner.utils;
 
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.engine.modification.Deletion;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
@@ -53,6 +54,8 @@ public class MultiTsFileDeviceIterator implements AutoCloseable {
   private Map<TsFileResource, TsFileDeviceIterator> deviceIteratorMap = new HashMap<>();
   private Map<TsFileResource, List<Modification>> modificationCache = new HashMap<>();
   private Pair<String, Boolean> currentDevice = null;
+  // the data before it is expired and treated as deleted, Long.MIN_VALUE means no TTL
+  private long ttlLowerBound = Long.MIN_VALUE;
 
   /** Used for inner space compaction. */
   public MultiTsFileDeviceIterator(List<TsFileResource> tsFileResources) throws IOException {
@@ -77,6 +80,8 @@ public class MultiTsFileDeviceIterator implements AutoCloseable {
   /** Used for cross space compaction. */
   public MultiTsFileDeviceIterator(
       List<TsFileResource> seqResources, List<TsFileResource> unseqResources) throws IOException {
+    this.tsFileResources = new ArrayList<>(seqResources);
+    this.tsFileResources.addAll(unseqResources);
     for (TsFileResource tsFileResource : seqResources) {
       TsFileSequenceReader reader =
           FileReaderManager.getInstance().get(tsFileResource.getTsFilePath(), true);
@@ -91,6 +96,20 @@ public class MultiTsFileDeviceIterator implements AutoCloseable {
     }
   }
 
+  /** Drop the data before the lower bound as if it is deleted. */
+  public void setTTLLowerBound(long ttlLowerBound) {
+    this.ttlLowerBound = ttlLowerBound;
+  }
+
+  private boolean isTTLApplied() {
+    return ttlLowerBound != Long.MIN_VALUE;
+  }
+
+  private Modification getTTLDeletion(PartialPath path) {
+    // the offset is Long.MAX_VALUE so that the deletion applies to all the chunks
+    return new Deletion(path, Long.MAX_VALUE, Long.MIN_VALUE, ttlLowerBound - 1);
+  }
+
   public boolean hasNextDevice() {
     boolean hasNext = false;
     for (TsFileDeviceIterator iterator : deviceIteratorMap.values()) {
@@ -200,12 +219,14 @@ public class MultiTsFileDeviceIterator implements AutoCloseable {
   private void applyModificationForAlignedChunkMetadataList(
       TsFileResource tsFileResource, List<AlignedChunkMetadata> alignedChunkMetadataList) {
     ModificationFile modificationFile = ModificationFile.getNormalMods(tsFileResource);
-    if (!modificationFile.exists()) {
+    if (alignedChunkMetadataList.isEmpty() || (!modificationFile.exists() && !isTTLApplied())) {
       return;
     }
     List<Modification> modifications =
-        modificationCache.computeIfAbsent(
-            tsFileResource, r -> new ArrayList<>(modificationFile.getModifications()));
+        modificationFile.exists()
+            ? modificationCache.computeIfAbsent(
+                tsFileResource, r -> new ArrayList<>(modificationFile.getModifications()))
+            : Collections.emptyList();
 
     // construct the input params List<List<Modification>> for QueryUtils.modifyAlignedChunkMetaData
     AlignedChunkMetadata alignedChunkMetadata = alignedChunkMetadataList.get(0);
@@ -226,6 +247,13 @@ public class MultiTsFileDeviceIterator implements AutoCloseable {
       }
     }
 
+    if (isTTLApplied()) {
+      Modification ttlDeletion = getTTLDeletion(new PartialPath(currentDevice.left, true));
+      for (List<Modification> modificationsOfOneSensor : modificationForCurDevice) {
+        modificationsOfOneSensor.add(ttlDeletion);
+      }
+    }
+
     QueryUtils.modifyAlignedChunkMetaData(alignedChunkMetadataList, modificationForCurDevice);
   }
 
@@ -414,6 +442,10 @@ public class MultiTsFileDeviceIterator implements AutoCloseable {
             }
           }
 
+          if (isTTLApplied()) {
+            modificationForCurrentSeries.add(getTTLDeletion(path));
+          }
+
           // if there are modifications of current series, apply them to the chunk metadata
           if (modificationForCurrentSeries.size() != 0) {
             QueryUtils.modifyChunkMetaData(
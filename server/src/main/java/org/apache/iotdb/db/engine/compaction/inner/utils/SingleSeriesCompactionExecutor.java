@@ -20,28 +20,37 @@ package org.apache.iotdb.db.engine.compaction.inner.utils;
 
 import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
-import org.apache.iotdb.db.engine.compaction.CompactionTaskManager;
+import org.apache.iotdb.db.engine.compaction.CompactionIOController;
 import org.apache.iotdb.db.engine.compaction.constant.CompactionType;
 import org.apache.iotdb.db.engine.compaction.constant.ProcessChunkType;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.service.metrics.recorder.CompactionMetricsRecorder;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.exception.write.PageException;
+import org.apache.iotdb.tsfile.file.MetaMarker;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.reader.IChunkReader;
 import org.apache.iotdb.tsfile.read.reader.IPointReader;
 import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.read.reader.page.PageReader;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
 import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
 
-import com.google.common.util.concurrent.RateLimiter;
-
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -57,8 +66,6 @@ public class SingleSeriesCompactionExecutor {
   private ChunkWriterImpl chunkWriter;
   private Chunk cachedChunk;
   private ChunkMetadata cachedChunkMetadata;
-  private RateLimiter compactionRateLimiter =
-      CompactionTaskManager.getInstance().getMergeWriteRateLimiter();
   // record the min time and max time to update the target resource
   private long minStartTimestamp = Long.MAX_VALUE;
   private long maxEndTimestamp = Long.MIN_VALUE;
@@ -121,8 +128,10 @@ public class SingleSeriesCompactionExecutor {
         if (this.chunkWriter == null) {
           constructChunkWriterFromReadChunk(currentChunk);
         }
-        CompactionMetricsRecorder.recordReadInfo(
-            currentChunk.getHeader().getSerializedSize() + currentChunk.getHeader().getDataSize());
+        long readBytes =
+            currentChunk.getHeader().getSerializedSize() + currentChunk.getHeader().getDataSize();
+        CompactionIOController.getInstance().acquireRead(readBytes);
+        CompactionMetricsRecorder.recordReadInfo(readBytes);
 
         // if this chunk is modified, deserialize it into points
         if (chunkMetadata.getDeleteIntervalList() != null) {
@@ -176,10 +185,108 @@ public class SingleSeriesCompactionExecutor {
       writeCachedChunkIntoChunkWriter();
     }
     // write this chunk to ChunkWriter
-    writeChunkIntoChunkWriter(chunk);
+    writeModifiedChunkIntoChunkWriter(chunk);
     flushChunkWriterIfLargeEnough();
   }
 
+  /**
+   * Write a modified chunk to the chunkWriter page by page. The pages totally deleted are dropped
+   * by their statistics, and the pages not touched by the deletions are appended to the chunkWriter
+   * without being decompressed. Only the partially deleted pages are deserialized. Copying a page
+   * seals the page being written, so the pages are copied only if the chunk is large, as a large
+   * chunk not modified is flushed as it is. The pages of smaller chunks are all deserialized and
+   * merged with the adjacent points.
+   */
+  private void writeModifiedChunkIntoChunkWriter(Chunk chunk) throws IOException {
+    ChunkHeader chunkHeader = chunk.getHeader();
+    ByteBuffer chunkDataBuffer = chunk.getData();
+    List<TimeRange> deleteIntervalList = chunk.getDeleteIntervalList();
+    boolean copyUntouchedPages =
+        chunkHeader.getDataType() == schema.getType()
+            && chunkHeader.getEncodingType() == schema.getEncodingType()
+            && chunkHeader.getCompressionType() == schema.getCompressor()
+            && (getChunkSize(chunk) >= targetChunkSize
+                || chunk.getChunkStatistic().getCount() >= targetChunkPointNum);
+    while (chunkDataBuffer.remaining() > 0) {
+      PageHeader pageHeader;
+      if (((byte) (chunkHeader.getChunkType() & 0x3F)) == MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER) {
+        pageHeader = PageHeader.deserializeFrom(chunkDataBuffer, chunk.getChunkStatistic());
+      } else {
+        pageHeader = PageHeader.deserializeFrom(chunkDataBuffer, chunkHeader.getDataType());
+      }
+      ByteBuffer compressedPageData = chunkDataBuffer.slice();
+      compressedPageData.limit(pageHeader.getCompressedSize());
+      chunkDataBuffer.position(chunkDataBuffer.position() + pageHeader.getCompressedSize());
+      if (pageHeader.getUncompressedSize() == 0 || isPageDeleted(pageHeader, deleteIntervalList)) {
+        continue;
+      }
+      if (!pageHeader.isModified() && copyUntouchedPages) {
+        // seal the points remaining in the page writer first to keep the pages in time order
+        chunkWriter.sealCurrentPage();
+        try {
+          chunkWriter.writePageHeaderAndDataIntoBuff(compressedPageData, pageHeader);
+        } catch (PageException e) {
+          throw new IOException(e);
+        }
+        pointCountInChunkWriter += pageHeader.getStatistics().getCount();
+        minStartTimestamp = Math.min(minStartTimestamp, pageHeader.getStartTime());
+        maxEndTimestamp = Math.max(maxEndTimestamp, pageHeader.getEndTime());
+      } else {
+        writePageIntoChunkWriter(chunkHeader, pageHeader, compressedPageData, deleteIntervalList);
+      }
+    }
+  }
+
+  private boolean isPageDeleted(PageHeader pageHeader, List<TimeRange> deleteIntervalList) {
+    if (deleteIntervalList == null) {
+      return false;
+    }
+    for (TimeRange range : deleteIntervalList) {
+      if (range.contains(pageHeader.getStartTime(), pageHeader.getEndTime())) {
+        return true;
+      }
+      if (range.overlaps(new TimeRange(pageHeader.getStartTime(), pageHeader.getEndTime()))) {
+        pageHeader.setModified(true);
+      }
+    }
+    return false;
+  }
+
+  private void writePageIntoChunkWriter(
+      ChunkHeader chunkHeader,
+      PageHeader pageHeader,
+      ByteBuffer compressedPageData,
+      List<TimeRange> deleteIntervalList)
+      throws IOException {
+    byte[] uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
+    IUnCompressor.getUnCompressor(chunkHeader.getCompressionType())
+        .uncompress(
+            compressedPageData.array(),
+            compressedPageData.arrayOffset() + compressedPageData.position(),
+            compressedPageData.remaining(),
+            uncompressedPageData,
+            0);
+    PageReader pageReader =
+        new PageReader(
+            pageHeader,
+            ByteBuffer.wrap(uncompressedPageData),
+            chunkHeader.getDataType(),
+            Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType()),
+            Decoder.getDecoderByType(
+                TSEncoding.valueOf(TSFileDescriptor.getInstance().getConfig().getTimeEncoder()),
+                TSDataType.INT64),
+            null);
+    pageReader.setDeleteIntervalList(deleteIntervalList);
+    IPointReader pointReader = pageReader.getAllSatisfiedPageData().getBatchDataIterator();
+    while (pointReader.hasNextTimeValuePair()) {
+      TimeValuePair timeValuePair = pointReader.nextTimeValuePair();
+      writeTimeAndValueToChunkWriter(timeValuePair);
+      minStartTimestamp = Math.min(minStartTimestamp, timeValuePair.getTimestamp());
+      maxEndTimestamp = Math.max(maxEndTimestamp, timeValuePair.getTimestamp());
+      pointCountInChunkWriter++;
+    }
+  }
+
   private void processLargeChunk(Chunk chunk, ChunkMetadata chunkMetadata) throws IOException {
     if (pointCountInChunkWriter != 0L) {
       // if there are points remaining in ChunkWriter
@@ -297,7 +404,7 @@ public class SingleSeriesCompactionExecutor {
 
   private void flushChunkToFileWriter(
       Chunk chunk, ChunkMetadata chunkMetadata, boolean isCachedChunk) throws IOException {
-    CompactionTaskManager.mergeRateLimiterAcquire(compactionRateLimiter, getChunkSize(chunk));
+    CompactionIOController.getInstance().acquireWrite(getChunkSize(chunk));
     if (chunkMetadata.getStartTime() < minStartTimestamp) {
       minStartTimestamp = chunkMetadata.getStartTime();
     }
@@ -315,8 +422,7 @@ public class SingleSeriesCompactionExecutor {
   private void flushChunkWriterIfLargeEnough() throws IOException {
     if (pointCountInChunkWriter >= targetChunkPointNum
         || chunkWriter.estimateMaxSeriesMemSize() >= targetChunkSize) {
-      CompactionTaskManager.mergeRateLimiterAcquire(
-          compactionRateLimiter, chunkWriter.estimateMaxSeriesMemSize());
+      CompactionIOController.getInstance().acquireWrite(chunkWriter.estimateMaxSeriesMemSize());
       CompactionMetricsRecorder.recordWriteInfo(
           CompactionType.INNER_SEQ_COMPACTION,
           ProcessChunkType.DESERIALIZE_CHUNK,
@@ -337,8 +443,7 @@ public class SingleSeriesCompactionExecutor {
   }
 
   private void flushChunkWriter() throws IOException {
-    CompactionTaskManager.mergeRateLimiterAcquire(
-        compactionRateLimiter, chunkWriter.estimateMaxSeriesMemSize());
+    CompactionIOController.getInstance().acquireWrite(chunkWriter.estimateMaxSeriesMemSize());
     CompactionMetricsRecorder.recordWriteInfo(
         CompactionType.INNER_SEQ_COMPACTION,
         ProcessChunkType.DESERIALIZE_CHUNK,
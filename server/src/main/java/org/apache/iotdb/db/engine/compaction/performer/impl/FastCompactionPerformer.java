@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.performer.impl;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.db.engine.compaction.cross.rewrite.task.FastCompactionPerformerSubTask;
+import org.apache.iotdb.db.engine.compaction.inner.utils.MultiTsFileDeviceIterator;
+import org.apache.iotdb.db.engine.compaction.writer.AbstractCompactionWriter;
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.utils.Pair;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * The fast performer compacts the non aligned series at the granularity of chunk and page. The
+ * chunks and pages which do not overlap with others are written into the target files without being
+ * decompressed, and only the overlapped pages are deserialized and merged, see {@link
+ * FastCompactionPerformerSubTask}. The aligned series are still compacted point by point.
+ */
+public class FastCompactionPerformer extends ReadPointCompactionPerformer {
+
+  public FastCompactionPerformer(
+      List<TsFileResource> seqFiles,
+      List<TsFileResource> unseqFiles,
+      List<TsFileResource> targetFiles) {
+    super(seqFiles, unseqFiles, targetFiles);
+  }
+
+  public FastCompactionPerformer(List<TsFileResource> seqFiles, List<TsFileResource> unseqFiles) {
+    super(seqFiles, unseqFiles);
+  }
+
+  public FastCompactionPerformer() {}
+
+  @Override
+  protected void compactNonAlignedSeries(
+      String device,
+      MultiTsFileDeviceIterator deviceIterator,
+      AbstractCompactionWriter compactionWriter,
+      FragmentInstanceContext fragmentInstanceContext,
+      QueryDataSource queryDataSource)
+      throws IOException, InterruptedException, IllegalPathException {
+    // the measurement iterator can not be shared by sub tasks, so collect the chunk metadata of
+    // all the series in advance
+    MultiTsFileDeviceIterator.MeasurementIterator measurementIterator =
+        deviceIterator.iterateNotAlignedSeries(device, true);
+    Map<String, List<Pair<TsFileSequenceReader, List<ChunkMetadata>>>> readerAndChunkMetadataMap =
+        new HashMap<>();
+    while (measurementIterator.hasNextSeries()) {
+      // a series may be returned once for each source file containing it, and the chunk metadata
+      // are all collected the first time, so the following lists are empty
+      String measurement = measurementIterator.nextSeries();
+      readerAndChunkMetadataMap
+          .computeIfAbsent(measurement, k -> new ArrayList<>())
+          .addAll(measurementIterator.getMetadataListForCurrentSeries());
+    }
+    Set<String> allMeasurements = readerAndChunkMetadataMap.keySet();
+    Map<String, MeasurementSchema> schemaMap = getMeasurementSchema(device, allMeasurements);
+
+    Set<String>[] measurementsForEachSubTask = assignMeasurementsToSubTasks(allMeasurements);
+    List<Callable<Void>> subTasks = new ArrayList<>();
+    for (int i = 0; i < measurementsForEachSubTask.length; i++) {
+      subTasks.add(
+          new FastCompactionPerformerSubTask(
+              device,
+              measurementsForEachSubTask[i],
+              readerAndChunkMetadataMap,
+              fragmentInstanceContext,
+              queryDataSource,
+              compactionWriter,
+              schemaMap,
+              i));
+    }
+    compactionWriter.startChunkGroup(device, false);
+    submitSubTasksAndWait(subTasks);
+    compactionWriter.endChunkGroup();
+  }
+}
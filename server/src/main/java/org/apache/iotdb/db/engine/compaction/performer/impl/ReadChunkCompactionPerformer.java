@@ -46,8 +46,11 @@ public class ReadChunkCompactionPerformer implements ISeqCompactionPerformer {
   private static final Logger LOGGER =
       LoggerFactory.getLogger(IoTDBConstant.COMPACTION_LOGGER_NAME);
   private TsFileResource targetResource;
+  private List<TsFileResource> targetFiles;
   private List<TsFileResource> seqFiles;
   private CompactionTaskSummary summary;
+  // the data before it is expired and dropped, Long.MIN_VALUE means no TTL
+  private long ttlLowerBound = Long.MIN_VALUE;
 
   public ReadChunkCompactionPerformer(List<TsFileResource> sourceFiles, TsFileResource targetFile) {
     this.seqFiles = sourceFiles;
@@ -65,6 +68,7 @@ public class ReadChunkCompactionPerformer implements ISeqCompactionPerformer {
       throws IOException, MetadataException, InterruptedException, StorageEngineException {
     try (MultiTsFileDeviceIterator deviceIterator = new MultiTsFileDeviceIterator(seqFiles);
         TsFileIOWriter writer = new TsFileIOWriter(targetResource.getTsFile())) {
+      deviceIterator.setTTLLowerBound(ttlLowerBound);
       while (deviceIterator.hasNextDevice()) {
         Pair<String, Boolean> deviceInfo = deviceIterator.nextDevice();
         String device = deviceInfo.left;
@@ -85,6 +89,16 @@ public class ReadChunkCompactionPerformer implements ISeqCompactionPerformer {
       writer.endFile();
       targetResource.close();
     }
+    if (targetFiles != null && targetResource.getFileStartTime() == Long.MAX_VALUE) {
+      // all the data is deleted or expired, remove the empty target file
+      targetResource.getTsFile().delete();
+      targetFiles.remove(targetResource);
+    }
+  }
+
+  /** Drop the data before the lower bound as if it is deleted. */
+  public void setTTLLowerBound(long ttlLowerBound) {
+    this.ttlLowerBound = ttlLowerBound;
   }
 
   @Override
@@ -95,6 +109,7 @@ public class ReadChunkCompactionPerformer implements ISeqCompactionPerformer {
               "Current performer only supports for one target file while getting %d target files",
               targetFiles.size()));
     }
+    this.targetFiles = targetFiles;
     this.targetResource = targetFiles.get(0);
   }
 
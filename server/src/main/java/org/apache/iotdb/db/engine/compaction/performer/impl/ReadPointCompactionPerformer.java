@@ -22,8 +22,8 @@ import org.apache.iotdb.commons.conf.IoTDBConstant;
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.exception.MetadataException;
 import org.apache.iotdb.commons.path.PartialPath;
-import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.cache.ChunkCache;
+import org.apache.iotdb.db.engine.compaction.CompactionIOController;
 import org.apache.iotdb.db.engine.compaction.CompactionTaskManager;
 import org.apache.iotdb.db.engine.compaction.cross.rewrite.task.ReadPointPerformerSubTask;
 import org.apache.iotdb.db.engine.compaction.inner.utils.MultiTsFileDeviceIterator;
@@ -49,11 +49,9 @@ import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
-import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
-import org.apache.iotdb.tsfile.read.reader.IPointReader;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
@@ -71,6 +69,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.stream.Collectors;
@@ -80,8 +79,6 @@ public class ReadPointCompactionPerformer
   private Logger LOGGER = LoggerFactory.getLogger(IoTDBConstant.COMPACTION_LOGGER_NAME);
   private List<TsFileResource> seqFiles = Collections.emptyList();
   private List<TsFileResource> unseqFiles = Collections.emptyList();
-  private static final int subTaskNum =
-      IoTDBDescriptor.getInstance().getConfig().getSubCompactionTaskNum();
   private Map<TsFileResource, TsFileSequenceReader> readerCacheMap = new HashMap<>();
   private CompactionTaskSummary summary;
 
@@ -194,7 +191,7 @@ public class ReadPointCompactionPerformer
     }
   }
 
-  private void compactNonAlignedSeries(
+  protected void compactNonAlignedSeries(
       String device,
       MultiTsFileDeviceIterator deviceIterator,
       AbstractCompactionWriter compactionWriter,
@@ -204,10 +201,32 @@ public class ReadPointCompactionPerformer
     MultiTsFileDeviceIterator.MeasurementIterator measurementIterator =
         deviceIterator.iterateNotAlignedSeries(device, false);
     Set<String> allMeasurements = measurementIterator.getAllMeasurements();
-    int subTaskNums = Math.min(allMeasurements.size(), subTaskNum);
     Map<String, MeasurementSchema> schemaMap = getMeasurementSchema(device, allMeasurements);
 
-    // assign all measurements to different sub tasks
+    // construct sub tasks and start compacting measurements in parallel
+    Set<String>[] measurementsForEachSubTask = assignMeasurementsToSubTasks(allMeasurements);
+    List<Callable<Void>> subTasks = new ArrayList<>();
+    for (int i = 0; i < measurementsForEachSubTask.length; i++) {
+      subTasks.add(
+          new ReadPointPerformerSubTask(
+              device,
+              measurementsForEachSubTask[i],
+              fragmentInstanceContext,
+              queryDataSource,
+              compactionWriter,
+              schemaMap,
+              i));
+    }
+    compactionWriter.startChunkGroup(device, false);
+    submitSubTasksAndWait(subTasks);
+    compactionWriter.endChunkGroup();
+  }
+
+  /** Assign all measurements to different sub tasks. */
+  protected static Set<String>[] assignMeasurementsToSubTasks(Set<String> allMeasurements) {
+    int subTaskNums =
+        Math.min(
+            allMeasurements.size(), CompactionIOController.getInstance().getSubCompactionTaskNum());
     Set<String>[] measurementsForEachSubTask = new HashSet[subTaskNums];
     int idx = 0;
     for (String measurement : allMeasurements) {
@@ -216,38 +235,28 @@ public class ReadPointCompactionPerformer
       }
       measurementsForEachSubTask[idx++ % subTaskNums].add(measurement);
     }
+    return measurementsForEachSubTask;
+  }
 
-    // construct sub tasks and start compacting measurements in parallel
+  protected void submitSubTasksAndWait(List<Callable<Void>> subTasks)
+      throws IOException, InterruptedException {
     List<Future<Void>> futures = new ArrayList<>();
-    compactionWriter.startChunkGroup(device, false);
-    for (int i = 0; i < subTaskNums; i++) {
-      futures.add(
-          CompactionTaskManager.getInstance()
-              .submitSubTask(
-                  new ReadPointPerformerSubTask(
-                      device,
-                      measurementsForEachSubTask[i],
-                      fragmentInstanceContext,
-                      queryDataSource,
-                      compactionWriter,
-                      schemaMap,
-                      i)));
+    for (Callable<Void> subTask : subTasks) {
+      futures.add(CompactionTaskManager.getInstance().submitSubTask(subTask));
     }
 
     // wait for all sub tasks finish
-    for (int i = 0; i < subTaskNums; i++) {
+    for (Future<Void> future : futures) {
       try {
-        futures.get(i).get();
+        future.get();
       } catch (ExecutionException e) {
         LOGGER.error("[Compaction] SubCompactionTask meet errors ", e);
         throw new IOException(e);
       }
     }
-
-    compactionWriter.endChunkGroup();
   }
 
-  private Map<String, MeasurementSchema> getMeasurementSchema(
+  protected Map<String, MeasurementSchema> getMeasurementSchema(
       String device, Set<String> measurements) throws IllegalPathException, IOException {
     HashMap<String, MeasurementSchema> schemaMap = new HashMap<>();
     List<TsFileResource> allResources = new LinkedList<>(seqFiles);
@@ -369,22 +378,17 @@ public class ReadPointCompactionPerformer
   public static void writeWithReader(
       AbstractCompactionWriter writer, IDataBlockReader reader, int subTaskId, boolean isAligned)
       throws IOException {
+    // the whole TsBlock is written column by column for both aligned and non aligned series
     while (reader.hasNextBatch()) {
       TsBlock tsBlock = reader.nextBatch();
-      if (isAligned) {
-        writer.write(
-            tsBlock.getTimeColumn(),
-            tsBlock.getValueColumns(),
-            subTaskId,
-            tsBlock.getPositionCount());
-      } else {
-        IPointReader pointReader = tsBlock.getTsBlockSingleColumnIterator();
-        while (pointReader.hasNextTimeValuePair()) {
-          TimeValuePair timeValuePair = pointReader.nextTimeValuePair();
-          writer.write(
-              timeValuePair.getTimestamp(), timeValuePair.getValue().getValue(), subTaskId);
-        }
-      }
+      // the data is read through the query engine, so the size of the decoded block is used as an
+      // estimation of the bytes read
+      CompactionIOController.getInstance().acquireRead(tsBlock.getRetainedSizeInBytes());
+      writer.write(
+          tsBlock.getTimeColumn(),
+          tsBlock.getValueColumns(),
+          subTaskId,
+          tsBlock.getPositionCount());
     }
   }
 
@@ -23,6 +23,8 @@ public class CompactionTaskSummary {
   private long timeCost = 0L;
   private volatile Status status = Status.NOT_STARTED;
   private long startTime = -1L;
+  // the score evaluated by the selector, NaN if the selector does not score tasks
+  private double selectionScore = Double.NaN;
 
   public CompactionTaskSummary() {}
 
@@ -65,6 +67,18 @@ public class CompactionTaskSummary {
     return timeCost;
   }
 
+  public double getSelectionScore() {
+    return selectionScore;
+  }
+
+  public void setSelectionScore(double selectionScore) {
+    this.selectionScore = selectionScore;
+  }
+
+  public boolean hasSelectionScore() {
+    return !Double.isNaN(selectionScore);
+  }
+
   enum Status {
     NOT_STARTED,
     STARTED,
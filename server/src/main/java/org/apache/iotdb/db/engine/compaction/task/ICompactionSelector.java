@@ -60,10 +60,21 @@ public interface ICompactionSelector {
     return Collections.emptyList();
   }
 
+  /*
+   * The score of each selected task evaluated by the selector, in the same order as the selected
+   * tasks. The task with higher score is executed first. Empty if the selector does not score tasks.
+   */
+  default List<Double> getCompactionTaskScores() {
+    return Collections.emptyList();
+  }
+
   static AbstractCompactionEstimator getCompactionEstimator(
       CrossCompactionPerformer compactionPerformer, boolean isInnerSpace) {
     switch (compactionPerformer) {
       case READ_POINT:
+      case FAST:
+        // the fast performer deserializes no more data than the read point performer, so the
+        // estimation of read point performer is an upper bound of it
         if (!isInnerSpace) {
           return new ReadPointCrossCompactionEstimator();
         }
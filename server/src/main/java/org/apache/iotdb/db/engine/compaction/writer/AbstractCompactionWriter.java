@@ -19,11 +19,15 @@
 package org.apache.iotdb.db.engine.compaction.writer;
 
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
-import org.apache.iotdb.db.engine.compaction.CompactionTaskManager;
+import org.apache.iotdb.db.engine.compaction.CompactionIOController;
 import org.apache.iotdb.db.engine.compaction.constant.CompactionType;
 import org.apache.iotdb.db.engine.compaction.constant.ProcessChunkType;
 import org.apache.iotdb.db.service.metrics.recorder.CompactionMetricsRecorder;
+import org.apache.iotdb.tsfile.exception.write.PageException;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
 import org.apache.iotdb.tsfile.utils.Binary;
@@ -35,6 +39,7 @@ import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 public abstract class AbstractCompactionWriter implements AutoCloseable {
@@ -75,6 +80,23 @@ public abstract class AbstractCompactionWriter implements AutoCloseable {
   public abstract void write(TimeColumn timestamps, Column[] columns, int subTaskId, int batchSize)
       throws IOException;
 
+  /**
+   * Write a whole chunk of the non aligned series into the target file without deserializing it.
+   * Return false if the chunk cannot be written as a whole, e.g. it spans several target files, and
+   * then the caller should deserialize it.
+   */
+  public abstract boolean flushNonAlignedChunk(
+      Chunk chunk, ChunkMetadata chunkMetadata, int subTaskId) throws IOException;
+
+  /**
+   * Append a compressed page of the non aligned series into the chunk writer without deserializing
+   * it. Return false if the page cannot be written as a whole, e.g. it spans several target files,
+   * and then the caller should deserialize it.
+   */
+  public abstract boolean flushNonAlignedPage(
+      ByteBuffer compressedPageData, PageHeader pageHeader, int subTaskId)
+      throws IOException, PageException;
+
   public abstract void endFile() throws IOException;
 
   public abstract void close() throws IOException;
@@ -140,6 +162,20 @@ public abstract class AbstractCompactionWriter implements AutoCloseable {
     measurementPointCountArray[subTaskId] += 1;
   }
 
+  /**
+   * Write a batch of points into the chunk writer column by column. For the non aligned series
+   * there is only one value column.
+   */
+  protected void writeDataBlock(
+      TimeColumn timestamps, Column[] columns, int subTaskId, int batchSize) {
+    if (isAlign) {
+      ((AlignedChunkWriterImpl) chunkWriters[subTaskId]).write(timestamps, columns, batchSize);
+    } else {
+      ((ChunkWriterImpl) chunkWriters[subTaskId]).write(timestamps, columns[0], batchSize);
+    }
+    measurementPointCountArray[subTaskId] += batchSize;
+  }
+
   protected void flushChunkToFileWriter(TsFileIOWriter targetWriter, int subTaskId)
       throws IOException {
     writeRateLimit(chunkWriters[subTaskId].estimateMaxSeriesMemSize());
@@ -148,14 +184,40 @@ public abstract class AbstractCompactionWriter implements AutoCloseable {
     }
   }
 
+  protected void flushNonAlignedChunkToFileWriter(
+      TsFileIOWriter targetWriter, Chunk chunk, ChunkMetadata chunkMetadata, int subTaskId)
+      throws IOException {
+    // flush the points remaining in the chunk writer first to keep the chunks in time order
+    flushChunkToFileWriter(targetWriter, subTaskId);
+    long chunkSize = chunk.getHeader().getSerializedSize() + chunk.getHeader().getDataSize();
+    writeRateLimit(chunkSize);
+    synchronized (targetWriter) {
+      targetWriter.writeChunk(chunk, chunkMetadata);
+    }
+    CompactionMetricsRecorder.recordWriteInfo(
+        getCompactionType(), ProcessChunkType.FLUSH_CHUNK, false, chunkSize);
+  }
+
+  protected void flushNonAlignedPageToChunkWriter(
+      ByteBuffer compressedPageData, PageHeader pageHeader, int subTaskId) throws PageException {
+    ChunkWriterImpl chunkWriter = (ChunkWriterImpl) chunkWriters[subTaskId];
+    // seal the points remaining in the page writer first to keep the pages in time order
+    chunkWriter.sealCurrentPage();
+    chunkWriter.writePageHeaderAndDataIntoBuff(compressedPageData, pageHeader);
+    measurementPointCountArray[subTaskId] += pageHeader.getStatistics().getCount();
+    CompactionMetricsRecorder.recordWriteInfo(
+        getCompactionType(),
+        ProcessChunkType.FLUSH_PAGE,
+        false,
+        pageHeader.getSerializedPageSize());
+  }
+
   protected void checkChunkSizeAndMayOpenANewChunk(TsFileIOWriter fileWriter, int subTaskId)
       throws IOException {
     if (checkChunkSize(subTaskId)) {
       flushChunkToFileWriter(fileWriter, subTaskId);
       CompactionMetricsRecorder.recordWriteInfo(
-          this instanceof CrossSpaceCompactionWriter
-              ? CompactionType.CROSS_COMPACTION
-              : CompactionType.INNER_UNSEQ_COMPACTION,
+          getCompactionType(),
           ProcessChunkType.DESERIALIZE_CHUNK,
           this.isAlign,
           chunkWriters[subTaskId].estimateMaxSeriesMemSize());
@@ -171,9 +233,14 @@ public abstract class AbstractCompactionWriter implements AutoCloseable {
     }
   }
 
+  private CompactionType getCompactionType() {
+    return this instanceof CrossSpaceCompactionWriter
+        ? CompactionType.CROSS_COMPACTION
+        : CompactionType.INNER_UNSEQ_COMPACTION;
+  }
+
   protected void writeRateLimit(long bytesLength) {
-    CompactionTaskManager.mergeRateLimiterAcquire(
-        CompactionTaskManager.getInstance().getMergeWriteRateLimiter(), bytesLength);
+    CompactionIOController.getInstance().acquireWrite(bytesLength);
   }
 
   public abstract List<TsFileIOWriter> getFileIOWriter();
@@ -20,13 +20,17 @@ package org.apache.iotdb.db.engine.compaction.writer;
 
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.tsfile.exception.write.PageException;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
+import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
-import org.apache.iotdb.tsfile.write.chunk.AlignedChunkWriterImpl;
 import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -113,13 +117,99 @@ public class CrossSpaceCompactionWriter extends AbstractCompactionWriter {
   @Override
   public void write(TimeColumn timestamps, Column[] columns, int subTaskId, int batchSize)
       throws IOException {
-    // todo control time range of target tsfile
-    checkTimeAndMayFlushChunkToCurrentFile(timestamps.getStartTime(), subTaskId);
-    AlignedChunkWriterImpl chunkWriter = (AlignedChunkWriterImpl) this.chunkWriters[subTaskId];
-    chunkWriter.write(timestamps, columns, batchSize);
-    checkChunkSizeAndMayOpenANewChunk(fileWriterList.get(seqFileIndexArray[subTaskId]), subTaskId);
-    isDeviceExistedInTargetFiles[seqFileIndexArray[subTaskId]] = true;
-    isEmptyFile[seqFileIndexArray[subTaskId]] = false;
+    if (isAlign) {
+      // todo control time range of target tsfile
+      checkTimeAndMayFlushChunkToCurrentFile(timestamps.getStartTime(), subTaskId);
+      writeDataBlock(timestamps, columns, subTaskId, batchSize);
+      checkChunkSizeAndMayOpenANewChunk(
+          fileWriterList.get(seqFileIndexArray[subTaskId]), subTaskId);
+      isDeviceExistedInTargetFiles[seqFileIndexArray[subTaskId]] = true;
+      isEmptyFile[seqFileIndexArray[subTaskId]] = false;
+      return;
+    }
+    // split the batch by the device end time of the source seq files, and write each part into
+    // its target file
+    int start = 0;
+    while (start < batchSize) {
+      checkTimeAndMayFlushChunkToCurrentFile(timestamps.getLong(start), subTaskId);
+      int fileIndex = seqFileIndexArray[subTaskId];
+      int end =
+          fileIndex == seqTsFileResources.size() - 1
+              ? batchSize
+              : getFirstIndexAfter(timestamps, start, batchSize, currentDeviceEndTime[fileIndex]);
+      if (start == 0 && end == batchSize) {
+        writeDataBlock(timestamps, columns, subTaskId, batchSize);
+      } else {
+        writeDataBlock(
+            (TimeColumn) timestamps.getRegion(start, end - start),
+            new Column[] {columns[0].getRegion(start, end - start)},
+            subTaskId,
+            end - start);
+      }
+      checkChunkSizeAndMayOpenANewChunk(fileWriterList.get(fileIndex), subTaskId);
+      isDeviceExistedInTargetFiles[fileIndex] = true;
+      isEmptyFile[fileIndex] = false;
+      start = end;
+    }
+  }
+
+  /** Get the index of the first timestamp later than the given time in [start, end). */
+  private int getFirstIndexAfter(TimeColumn timestamps, int start, int end, long time) {
+    int low = start;
+    int high = end;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (timestamps.getLong(mid) > time) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    return low;
+  }
+
+  @Override
+  public boolean flushNonAlignedChunk(Chunk chunk, ChunkMetadata chunkMetadata, int subTaskId)
+      throws IOException {
+    int fileIndex =
+        getTargetFileIndex(chunkMetadata.getStartTime(), chunkMetadata.getEndTime(), subTaskId);
+    if (fileIndex < 0) {
+      return false;
+    }
+    flushNonAlignedChunkToFileWriter(
+        fileWriterList.get(fileIndex), chunk, chunkMetadata, subTaskId);
+    isDeviceExistedInTargetFiles[fileIndex] = true;
+    isEmptyFile[fileIndex] = false;
+    return true;
+  }
+
+  @Override
+  public boolean flushNonAlignedPage(
+      ByteBuffer compressedPageData, PageHeader pageHeader, int subTaskId)
+      throws IOException, PageException {
+    int fileIndex =
+        getTargetFileIndex(pageHeader.getStartTime(), pageHeader.getEndTime(), subTaskId);
+    if (fileIndex < 0) {
+      return false;
+    }
+    flushNonAlignedPageToChunkWriter(compressedPageData, pageHeader, subTaskId);
+    checkChunkSizeAndMayOpenANewChunk(fileWriterList.get(fileIndex), subTaskId);
+    isDeviceExistedInTargetFiles[fileIndex] = true;
+    isEmptyFile[fileIndex] = false;
+    return true;
+  }
+
+  /**
+   * Get the index of the target file which the data in [startTime, endTime] should be written into,
+   * or -1 if the data spans several target files.
+   */
+  private int getTargetFileIndex(long startTime, long endTime, int subTaskId) throws IOException {
+    checkTimeAndMayFlushChunkToCurrentFile(startTime, subTaskId);
+    int fileIndex = seqFileIndexArray[subTaskId];
+    if (fileIndex == seqTsFileResources.size() - 1 || endTime <= currentDeviceEndTime[fileIndex]) {
+      return fileIndex;
+    }
+    return -1;
   }
 
   @Override
@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.db.engine.flush;
 
+import org.apache.iotdb.db.service.metrics.MetricService;
 import org.apache.iotdb.db.service.metrics.enums.Metric;
 import org.apache.iotdb.db.service.metrics.enums.Tag;
 import org.apache.iotdb.metrics.AbstractMetricService;
@@ -29,6 +30,12 @@ import org.apache.iotdb.metrics.utils.MetricType;
 import java.util.Objects;
 
 public class FlushManagerMetrics implements IMetricSet {
+  /** stages of flush pipeline, used as the name tag of flush throughput */
+  public static final String SORT_STAGE = "sort";
+
+  public static final String ENCODING_STAGE = "encoding";
+  public static final String IO_STAGE = "io";
+
   private FlushManager flushManager;
 
   public FlushManagerMetrics(FlushManager flushManager) {
@@ -57,8 +64,31 @@ public class FlushManagerMetrics implements IMetricSet {
         "running");
   }
 
+  /**
+   * Record the throughput of one stage of flushing a memtable, in points per second.
+   *
+   * @param costTimeInMs time cost of the stage, for encoding stage it's the average cost of all
+   *     encoding tasks
+   */
+  public static void recordStageThroughput(String stage, long pointNum, long costTimeInMs) {
+    if (pointNum == 0) {
+      return;
+    }
+    MetricService.getInstance()
+        .histogram(
+            pointNum * 1000 / Math.max(1, costTimeInMs),
+            Metric.FLUSH_THROUGHPUT.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            stage);
+  }
+
   @Override
   public void unbindFrom(AbstractMetricService metricService) {
+    for (String stage : new String[] {SORT_STAGE, ENCODING_STAGE, IO_STAGE}) {
+      metricService.remove(
+          MetricType.HISTOGRAM, Metric.FLUSH_THROUGHPUT.toString(), Tag.NAME.toString(), stage);
+    }
     metricService.remove(
         MetricType.GAUGE,
         Metric.QUEUE.toString(),
@@ -38,15 +38,24 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * flush task to flush one memtable using a pipeline model to flush, which is sort memtable ->
  * encoding -> write to disk (io task)
+ *
+ * <p>Series are encoded chunk group by chunk group (i.e., device by device) by several encoding
+ * tasks concurrently, the number of which is adapted to the size of the memtable. The io task
+ * writes the encoded chunk groups in the order they are sorted, which is required by the tsfile
+ * writer.
  */
 public class MemTableFlushTask {
 
@@ -54,11 +63,16 @@ public class MemTableFlushTask {
   private static final FlushSubTaskPoolManager SUB_TASK_POOL_MANAGER =
       FlushSubTaskPoolManager.getInstance();
   private static IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
-  private final Future<?> encodingTaskFuture;
+  /** series number of a memtable that one more encoding task is worth to be used for */
+  private static final int MIN_SERIES_NUM_PER_ENCODING_TASK = 1000;
+
+  private final List<Future<?>> encodingTaskFutures = new ArrayList<>();
   private final Future<?> ioTaskFuture;
   private RestorableTsFileIOWriter writer;
 
+  /** chunk groups to encode, taken by all encoding tasks */
   private final LinkedBlockingQueue<Object> encodingTaskQueue = new LinkedBlockingQueue<>();
+  /** chunk groups in sorted order, the io task waits for each of them being encoded */
   private final LinkedBlockingQueue<Object> ioTaskQueue =
       (config.isEnableMemControl() && SystemInfo.getInstance().isEncodingFasterThanIo())
           ? new LinkedBlockingQueue<>(config.getIoTaskQueueSizeForFlushing())
@@ -68,7 +82,10 @@ public class MemTableFlushTask {
 
   private IMemTable memTable;
 
-  private volatile long memSerializeTime = 0L;
+  private final int encodingTaskNum;
+  /** total encoding time of all encoding tasks */
+  private final AtomicLong memSerializeTime = new AtomicLong();
+
   private volatile long ioTime = 0L;
 
   /**
@@ -81,11 +98,22 @@ public class MemTableFlushTask {
     this.memTable = memTable;
     this.writer = writer;
     this.storageGroup = storageGroup;
-    this.encodingTaskFuture = SUB_TASK_POOL_MANAGER.submit(encodingTask);
+    this.encodingTaskNum =
+        Math.max(
+            1,
+            Math.min(
+                Math.min(
+                    config.getFlushEncodingThreadNum(),
+                    memTable.getSeriesNumber() / MIN_SERIES_NUM_PER_ENCODING_TASK),
+                memTable.getMemTableMap().size()));
+    for (int i = 0; i < encodingTaskNum; i++) {
+      this.encodingTaskFutures.add(SUB_TASK_POOL_MANAGER.submit(encodingTask));
+    }
     this.ioTaskFuture = SUB_TASK_POOL_MANAGER.submit(ioTask);
     LOGGER.debug(
-        "flush task of Storage group {} memtable is created, flushing to file {}.",
+        "flush task of Storage group {} memtable is created with {} encoding tasks, flushing to file {}.",
         storageGroup,
+        encodingTaskNum,
         writer.getFile().getName());
   }
 
@@ -102,37 +130,49 @@ public class MemTableFlushTask {
 
     long estimatedTemporaryMemSize = 0L;
     if (config.isEnableMemControl() && SystemInfo.getInstance().isEncodingFasterThanIo()) {
+      // at most ioTaskQueueSize encoded chunk groups are waiting for io
       estimatedTemporaryMemSize =
-          memTable.getSeriesNumber() == 0
+          memTable.getMemTableMap().isEmpty()
               ? 0
-              : memTable.memSize()
-                  / memTable.getSeriesNumber()
-                  * config.getIoTaskQueueSizeForFlushing();
+              : Math.min(
+                  memTable.memSize(),
+                  memTable.memSize()
+                      / memTable.getMemTableMap().size()
+                      * config.getIoTaskQueueSizeForFlushing());
       SystemInfo.getInstance().applyTemporaryMemoryForFlushing(estimatedTemporaryMemSize);
     }
     long start = System.currentTimeMillis();
     long sortTime = 0;
 
-    // for map do not use get(key) to iterate
-    for (Map.Entry<IDeviceID, IWritableMemChunkGroup> memTableEntry :
-        memTable.getMemTableMap().entrySet()) {
-      encodingTaskQueue.put(new StartFlushGroupIOTask(memTableEntry.getKey().toStringID()));
-
-      final Map<String, IWritableMemChunk> value = memTableEntry.getValue().getMemChunkMap();
-      for (Map.Entry<String, IWritableMemChunk> iWritableMemChunkEntry : value.entrySet()) {
+    try {
+      // for map do not use get(key) to iterate
+      for (Map.Entry<IDeviceID, IWritableMemChunkGroup> memTableEntry :
+          memTable.getMemTableMap().entrySet()) {
+        final Map<String, IWritableMemChunk> value = memTableEntry.getValue().getMemChunkMap();
+        List<IWritableMemChunk> seriesList = new ArrayList<>(value.size());
         long startTime = System.currentTimeMillis();
-        IWritableMemChunk series = iWritableMemChunkEntry.getValue();
-        /*
-         * sort task (first task of flush pipeline)
-         */
-        series.sortTvListForFlush();
+        for (Map.Entry<String, IWritableMemChunk> iWritableMemChunkEntry : value.entrySet()) {
+          IWritableMemChunk series = iWritableMemChunkEntry.getValue();
+          /*
+           * sort task (first task of flush pipeline)
+           */
+          series.sortTvListForFlush();
+          seriesList.add(series);
+        }
         sortTime += System.currentTimeMillis() - startTime;
-        encodingTaskQueue.put(series);
+        ChunkGroupTask chunkGroupTask =
+            new ChunkGroupTask(memTableEntry.getKey().toStringID(), seriesList);
+        // keep the order of chunk groups for io task, this may block if io is slow
+        ioTaskQueue.put(chunkGroupTask);
+        encodingTaskQueue.put(chunkGroupTask);
       }
-
-      encodingTaskQueue.put(new EndChunkGroupIoTask());
+    } finally {
+      // each encoding task ends after taking one TaskEnd
+      for (int i = 0; i < encodingTaskNum; i++) {
+        encodingTaskQueue.put(new TaskEnd());
+      }
+      ioTaskQueue.put(new TaskEnd());
     }
-    encodingTaskQueue.put(new TaskEnd());
     LOGGER.debug(
         "Storage group {} memtable flushing into file {}: data sort time cost {} ms.",
         storageGroup,
@@ -140,7 +180,9 @@ public class MemTableFlushTask {
         sortTime);
 
     try {
-      encodingTaskFuture.get();
+      for (Future<?> encodingTaskFuture : encodingTaskFutures) {
+        encodingTaskFuture.get();
+      }
     } catch (InterruptedException | ExecutionException e) {
       ioTaskFuture.cancel(true);
       throw e;
@@ -154,13 +196,20 @@ public class MemTableFlushTask {
       throw new ExecutionException(e);
     }
 
+    // encoding tasks run in parallel, so compare the average encoding time with io time
+    long encodingTime = memSerializeTime.get() / encodingTaskNum;
     if (config.isEnableMemControl()) {
       if (estimatedTemporaryMemSize != 0) {
         SystemInfo.getInstance().releaseTemporaryMemoryForFlushing(estimatedTemporaryMemSize);
       }
-      SystemInfo.getInstance().setEncodingFasterThanIo(ioTime >= memSerializeTime);
+      SystemInfo.getInstance().setEncodingFasterThanIo(ioTime >= encodingTime);
     }
 
+    long pointNum = memTable.getTotalPointsNum();
+    FlushManagerMetrics.recordStageThroughput(FlushManagerMetrics.SORT_STAGE, pointNum, sortTime);
+    FlushManagerMetrics.recordStageThroughput(
+        FlushManagerMetrics.ENCODING_STAGE, pointNum, encodingTime);
+    FlushManagerMetrics.recordStageThroughput(FlushManagerMetrics.IO_STAGE, pointNum, ioTime);
     MetricService.getInstance()
         .timer(
             System.currentTimeMillis() - start,
@@ -177,7 +226,7 @@ public class MemTableFlushTask {
         System.currentTimeMillis() - start);
   }
 
-  /** encoding task (second task of pipeline) */
+  /** encoding task (second task of pipeline), several encoding tasks run concurrently */
   private Runnable encodingTask =
       new Runnable() {
 
@@ -188,60 +237,46 @@ public class MemTableFlushTask {
               "Storage group {} memtable flushing to file {} starts to encoding data.",
               storageGroup,
               writer.getFile().getName());
+          long encodingTime = 0;
           while (true) {
 
             Object task;
             try {
               task = encodingTaskQueue.take();
             } catch (InterruptedException e1) {
-              LOGGER.error("Take task into ioTaskQueue Interrupted");
+              LOGGER.error("Take task from encodingTaskQueue Interrupted");
               Thread.currentThread().interrupt();
               break;
             }
-            if (task instanceof StartFlushGroupIOTask || task instanceof EndChunkGroupIoTask) {
-              try {
-                ioTaskQueue.put(task);
-              } catch (
-                  @SuppressWarnings("squid:S2142")
-                  InterruptedException e) {
-                LOGGER.error(
-                    "Storage group {} memtable flushing to file {}, encoding task is interrupted.",
-                    storageGroup,
-                    writer.getFile().getName(),
-                    e);
-                // generally it is because the thread pool is shutdown so the task should be aborted
-                break;
-              }
-            } else if (task instanceof TaskEnd) {
+            if (task instanceof TaskEnd) {
               break;
-            } else {
-              long starTime = System.currentTimeMillis();
-              IWritableMemChunk writableMemChunk = (IWritableMemChunk) task;
-              IChunkWriter seriesWriter = writableMemChunk.createIChunkWriter();
-              writableMemChunk.encode(seriesWriter);
-              seriesWriter.sealCurrentPage();
-              seriesWriter.clearPageWriter();
-              try {
-                ioTaskQueue.put(seriesWriter);
-              } catch (InterruptedException e) {
-                LOGGER.error("Put task into ioTaskQueue Interrupted");
-                Thread.currentThread().interrupt();
+            }
+            long starTime = System.currentTimeMillis();
+            ChunkGroupTask chunkGroupTask = (ChunkGroupTask) task;
+            try {
+              List<IChunkWriter> seriesWriters = new ArrayList<>(chunkGroupTask.seriesList.size());
+              for (IWritableMemChunk writableMemChunk : chunkGroupTask.seriesList) {
+                IChunkWriter seriesWriter = writableMemChunk.createIChunkWriter();
+                writableMemChunk.encode(seriesWriter);
+                seriesWriter.sealCurrentPage();
+                seriesWriter.clearPageWriter();
+                seriesWriters.add(seriesWriter);
               }
-              memSerializeTime += System.currentTimeMillis() - starTime;
+              chunkGroupTask.encodedSeries.complete(seriesWriters);
+            } catch (Throwable e) {
+              // let io task fail instead of waiting forever
+              chunkGroupTask.encodedSeries.completeExceptionally(e);
+              throw e;
             }
+            encodingTime += System.currentTimeMillis() - starTime;
           }
-          try {
-            ioTaskQueue.put(new TaskEnd());
-          } catch (InterruptedException e) {
-            LOGGER.error("Put task into ioTaskQueue Interrupted");
-            Thread.currentThread().interrupt();
-          }
+          memSerializeTime.addAndGet(encodingTime);
 
           LOGGER.debug(
               "Storage group {}, flushing memtable {} into disk: Encoding data cost " + "{} ms.",
               storageGroup,
               writer.getFile().getName(),
-              memSerializeTime);
+              encodingTime);
         }
       };
 
@@ -262,19 +297,34 @@ public class MemTableFlushTask {
             Thread.currentThread().interrupt();
             break;
           }
+          if (ioMessage instanceof TaskEnd) {
+            break;
+          }
+          ChunkGroupTask chunkGroupTask = (ChunkGroupTask) ioMessage;
+          List<IChunkWriter> seriesWriters;
+          try {
+            seriesWriters = chunkGroupTask.encodedSeries.get();
+          } catch (InterruptedException e) {
+            LOGGER.error("wait for encoded chunk group Interrupted");
+            Thread.currentThread().interrupt();
+            break;
+          } catch (ExecutionException e) {
+            LOGGER.error(
+                "Storage group {} memtable {}, encoding task meets error.",
+                storageGroup,
+                memTable,
+                e);
+            throw new FlushRunTimeException(e);
+          }
           long starTime = System.currentTimeMillis();
           try {
-            if (ioMessage instanceof StartFlushGroupIOTask) {
-              this.writer.startChunkGroup(((StartFlushGroupIOTask) ioMessage).deviceId);
-            } else if (ioMessage instanceof TaskEnd) {
-              break;
-            } else if (ioMessage instanceof EndChunkGroupIoTask) {
-              this.writer.setMinPlanIndex(memTable.getMinPlanIndex());
-              this.writer.setMaxPlanIndex(memTable.getMaxPlanIndex());
-              this.writer.endChunkGroup();
-            } else {
-              ((IChunkWriter) ioMessage).writeToFileWriter(this.writer);
+            this.writer.startChunkGroup(chunkGroupTask.deviceId);
+            for (IChunkWriter seriesWriter : seriesWriters) {
+              seriesWriter.writeToFileWriter(this.writer);
             }
+            this.writer.setMinPlanIndex(memTable.getMinPlanIndex());
+            this.writer.setMaxPlanIndex(memTable.getMaxPlanIndex());
+            this.writer.endChunkGroup();
           } catch (IOException e) {
             LOGGER.error(
                 "Storage group {} memtable {}, io task meets error.", storageGroup, memTable, e);
@@ -294,17 +344,16 @@ public class MemTableFlushTask {
     TaskEnd() {}
   }
 
-  static class EndChunkGroupIoTask {
-
-    EndChunkGroupIoTask() {}
-  }
-
-  static class StartFlushGroupIOTask {
+  /** all series of one device, encoded by one encoding task and written as one chunk group */
+  static class ChunkGroupTask {
 
     private final String deviceId;
+    private final List<IWritableMemChunk> seriesList;
+    private final CompletableFuture<List<IChunkWriter>> encodedSeries = new CompletableFuture<>();
 
-    StartFlushGroupIOTask(String deviceId) {
+    ChunkGroupTask(String deviceId, List<IWritableMemChunk> seriesList) {
       this.deviceId = deviceId;
+      this.seriesList = seriesList;
     }
   }
 }
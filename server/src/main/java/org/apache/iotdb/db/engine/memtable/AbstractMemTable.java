@@ -76,6 +76,9 @@ public abstract class AbstractMemTable implements IMemTable {
    */
   protected boolean disableMemControl = true;
 
+  /** whether the TVLists of non-aligned series are kept in off-heap memory */
+  protected boolean offHeap = false;
+
   private boolean shouldFlush = false;
   private volatile FlushStatus flushStatus = FlushStatus.WORKING;
   private final int avgSeriesPointNumThreshold =
@@ -117,6 +120,11 @@ public abstract class AbstractMemTable implements IMemTable {
     return memTableMap;
   }
 
+  @Override
+  public boolean isOffHeap() {
+    return offHeap;
+  }
+
   /**
    * create this MemChunk if it's not exist
    *
@@ -127,7 +135,7 @@ public abstract class AbstractMemTable implements IMemTable {
   private IWritableMemChunkGroup createMemChunkGroupIfNotExistAndGet(
       IDeviceID deviceId, List<IMeasurementSchema> schemaList) {
     IWritableMemChunkGroup memChunkGroup =
-        memTableMap.computeIfAbsent(deviceId, k -> new WritableMemChunkGroup());
+        memTableMap.computeIfAbsent(deviceId, k -> new WritableMemChunkGroup(offHeap));
     for (IMeasurementSchema schema : schemaList) {
       if (schema != null && !memChunkGroup.contains(schema.getMeasurementId())) {
         seriesNumber++;
@@ -254,7 +254,7 @@ public class AlignedWritableMemChunk implements IWritableMemChunk {
   private void sortTVList() {
     // check reference count
     if ((list.getReferenceCount() > 0 && !list.isSorted())) {
-      list = list.clone();
+      list = (AlignedTVList) list.cloneForSort();
     }
 
     if (!list.isSorted()) {
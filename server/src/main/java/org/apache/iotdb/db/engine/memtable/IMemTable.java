@@ -158,6 +158,9 @@ public interface IMemTable extends WALEntryValue {
 
   boolean isSignalMemTable();
 
+  /** whether the TVLists of non-aligned series of fixed-width types are kept in off-heap memory */
+  boolean isOffHeap();
+
   void setShouldFlush();
 
   boolean shouldFlush();
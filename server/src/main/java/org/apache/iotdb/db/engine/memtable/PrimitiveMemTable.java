@@ -32,6 +32,11 @@ public class PrimitiveMemTable extends AbstractMemTable {
     this.disableMemControl = !enableMemControl;
   }
 
+  public PrimitiveMemTable(boolean enableMemControl, boolean offHeap) {
+    this(enableMemControl);
+    this.offHeap = offHeap;
+  }
+
   public PrimitiveMemTable(Map<IDeviceID, IWritableMemChunkGroup> memTableMap) {
     super(memTableMap);
   }
@@ -40,7 +45,9 @@ public class PrimitiveMemTable extends AbstractMemTable {
   public IMemTable copy() {
     Map<IDeviceID, IWritableMemChunkGroup> newMap = new HashMap<>(getMemTableMap());
 
-    return new PrimitiveMemTable(newMap);
+    PrimitiveMemTable memTable = new PrimitiveMemTable(newMap);
+    memTable.offHeap = offHeap;
+    return memTable;
   }
 
   @Override
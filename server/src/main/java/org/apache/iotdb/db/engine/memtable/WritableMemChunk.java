@@ -45,8 +45,12 @@ public class WritableMemChunk implements IWritableMemChunk {
   private static final Logger LOGGER = LoggerFactory.getLogger(WritableMemChunk.class);
 
   public WritableMemChunk(IMeasurementSchema schema) {
+    this(schema, false);
+  }
+
+  public WritableMemChunk(IMeasurementSchema schema, boolean offHeap) {
     this.schema = schema;
-    this.list = TVList.newList(schema.getType());
+    this.list = TVList.newList(schema.getType(), offHeap);
   }
 
   private WritableMemChunk() {}
@@ -214,7 +218,7 @@ public class WritableMemChunk implements IWritableMemChunk {
   private void sortTVList() {
     // check reference count
     if ((list.getReferenceCount() > 0 && !list.isSorted())) {
-      list = list.clone();
+      list = list.cloneForSort();
     }
 
     if (!list.isSorted()) {
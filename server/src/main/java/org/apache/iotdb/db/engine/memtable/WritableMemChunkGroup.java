@@ -37,11 +37,18 @@ import java.util.Map.Entry;
 public class WritableMemChunkGroup implements IWritableMemChunkGroup {
 
   private Map<String, IWritableMemChunk> memChunkMap;
+  /** whether the TVLists of new series are kept in off-heap memory */
+  private boolean offHeap;
 
   public WritableMemChunkGroup() {
     memChunkMap = new HashMap<>();
   }
 
+  public WritableMemChunkGroup(boolean offHeap) {
+    this();
+    this.offHeap = offHeap;
+  }
+
   @Override
   public void writeValues(
       long[] times,
@@ -70,7 +77,7 @@ public class WritableMemChunkGroup implements IWritableMemChunkGroup {
 
   private IWritableMemChunk createMemChunkIfNotExistAndGet(IMeasurementSchema schema) {
     return memChunkMap.computeIfAbsent(
-        schema.getMeasurementId(), k -> new WritableMemChunk(schema));
+        schema.getMeasurementId(), k -> new WritableMemChunk(schema, offHeap));
   }
 
   @Override
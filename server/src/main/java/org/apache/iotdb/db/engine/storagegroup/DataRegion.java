@@ -36,6 +36,7 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.conf.directories.DirectoryManager;
 import org.apache.iotdb.db.engine.StorageEngine;
 import org.apache.iotdb.db.engine.StorageEngineV2;
+import org.apache.iotdb.db.engine.cache.PageCache;
 import org.apache.iotdb.db.engine.compaction.CompactionRecoverManager;
 import org.apache.iotdb.db.engine.compaction.CompactionScheduler;
 import org.apache.iotdb.db.engine.compaction.CompactionTaskManager;
@@ -254,6 +255,8 @@ public class DataRegion {
   private StorageGroupInfo storageGroupInfo = new StorageGroupInfo(this);
   /** whether it's ready from recovery */
   private boolean isReady = false;
+  /** whether new memtables keep data points in off-heap memory */
+  private volatile boolean offHeapMemTable;
   /** close file listeners */
   private List<CloseFileListener> customCloseFileListeners = Collections.emptyList();
   /** flush listeners */
@@ -290,6 +293,7 @@ public class DataRegion {
     this.dataRegionId = dataRegionId;
     this.storageGroupName = storageGroupName;
     this.fileFlushPolicy = fileFlushPolicy;
+    this.offHeapMemTable = config.getOffHeapMemTableStorageGroups().contains(storageGroupName);
 
     storageGroupSysDir = SystemFileFactory.INSTANCE.getFile(systemDir, dataRegionId);
     this.tsFileManager =
@@ -367,6 +371,15 @@ public class DataRegion {
     isReady = ready;
   }
 
+  public boolean isOffHeapMemTable() {
+    return offHeapMemTable;
+  }
+
+  /** Takes effect from the next memtable of each TsFileProcessor. */
+  public void setOffHeapMemTable(boolean offHeapMemTable) {
+    this.offHeapMemTable = offHeapMemTable;
+  }
+
   private Map<Long, List<TsFileResource>> splitResourcesByPartition(
       List<TsFileResource> resources) {
     Map<Long, List<TsFileResource>> ret = new HashMap<>();
@@ -2392,6 +2405,8 @@ public class DataRegion {
           // remember to close mod file
           tsFileResource.getModFile().close();
         }
+        // decoded pages of this file are stale now
+        PageCache.getInstance().remove(tsFileResource.getTsFilePath());
         logger.info(
             "[Deletion] Deletion with path:{}, time:{}-{} written into mods file:{}.",
             deletion.getPath(),
@@ -3275,6 +3290,7 @@ public class DataRegion {
 
   public void setDataTTL(long dataTTL) {
     this.dataTTL = dataTTL;
+    tsFileManager.setDataTTL(dataTTL);
   }
 
   public List<TsFileResource> getSequenceFileList() {
@@ -61,6 +61,8 @@ public class TsFileManager {
   private List<TsFileResource> unsequenceRecoverTsFileResources = new ArrayList<>();
 
   private boolean allowCompaction = true;
+  // the TTL of the data region, used by compaction to drop the expired data
+  private volatile long dataTTL = Long.MAX_VALUE;
   private AtomicLong currentCompactionTaskSerialId = new AtomicLong(0);
 
   public TsFileManager(String storageGroupName, String dataRegionId, String storageGroupDir) {
@@ -357,6 +359,14 @@ public class TsFileManager {
     this.allowCompaction = allowCompaction;
   }
 
+  public long getDataTTL() {
+    return dataTTL;
+  }
+
+  public void setDataTTL(long dataTTL) {
+    this.dataTTL = dataTTL;
+  }
+
   public String getDataRegionId() {
     return dataRegionId;
   }
@@ -56,6 +56,7 @@ import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.rescon.MemTableManager;
+import org.apache.iotdb.db.rescon.OffHeapMemoryManager;
 import org.apache.iotdb.db.rescon.PrimitiveArrayManager;
 import org.apache.iotdb.db.rescon.SystemInfo;
 import org.apache.iotdb.db.sync.SyncService;
@@ -423,7 +424,11 @@ public class TsFileProcessor {
   }
 
   private void createNewWorkingMemTable() throws WriteProcessException {
-    workMemTable = MemTableManager.getInstance().getAvailableMemTable(storageGroupName);
+    // stay on heap until the off-heap memory released by flushed memtables is available again
+    boolean offHeap =
+        storageGroupInfo.getDataRegion().isOffHeapMemTable()
+            && OffHeapMemoryManager.getInstance().isAvailable(0);
+    workMemTable = MemTableManager.getInstance().getAvailableMemTable(storageGroupName, offHeap);
     walNode.onMemTableCreated(workMemTable, tsFileResource.getTsFilePath());
   }
 
@@ -529,6 +534,7 @@ public class TsFileProcessor {
     long memTableIncrement = 0L;
     long textDataIncrement = 0L;
     long chunkMetadataIncrement = 0L;
+    long offHeapMemTableIncrement = 0L;
     // get device id
     IDeviceID deviceID;
     try {
@@ -545,20 +551,24 @@ public class TsFileProcessor {
       if (workMemTable.checkIfChunkDoesNotExist(deviceID, measurements[i])) {
         // ChunkMetadataIncrement
         chunkMetadataIncrement += ChunkMetadata.calculateRamSize(measurements[i], dataTypes[i]);
-        memTableIncrement += TVList.tvListArrayMemCost(dataTypes[i]);
+        memTableIncrement += TVList.tvListArrayMemCost(dataTypes[i], workMemTable.isOffHeap());
+        offHeapMemTableIncrement +=
+            TVList.tvListArrayOffHeapMemCost(dataTypes[i], workMemTable.isOffHeap());
       } else {
         // here currentChunkPointNum >= 1
         long currentChunkPointNum = workMemTable.getCurrentTVListSize(deviceID, measurements[i]);
-        memTableIncrement +=
-            (currentChunkPointNum % PrimitiveArrayManager.ARRAY_SIZE) == 0
-                ? TVList.tvListArrayMemCost(dataTypes[i])
-                : 0;
+        if ((currentChunkPointNum % PrimitiveArrayManager.ARRAY_SIZE) == 0) {
+          memTableIncrement += TVList.tvListArrayMemCost(dataTypes[i], workMemTable.isOffHeap());
+          offHeapMemTableIncrement +=
+              TVList.tvListArrayOffHeapMemCost(dataTypes[i], workMemTable.isOffHeap());
+        }
       }
       // TEXT data mem size
       if (dataTypes[i] == TSDataType.TEXT && values[i] != null) {
         textDataIncrement += MemUtils.getBinarySize((Binary) values[i]);
       }
     }
+    checkOffHeapMemCost(offHeapMemTableIncrement);
     updateMemoryInfo(memTableIncrement, chunkMetadataIncrement, textDataIncrement);
     return new long[] {memTableIncrement, textDataIncrement, chunkMetadataIncrement};
   }
@@ -629,7 +639,8 @@ public class TsFileProcessor {
     if (start >= end) {
       return new long[] {0, 0, 0};
     }
-    long[] memIncrements = new long[3]; // memTable, text, chunk metadata
+    // memTable, text, chunk metadata, off-heap memTable
+    long[] memIncrements = new long[4];
 
     // get device id
     IDeviceID deviceID;
@@ -649,6 +660,7 @@ public class TsFileProcessor {
     long memTableIncrement = memIncrements[0];
     long textDataIncrement = memIncrements[1];
     long chunkMetadataIncrement = memIncrements[2];
+    checkOffHeapMemCost(memIncrements[3]);
     updateMemoryInfo(memTableIncrement, chunkMetadataIncrement, textDataIncrement);
     return memIncrements;
   }
@@ -690,28 +702,27 @@ public class TsFileProcessor {
       int end,
       long[] memIncrements,
       Object column) {
-    // memIncrements = [memTable, text, chunk metadata] respectively
+    // memIncrements = [memTable, text, chunk metadata, off-heap memTable] respectively
 
+    long acquireArray;
     if (workMemTable.checkIfChunkDoesNotExist(deviceId, measurement)) {
       // ChunkMetadataIncrement
       memIncrements[2] += ChunkMetadata.calculateRamSize(measurement, dataType);
-      memIncrements[0] +=
-          ((end - start) / PrimitiveArrayManager.ARRAY_SIZE + 1)
-              * TVList.tvListArrayMemCost(dataType);
+      acquireArray = (end - start) / PrimitiveArrayManager.ARRAY_SIZE + 1;
     } else {
       long currentChunkPointNum = workMemTable.getCurrentTVListSize(deviceId, measurement);
       if (currentChunkPointNum % PrimitiveArrayManager.ARRAY_SIZE == 0) {
-        memIncrements[0] +=
-            ((end - start) / PrimitiveArrayManager.ARRAY_SIZE + 1)
-                * TVList.tvListArrayMemCost(dataType);
+        acquireArray = (end - start) / PrimitiveArrayManager.ARRAY_SIZE + 1;
       } else {
-        long acquireArray =
+        acquireArray =
             (end - start - 1 + (currentChunkPointNum % PrimitiveArrayManager.ARRAY_SIZE))
                 / PrimitiveArrayManager.ARRAY_SIZE;
-        memIncrements[0] +=
-            acquireArray == 0 ? 0 : acquireArray * TVList.tvListArrayMemCost(dataType);
       }
     }
+    memIncrements[0] +=
+        acquireArray * TVList.tvListArrayMemCost(dataType, workMemTable.isOffHeap());
+    memIncrements[3] +=
+        acquireArray * TVList.tvListArrayOffHeapMemCost(dataType, workMemTable.isOffHeap());
     // TEXT data size
     if (dataType == TSDataType.TEXT) {
       Binary[] binColumn = (Binary[]) column;
@@ -800,6 +811,22 @@ public class TsFileProcessor {
     workMemTable.addTextDataSize(textDataIncrement);
   }
 
+  /**
+   * Off-heap memory is not counted in the heap memory of write. When it is not enough for the
+   * increment, flush the working memtable to release its slabs, and the following memtables stay on
+   * heap until the memory is available again. The increment is still allowed, since the budget is
+   * only a proportion of the max direct memory.
+   */
+  private void checkOffHeapMemCost(long offHeapMemTableIncrement) {
+    if (offHeapMemTableIncrement > 0
+        && !OffHeapMemoryManager.getInstance().isAvailable(offHeapMemTableIncrement)) {
+      logger.info(
+          "The off-heap memory for memtables is exhausted, flush the memtable of tsfile {}",
+          tsFileResource.getTsFile().getAbsolutePath());
+      workMemTable.setShouldFlush();
+    }
+  }
+
   private void rollbackMemoryInfo(long[] memIncrements) {
     long memTableIncrement = memIncrements[0];
     long textDataIncrement = memIncrements[1];
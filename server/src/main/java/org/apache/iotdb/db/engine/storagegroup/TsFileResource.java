@@ -22,6 +22,8 @@ import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.cache.PageIndexCache;
+import org.apache.iotdb.db.engine.cache.TsFilePageIndex;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
 import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
 import org.apache.iotdb.db.engine.storagegroup.DataRegion.SettleTsFileCallBack;
@@ -522,6 +524,13 @@ public class TsFileResource {
       LOGGER.error("ModificationFile {} cannot be deleted: {}", file, e.getMessage());
       return false;
     }
+    try {
+      fsFactory.deleteIfExists(fsFactory.getFile(file.getPath() + TsFilePageIndex.FILE_SUFFIX));
+    } catch (IOException e) {
+      LOGGER.error("Page index of {} cannot be deleted: {}", file, e.getMessage());
+      return false;
+    }
+    PageIndexCache.getInstance().remove(file.getPath());
     return true;
   }
 
@@ -547,6 +556,12 @@ public class TsFileResource {
           originModFile,
           fsFactory.getFile(targetDir, file.getName() + ModificationFile.FILE_SUFFIX));
     }
+    File originPageIndexFile = fsFactory.getFile(file.getPath() + TsFilePageIndex.FILE_SUFFIX);
+    if (originPageIndexFile.exists()) {
+      fsFactory.moveFile(
+          originPageIndexFile,
+          fsFactory.getFile(targetDir, file.getName() + TsFilePageIndex.FILE_SUFFIX));
+    }
   }
 
   @Override
@@ -25,6 +25,7 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.metadata.path.MeasurementPath;
 import org.apache.iotdb.db.mpp.common.schematree.ClusterSchemaTree;
 import org.apache.iotdb.db.mpp.common.schematree.ISchemaTree;
+import org.apache.iotdb.db.mpp.plan.analyze.cache.AnalysisCache;
 import org.apache.iotdb.db.service.metrics.MetricService;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
@@ -95,12 +96,18 @@ public class DataNodeSchemaCache {
   }
 
   public void put(ISchemaTree schemaTree) {
+    boolean hasNewSeries = false;
     for (MeasurementPath measurementPath : schemaTree.getAllMeasurement()) {
       SchemaCacheEntry schemaCacheEntry =
           new SchemaCacheEntry(
               (MeasurementSchema) measurementPath.getMeasurementSchema(),
               measurementPath.isUnderAlignedEntity());
-      cache.put(new PartialPath(measurementPath.getNodes()), schemaCacheEntry);
+      hasNewSeries |=
+          cache.asMap().put(new PartialPath(measurementPath.getNodes()), schemaCacheEntry) == null;
+    }
+    // the analysis of queries on these series may be cached before they are created
+    if (hasNewSeries) {
+      AnalysisCache.getInstance().invalidateAll();
     }
   }
 
@@ -174,6 +181,7 @@ public class DataNodeSchemaCache {
   public void invalidate(PartialPath partialPath) {
     resetLastCache(partialPath);
     cache.invalidate(partialPath);
+    AnalysisCache.getInstance().invalidateAll();
   }
 
   public long estimatedSize() {
@@ -183,5 +191,6 @@ public class DataNodeSchemaCache {
   public void cleanUp() {
     cache.invalidateAll();
     cache.cleanUp();
+    AnalysisCache.getInstance().invalidateAll();
   }
 }
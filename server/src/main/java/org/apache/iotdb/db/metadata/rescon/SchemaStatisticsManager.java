@@ -18,6 +18,8 @@
  */
 package org.apache.iotdb.db.metadata.rescon;
 
+import org.apache.iotdb.db.mpp.plan.analyze.cache.AnalysisCache;
+
 import java.util.concurrent.atomic.AtomicLong;
 
 public class SchemaStatisticsManager {
@@ -44,10 +46,13 @@ public class SchemaStatisticsManager {
 
   public void addTimeseries(int addedNum) {
     totalSeriesNumber.addAndGet(addedNum);
+    // queries analyzed before the series are created may select them now
+    AnalysisCache.getInstance().invalidateAll();
   }
 
   public void deleteTimeseries(int deletedNum) {
     totalSeriesNumber.addAndGet(-deletedNum);
+    AnalysisCache.getInstance().invalidateAll();
   }
 
   public void clear() {
@@ -81,6 +81,10 @@ public class MPPQueryContext {
     this.startTime = startTime;
   }
 
+  public String getSql() {
+    return sql;
+  }
+
   public QueryId getQueryId() {
     return queryId;
   }
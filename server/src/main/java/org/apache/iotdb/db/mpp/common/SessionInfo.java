@@ -18,6 +18,12 @@
  */
 package org.apache.iotdb.db.mpp.common;
 
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
 public class SessionInfo {
   private final long sessionId;
   private final String userName;
@@ -40,4 +46,17 @@ public class SessionInfo {
   public String getZoneId() {
     return zoneId;
   }
+
+  public void serialize(DataOutputStream stream) throws IOException {
+    ReadWriteIOUtils.write(sessionId, stream);
+    ReadWriteIOUtils.write(userName, stream);
+    ReadWriteIOUtils.write(zoneId, stream);
+  }
+
+  public static SessionInfo deserialize(ByteBuffer buffer) {
+    long sessionId = ReadWriteIOUtils.readLong(buffer);
+    String userName = ReadWriteIOUtils.readString(buffer);
+    String zoneId = ReadWriteIOUtils.readString(buffer);
+    return new SessionInfo(sessionId, userName, zoneId);
+  }
 }
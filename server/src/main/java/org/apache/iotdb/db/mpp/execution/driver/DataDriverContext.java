@@ -39,7 +39,17 @@ public class DataDriverContext extends DriverContext {
       Filter timeFilter,
       DataRegion dataRegion,
       List<DataSourceOperator> sourceOperators) {
-    super(fragmentInstanceContext);
+    this(fragmentInstanceContext, 0, paths, timeFilter, dataRegion, sourceOperators);
+  }
+
+  public DataDriverContext(
+      FragmentInstanceContext fragmentInstanceContext,
+      int pipelineId,
+      List<PartialPath> paths,
+      Filter timeFilter,
+      DataRegion dataRegion,
+      List<DataSourceOperator> sourceOperators) {
+    super(fragmentInstanceContext, pipelineId);
     this.paths = paths;
     this.timeFilter = timeFilter;
     this.dataRegion = dataRegion;
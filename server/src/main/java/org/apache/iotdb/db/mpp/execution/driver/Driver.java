@@ -138,6 +138,11 @@ public abstract class Driver implements IDriver {
     return driverContext.getId();
   }
 
+  @Override
+  public int getPipelineId() {
+    return driverContext.getPipelineId();
+  }
+
   @Override
   public void close() {
     // mark the service for destruction
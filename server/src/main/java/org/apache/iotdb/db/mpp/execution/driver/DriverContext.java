@@ -27,16 +27,31 @@ public class DriverContext {
 
   private final FragmentInstanceContext fragmentInstanceContext;
 
+  /**
+   * index of the driver in its fragment instance, 0 for the driver which outputs to the sink of the
+   * fragment instance
+   */
+  private final int pipelineId;
+
   private final AtomicBoolean finished = new AtomicBoolean();
 
   public DriverContext(FragmentInstanceContext fragmentInstanceContext) {
+    this(fragmentInstanceContext, 0);
+  }
+
+  public DriverContext(FragmentInstanceContext fragmentInstanceContext, int pipelineId) {
     this.fragmentInstanceContext = fragmentInstanceContext;
+    this.pipelineId = pipelineId;
   }
 
   public FragmentInstanceId getId() {
     return fragmentInstanceContext.getId();
   }
 
+  public int getPipelineId() {
+    return pipelineId;
+  }
+
   public FragmentInstanceContext getFragmentInstanceContext() {
     return fragmentInstanceContext;
   }
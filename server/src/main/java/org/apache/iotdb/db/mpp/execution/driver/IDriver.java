@@ -56,6 +56,12 @@ public interface IDriver {
    */
   FragmentInstanceId getInfo();
 
+  /**
+   * the index of this IDriver in its fragment instance, as a fragment instance may be run by
+   * several IDrivers.
+   */
+  int getPipelineId();
+
   /** clear resource used by this fragment instance */
   void close();
 
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.exchange;
+
+import org.apache.iotdb.db.service.metrics.MetricService;
+import org.apache.iotdb.db.service.metrics.enums.Metric;
+import org.apache.iotdb.db.service.metrics.enums.Tag;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.column.TsBlockSerde;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Serializes the TsBlocks sent to other data nodes. Time columns are delta encoded and each
+ * serialized TsBlock is compressed as a block: compression type, uncompressed size and the
+ * compressed TsBlock. TsBlocks which can't be shrunk are sent uncompressed. The receiver reads the
+ * compression type of each TsBlock, so the sender chooses the compression type by itself.
+ */
+public class CompressedTsBlockSerde extends TsBlockSerde {
+
+  /** compression type 1 byte, uncompressed size 4 bytes */
+  private static final int HEADER_BYTES = Byte.BYTES + Integer.BYTES;
+
+  private static final String RAW = "raw";
+  private static final String COMPRESSED = "compressed";
+
+  private final CompressionType compressionType;
+  /** null when compression is disabled */
+  private final ICompressor compressor;
+
+  public CompressedTsBlockSerde(CompressionType compressionType) {
+    super(true);
+    this.compressionType = compressionType;
+    this.compressor =
+        compressionType == CompressionType.UNCOMPRESSED
+            ? null
+            : ICompressor.getCompressor(compressionType);
+  }
+
+  @Override
+  public TsBlock deserialize(ByteBuffer byteBuffer) {
+    CompressionType blockCompressionType = CompressionType.deserialize(byteBuffer.get());
+    int uncompressedSize = byteBuffer.getInt();
+    if (blockCompressionType == CompressionType.UNCOMPRESSED) {
+      return super.deserialize(byteBuffer);
+    }
+
+    byte[] compressedBytes;
+    int offset;
+    if (byteBuffer.hasArray()) {
+      compressedBytes = byteBuffer.array();
+      offset = byteBuffer.arrayOffset() + byteBuffer.position();
+    } else {
+      compressedBytes = new byte[byteBuffer.remaining()];
+      byteBuffer.duplicate().get(compressedBytes);
+      offset = 0;
+    }
+    byte[] uncompressedBytes = new byte[uncompressedSize];
+    try {
+      IUnCompressor.getUnCompressor(blockCompressionType)
+          .uncompress(compressedBytes, offset, byteBuffer.remaining(), uncompressedBytes, 0);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to uncompress TsBlock", e);
+    }
+    return super.deserialize(ByteBuffer.wrap(uncompressedBytes));
+  }
+
+  @Override
+  public ByteBuffer serialize(TsBlock tsBlock) throws IOException {
+    ByteBuffer rawBuffer = super.serialize(tsBlock);
+    byte[] rawBytes = rawBuffer.array();
+    int rawSize = rawBuffer.remaining();
+
+    ByteBuffer output = null;
+    if (compressor != null) {
+      byte[] compressedBytes = new byte[compressor.getMaxBytesForCompression(rawSize)];
+      int compressedSize;
+      try {
+        compressedSize = compressor.compress(rawBytes, 0, rawSize, compressedBytes);
+      } catch (IOException e) {
+        // e.g. GZIP may overflow the estimated max size, send this TsBlock uncompressed
+        compressedSize = Integer.MAX_VALUE;
+      }
+      if (compressedSize < rawSize) {
+        output = ByteBuffer.allocate(HEADER_BYTES + compressedSize);
+        output.put(compressionType.serialize());
+        output.putInt(rawSize);
+        output.put(compressedBytes, 0, compressedSize);
+      }
+    }
+    if (output == null) {
+      output = ByteBuffer.allocate(HEADER_BYTES + rawSize);
+      output.put(CompressionType.UNCOMPRESSED.serialize());
+      output.putInt(rawSize);
+      output.put(rawBytes, 0, rawSize);
+    }
+    output.flip();
+
+    recordExchangedBytes(rawSize, output.remaining());
+    return output;
+  }
+
+  private static void recordExchangedBytes(long rawSize, long sentSize) {
+    MetricService.getInstance()
+        .count(
+            rawSize,
+            Metric.DATA_EXCHANGED.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.TYPE.toString(),
+            RAW);
+    MetricService.getInstance()
+        .count(
+            sentSize,
+            Metric.DATA_EXCHANGED.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.TYPE.toString(),
+            COMPRESSED);
+  }
+}
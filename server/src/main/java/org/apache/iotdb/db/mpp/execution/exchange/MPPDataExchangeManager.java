@@ -32,6 +32,7 @@ import org.apache.iotdb.mpp.rpc.thrift.TGetDataBlockRequest;
 import org.apache.iotdb.mpp.rpc.thrift.TGetDataBlockResponse;
 import org.apache.iotdb.mpp.rpc.thrift.TNewDataBlockEvent;
 import org.apache.iotdb.tsfile.read.common.block.column.TsBlockSerde;
+import org.apache.iotdb.tsfile.utils.Pair;
 
 import io.airlift.concurrent.SetThreadName;
 import org.apache.commons.lang3.Validate;
@@ -296,6 +297,66 @@ public class MPPDataExchangeManager implements IMPPDataExchangeManager {
     }
   }
 
+  /** Listen to the failures of a source handle between two drivers of a fragment instance. */
+  static class PipelineSourceHandleListener implements SourceHandleListener {
+
+    private final IMPPDataExchangeManagerCallback<Throwable> onFailureCallback;
+
+    PipelineSourceHandleListener(IMPPDataExchangeManagerCallback<Throwable> onFailureCallback) {
+      this.onFailureCallback = onFailureCallback;
+    }
+
+    @Override
+    public void onFinished(ISourceHandle sourceHandle) {
+      // nothing to release
+    }
+
+    @Override
+    public void onAborted(ISourceHandle sourceHandle) {
+      // nothing to release
+    }
+
+    @Override
+    public void onFailure(ISourceHandle sourceHandle, Throwable t) {
+      logger.error("Pipeline source handle failed due to: ", t);
+      onFailureCallback.call(t);
+    }
+  }
+
+  /**
+   * Listen to the failures of a sink handle between two drivers of a fragment instance. Unlike
+   * {@link SinkHandleListenerImpl}, the fragment instance is not finished with the sink handle.
+   */
+  static class PipelineSinkHandleListener implements SinkHandleListener {
+
+    private final IMPPDataExchangeManagerCallback<Throwable> onFailureCallback;
+
+    PipelineSinkHandleListener(IMPPDataExchangeManagerCallback<Throwable> onFailureCallback) {
+      this.onFailureCallback = onFailureCallback;
+    }
+
+    @Override
+    public void onFinish(ISinkHandle sinkHandle) {
+      // nothing to release
+    }
+
+    @Override
+    public void onEndOfBlocks(ISinkHandle sinkHandle) {
+      // the fragment instance is flushing only when its last driver is
+    }
+
+    @Override
+    public void onAborted(ISinkHandle sinkHandle) {
+      // nothing to release
+    }
+
+    @Override
+    public void onFailure(ISinkHandle sinkHandle, Throwable t) {
+      logger.error("Pipeline sink handle failed due to", t);
+      onFailureCallback.call(t);
+    }
+  }
+
   private final LocalMemoryManager localMemoryManager;
   private final Supplier<TsBlockSerde> tsBlockSerdeFactory;
   private final ExecutorService executorService;
@@ -321,6 +382,10 @@ public class MPPDataExchangeManager implements IMPPDataExchangeManager {
     sinkHandles = new ConcurrentHashMap<>();
   }
 
+  public LocalMemoryManager getLocalMemoryManager() {
+    return localMemoryManager;
+  }
+
   public MPPDataExchangeServiceImpl getOrCreateMPPDataExchangeServiceImpl() {
     if (mppDataExchangeService == null) {
       mppDataExchangeService = new MPPDataExchangeServiceImpl();
@@ -446,6 +511,36 @@ public class MPPDataExchangeManager implements IMPPDataExchangeManager {
     return localSourceHandle;
   }
 
+  /**
+   * Create a local sink handle and a local source handle sharing one {@link SharedTsBlockQueue},
+   * through which a driver of a fragment instance outputs to another driver of the same fragment
+   * instance. They are not registered in this manager, and are released when the drivers are
+   * closed. Only the failures are propagated to the fragment instance.
+   */
+  public Pair<ISinkHandle, ISourceHandle> createLocalPipelineHandles(
+      TFragmentInstanceId fragmentInstanceId,
+      String planNodeId,
+      IMPPDataExchangeManagerCallback<Throwable> onFailureCallback) {
+    logger.debug(
+        "Create local pipeline handles for plan node {} of {}", planNodeId, fragmentInstanceId);
+    SharedTsBlockQueue queue = new SharedTsBlockQueue(fragmentInstanceId, localMemoryManager);
+    LocalSinkHandle localSinkHandle =
+        new LocalSinkHandle(
+            fragmentInstanceId,
+            planNodeId,
+            fragmentInstanceId,
+            queue,
+            new PipelineSinkHandleListener(onFailureCallback));
+    LocalSourceHandle localSourceHandle =
+        new LocalSourceHandle(
+            fragmentInstanceId,
+            fragmentInstanceId,
+            planNodeId,
+            queue,
+            new PipelineSourceHandleListener(onFailureCallback));
+    return new Pair<>(localSinkHandle, localSourceHandle);
+  }
+
   @Override
   public ISourceHandle createSourceHandle(
       TFragmentInstanceId localFragmentInstanceId,
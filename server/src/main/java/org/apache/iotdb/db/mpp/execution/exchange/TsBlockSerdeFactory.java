@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.db.mpp.execution.exchange;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.tsfile.read.common.block.column.TsBlockSerde;
 
 import java.util.function.Supplier;
@@ -26,6 +27,7 @@ import java.util.function.Supplier;
 public class TsBlockSerdeFactory implements Supplier<TsBlockSerde> {
   @Override
   public TsBlockSerde get() {
-    return new TsBlockSerde();
+    return new CompressedTsBlockSerde(
+        IoTDBDescriptor.getInstance().getConfig().getMppDataExchangeCompressionType());
   }
 }
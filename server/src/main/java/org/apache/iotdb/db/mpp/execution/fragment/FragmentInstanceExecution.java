@@ -19,14 +19,16 @@
 package org.apache.iotdb.db.mpp.execution.fragment;
 
 import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
+import org.apache.iotdb.db.mpp.common.SessionInfo;
 import org.apache.iotdb.db.mpp.execution.driver.IDriver;
 import org.apache.iotdb.db.mpp.execution.exchange.ISinkHandle;
 import org.apache.iotdb.db.mpp.execution.schedule.IDriverScheduler;
 
-import com.google.common.collect.ImmutableList;
 import io.airlift.concurrent.SetThreadName;
 import io.airlift.stats.CounterStat;
 
+import java.util.List;
+
 import static java.util.Objects.requireNonNull;
 import static org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceState.FAILED;
 
@@ -35,8 +37,8 @@ public class FragmentInstanceExecution {
   private final FragmentInstanceId instanceId;
   private final FragmentInstanceContext context;
 
-  // it will be set to null while this FI is FINISHED
-  private IDriver driver;
+  // the first one outputs to the sink of this FI, it will be set to null while this FI is FINISHED
+  private List<IDriver> drivers;
 
   // it will be set to null while this FI is FINISHED
   private ISinkHandle sinkHandle;
@@ -49,26 +51,27 @@ public class FragmentInstanceExecution {
       IDriverScheduler scheduler,
       FragmentInstanceId instanceId,
       FragmentInstanceContext context,
-      IDriver driver,
+      List<IDriver> drivers,
       FragmentInstanceStateMachine stateMachine,
       CounterStat failedInstances,
-      long timeOut) {
+      long timeOut,
+      SessionInfo sessionInfo) {
     FragmentInstanceExecution execution =
-        new FragmentInstanceExecution(instanceId, context, driver, stateMachine);
+        new FragmentInstanceExecution(instanceId, context, drivers, stateMachine);
     execution.initialize(failedInstances, scheduler);
-    scheduler.submitDrivers(instanceId.getQueryId(), ImmutableList.of(driver), timeOut);
+    scheduler.submitDrivers(instanceId.getQueryId(), drivers, timeOut, sessionInfo);
     return execution;
   }
 
   private FragmentInstanceExecution(
       FragmentInstanceId instanceId,
       FragmentInstanceContext context,
-      IDriver driver,
+      List<IDriver> drivers,
       FragmentInstanceStateMachine stateMachine) {
     this.instanceId = instanceId;
     this.context = context;
-    this.driver = driver;
-    this.sinkHandle = driver.getSinkHandle();
+    this.drivers = drivers;
+    this.sinkHandle = drivers.get(0).getSinkHandle();
     this.stateMachine = stateMachine;
   }
 
@@ -104,9 +107,9 @@ public class FragmentInstanceExecution {
               failedInstances.update(1);
             }
 
-            driver.close();
+            drivers.forEach(IDriver::close);
             // help for gc
-            driver = null;
+            drivers = null;
             if (newState.isFailed()) {
               sinkHandle.abort();
             } else {
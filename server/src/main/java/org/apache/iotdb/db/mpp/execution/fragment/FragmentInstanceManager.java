@@ -31,12 +31,14 @@ import org.apache.iotdb.db.mpp.execution.schedule.IDriverScheduler;
 import org.apache.iotdb.db.mpp.plan.planner.LocalExecutionPlanner;
 import org.apache.iotdb.db.mpp.plan.planner.plan.FragmentInstance;
 
+import com.google.common.collect.ImmutableList;
 import io.airlift.concurrent.SetThreadName;
 import io.airlift.stats.CounterStat;
 import io.airlift.units.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
@@ -111,7 +113,7 @@ public class FragmentInstanceManager {
                             createFragmentInstanceContext(fragmentInstanceId, stateMachine));
 
                 try {
-                  DataDriver driver =
+                  List<DataDriver> drivers =
                       planner.plan(
                           instance.getFragment().getPlanNodeTree(),
                           instance.getFragment().getTypeProvider(),
@@ -122,10 +124,11 @@ public class FragmentInstanceManager {
                       scheduler,
                       instanceId,
                       context,
-                      driver,
+                      ImmutableList.copyOf(drivers),
                       stateMachine,
                       failedInstances,
-                      instance.getTimeOut());
+                      instance.getTimeOut(),
+                      instance.getSessionInfo());
                 } catch (Throwable t) {
                   logger.error("error when create FragmentInstanceExecution.", t);
                   stateMachine.failed(t);
@@ -160,10 +163,11 @@ public class FragmentInstanceManager {
                     scheduler,
                     instanceId,
                     context,
-                    driver,
+                    ImmutableList.of(driver),
                     stateMachine,
                     failedInstances,
-                    instance.getTimeOut());
+                    instance.getTimeOut(),
+                    instance.getSessionInfo());
               } catch (Throwable t) {
                 logger.error("Execute error caused by ", t);
                 stateMachine.failed(t);
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator.process;
+
+import org.apache.iotdb.db.mpp.execution.operator.Operator;
+import org.apache.iotdb.db.mpp.execution.operator.OperatorContext;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Returns all the TsBlocks of its children one child after another, e.g., the results of a series
+ * scan split into several time ranges, whose children are in the order of the time ranges.
+ */
+public class ConcatOperator implements ProcessOperator {
+
+  private final OperatorContext operatorContext;
+  private final List<Operator> children;
+
+  private int currentChildIndex = 0;
+
+  public ConcatOperator(OperatorContext operatorContext, List<Operator> children) {
+    this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+    checkArgument(
+        children != null && !children.isEmpty(), "children of ConcatOperator should not be empty");
+    this.children = children;
+  }
+
+  @Override
+  public OperatorContext getOperatorContext() {
+    return operatorContext;
+  }
+
+  @Override
+  public ListenableFuture<?> isBlocked() {
+    skipFinishedChildren();
+    return currentChildIndex < children.size()
+        ? children.get(currentChildIndex).isBlocked()
+        : NOT_BLOCKED;
+  }
+
+  @Override
+  public TsBlock next() {
+    Operator child = children.get(currentChildIndex);
+    // the child may be switched after isBlocked() is called
+    if (!child.isBlocked().isDone() || !child.hasNext()) {
+      return null;
+    }
+    return child.next();
+  }
+
+  @Override
+  public boolean hasNext() {
+    skipFinishedChildren();
+    return currentChildIndex < children.size();
+  }
+
+  @Override
+  public boolean isFinished() {
+    return !hasNext();
+  }
+
+  @Override
+  public void close() throws Exception {
+    for (Operator child : children) {
+      child.close();
+    }
+  }
+
+  /** Only one child is consumed at a time. */
+  @Override
+  public long calculateMaxPeekMemory() {
+    long maxPeekMemory = 0;
+    for (Operator child : children) {
+      maxPeekMemory = Math.max(maxPeekMemory, child.calculateMaxPeekMemory());
+    }
+    return maxPeekMemory;
+  }
+
+  @Override
+  public long calculateMaxReturnSize() {
+    long maxReturnSize = 0;
+    for (Operator child : children) {
+      maxReturnSize = Math.max(maxReturnSize, child.calculateMaxReturnSize());
+    }
+    return maxReturnSize;
+  }
+
+  @Override
+  public long calculateRetainedSizeAfterCallingNext() {
+    long retainedSize = 0;
+    for (Operator child : children) {
+      retainedSize = Math.max(retainedSize, child.calculateRetainedSizeAfterCallingNext());
+    }
+    return retainedSize;
+  }
+
+  private void skipFinishedChildren() {
+    while (currentChildIndex < children.size() && !children.get(currentChildIndex).hasNext()) {
+      currentChildIndex++;
+    }
+  }
+}
@@ -32,11 +32,8 @@ import org.apache.iotdb.db.mpp.transformation.dag.column.unary.UnaryColumnTransf
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
-import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.Column;
-import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
-import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
 
 import com.google.common.util.concurrent.ListenableFuture;
 
@@ -57,7 +54,10 @@ public class FilterAndProjectOperator implements ProcessOperator {
 
   private List<ColumnTransformer> projectOutputTransformerList;
 
-  private final TsBlockBuilder filterTsBlockBuilder;
+  private final int filterOutputColumnCount;
+
+  // positions of the rows satisfying the filter, reused among TsBlocks
+  private int[] selectedPositions = new int[0];
 
   private final boolean hasNonMappableUDF;
 
@@ -85,7 +85,7 @@ public class FilterAndProjectOperator implements ProcessOperator {
     this.projectLeafColumnTransformerList = projectLeafColumnTransformerList;
     this.projectOutputTransformerList = projectOutputTransformerList;
     this.hasNonMappableUDF = hasNonMappableUDF;
-    this.filterTsBlockBuilder = new TsBlockBuilder(8, filterOutputDataTypes);
+    this.filterOutputColumnCount = filterOutputDataTypes.size();
     this.hasFilter = hasFilter;
   }
 
@@ -133,12 +133,6 @@ public class FilterAndProjectOperator implements ProcessOperator {
 
     Column filterColumn = filterOutputTransformer.getColumn();
 
-    // reuse this builder
-    filterTsBlockBuilder.reset();
-
-    final TimeColumnBuilder timeBuilder = filterTsBlockBuilder.getTimeColumnBuilder();
-    final ColumnBuilder[] columnBuilders = filterTsBlockBuilder.getValueColumnBuilders();
-
     List<Column> resultColumns = new ArrayList<>();
     for (int i = 0, n = input.getValueColumnCount(); i < n; i++) {
       resultColumns.add(input.getColumn(i));
@@ -152,27 +146,27 @@ public class FilterAndProjectOperator implements ProcessOperator {
       }
     }
 
-    // construct result TsBlock of filter
+    // select the positions satisfying the filter, so that only the selected rows are copied once
+    // for each column and calculated later by projection
+    if (selectedPositions.length < positionCount) {
+      selectedPositions = new int[positionCount];
+    }
     int rowCount = 0;
-    for (int i = 0, n = resultColumns.size(); i < n; i++) {
-      Column curColumn = resultColumns.get(i);
-      for (int j = 0; j < positionCount; j++) {
-        if (!filterColumn.isNull(j) && filterColumn.getBoolean(j)) {
-          if (i == 0) {
-            rowCount++;
-            timeBuilder.writeLong(originTimeColumn.getLong(j));
-          }
-          if (curColumn.isNull(j)) {
-            columnBuilders[i].appendNull();
-          } else {
-            columnBuilders[i].write(curColumn, j);
-          }
-        }
-      }
+    for (int i = 0; i < positionCount; i++) {
+      selectedPositions[rowCount] = i;
+      rowCount += !filterColumn.isNull(i) && filterColumn.getBoolean(i) ? 1 : 0;
     }
 
-    filterTsBlockBuilder.declarePositions(rowCount);
-    return filterTsBlockBuilder.build();
+    Column[] valueColumns = resultColumns.toArray(new Column[0]);
+    // all the rows are selected, no need to copy
+    if (rowCount == positionCount) {
+      return TsBlock.wrapBlocksWithoutCopy(positionCount, originTimeColumn, valueColumns);
+    }
+    for (int i = 0; i < valueColumns.length; i++) {
+      valueColumns[i] = valueColumns[i].copyPositions(selectedPositions, 0, rowCount);
+    }
+    return TsBlock.wrapBlocksWithoutCopy(
+        rowCount, originTimeColumn.copyPositions(selectedPositions, 0, rowCount), valueColumns);
   }
 
   private TsBlock getTransformedTsBlock(TsBlock input) {
@@ -259,7 +253,7 @@ public class FilterAndProjectOperator implements ProcessOperator {
       return (long) (1 + projectOutputTransformerList.size())
           * TSFileDescriptor.getInstance().getConfig().getPageSizeInByte();
     } else {
-      return (long) (1 + filterTsBlockBuilder.getValueColumnBuilders().length)
+      return (long) (1 + filterOutputColumnCount)
           * TSFileDescriptor.getInstance().getConfig().getPageSizeInByte();
     }
   }
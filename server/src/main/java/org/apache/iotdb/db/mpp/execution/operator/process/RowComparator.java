@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator.process;
+
+import org.apache.iotdb.db.mpp.plan.statement.component.Ordering;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+
+import java.util.List;
+
+/** Compares two rows, which may be in different TsBlocks, by primitive values of the columns. */
+@FunctionalInterface
+public interface RowComparator {
+
+  /** sort column index which stands for the time column */
+  int TIME_COLUMN_INDEX = -1;
+
+  int compare(TsBlock left, int leftIndex, TsBlock right, int rightIndex);
+
+  /**
+   * @param sortColumnIndexes index of value columns to sort by, {@link #TIME_COLUMN_INDEX} for the
+   *     time column, in the order of priority
+   * @param orderings ordering of each sort column
+   */
+  static RowComparator create(
+      List<TSDataType> dataTypes, List<Integer> sortColumnIndexes, List<Ordering> orderings) {
+    RowComparator comparator = null;
+    for (int i = sortColumnIndexes.size() - 1; i >= 0; i--) {
+      RowComparator columnComparator =
+          createColumnComparator(dataTypes, sortColumnIndexes.get(i), orderings.get(i));
+      if (comparator == null) {
+        comparator = columnComparator;
+      } else {
+        RowComparator current = columnComparator;
+        RowComparator next = comparator;
+        comparator =
+            (left, li, right, ri) -> {
+              int result = current.compare(left, li, right, ri);
+              return result != 0 ? result : next.compare(left, li, right, ri);
+            };
+      }
+    }
+    return comparator;
+  }
+
+  /** Compares the values of a column in the given ordering, nulls are always the last. */
+  static RowComparator createColumnComparator(
+      List<TSDataType> dataTypes, int columnIndex, Ordering ordering) {
+    if (columnIndex == TIME_COLUMN_INDEX) {
+      return ordering == Ordering.ASC
+          ? (left, li, right, ri) -> Long.compare(left.getTimeByIndex(li), right.getTimeByIndex(ri))
+          : (left, li, right, ri) ->
+              Long.compare(right.getTimeByIndex(ri), left.getTimeByIndex(li));
+    }
+    RowComparator valueComparator;
+    switch (dataTypes.get(columnIndex)) {
+      case INT32:
+        valueComparator =
+            (left, li, right, ri) ->
+                Integer.compare(
+                    left.getColumn(columnIndex).getInt(li),
+                    right.getColumn(columnIndex).getInt(ri));
+        break;
+      case INT64:
+        valueComparator =
+            (left, li, right, ri) ->
+                Long.compare(
+                    left.getColumn(columnIndex).getLong(li),
+                    right.getColumn(columnIndex).getLong(ri));
+        break;
+      case FLOAT:
+        valueComparator =
+            (left, li, right, ri) ->
+                Float.compare(
+                    left.getColumn(columnIndex).getFloat(li),
+                    right.getColumn(columnIndex).getFloat(ri));
+        break;
+      case DOUBLE:
+        valueComparator =
+            (left, li, right, ri) ->
+                Double.compare(
+                    left.getColumn(columnIndex).getDouble(li),
+                    right.getColumn(columnIndex).getDouble(ri));
+        break;
+      case BOOLEAN:
+        valueComparator =
+            (left, li, right, ri) ->
+                Boolean.compare(
+                    left.getColumn(columnIndex).getBoolean(li),
+                    right.getColumn(columnIndex).getBoolean(ri));
+        break;
+      case TEXT:
+        valueComparator =
+            (left, li, right, ri) ->
+                left.getColumn(columnIndex)
+                    .getBinary(li)
+                    .compareTo(right.getColumn(columnIndex).getBinary(ri));
+        break;
+      default:
+        throw new IllegalArgumentException(
+            "Unsupported data type to sort: " + dataTypes.get(columnIndex));
+    }
+    return (left, li, right, ri) -> {
+      boolean leftNull = left.getColumn(columnIndex).isNull(li);
+      boolean rightNull = right.getColumn(columnIndex).isNull(ri);
+      if (leftNull || rightNull) {
+        return Boolean.compare(leftNull, rightNull);
+      }
+      return ordering == Ordering.ASC
+          ? valueComparator.compare(left, li, right, ri)
+          : valueComparator.compare(right, ri, left, li);
+    };
+  }
+}
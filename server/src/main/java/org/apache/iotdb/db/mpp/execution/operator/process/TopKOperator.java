@@ -0,0 +1,301 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator.process;
+
+import org.apache.iotdb.db.mpp.execution.operator.Operator;
+import org.apache.iotdb.db.mpp.execution.operator.OperatorContext;
+import org.apache.iotdb.db.mpp.plan.statement.component.Ordering;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+import static org.apache.iotdb.db.mpp.execution.operator.Operator.NOT_BLOCKED;
+
+/**
+ * Returns the first k rows of its child in the order of the given sort keys, i.e., ORDER BY ...
+ * LIMIT k. The best k rows seen so far are kept in a bounded heap whose top is the worst of them,
+ * so that only O(k) rows are retained instead of the whole input. If the child already returns its
+ * rows in this order, the input is finished as soon as k rows are kept.
+ */
+public class TopKOperator implements ProcessOperator {
+
+  private final OperatorContext operatorContext;
+  private final Operator child;
+  private final List<TSDataType> dataTypes;
+  private final RowComparator comparator;
+  private final int topValue;
+  private final boolean childOrdered;
+  private final long maxReturnSize;
+  private final TsBlockBuilder tsBlockBuilder;
+
+  /** TsBlocks referenced by the heap, including compacted ones */
+  private final List<TsBlock> retainedBlocks = new ArrayList<>();
+
+  private int retainedRowCount = 0;
+
+  /** max-heap of row addresses, i.e., (block index << 32 | row index), top is the worst row */
+  private long[] heap;
+
+  private int heapSize = 0;
+
+  private boolean inputFinished = false;
+
+  /** rows in output order, available after the input is finished */
+  private long[] sortedAddresses;
+
+  private int sortedCursor = 0;
+
+  /**
+   * @param sortColumnIndexes index of value columns to sort by, {@link
+   *     RowComparator#TIME_COLUMN_INDEX} for the time column, in the order of priority
+   * @param orderings ordering of each sort column
+   * @param topValue the number of rows to return
+   * @param childOrdered whether the child returns its rows in the order of the sort columns
+   */
+  public TopKOperator(
+      OperatorContext operatorContext,
+      Operator child,
+      List<TSDataType> dataTypes,
+      List<Integer> sortColumnIndexes,
+      List<Ordering> orderings,
+      int topValue,
+      boolean childOrdered) {
+    this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+    this.child = requireNonNull(child, "child operator is null");
+    this.dataTypes = dataTypes;
+    checkArgument(
+        !sortColumnIndexes.isEmpty() && sortColumnIndexes.size() == orderings.size(),
+        "each sort column should have its ordering");
+    checkArgument(topValue > 0, "topValue should be positive");
+    this.comparator = RowComparator.create(dataTypes, sortColumnIndexes, orderings);
+    this.topValue = topValue;
+    this.childOrdered = childOrdered;
+    this.maxReturnSize = TSFileDescriptor.getInstance().getConfig().getMaxTsBlockSizeInBytes();
+    this.heap = new long[Math.min(topValue, 1024)];
+    this.tsBlockBuilder = new TsBlockBuilder(dataTypes);
+  }
+
+  @Override
+  public OperatorContext getOperatorContext() {
+    return operatorContext;
+  }
+
+  @Override
+  public ListenableFuture<?> isBlocked() {
+    return inputFinished ? NOT_BLOCKED : child.isBlocked();
+  }
+
+  @Override
+  public TsBlock next() {
+    if (!inputFinished) {
+      if (child.hasNext()) {
+        appendInput(child.next());
+        if (!childOrdered || heapSize < topValue) {
+          // return null so that the driver can yield between input TsBlocks
+          return null;
+        }
+      }
+      // the rest rows of an ordered child can't be better than the kept ones
+      inputFinished = true;
+      sortedAddresses = new long[heapSize];
+      for (int i = heapSize - 1; i >= 0; i--) {
+        sortedAddresses[i] = heap[0];
+        removeTop();
+      }
+      heap = null;
+    }
+
+    tsBlockBuilder.reset();
+    while (sortedCursor < sortedAddresses.length && !tsBlockBuilder.isFull()) {
+      appendRow(tsBlockBuilder, sortedAddresses[sortedCursor++]);
+    }
+    if (sortedCursor == sortedAddresses.length) {
+      retainedBlocks.clear();
+    }
+    return tsBlockBuilder.build();
+  }
+
+  @Override
+  public boolean hasNext() {
+    return !inputFinished || sortedCursor < sortedAddresses.length;
+  }
+
+  @Override
+  public boolean isFinished() {
+    return inputFinished && !hasNext();
+  }
+
+  @Override
+  public void close() throws Exception {
+    retainedBlocks.clear();
+    child.close();
+  }
+
+  /**
+   * The kept rows take at most two TsBlocks of k rows before they are compacted, in addition to the
+   * TsBlock of the child being processed.
+   */
+  @Override
+  public long calculateMaxPeekMemory() {
+    return calculateMaxRetainedSize()
+        + child.calculateMaxReturnSize()
+        + Math.max(child.calculateMaxPeekMemory(), maxReturnSize);
+  }
+
+  @Override
+  public long calculateMaxReturnSize() {
+    return maxReturnSize;
+  }
+
+  @Override
+  public long calculateRetainedSizeAfterCallingNext() {
+    return calculateMaxRetainedSize() + child.calculateRetainedSizeAfterCallingNext();
+  }
+
+  private long calculateMaxRetainedSize() {
+    int maxLineNumber = TSFileDescriptor.getInstance().getConfig().getMaxTsBlockLineNumber();
+    return 2 * ((topValue + maxLineNumber - 1L) / maxLineNumber) * maxReturnSize;
+  }
+
+  private void appendInput(TsBlock tsBlock) {
+    if (tsBlock == null || tsBlock.isEmpty()) {
+      return;
+    }
+    int blockIndex = retainedBlocks.size();
+    retainedBlocks.add(tsBlock);
+    boolean retained = false;
+    for (int i = 0, size = tsBlock.getPositionCount(); i < size; i++) {
+      if (childOrdered && heapSize == topValue) {
+        break;
+      }
+      long address = ((long) blockIndex << 32) | i;
+      if (heapSize < topValue) {
+        insert(address);
+        retained = true;
+      } else if (compare(address, heap[0]) < 0) {
+        heap[0] = address;
+        siftDown(0);
+        retained = true;
+      }
+    }
+    if (!retained) {
+      retainedBlocks.remove(blockIndex);
+      return;
+    }
+    retainedRowCount += tsBlock.getPositionCount();
+    // rows replaced in the heap are still referenced by their TsBlocks
+    if (retainedRowCount > 2 * topValue) {
+      compact();
+    }
+  }
+
+  /** Copy the rows in the heap into one TsBlock, so that the replaced rows can be released. */
+  private void compact() {
+    TsBlockBuilder builder = new TsBlockBuilder(heapSize, dataTypes);
+    for (int i = 0; i < heapSize; i++) {
+      appendRow(builder, heap[i]);
+      heap[i] = i;
+    }
+    retainedBlocks.clear();
+    retainedBlocks.add(builder.build());
+    retainedRowCount = heapSize;
+  }
+
+  private void appendRow(TsBlockBuilder builder, long address) {
+    TsBlock tsBlock = retainedBlocks.get((int) (address >>> 32));
+    int index = (int) address;
+    builder.getTimeColumnBuilder().writeLong(tsBlock.getTimeByIndex(index));
+    ColumnBuilder[] columnBuilders = builder.getValueColumnBuilders();
+    for (int i = 0; i < columnBuilders.length; i++) {
+      Column column = tsBlock.getColumn(i);
+      if (column.isNull(index)) {
+        columnBuilders[i].appendNull();
+      } else {
+        columnBuilders[i].write(column, index);
+      }
+    }
+    builder.declarePosition();
+  }
+
+  private int compare(long left, long right) {
+    return comparator.compare(
+        retainedBlocks.get((int) (left >>> 32)),
+        (int) left,
+        retainedBlocks.get((int) (right >>> 32)),
+        (int) right);
+  }
+
+  private void insert(long address) {
+    if (heapSize == heap.length) {
+      long[] newHeap = new long[(int) Math.min((long) heap.length << 1, topValue)];
+      System.arraycopy(heap, 0, newHeap, 0, heapSize);
+      heap = newHeap;
+    }
+    int i = heapSize++;
+    heap[i] = address;
+    while (i > 0) {
+      int parent = (i - 1) >>> 1;
+      if (compare(heap[i], heap[parent]) <= 0) {
+        break;
+      }
+      swap(i, parent);
+      i = parent;
+    }
+  }
+
+  private void removeTop() {
+    heap[0] = heap[--heapSize];
+    siftDown(0);
+  }
+
+  private void siftDown(int i) {
+    while (true) {
+      int left = (i << 1) + 1;
+      if (left >= heapSize) {
+        return;
+      }
+      int largest = left;
+      int right = left + 1;
+      if (right < heapSize && compare(heap[right], heap[left]) > 0) {
+        largest = right;
+      }
+      if (compare(heap[largest], heap[i]) <= 0) {
+        return;
+      }
+      swap(i, largest);
+      i = largest;
+    }
+  }
+
+  private void swap(int i, int j) {
+    long tmp = heap[i];
+    heap[i] = heap[j];
+    heap[j] = tmp;
+  }
+}
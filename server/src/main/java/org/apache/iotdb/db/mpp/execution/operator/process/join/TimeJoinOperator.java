@@ -29,11 +29,14 @@ import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
 
 import com.google.common.util.concurrent.ListenableFuture;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -75,6 +78,10 @@ public class TimeJoinOperator implements ProcessOperator {
 
   private final List<ColumnMerger> mergers;
 
+  /**
+   * only used to build the time column, value columns are returned by mergers as views of the input
+   * columns, so that values are copied only when they are read by consumers
+   */
   private final TsBlockBuilder tsBlockBuilder;
 
   private boolean finished;
@@ -101,7 +108,7 @@ public class TimeJoinOperator implements ProcessOperator {
     this.timeSelector = new TimeSelector(this.inputOperatorsCount << 1, Ordering.ASC == mergeOrder);
     this.outputColumnCount = dataTypes.size();
     this.dataTypes = dataTypes;
-    this.tsBlockBuilder = new TsBlockBuilder(dataTypes);
+    this.tsBlockBuilder = new TsBlockBuilder(Collections.emptyList());
     this.mergers = mergers;
     this.comparator = comparator;
   }
@@ -183,21 +190,24 @@ public class TimeJoinOperator implements ProcessOperator {
       tsBlockBuilder.declarePosition();
     }
 
+    Column[] valueColumns = new Column[outputColumnCount];
     for (int i = 0; i < outputColumnCount; i++) {
       ColumnMerger merger = mergers.get(i);
-      merger.mergeColumn(
-          inputTsBlocks,
-          inputIndex,
-          shadowInputIndex,
-          timeBuilder,
-          currentEndTime,
-          tsBlockBuilder.getColumnBuilder(i));
+      valueColumns[i] =
+          merger.mergeColumn(
+              inputTsBlocks,
+              inputIndex,
+              shadowInputIndex,
+              timeBuilder,
+              currentEndTime,
+              dataTypes.get(i));
     }
 
     // update inputIndex using shadowInputIndex
     System.arraycopy(shadowInputIndex, 0, inputIndex, 0, inputOperatorsCount);
 
-    return tsBlockBuilder.build();
+    return TsBlock.wrapBlocksWithoutCopy(
+        tsBlockBuilder.getPositionCount(), (TimeColumn) timeBuilder.build(), valueColumns);
   }
 
   @Override
@@ -18,9 +18,12 @@
  */
 package org.apache.iotdb.db.mpp.execution.operator.process.join.merge;
 
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.type.TypeFactory;
 
 /** used to merge columns belonging to same series into one column */
 public interface ColumnMerger {
@@ -59,6 +62,28 @@ public interface ColumnMerger {
       long currentEndTime,
       ColumnBuilder columnBuilder);
 
+  /**
+   * the same as {@link #mergeColumn(TsBlock[], int[], int[], TimeColumnBuilder, long,
+   * ColumnBuilder)}, but returns the merged column, which may be a view of the source column, e.g.,
+   * a {@link org.apache.iotdb.tsfile.read.common.block.column.LazyColumn}, instead of a copy of it
+   *
+   * @param dataType data type of the merged column
+   * @return merged column whose position count is equal to that of timeBuilder
+   */
+  default Column mergeColumn(
+      TsBlock[] inputTsBlocks,
+      int[] inputIndex,
+      int[] updatedInputIndex,
+      TimeColumnBuilder timeBuilder,
+      long currentEndTime,
+      TSDataType dataType) {
+    ColumnBuilder columnBuilder =
+        TypeFactory.getType(dataType).createColumnBuilder(timeBuilder.getPositionCount());
+    mergeColumn(
+        inputTsBlocks, inputIndex, updatedInputIndex, timeBuilder, currentEndTime, columnBuilder);
+    return columnBuilder.build();
+  }
+
   /**
    * merge columns belonging to same series into one column, merge just one row whose time is equal
    * to currentTime
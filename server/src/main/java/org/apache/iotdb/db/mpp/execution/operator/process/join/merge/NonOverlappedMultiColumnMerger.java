@@ -19,7 +19,9 @@
 package org.apache.iotdb.db.mpp.execution.operator.process.join.merge;
 
 import org.apache.iotdb.db.mpp.plan.planner.plan.parameter.InputLocation;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
 
@@ -71,6 +73,28 @@ public class NonOverlappedMultiColumnMerger implements ColumnMerger {
         comparator);
   }
 
+  @Override
+  public Column mergeColumn(
+      TsBlock[] inputTsBlocks,
+      int[] inputIndex,
+      int[] updatedInputIndex,
+      TimeColumnBuilder timeBuilder,
+      long currentEndTime,
+      TSDataType dataType) {
+    // move to next InputLocation if current InputLocation's column has been consumed up
+    moveToNextIfNecessary(inputTsBlocks);
+    // merge current column, whose region is returned without copy if it has all the result rows
+    return SingleColumnMerger.mergeOneColumn(
+        inputTsBlocks,
+        inputIndex,
+        updatedInputIndex,
+        timeBuilder,
+        currentEndTime,
+        dataType,
+        inputLocations.get(index),
+        comparator);
+  }
+
   @Override
   public void mergeColumn(
       TsBlock[] inputTsBlocks,
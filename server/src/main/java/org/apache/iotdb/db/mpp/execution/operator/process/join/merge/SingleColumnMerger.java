@@ -19,11 +19,16 @@
 package org.apache.iotdb.db.mpp.execution.operator.process.join.merge;
 
 import org.apache.iotdb.db.mpp.plan.planner.plan.parameter.InputLocation;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.LazyColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.type.TypeFactory;
+
+import java.util.Arrays;
 
 /** only has one input column */
 public class SingleColumnMerger implements ColumnMerger {
@@ -111,6 +116,89 @@ public class SingleColumnMerger implements ColumnMerger {
     updatedInputIndex[tsBlockIndex] = index;
   }
 
+  @Override
+  public Column mergeColumn(
+      TsBlock[] inputTsBlocks,
+      int[] inputIndex,
+      int[] updatedInputIndex,
+      TimeColumnBuilder timeBuilder,
+      long currentEndTime,
+      TSDataType dataType) {
+    return mergeOneColumn(
+        inputTsBlocks,
+        inputIndex,
+        updatedInputIndex,
+        timeBuilder,
+        currentEndTime,
+        dataType,
+        location,
+        comparator);
+  }
+
+  /**
+   * the same as {@link #mergeOneColumn(TsBlock[], int[], int[], TimeColumnBuilder, long,
+   * ColumnBuilder, InputLocation, TimeComparator)}, but no value is copied. If the input column has
+   * all the rows of result, its region is returned directly, otherwise a {@link LazyColumn} mapping
+   * the rows of result to the positions of input column is returned.
+   */
+  public static Column mergeOneColumn(
+      TsBlock[] inputTsBlocks,
+      int[] inputIndex,
+      int[] updatedInputIndex,
+      TimeColumnBuilder timeBuilder,
+      long currentEndTime,
+      TSDataType dataType,
+      InputLocation location,
+      TimeComparator comparator) {
+    int tsBlockIndex = location.getTsBlockIndex();
+    int columnIndex = location.getValueColumnIndex();
+
+    int rowCount = timeBuilder.getPositionCount();
+    int index = inputIndex[tsBlockIndex];
+    // input column is empty or current time of input column is already larger than currentEndTime
+    // just return rowCount null
+    if (ColumnMerger.empty(tsBlockIndex, inputTsBlocks, inputIndex)
+        || !comparator.satisfyCurEndTime(
+            inputTsBlocks[tsBlockIndex].getTimeByIndex(index), currentEndTime)) {
+      ColumnBuilder columnBuilder = TypeFactory.getType(dataType).createColumnBuilder(rowCount);
+      columnBuilder.appendNull(rowCount);
+      updatedInputIndex[tsBlockIndex] = index;
+      return columnBuilder.build();
+    }
+
+    TimeColumn timeColumn = inputTsBlocks[tsBlockIndex].getTimeColumn();
+    Column valueColumn = inputTsBlocks[tsBlockIndex].getColumn(columnIndex);
+    // times of both input and result are strictly monotonic and the latter contains the former, so
+    // the input rows are exactly the result rows if their first and last times are the same
+    if (rowCount > 0
+        && timeColumn.getPositionCount() - index >= rowCount
+        && timeColumn.getLong(index) == timeBuilder.getTime(0)
+        && timeColumn.getLong(index + rowCount - 1) == timeBuilder.getTime(rowCount - 1)) {
+      updatedInputIndex[tsBlockIndex] = index + rowCount;
+      return valueColumn.getRegion(index, rowCount);
+    }
+
+    int[] positions = new int[rowCount];
+    for (int i = 0; i < rowCount; i++) {
+      // current index reaches the size of input column or current time of input column is already
+      // larger than currentEndTime, use null to fill the remaining
+      if (timeColumn.getPositionCount() == index
+          || !comparator.satisfyCurEndTime(timeColumn.getLong(index), currentEndTime)) {
+        Arrays.fill(positions, i, rowCount, -1);
+        break;
+      }
+      // current time of input column is equal to result row's time
+      if (timeColumn.getLong(index) == timeBuilder.getTime(i)) {
+        positions[i] = index++;
+      } else {
+        positions[i] = -1;
+      }
+    }
+    // update the index after merging
+    updatedInputIndex[tsBlockIndex] = index;
+    return new LazyColumn(valueColumn, positions, rowCount);
+  }
+
   @Override
   public void mergeColumn(
       TsBlock[] inputTsBlocks,
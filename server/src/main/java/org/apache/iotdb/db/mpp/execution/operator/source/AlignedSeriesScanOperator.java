@@ -26,6 +26,8 @@ import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 
+import com.google.common.util.concurrent.ListenableFuture;
+
 import java.io.IOException;
 import java.util.HashSet;
 
@@ -57,6 +59,7 @@ public class AlignedSeriesScanOperator implements DataSourceOperator {
             timeFilter,
             valueFilter,
             ascending);
+    this.seriesScanUtil.enableChunkPrefetch();
     // time + all value columns
     this.maxReturnSize =
         (1L + seriesPath.getMeasurementList().size())
@@ -68,6 +71,11 @@ public class AlignedSeriesScanOperator implements DataSourceOperator {
     return operatorContext;
   }
 
+  @Override
+  public ListenableFuture<?> isBlocked() {
+    return seriesScanUtil.isBlocked();
+  }
+
   @Override
   public TsBlock next() {
     if (hasCachedTsBlock || hasNext()) {
@@ -161,6 +169,11 @@ public class AlignedSeriesScanOperator implements DataSourceOperator {
     return tsBlock == null || tsBlock.isEmpty();
   }
 
+  @Override
+  public void close() throws Exception {
+    seriesScanUtil.close();
+  }
+
   @Override
   public PlanNodeId getSourceId() {
     return sourceId;
@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator.source;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.cache.ChunkCache;
+import org.apache.iotdb.db.mpp.execution.exchange.MPPDataExchangeService;
+import org.apache.iotdb.db.mpp.execution.memory.MemoryPool;
+import org.apache.iotdb.db.query.reader.chunk.DiskAlignedChunkLoader;
+import org.apache.iotdb.db.query.reader.chunk.DiskChunkLoader;
+import org.apache.iotdb.db.service.metrics.MetricService;
+import org.apache.iotdb.db.service.metrics.enums.Metric;
+import org.apache.iotdb.db.service.metrics.enums.Tag;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+import org.apache.iotdb.tsfile.file.metadata.AlignedChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.apache.iotdb.db.mpp.execution.operator.Operator.NOT_BLOCKED;
+
+/**
+ * Reads the chunks of sequence files ahead of a series scan into {@link ChunkCache} on a dedicated
+ * thread pool, so that the driver thread finds them cached, or yields until they are read instead
+ * of blocking on IO.
+ *
+ * <p>At most {@link IoTDBConfig#getChunkPrefetchNum()} chunks are read ahead and not consumed yet.
+ * The estimated size of the chunks being read is reserved from the query memory pool, and released
+ * once they are in ChunkCache. The methods of this class are called by the driver thread only.
+ */
+public class ChunkPrefetcher {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ChunkPrefetcher.class);
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  private static final String PREFETCH_THREAD_POOL_NAME = "Chunk-Prefetch";
+  private static final String HIT = "hit";
+  private static final String MISS = "miss";
+
+  private final String queryId;
+  private final MemoryPool memoryPool;
+  private final int prefetchNum;
+
+  /** chunks to be read ahead, in the order they are going to be consumed */
+  private final Deque<ChunkMetadata> candidates = new ArrayDeque<>();
+
+  /** chunks being read or already read ahead but not consumed, in the order of consumption */
+  private final LinkedHashMap<ChunkMetadata, SettableFuture<Void>> prefetchedChunks =
+      new LinkedHashMap<>();
+
+  private boolean closed = false;
+
+  public ChunkPrefetcher(String queryId) {
+    this(
+        queryId,
+        MPPDataExchangeService.getInstance()
+            .getMPPDataExchangeManager()
+            .getLocalMemoryManager()
+            .getQueryPool(),
+        config.getChunkPrefetchNum());
+  }
+
+  public ChunkPrefetcher(String queryId, MemoryPool memoryPool, int prefetchNum) {
+    this.queryId = queryId;
+    this.memoryPool = memoryPool;
+    this.prefetchNum = prefetchNum;
+  }
+
+  public static boolean isEnabled() {
+    return config.isEnableChunkPrefetch() && ChunkCache.getInstance().isEnabled();
+  }
+
+  /**
+   * Add the chunks of a sequence file, which are read ahead in the given order. Chunks that are not
+   * in sealed files are ignored.
+   */
+  public void addCandidates(List<IChunkMetadata> chunkMetadataList) {
+    for (IChunkMetadata chunkMetadata : chunkMetadataList) {
+      if (chunkMetadata.getChunkLoader() instanceof DiskChunkLoader
+          || chunkMetadata.getChunkLoader() instanceof DiskAlignedChunkLoader) {
+        for (ChunkMetadata chunkToRead : getChunkMetadataToRead(chunkMetadata)) {
+          if (chunkToRead.isClosed()) {
+            candidates.add(chunkToRead);
+          }
+        }
+      }
+    }
+    prefetch();
+  }
+
+  /**
+   * Called before the chunk is read by the driver. Chunks read ahead before it were skipped, and
+   * are not tracked any more.
+   */
+  public void consume(IChunkMetadata chunkMetadata) {
+    for (ChunkMetadata chunkToRead : getChunkMetadataToRead(chunkMetadata)) {
+      if (prefetchedChunks.containsKey(chunkToRead)) {
+        Iterator<Map.Entry<ChunkMetadata, SettableFuture<Void>>> iterator =
+            prefetchedChunks.entrySet().iterator();
+        while (iterator.hasNext()) {
+          Map.Entry<ChunkMetadata, SettableFuture<Void>> entry = iterator.next();
+          iterator.remove();
+          if (entry.getKey().equals(chunkToRead)) {
+            recordPrefetch(entry.getValue().isDone() ? HIT : MISS);
+            break;
+          }
+        }
+      } else if (candidates.contains(chunkToRead)) {
+        // the chunk is read by the driver before it is read ahead
+        prefetchedChunks.clear();
+        ChunkMetadata skippedChunk;
+        do {
+          skippedChunk = candidates.pollFirst();
+        } while (!chunkToRead.equals(skippedChunk));
+        recordPrefetch(MISS);
+      }
+    }
+    prefetch();
+  }
+
+  /**
+   * Returns a future which is done when the chunk is read ahead, or {@link
+   * org.apache.iotdb.db.mpp.execution.operator.Operator#NOT_BLOCKED} if it is not being read ahead.
+   */
+  public ListenableFuture<?> isBlocked(IChunkMetadata chunkMetadata) {
+    for (ChunkMetadata chunkToRead : getChunkMetadataToRead(chunkMetadata)) {
+      SettableFuture<Void> future = prefetchedChunks.get(chunkToRead);
+      if (future != null && !future.isDone()) {
+        return future;
+      }
+    }
+    return NOT_BLOCKED;
+  }
+
+  public void close() {
+    closed = true;
+    candidates.clear();
+    // the chunks that are not started to read will not be read, the reserved memory is released by
+    // the read tasks anyway
+    prefetchedChunks.values().forEach(future -> future.cancel(false));
+    prefetchedChunks.clear();
+  }
+
+  private void prefetch() {
+    while (!closed && prefetchedChunks.size() < prefetchNum && !candidates.isEmpty()) {
+      ChunkMetadata chunkMetadata = candidates.peekFirst();
+      if (ChunkCache.getInstance().contains(chunkMetadata)) {
+        candidates.pollFirst();
+        continue;
+      }
+      long reservedBytes = estimateChunkSize(chunkMetadata);
+      if (!memoryPool.tryReserve(queryId, reservedBytes)) {
+        // try again when the next chunk is consumed
+        return;
+      }
+      candidates.pollFirst();
+      SettableFuture<Void> future = SettableFuture.create();
+      prefetchedChunks.put(chunkMetadata, future);
+      try {
+        PrefetchExecutorHolder.EXECUTOR.submit(
+            () -> {
+              try {
+                if (!future.isCancelled()) {
+                  ChunkCache.getInstance().prefetch(chunkMetadata);
+                }
+              } catch (Exception e) {
+                // the chunk will be read by the driver again
+                LOGGER.warn("Failed to read chunk {} ahead", chunkMetadata, e);
+              } finally {
+                memoryPool.free(queryId, reservedBytes);
+                future.set(null);
+              }
+            });
+      } catch (RejectedExecutionException e) {
+        memoryPool.free(queryId, reservedBytes);
+        future.set(null);
+      }
+    }
+  }
+
+  /** the uncompressed size of the points in the chunk, which is the upper bound in most cases */
+  private static long estimateChunkSize(ChunkMetadata chunkMetadata) {
+    long size =
+        chunkMetadata.getStatistics().getCount()
+            * (Long.BYTES + chunkMetadata.getDataType().getDataTypeSize());
+    return Math.max(Math.min(size, config.getMaxBytesPerQuery()), 1);
+  }
+
+  private static List<ChunkMetadata> getChunkMetadataToRead(IChunkMetadata chunkMetadata) {
+    if (chunkMetadata instanceof ChunkMetadata) {
+      return Collections.singletonList((ChunkMetadata) chunkMetadata);
+    } else if (chunkMetadata instanceof AlignedChunkMetadata) {
+      AlignedChunkMetadata alignedChunkMetadata = (AlignedChunkMetadata) chunkMetadata;
+      List<ChunkMetadata> chunkMetadataList = new ArrayList<>();
+      chunkMetadataList.add((ChunkMetadata) alignedChunkMetadata.getTimeChunkMetadata());
+      for (IChunkMetadata valueChunkMetadata : alignedChunkMetadata.getValueChunkMetadataList()) {
+        if (valueChunkMetadata != null) {
+          chunkMetadataList.add((ChunkMetadata) valueChunkMetadata);
+        }
+      }
+      return chunkMetadataList;
+    }
+    return Collections.emptyList();
+  }
+
+  private static void recordPrefetch(String type) {
+    MetricService.getInstance()
+        .count(
+            1, Metric.CHUNK_PREFETCH.toString(), MetricLevel.IMPORTANT, Tag.TYPE.toString(), type);
+  }
+
+  private static class PrefetchExecutorHolder {
+
+    private static final ExecutorService EXECUTOR =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            config.getChunkPrefetchThreadNum(), PREFETCH_THREAD_POOL_NAME);
+  }
+}
@@ -19,6 +19,7 @@
 package org.apache.iotdb.db.mpp.execution.operator.source;
 
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.engine.cache.PageIndexCache;
 import org.apache.iotdb.db.mpp.aggregation.Aggregator;
 import org.apache.iotdb.db.mpp.aggregation.timerangeiterator.ITimeRangeIterator;
 import org.apache.iotdb.db.mpp.execution.operator.OperatorContext;
@@ -67,5 +68,7 @@ public class SeriesAggregationScanOperator extends AbstractSeriesAggregationScan
         ascending,
         groupByTimeParameter,
         maxReturnSize);
+    // partially overlapped chunks are unpacked by page statistics without loading the whole chunk
+    seriesScanUtil.setUsePageIndex(PageIndexCache.getInstance().isEnabled());
   }
 }
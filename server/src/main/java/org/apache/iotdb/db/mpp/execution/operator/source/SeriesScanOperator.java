@@ -27,6 +27,8 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 
+import com.google.common.util.concurrent.ListenableFuture;
+
 import java.io.IOException;
 import java.util.Set;
 
@@ -61,6 +63,7 @@ public class SeriesScanOperator implements DataSourceOperator {
             timeFilter,
             valueFilter,
             ascending);
+    this.seriesScanUtil.enableChunkPrefetch();
     this.maxReturnSize = TSFileDescriptor.getInstance().getConfig().getPageSizeInByte();
   }
 
@@ -69,6 +72,11 @@ public class SeriesScanOperator implements DataSourceOperator {
     return operatorContext;
   }
 
+  @Override
+  public ListenableFuture<?> isBlocked() {
+    return seriesScanUtil.isBlocked();
+  }
+
   @Override
   public TsBlock next() {
     if (hasCachedTsBlock || hasNext()) {
@@ -162,6 +170,11 @@ public class SeriesScanOperator implements DataSourceOperator {
     return tsBlock == null || tsBlock.isEmpty();
   }
 
+  @Override
+  public void close() throws Exception {
+    seriesScanUtil.close();
+  }
+
   @Override
   public PlanNodeId getSourceId() {
     return sourceId;
@@ -20,6 +20,7 @@ package org.apache.iotdb.db.mpp.execution.operator.source;
 
 import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.engine.compaction.CompactionIOController;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.metadata.idtable.IDTable;
@@ -45,8 +46,11 @@ import org.apache.iotdb.tsfile.read.reader.IPageReader;
 import org.apache.iotdb.tsfile.read.reader.IPointReader;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
+import com.google.common.util.concurrent.ListenableFuture;
+
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedList;
@@ -58,9 +62,13 @@ import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static org.apache.iotdb.db.mpp.execution.operator.Operator.NOT_BLOCKED;
 
 public class SeriesScanUtil {
   private final FragmentInstanceContext context;
+  // the time spent on reading TsFiles is reported to let compaction give way to queries, except
+  // for the reads of compaction itself, whose context has no fragment instance id
+  private final boolean recordIOWait;
 
   // The path of the target series which will be scanned.
   private final PartialPath seriesPath;
@@ -84,6 +92,12 @@ public class SeriesScanUtil {
 
   private QueryDataSource dataSource;
 
+  // whether to unpack chunks of sealed files by their page index, set for aggregation
+  private boolean usePageIndex = false;
+
+  // reads chunks of sequence files ahead, null if it is not enabled
+  private ChunkPrefetcher chunkPrefetcher;
+
   /*
    * file index
    */
@@ -133,6 +147,7 @@ public class SeriesScanUtil {
     this.allSensors = allSensors;
     this.dataType = dataType;
     this.context = context;
+    this.recordIOWait = context != null && context.getId() != null;
     this.timeFilter = timeFilter;
     this.valueFilter = valueFilter;
     if (ascending) {
@@ -176,6 +191,41 @@ public class SeriesScanUtil {
     orderUtils.setCurSeqFileIndex(dataSource);
   }
 
+  public void setUsePageIndex(boolean usePageIndex) {
+    this.usePageIndex = usePageIndex;
+  }
+
+  /** read chunks of sequence files ahead if it is enabled, set for raw data scan */
+  public void enableChunkPrefetch() {
+    if (ChunkPrefetcher.isEnabled()) {
+      chunkPrefetcher = new ChunkPrefetcher(context.getId().getQueryId().getId());
+    }
+  }
+
+  /**
+   * Returns a future which is done when the next chunk to unpack is read ahead, so that the driver
+   * yields instead of blocking on reading it.
+   */
+  public ListenableFuture<?> isBlocked() {
+    if (chunkPrefetcher == null
+        || hasCachedNextOverlappedPage
+        || firstPageReader != null
+        || !seqPageReaders.isEmpty()
+        || !unSeqPageReaders.isEmpty()
+        || mergeReader.hasNextTimeValuePair()) {
+      return NOT_BLOCKED;
+    }
+    IChunkMetadata nextChunkMetadata =
+        firstChunkMetadata != null ? firstChunkMetadata : cachedChunkMetadata.peek();
+    return nextChunkMetadata == null ? NOT_BLOCKED : chunkPrefetcher.isBlocked(nextChunkMetadata);
+  }
+
+  public void close() {
+    if (chunkPrefetcher != null) {
+      chunkPrefetcher.close();
+    }
+  }
+
   protected PriorityMergeReader getPriorityMergeReader() {
     return new PriorityMergeReader();
   }
@@ -349,11 +399,22 @@ public class SeriesScanUtil {
 
   protected void unpackOneTimeSeriesMetadata(ITimeSeriesMetadata timeSeriesMetadata)
       throws IOException {
+    long startTime = getIOWaitStartTime();
     List<IChunkMetadata> chunkMetadataList =
         FileLoaderUtils.loadChunkMetadataList(timeSeriesMetadata);
+    recordIOWait(startTime);
     chunkMetadataList.forEach(chunkMetadata -> chunkMetadata.setSeq(timeSeriesMetadata.isSeq()));
 
     cachedChunkMetadata.addAll(chunkMetadataList);
+
+    if (chunkPrefetcher != null && timeSeriesMetadata.isSeq()) {
+      // chunks in a sequence file are consumed in time order
+      List<IChunkMetadata> candidates = new ArrayList<>(chunkMetadataList);
+      if (!orderUtils.getAscending()) {
+        Collections.reverse(candidates);
+      }
+      chunkPrefetcher.addCandidates(candidates);
+    }
   }
 
   boolean isChunkOverlapped() throws IOException {
@@ -514,8 +575,13 @@ public class SeriesScanUtil {
   }
 
   private void unpackOneChunkMetaData(IChunkMetadata chunkMetaData) throws IOException {
+    if (chunkPrefetcher != null) {
+      chunkPrefetcher.consume(chunkMetaData);
+    }
+    long startTime = getIOWaitStartTime();
     List<IPageReader> pageReaderList =
-        FileLoaderUtils.loadPageReaderList(chunkMetaData, timeFilter);
+        FileLoaderUtils.loadPageReaderList(chunkMetaData, timeFilter, usePageIndex);
+    recordIOWait(startTime);
 
     // init TsBlockBuilder for each page reader
     pageReaderList.forEach(p -> p.initTsBlockBuilder(getTsDataTypeList()));
@@ -1025,6 +1091,7 @@ public class SeriesScanUtil {
   }
 
   private void unpackSeqTsFileResource() throws IOException {
+    long startTime = getIOWaitStartTime();
     ITimeSeriesMetadata timeseriesMetadata =
         loadTimeSeriesMetadata(
             orderUtils.getNextSeqFileResource(true),
@@ -1032,6 +1099,7 @@ public class SeriesScanUtil {
             context,
             getAnyFilter(),
             allSensors);
+    recordIOWait(startTime);
     if (timeseriesMetadata != null) {
       timeseriesMetadata.setSeq(true);
       seqTimeSeriesMetadata.add(timeseriesMetadata);
@@ -1039,6 +1107,7 @@ public class SeriesScanUtil {
   }
 
   private void unpackUnseqTsFileResource() throws IOException {
+    long startTime = getIOWaitStartTime();
     ITimeSeriesMetadata timeseriesMetadata =
         loadTimeSeriesMetadata(
             orderUtils.getNextUnseqFileResource(true),
@@ -1046,6 +1115,7 @@ public class SeriesScanUtil {
             context,
             getAnyFilter(),
             allSensors);
+    recordIOWait(startTime);
     if (timeseriesMetadata != null) {
       timeseriesMetadata.setModified(true);
       timeseriesMetadata.setSeq(false);
@@ -1064,6 +1134,16 @@ public class SeriesScanUtil {
         resource, seriesPath, context, filter, allSensors);
   }
 
+  private long getIOWaitStartTime() {
+    return recordIOWait ? System.nanoTime() : 0L;
+  }
+
+  private void recordIOWait(long startTime) {
+    if (recordIOWait) {
+      CompactionIOController.getInstance().recordQueryIOWait(System.nanoTime() - startTime);
+    }
+  }
+
   protected List<TSDataType> getTsDataTypeList() {
     return Collections.singletonList(dataType);
   }
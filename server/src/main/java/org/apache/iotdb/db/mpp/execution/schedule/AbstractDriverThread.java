@@ -33,7 +33,7 @@ import java.util.concurrent.ExecutionException;
 public abstract class AbstractDriverThread extends Thread implements Closeable {
 
   private static final Logger logger = LoggerFactory.getLogger(AbstractDriverThread.class);
-  private final IndexedBlockingQueue<DriverTask> queue;
+  private final TaskSource queue;
   protected final ITaskScheduler scheduler;
   private volatile boolean closed;
 
@@ -42,6 +42,11 @@ public abstract class AbstractDriverThread extends Thread implements Closeable {
       ThreadGroup tg,
       IndexedBlockingQueue<DriverTask> queue,
       ITaskScheduler scheduler) {
+    this(workerId, tg, queue::poll, scheduler);
+  }
+
+  protected AbstractDriverThread(
+      String workerId, ThreadGroup tg, TaskSource queue, ITaskScheduler scheduler) {
     super(tg, workerId);
     this.queue = queue;
     this.scheduler = scheduler;
@@ -79,4 +84,12 @@ public abstract class AbstractDriverThread extends Thread implements Closeable {
   public void close() throws IOException {
     closed = true;
   }
+
+  /** Where the thread polls its next task from. */
+  @FunctionalInterface
+  protected interface TaskSource {
+
+    /** Get and remove the next task, blocked until there is one. */
+    DriverTask poll() throws InterruptedException;
+  }
 }
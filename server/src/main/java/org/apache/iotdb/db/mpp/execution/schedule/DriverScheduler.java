@@ -22,18 +22,27 @@ import org.apache.iotdb.commons.exception.StartupException;
 import org.apache.iotdb.commons.service.IService;
 import org.apache.iotdb.commons.service.ServiceType;
 import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
 import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.common.SessionInfo;
 import org.apache.iotdb.db.mpp.execution.driver.IDriver;
 import org.apache.iotdb.db.mpp.execution.exchange.IMPPDataExchangeManager;
 import org.apache.iotdb.db.mpp.execution.exchange.MPPDataExchangeService;
 import org.apache.iotdb.db.mpp.execution.schedule.queue.IndexedBlockingQueue;
 import org.apache.iotdb.db.mpp.execution.schedule.queue.L1PriorityQueue;
-import org.apache.iotdb.db.mpp.execution.schedule.queue.L2PriorityQueue;
+import org.apache.iotdb.db.mpp.execution.schedule.queue.LevelScheduledTime;
+import org.apache.iotdb.db.mpp.execution.schedule.queue.MultilevelPriorityQueue;
+import org.apache.iotdb.db.mpp.execution.schedule.queue.WorkStealingQueue;
 import org.apache.iotdb.db.mpp.execution.schedule.task.DriverTask;
+import org.apache.iotdb.db.mpp.execution.schedule.task.DriverTaskHandle;
 import org.apache.iotdb.db.mpp.execution.schedule.task.DriverTaskID;
 import org.apache.iotdb.db.mpp.execution.schedule.task.DriverTaskStatus;
+import org.apache.iotdb.db.service.metrics.MetricService;
+import org.apache.iotdb.db.service.metrics.enums.Metric;
+import org.apache.iotdb.db.service.metrics.enums.Tag;
+import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.mpp.rpc.thrift.TFragmentInstanceId;
 
 import io.airlift.concurrent.SetThreadName;
@@ -43,11 +52,13 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /** the manager of fragment instances scheduling */
@@ -59,10 +70,12 @@ public class DriverScheduler implements IDriverScheduler, IService {
     return InstanceHolder.instance;
   }
 
-  private final IndexedBlockingQueue<DriverTask> readyQueue;
+  private final WorkStealingQueue<DriverTask> readyQueue;
   private final IndexedBlockingQueue<DriverTask> timeoutQueue;
   private final Set<DriverTask> blockedTasks;
   private final Map<QueryId, Set<DriverTask>> queryMap;
+  private final LevelScheduledTime levelScheduledTime;
+  private ResourceGroupManager resourceGroupManager;
   private final ITaskScheduler scheduler;
   private IMPPDataExchangeManager blockManager;
 
@@ -72,28 +85,55 @@ public class DriverScheduler implements IDriverScheduler, IService {
       IoTDBDescriptor.getInstance().getConfig().getConcurrentQueryThread();
   private static final long QUERY_TIMEOUT_MS =
       IoTDBDescriptor.getInstance().getConfig().getQueryTimeoutThreshold();
+
+  private static final String QUEUE_WAIT = "queue_wait";
+  private static final String RUN = "run";
+  private static final String[] LEVEL_NAMES = new String[LevelScheduledTime.LEVEL_NUM];
+
+  static {
+    for (int i = 0; i < LEVEL_NAMES.length; i++) {
+      LEVEL_NAMES[i] = "level_" + i;
+    }
+  }
+
   private final ThreadGroup workerGroups;
   private final List<AbstractDriverThread> threads;
 
   private DriverScheduler() {
+    this.levelScheduledTime = new LevelScheduledTime();
+    // every worker has a local multilevel feedback queue, sharing the scheduled time of the levels
     this.readyQueue =
-        new L2PriorityQueue<>(
-            MAX_CAPACITY, new DriverTask.SchedulePriorityComparator(), new DriverTask());
+        new WorkStealingQueue<>(
+            WORKER_THREAD_NUM,
+            MAX_CAPACITY,
+            () ->
+                new MultilevelPriorityQueue<>(
+                    MAX_CAPACITY,
+                    new DriverTask.SchedulePriorityComparator(),
+                    DriverTask::getLevel,
+                    new DriverTask(),
+                    levelScheduledTime));
     this.timeoutQueue =
         new L1PriorityQueue<>(MAX_CAPACITY, new DriverTask.TimeoutComparator(), new DriverTask());
     this.queryMap = new ConcurrentHashMap<>();
-    this.blockedTasks = Collections.synchronizedSet(new HashSet<>());
+    this.blockedTasks = ConcurrentHashMap.newKeySet();
     this.scheduler = new Scheduler();
     this.workerGroups = new ThreadGroup("ScheduleThreads");
     this.threads = new ArrayList<>();
     this.blockManager = MPPDataExchangeService.getInstance().getMPPDataExchangeManager();
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    this.resourceGroupManager =
+        new ResourceGroupManager(
+            config.getQueryResourceGroupPolicy(),
+            config.getQueryResourceGroupCpuShares(),
+            config.getQueryResourceGroupMaxRunningDrivers());
   }
 
   @Override
   public void start() throws StartupException {
     for (int i = 0; i < WORKER_THREAD_NUM; i++) {
       AbstractDriverThread t =
-          new DriverTaskThread("Worker-Thread-" + i, workerGroups, readyQueue, scheduler);
+          new DriverTaskThread("Worker-Thread-" + i, workerGroups, readyQueue, i, scheduler);
       threads.add(t);
       t.start();
     }
@@ -122,13 +162,21 @@ public class DriverScheduler implements IDriverScheduler, IService {
   }
 
   @Override
-  public void submitDrivers(QueryId queryId, List<IDriver> instances, long timeOut) {
+  public void submitDrivers(
+      QueryId queryId, List<IDriver> instances, long timeOut, SessionInfo sessionInfo) {
+    ResourceGroup resourceGroup = resourceGroupManager.getResourceGroup(sessionInfo);
+    // the drivers of the same fragment instance share the multilevel feedback level
+    Map<FragmentInstanceId, DriverTaskHandle> handles = new HashMap<>();
     List<DriverTask> tasks =
         instances.stream()
             .map(
                 v ->
                     new DriverTask(
-                        v, timeOut > 0 ? timeOut : QUERY_TIMEOUT_MS, DriverTaskStatus.READY))
+                        v,
+                        timeOut > 0 ? timeOut : QUERY_TIMEOUT_MS,
+                        DriverTaskStatus.READY,
+                        handles.computeIfAbsent(
+                            v.getInfo(), id -> new DriverTaskHandle(resourceGroup))))
             .collect(Collectors.toList());
     queryMap
         .computeIfAbsent(queryId, v -> Collections.synchronizedSet(new HashSet<>()))
@@ -140,7 +188,7 @@ public class DriverScheduler implements IDriverScheduler, IService {
           continue;
         }
         timeoutQueue.push(task);
-        readyQueue.push(task);
+        admitToReadyQueue(task);
       } finally {
         task.unlock();
       }
@@ -165,16 +213,25 @@ public class DriverScheduler implements IDriverScheduler, IService {
 
   @Override
   public void abortFragmentInstance(FragmentInstanceId instanceId) {
-    DriverTask task = timeoutQueue.get(new DriverTaskID(instanceId));
-    if (task == null) {
+    Set<DriverTask> queryRelatedTasks = queryMap.get(instanceId.getQueryId());
+    if (queryRelatedTasks == null) {
       return;
     }
-    task.lock();
-    try {
-      task.setAbortCause(FragmentInstanceAbortedException.BY_FRAGMENT_ABORT_CALLED);
-      clearDriverTask(task);
-    } finally {
-      task.unlock();
+    List<DriverTask> instanceTasks;
+    synchronized (queryRelatedTasks) {
+      instanceTasks =
+          queryRelatedTasks.stream()
+              .filter(task -> task.getId().getFragmentInstanceId().equals(instanceId))
+              .collect(Collectors.toList());
+    }
+    for (DriverTask task : instanceTasks) {
+      task.lock();
+      try {
+        task.setAbortCause(FragmentInstanceAbortedException.BY_FRAGMENT_ABORT_CALLED);
+        clearDriverTask(task);
+      } finally {
+        task.unlock();
+      }
     }
   }
 
@@ -197,6 +254,7 @@ public class DriverScheduler implements IDriverScheduler, IService {
       readyQueue.remove(task.getId());
       timeoutQueue.remove(task.getId());
       blockedTasks.remove(task);
+      releaseResourceGroup(task);
       Set<DriverTask> tasks = queryMap.get(task.getId().getQueryId());
       if (tasks != null) {
         tasks.remove(task);
@@ -228,12 +286,61 @@ public class DriverScheduler implements IDriverScheduler, IService {
     }
   }
 
+  private void pushToReadyQueue(DriverTask task) {
+    task.setReadyTimeNanos(System.nanoTime());
+    readyQueue.push(task);
+  }
+
+  /** Push the task to the ready queue if its resource group admits it, otherwise it waits there. */
+  private void admitToReadyQueue(DriverTask task) {
+    ResourceGroup resourceGroup = task.getHandle().getResourceGroup();
+    if (resourceGroup == null || resourceGroup.tryAdmit(task)) {
+      pushToReadyQueue(task);
+    }
+  }
+
+  /** Let a waiting task of the resource group take the place of the blocked or done task. */
+  private void releaseResourceGroup(DriverTask task) {
+    ResourceGroup resourceGroup = task.getHandle().getResourceGroup();
+    if (resourceGroup == null) {
+      return;
+    }
+    DriverTask next = resourceGroup.release(task);
+    // The next task is not locked here to avoid locking two tasks at the same time. If it is
+    // aborted concurrently, it will be dropped by readyToRunning() once polled.
+    if (next != null && next.getStatus() == DriverTaskStatus.READY) {
+      pushToReadyQueue(next);
+    }
+  }
+
+  /** Charge the time of the last time slice to the level and the fragment instance of the task. */
+  private void recordRunTime(DriverTask task, ExecutionContext context) {
+    long runTimeNanos = context.getCpuDuration().getWall().roundTo(TimeUnit.NANOSECONDS);
+    int level = task.getLevel();
+    levelScheduledTime.addScheduledTime(level, runTimeNanos);
+    task.getHandle().addScheduledTime(runTimeNanos);
+    recordScheduleTime(RUN, level, runTimeNanos);
+  }
+
+  private static void recordScheduleTime(String type, int level, long nanos) {
+    MetricService.getInstance()
+        .timer(
+            nanos,
+            TimeUnit.NANOSECONDS,
+            Metric.DRIVER_SCHEDULE.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.TYPE.toString(),
+            type,
+            Tag.NAME.toString(),
+            LEVEL_NAMES[level]);
+  }
+
   ITaskScheduler getScheduler() {
     return scheduler;
   }
 
   @TestOnly
-  IndexedBlockingQueue<DriverTask> getReadyQueue() {
+  WorkStealingQueue<DriverTask> getReadyQueue() {
     return readyQueue;
   }
 
@@ -252,6 +359,11 @@ public class DriverScheduler implements IDriverScheduler, IService {
     return queryMap;
   }
 
+  @TestOnly
+  void setResourceGroupManager(ResourceGroupManager resourceGroupManager) {
+    this.resourceGroupManager = resourceGroupManager;
+  }
+
   @TestOnly
   void setBlockManager(IMPPDataExchangeManager blockManager) {
     this.blockManager = blockManager;
@@ -273,8 +385,8 @@ public class DriverScheduler implements IDriverScheduler, IService {
           return;
         }
         task.setStatus(DriverTaskStatus.READY);
-        readyQueue.push(task);
         blockedTasks.remove(task);
+        admitToReadyQueue(task);
       } finally {
         task.unlock();
       }
@@ -291,6 +403,7 @@ public class DriverScheduler implements IDriverScheduler, IService {
       } finally {
         task.unlock();
       }
+      recordScheduleTime(QUEUE_WAIT, task.getLevel(), System.nanoTime() - task.getReadyTimeNanos());
       return true;
     }
 
@@ -301,9 +414,12 @@ public class DriverScheduler implements IDriverScheduler, IService {
         if (task.getStatus() != DriverTaskStatus.RUNNING) {
           return;
         }
+        recordRunTime(task, context);
         task.updateSchedulePriority(context);
         task.setStatus(DriverTaskStatus.READY);
-        readyQueue.push(task);
+        // give the waiting tasks of the resource group a chance to run
+        releaseResourceGroup(task);
+        admitToReadyQueue(task);
       } finally {
         task.unlock();
       }
@@ -316,9 +432,11 @@ public class DriverScheduler implements IDriverScheduler, IService {
         if (task.getStatus() != DriverTaskStatus.RUNNING) {
           return;
         }
+        recordRunTime(task, context);
         task.updateSchedulePriority(context);
         task.setStatus(DriverTaskStatus.BLOCKED);
         blockedTasks.add(task);
+        releaseResourceGroup(task);
       } finally {
         task.unlock();
       }
@@ -331,6 +449,7 @@ public class DriverScheduler implements IDriverScheduler, IService {
         if (task.getStatus() != DriverTaskStatus.RUNNING) {
           return;
         }
+        recordRunTime(task, context);
         task.updateSchedulePriority(context);
         task.setStatus(DriverTaskStatus.FINISHED);
         clearDriverTask(task);
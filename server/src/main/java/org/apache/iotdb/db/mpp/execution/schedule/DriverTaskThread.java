@@ -22,6 +22,7 @@ import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.mpp.execution.driver.IDriver;
 import org.apache.iotdb.db.mpp.execution.schedule.queue.IndexedBlockingQueue;
+import org.apache.iotdb.db.mpp.execution.schedule.queue.WorkStealingQueue;
 import org.apache.iotdb.db.mpp.execution.schedule.task.DriverTask;
 import org.apache.iotdb.db.utils.stats.CpuTimer;
 
@@ -52,6 +53,20 @@ public class DriverTaskThread extends AbstractDriverThread {
     super(workerId, tg, queue, scheduler);
   }
 
+  /**
+   * Create a worker polling its local queue of the work-stealing ready queue.
+   *
+   * @param workerIndex the index of the local queue of this worker.
+   */
+  public DriverTaskThread(
+      String workerId,
+      ThreadGroup tg,
+      WorkStealingQueue<DriverTask> queue,
+      int workerIndex,
+      ITaskScheduler scheduler) {
+    super(workerId, tg, () -> queue.poll(workerIndex), scheduler);
+  }
+
   @Override
   public void execute(DriverTask task) throws InterruptedException {
     // try to switch it to RUNNING
@@ -20,6 +20,7 @@ package org.apache.iotdb.db.mpp.execution.schedule;
 
 import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
 import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.common.SessionInfo;
 import org.apache.iotdb.db.mpp.execution.driver.IDriver;
 
 import java.util.List;
@@ -34,7 +35,21 @@ public interface IDriverScheduler {
    * @param instances the submitted instances.
    * @param timeOut the query timeout
    */
-  void submitDrivers(QueryId queryId, List<IDriver> instances, long timeOut);
+  default void submitDrivers(QueryId queryId, List<IDriver> instances, long timeOut) {
+    submitDrivers(queryId, instances, timeOut, null);
+  }
+
+  /**
+   * Submit one or more {@link IDriver} in one query for later scheduling, in the resource group of
+   * the session.
+   *
+   * @param queryId the queryId these instances belong to.
+   * @param instances the submitted instances.
+   * @param timeOut the query timeout
+   * @param sessionInfo the session which issues the query, null if unknown.
+   */
+  void submitDrivers(
+      QueryId queryId, List<IDriver> instances, long timeOut, SessionInfo sessionInfo);
 
   /**
    * Abort all the instances in this query.
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.schedule;
+
+import org.apache.iotdb.db.mpp.execution.schedule.task.DriverTask;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A group of fragment instances sharing the query threads, e.g. those of the same user. The
+ * DriverTasks of a group are demoted slower in the multilevel feedback levels if the group has more
+ * cpu shares, and at most maxRunningDrivers of them are ready or running at the same time, the
+ * others wait in the group in FIFO order. A blocked task gives its place back and is admitted again
+ * once it is ready, so the consumer drivers waiting for data can't starve the producers of the same
+ * group.
+ */
+public class ResourceGroup {
+
+  private final String name;
+  private final int cpuShares;
+  // 0 means no limit
+  private final int maxRunningDrivers;
+
+  // the tasks that have been admitted to be scheduled and are not blocked or done
+  private final Set<DriverTask> runningTasks;
+  private final Set<DriverTask> waitingTasks;
+
+  public ResourceGroup(String name, int cpuShares, int maxRunningDrivers) {
+    this.name = name;
+    this.cpuShares = Math.max(cpuShares, 1);
+    this.maxRunningDrivers = maxRunningDrivers;
+    this.runningTasks = new HashSet<>();
+    this.waitingTasks = new LinkedHashSet<>();
+  }
+
+  /**
+   * Admit a new or unblocked task to be scheduled if the group has not reached its limit, otherwise
+   * the task waits in the group.
+   *
+   * @return true if the task can be scheduled now.
+   */
+  public synchronized boolean tryAdmit(DriverTask task) {
+    if (maxRunningDrivers <= 0 || runningTasks.size() < maxRunningDrivers) {
+      runningTasks.add(task);
+      return true;
+    }
+    waitingTasks.add(task);
+    return false;
+  }
+
+  /**
+   * Called when a task of this group is blocked, yields or is done, it's OK to call it more than
+   * once for a task.
+   *
+   * @return the waiting task which is admitted in place of the done one, null if none.
+   */
+  public synchronized DriverTask release(DriverTask task) {
+    if (waitingTasks.remove(task) || !runningTasks.remove(task)) {
+      return null;
+    }
+    Iterator<DriverTask> iterator = waitingTasks.iterator();
+    if (!iterator.hasNext()) {
+      return null;
+    }
+    DriverTask next = iterator.next();
+    iterator.remove();
+    runningTasks.add(next);
+    return next;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getCpuShares() {
+    return cpuShares;
+  }
+
+  public synchronized int getRunningDriverNum() {
+    return runningTasks.size();
+  }
+
+  public synchronized int getWaitingDriverNum() {
+    return waitingTasks.size();
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.schedule;
+
+import org.apache.iotdb.db.mpp.common.SessionInfo;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/** Find the resource group of the fragment instances by the session issuing the query. */
+public class ResourceGroupManager {
+
+  private static final Logger logger = LoggerFactory.getLogger(ResourceGroupManager.class);
+
+  private static final String DEFAULT_GROUP_NAME = "default";
+
+  private enum Policy {
+    NONE,
+    USER,
+    SESSION
+  }
+
+  private final Policy policy;
+  private final Map<String, Integer> cpuShares;
+  private final int maxRunningDrivers;
+
+  // a group is dropped once none of its tasks refers to it
+  private final Cache<String, ResourceGroup> groups;
+
+  /**
+   * @param policy how the fragment instances are grouped, "none", "user" or "session".
+   * @param cpuShares the cpu shares of the groups by user, e.g. "root:4,guest:1".
+   * @param maxRunningDrivers the max number of DriverTasks of a group ready or running at the same
+   *     time, 0 for no limit.
+   */
+  public ResourceGroupManager(String policy, String cpuShares, int maxRunningDrivers) {
+    this.policy = parsePolicy(policy);
+    this.cpuShares = parseCpuShares(cpuShares);
+    this.maxRunningDrivers = maxRunningDrivers;
+    this.groups = Caffeine.newBuilder().weakValues().build();
+  }
+
+  private static Policy parsePolicy(String policy) {
+    try {
+      return Policy.valueOf(policy.trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      logger.warn("Unknown query resource group policy {}, use none instead", policy);
+      return Policy.NONE;
+    }
+  }
+
+  private static Map<String, Integer> parseCpuShares(String cpuShares) {
+    if (cpuShares == null || cpuShares.trim().isEmpty()) {
+      return Collections.emptyMap();
+    }
+    Map<String, Integer> result = new HashMap<>();
+    for (String entry : cpuShares.split(",")) {
+      String[] nameAndShares = entry.split(":");
+      try {
+        if (nameAndShares.length != 2) {
+          throw new NumberFormatException();
+        }
+        result.put(nameAndShares[0].trim(), Integer.parseInt(nameAndShares[1].trim()));
+      } catch (NumberFormatException e) {
+        logger.warn("Illegal cpu shares of query resource group: {}, ignore it", entry);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Get the resource group of the fragment instances issued by the session.
+   *
+   * @param sessionInfo the session, null if unknown.
+   * @return the resource group, or null if the fragment instances are not grouped.
+   */
+  public ResourceGroup getResourceGroup(SessionInfo sessionInfo) {
+    String name;
+    if (policy == Policy.NONE || sessionInfo == null) {
+      if (maxRunningDrivers <= 0) {
+        // no group would take effect, skip the bookkeeping
+        return null;
+      }
+      name = DEFAULT_GROUP_NAME;
+    } else if (policy == Policy.USER) {
+      name = "user-" + sessionInfo.getUserName();
+    } else {
+      name = "session-" + sessionInfo.getSessionId();
+    }
+    return groups.get(
+        name,
+        k ->
+            new ResourceGroup(
+                k,
+                policy == Policy.USER && sessionInfo != null
+                    ? cpuShares.getOrDefault(sessionInfo.getUserName(), 1)
+                    : 1,
+                maxRunningDrivers));
+  }
+}
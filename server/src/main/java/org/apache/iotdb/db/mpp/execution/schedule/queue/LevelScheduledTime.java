@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.schedule.queue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The levels of the multilevel feedback scheduling. An element, e.g. a fragment instance, starts at
+ * level 0 and is demoted to the next level as its accumulated scheduled time passes the threshold
+ * of that level. Each level is expected to get {@link #LEVEL_TIME_MULTIPLIER} times of the
+ * scheduled time of the next level, so short queries are not slowed down much by heavy ones, while
+ * the heavy ones are never starved.
+ *
+ * <p>It is shared by all the queues holding elements of the same scheduler.
+ */
+public class LevelScheduledTime {
+
+  /** the min accumulated scheduled time of the elements in each level */
+  private static final long[] LEVEL_THRESHOLD_NANOS = {
+    0L,
+    TimeUnit.SECONDS.toNanos(1),
+    TimeUnit.SECONDS.toNanos(10),
+    TimeUnit.SECONDS.toNanos(60),
+    TimeUnit.SECONDS.toNanos(300)
+  };
+
+  public static final int LEVEL_NUM = LEVEL_THRESHOLD_NANOS.length;
+
+  private static final int LEVEL_TIME_MULTIPLIER = 2;
+
+  /** LEVEL_TIME_MULTIPLIER ^ level, by which the scheduled time of each level is normalized */
+  private static final long[] LEVEL_NORMALIZATION_FACTORS = new long[LEVEL_NUM];
+
+  static {
+    LEVEL_NORMALIZATION_FACTORS[0] = 1L;
+    for (int level = 1; level < LEVEL_NUM; level++) {
+      LEVEL_NORMALIZATION_FACTORS[level] =
+          LEVEL_NORMALIZATION_FACTORS[level - 1] * LEVEL_TIME_MULTIPLIER;
+    }
+  }
+
+  private final AtomicLongArray levelScheduledNanos;
+
+  public LevelScheduledTime() {
+    this.levelScheduledNanos = new AtomicLongArray(LEVEL_NUM);
+  }
+
+  /**
+   * Get the level of an element by its accumulated scheduled time.
+   *
+   * @param scheduledNanos the accumulated scheduled time of the element.
+   * @return the level, 0 is the highest.
+   */
+  public static int computeLevel(long scheduledNanos) {
+    for (int level = LEVEL_NUM - 1; level > 0; level--) {
+      if (scheduledNanos >= LEVEL_THRESHOLD_NANOS[level]) {
+        return level;
+      }
+    }
+    return 0;
+  }
+
+  /** Record the time that an element of the level has been scheduled for. */
+  public void addScheduledTime(int level, long scheduledNanos) {
+    levelScheduledNanos.addAndGet(level, scheduledNanos);
+  }
+
+  /**
+   * The scheduled time of the level normalized by its expected share, the level with the least one
+   * should be scheduled first.
+   */
+  double getNormalizedScheduledTime(int level) {
+    return (double) levelScheduledNanos.get(level) * LEVEL_NORMALIZATION_FACTORS[level];
+  }
+
+  /**
+   * Called when the level has elements again. The time the level didn't use while it was empty is
+   * not given back, otherwise its elements would take all the threads until it catches up.
+   *
+   * @param level the level which has elements again.
+   * @param minNormalizedScheduledTime the least normalized scheduled time of the other levels that
+   *     have elements.
+   */
+  void activateLevel(int level, double minNormalizedScheduledTime) {
+    long expectedNanos = (long) (minNormalizedScheduledTime / LEVEL_NORMALIZATION_FACTORS[level]);
+    long current = levelScheduledNanos.get(level);
+    while (current < expectedNanos
+        && !levelScheduledNanos.compareAndSet(level, current, expectedNanos)) {
+      current = levelScheduledNanos.get(level);
+    }
+  }
+}
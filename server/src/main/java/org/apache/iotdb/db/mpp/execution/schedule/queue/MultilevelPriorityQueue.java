@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.schedule.queue;
+
+import java.util.Comparator;
+import java.util.function.ToIntFunction;
+
+/**
+ * A multilevel feedback queue. Elements are put in the level given by the level function when
+ * pushed, and the next element is polled from the level that has got the least share of its
+ * expected scheduled time, see {@link LevelScheduledTime}. Each level is an {@link
+ * L2PriorityQueue}, so the elements in the same level are polled in the order of the comparator and
+ * none of them is starved.
+ */
+public class MultilevelPriorityQueue<E extends IDIndexedAccessible>
+    extends IndexedBlockingQueue<E> {
+
+  private final L2PriorityQueue<E>[] levels;
+  private final ToIntFunction<E> levelFunction;
+  private final LevelScheduledTime levelScheduledTime;
+
+  /**
+   * Init the queue with max capacity and specified comparator.
+   *
+   * @see IndexedBlockingQueue
+   * @param maxCapacity the max capacity of the queue.
+   * @param comparator the comparator for comparing the elements in the same level.
+   * @param levelFunction get the level of an element when it is pushed.
+   * @param queryHolder the query holder instance.
+   * @param levelScheduledTime the scheduled time of the levels, shared by the queues of a
+   *     scheduler.
+   * @throws IllegalArgumentException if maxCapacity <= 0.
+   */
+  @SuppressWarnings("unchecked")
+  public MultilevelPriorityQueue(
+      int maxCapacity,
+      Comparator<E> comparator,
+      ToIntFunction<E> levelFunction,
+      E queryHolder,
+      LevelScheduledTime levelScheduledTime) {
+    super(maxCapacity, queryHolder);
+    this.levels = new L2PriorityQueue[LevelScheduledTime.LEVEL_NUM];
+    for (int i = 0; i < levels.length; i++) {
+      levels[i] = new L2PriorityQueue<>(maxCapacity, comparator, queryHolder);
+    }
+    this.levelFunction = levelFunction;
+    this.levelScheduledTime = levelScheduledTime;
+  }
+
+  @Override
+  protected boolean isEmpty() {
+    for (L2PriorityQueue<E> level : levels) {
+      if (!level.isEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  protected E pollFirst() {
+    int selectedLevel = -1;
+    double minNormalizedScheduledTime = Double.MAX_VALUE;
+    for (int i = 0; i < levels.length; i++) {
+      if (levels[i].isEmpty()) {
+        continue;
+      }
+      double normalizedScheduledTime = levelScheduledTime.getNormalizedScheduledTime(i);
+      if (normalizedScheduledTime < minNormalizedScheduledTime) {
+        minNormalizedScheduledTime = normalizedScheduledTime;
+        selectedLevel = i;
+      }
+    }
+    return levels[selectedLevel].pollFirst();
+  }
+
+  @Override
+  protected void pushToQueue(E element) {
+    int level = Math.min(Math.max(levelFunction.applyAsInt(element), 0), levels.length - 1);
+    if (levels[level].isEmpty()) {
+      double minNormalizedScheduledTime = Double.MAX_VALUE;
+      for (int i = 0; i < levels.length; i++) {
+        if (i != level && !levels[i].isEmpty()) {
+          minNormalizedScheduledTime =
+              Math.min(
+                  minNormalizedScheduledTime, levelScheduledTime.getNormalizedScheduledTime(i));
+        }
+      }
+      if (minNormalizedScheduledTime != Double.MAX_VALUE) {
+        levelScheduledTime.activateLevel(level, minNormalizedScheduledTime);
+      }
+    }
+    levels[level].pushToQueue(element);
+  }
+
+  @Override
+  protected E remove(E element) {
+    // the level of an element may have changed since it was pushed, so look up all the levels
+    for (L2PriorityQueue<E> level : levels) {
+      E e = level.remove(element);
+      if (e != null) {
+        return e;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  protected boolean contains(E element) {
+    for (L2PriorityQueue<E> level : levels) {
+      if (level.contains(element)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  protected E get(E element) {
+    for (L2PriorityQueue<E> level : levels) {
+      E e = level.get(element);
+      if (e != null) {
+        return e;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  protected void clearAllElements() {
+    for (L2PriorityQueue<E> level : levels) {
+      level.clearAllElements();
+    }
+  }
+}
@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.schedule.queue;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A ready queue made of one local queue per worker. A worker polls its own local queue first and
+ * steals from the others when it is empty, so the workers only contend on the local queue they are
+ * touching instead of a single global lock. Each local queue keeps its own priority order, e.g. an
+ * {@link L2PriorityQueue}.
+ *
+ * <p>An element pushed by a worker thread goes to the local queue of that worker, as it is likely
+ * to be polled by the same worker again. Elements pushed by other threads are spread over the local
+ * queues in turn.
+ */
+public class WorkStealingQueue<E extends IDIndexedAccessible> {
+
+  /** An idle worker rescans all local queues at least once in this interval */
+  private static final long IDLE_SCAN_INTERVAL_MS = 10L;
+
+  private final int maxCapacity;
+  private final IndexedBlockingQueue<E>[] localQueues;
+  /** The local queue in which each element is, used for accessing randomly */
+  private final Map<ID, IndexedBlockingQueue<E>> elementLocations;
+
+  private final AtomicInteger size;
+  /** One permit per pushed element, used for waking up idle workers */
+  private final Semaphore available;
+
+  private final AtomicInteger nextLocalQueue;
+  private final ThreadLocal<Integer> boundLocalQueue;
+
+  /**
+   * Init the queue with a max capacity and the given number of local queues.
+   *
+   * @param localQueueNum the number of local queues, usually the number of workers.
+   * @param maxCapacity the max capacity of the whole queue.
+   * @param localQueueFactory create an empty local queue with a capacity of at least maxCapacity.
+   * @throws IllegalArgumentException if localQueueNum <= 0.
+   */
+  @SuppressWarnings("unchecked")
+  public WorkStealingQueue(
+      int localQueueNum, int maxCapacity, Supplier<IndexedBlockingQueue<E>> localQueueFactory) {
+    Preconditions.checkArgument(localQueueNum > 0, "localQueueNum should be positive");
+    this.maxCapacity = maxCapacity;
+    this.localQueues = new IndexedBlockingQueue[localQueueNum];
+    for (int i = 0; i < localQueueNum; i++) {
+      localQueues[i] = localQueueFactory.get();
+    }
+    this.elementLocations = new ConcurrentHashMap<>();
+    this.size = new AtomicInteger(0);
+    this.available = new Semaphore(0);
+    this.nextLocalQueue = new AtomicInteger(0);
+    this.boundLocalQueue = new ThreadLocal<>();
+  }
+
+  /**
+   * Get and remove an element, first from the local queue of the worker and then from the others.
+   * If the queue is empty, this call will be blocked until an element has been pushed. The calling
+   * thread is bound to the local queue, so the elements it pushes later stay local.
+   *
+   * @param workerIndex the index of the local queue of the calling worker.
+   * @return the polled element.
+   */
+  public E poll(int workerIndex) throws InterruptedException {
+    if (boundLocalQueue.get() == null) {
+      boundLocalQueue.set(workerIndex);
+    }
+    while (true) {
+      // A permit may be left by an element that has been removed by id, or the element may be
+      // stolen by others, so the permit is only a hint and we need to scan the queues anyway.
+      available.tryAcquire(IDLE_SCAN_INTERVAL_MS, TimeUnit.MILLISECONDS);
+      E element = pollLocalOrSteal(workerIndex);
+      if (element != null) {
+        return element;
+      }
+    }
+  }
+
+  private E pollLocalOrSteal(int workerIndex) {
+    int localQueueNum = localQueues.length;
+    // Steal from the neighbours first, so the workers that are started together share the load
+    for (int i = 0; i < localQueueNum; i++) {
+      IndexedBlockingQueue<E> localQueue = localQueues[(workerIndex + i) % localQueueNum];
+      E element = localQueue.tryPoll();
+      if (element != null) {
+        elementLocations.remove(element.getId(), localQueue);
+        size.decrementAndGet();
+        return element;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Push an element to the queue.
+   *
+   * @param element the element to be pushed.
+   * @throws NullPointerException the pushed element is null.
+   * @throws IllegalStateException the queue size has been reached the maxCapacity, or the queue has
+   *     already contained the same ID element.
+   */
+  public void push(E element) {
+    if (element == null) {
+      throw new NullPointerException("pushed element is null");
+    }
+    if (size.incrementAndGet() > maxCapacity) {
+      size.decrementAndGet();
+      throw new IllegalStateException("The queue is full");
+    }
+    IndexedBlockingQueue<E> localQueue = selectLocalQueue();
+    if (elementLocations.putIfAbsent(element.getId(), localQueue) != null) {
+      size.decrementAndGet();
+      throw new IllegalStateException(
+          "The queue has already contained the element: " + element.getId());
+    }
+    localQueue.push(element);
+    available.release();
+  }
+
+  private IndexedBlockingQueue<E> selectLocalQueue() {
+    Integer workerIndex = boundLocalQueue.get();
+    if (workerIndex != null) {
+      return localQueues[workerIndex % localQueues.length];
+    }
+    return localQueues[(nextLocalQueue.getAndIncrement() & Integer.MAX_VALUE) % localQueues.length];
+  }
+
+  /**
+   * Remove and return the element by id. It returns null if it doesn't exist.
+   *
+   * @param id the id of the element to be removed.
+   * @return the removed element.
+   */
+  public E remove(ID id) {
+    IndexedBlockingQueue<E> localQueue = elementLocations.remove(id);
+    if (localQueue == null) {
+      return null;
+    }
+    E output = localQueue.remove(id);
+    if (output != null) {
+      size.decrementAndGet();
+    }
+    return output;
+  }
+
+  /**
+   * Get the element by id. It returns null if it doesn't exist.
+   *
+   * @param id the id of the element.
+   * @return the element.
+   */
+  public E get(ID id) {
+    IndexedBlockingQueue<E> localQueue = elementLocations.get(id);
+    return localQueue == null ? null : localQueue.get(id);
+  }
+
+  /** Clear all the elements in the queue. */
+  public void clear() {
+    for (IndexedBlockingQueue<E> localQueue : localQueues) {
+      localQueue.clear();
+    }
+    elementLocations.clear();
+    available.drainPermits();
+    size.set(0);
+  }
+
+  /**
+   * Get the current queue size.
+   *
+   * @return the current queue size.
+   */
+  public int size() {
+    return size.get();
+  }
+
+  /**
+   * Get the number of the local queues.
+   *
+   * @return the number of the local queues.
+   */
+  public int getLocalQueueNum() {
+    return localQueues.length;
+  }
+}
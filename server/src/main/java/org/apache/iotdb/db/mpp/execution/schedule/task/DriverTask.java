@@ -48,6 +48,11 @@ public class DriverTask implements IDIndexedAccessible {
   private final long ddl;
   private final Lock lock;
 
+  // shared by the DriverTasks of the same fragment instance
+  private final DriverTaskHandle handle;
+  // when this task was put into the ready queue last time
+  private long readyTimeNanos;
+
   // Running stats
   private long cpuWallNano;
 
@@ -59,12 +64,18 @@ public class DriverTask implements IDIndexedAccessible {
   }
 
   public DriverTask(IDriver instance, long timeoutMs, DriverTaskStatus status) {
+    this(instance, timeoutMs, status, new DriverTaskHandle(null));
+  }
+
+  public DriverTask(
+      IDriver instance, long timeoutMs, DriverTaskStatus status, DriverTaskHandle handle) {
     this.fragmentInstance = instance;
-    this.id = new DriverTaskID(instance.getInfo());
+    this.id = new DriverTaskID(instance.getInfo(), instance.getPipelineId());
     this.setStatus(status);
     this.schedulePriority = 0.0D;
     this.ddl = System.currentTimeMillis() + timeoutMs;
     this.lock = new ReentrantLock();
+    this.handle = handle;
   }
 
   public DriverTaskID getId() {
@@ -128,6 +139,23 @@ public class DriverTask implements IDIndexedAccessible {
     return ddl;
   }
 
+  public DriverTaskHandle getHandle() {
+    return handle;
+  }
+
+  /** @return the multilevel feedback level of the fragment instance of this task */
+  public int getLevel() {
+    return handle.getLevel();
+  }
+
+  public long getReadyTimeNanos() {
+    return readyTimeNanos;
+  }
+
+  public void setReadyTimeNanos(long readyTimeNanos) {
+    this.readyTimeNanos = readyTimeNanos;
+  }
+
   @Override
   public int hashCode() {
     return id.hashCode();
@@ -203,6 +231,11 @@ public class DriverTask implements IDIndexedAccessible {
       return stubInstance;
     }
 
+    @Override
+    public int getPipelineId() {
+      return 0;
+    }
+
     @Override
     public void close() {}
 
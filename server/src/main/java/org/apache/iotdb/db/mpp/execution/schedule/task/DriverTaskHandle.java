@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.schedule.task;
+
+import org.apache.iotdb.db.mpp.execution.schedule.ResourceGroup;
+import org.apache.iotdb.db.mpp.execution.schedule.queue.LevelScheduledTime;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/** The scheduling states shared by the DriverTasks of the same fragment instance. */
+public class DriverTaskHandle {
+
+  // null if the fragment instance is not in any resource group
+  private final ResourceGroup resourceGroup;
+
+  // the scheduled time of all the DriverTasks, divided by the cpu shares of the resource group
+  private final AtomicLong scheduledNanos;
+
+  public DriverTaskHandle(ResourceGroup resourceGroup) {
+    this.resourceGroup = resourceGroup;
+    this.scheduledNanos = new AtomicLong(0L);
+  }
+
+  public ResourceGroup getResourceGroup() {
+    return resourceGroup;
+  }
+
+  /** Record the time that a DriverTask of the fragment instance has been scheduled for. */
+  public void addScheduledTime(long nanos) {
+    scheduledNanos.addAndGet(resourceGroup == null ? nanos : nanos / resourceGroup.getCpuShares());
+  }
+
+  /** @return the multilevel feedback level of the fragment instance */
+  public int getLevel() {
+    return LevelScheduledTime.computeLevel(scheduledNanos.get());
+  }
+}
@@ -30,22 +30,40 @@ public class DriverTaskID implements ID, Comparable<DriverTaskID> {
 
   private final FragmentInstanceId id;
 
+  // a fragment instance may be run by several drivers, 0 is the one outputting to its sink
+  private final int pipelineId;
+
   public DriverTaskID(FragmentInstanceId id) {
+    this(id, 0);
+  }
+
+  public DriverTaskID(FragmentInstanceId id, int pipelineId) {
     this.id = id;
+    this.pipelineId = pipelineId;
   }
 
   @Override
   public boolean equals(Object o) {
-    return o instanceof DriverTaskID && ((DriverTaskID) o).id.equals(id);
+    return o instanceof DriverTaskID
+        && ((DriverTaskID) o).id.equals(id)
+        && ((DriverTaskID) o).pipelineId == pipelineId;
   }
 
   @Override
   public int hashCode() {
-    return id.hashCode();
+    return 31 * id.hashCode() + pipelineId;
   }
 
   public String toString() {
-    return id.getFullId();
+    return pipelineId == 0 ? id.getFullId() : id.getFullId() + "." + pipelineId;
+  }
+
+  public FragmentInstanceId getFragmentInstanceId() {
+    return id;
+  }
+
+  public int getPipelineId() {
+    return pipelineId;
   }
 
   public String getInstanceId() {
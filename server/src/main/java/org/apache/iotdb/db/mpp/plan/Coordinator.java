@@ -31,6 +31,7 @@ import org.apache.iotdb.db.mpp.common.SessionInfo;
 import org.apache.iotdb.db.mpp.execution.QueryIdGenerator;
 import org.apache.iotdb.db.mpp.plan.analyze.IPartitionFetcher;
 import org.apache.iotdb.db.mpp.plan.analyze.ISchemaFetcher;
+import org.apache.iotdb.db.mpp.plan.analyze.cache.AnalysisCache;
 import org.apache.iotdb.db.mpp.plan.constant.DataNodeEndPoints;
 import org.apache.iotdb.db.mpp.plan.execution.ExecutionResult;
 import org.apache.iotdb.db.mpp.plan.execution.IQueryExecution;
@@ -38,6 +39,7 @@ import org.apache.iotdb.db.mpp.plan.execution.QueryExecution;
 import org.apache.iotdb.db.mpp.plan.execution.config.ConfigExecution;
 import org.apache.iotdb.db.mpp.plan.statement.IConfigStatement;
 import org.apache.iotdb.db.mpp.plan.statement.Statement;
+import org.apache.iotdb.db.mpp.plan.statement.crud.InsertBaseStatement;
 
 import io.airlift.concurrent.SetThreadName;
 import org.slf4j.Logger;
@@ -145,7 +147,12 @@ public class Coordinator {
       }
       execution.start();
 
-      return execution.getStatus();
+      ExecutionResult result = execution.getStatus();
+      if (!execution.isQuery() && !(statement instanceof InsertBaseStatement)) {
+        // the statement may change the schema that cached analysis depends on
+        AnalysisCache.getInstance().invalidateAll();
+      }
+      return result;
     }
   }
 
@@ -167,6 +167,55 @@ public class Analysis {
     this.finishQueryAfterAnalyze = false;
   }
 
+  /**
+   * Copy the analysis of a query so that it can be executed again with another time range. The
+   * result dataset header is copied since it is updated by distribution planning, the others are
+   * shared as they are read only after analysis.
+   */
+  public Analysis copy() {
+    Analysis analysis = new Analysis();
+    analysis.statement = statement;
+    analysis.queryType = queryType;
+    analysis.dataPartition = dataPartition;
+    analysis.schemaPartition = schemaPartition;
+    analysis.schemaTree = schemaTree;
+    analysis.expressionTypes.putAll(expressionTypes);
+    analysis.finishQueryAfterAnalyze = finishQueryAfterAnalyze;
+    analysis.sourceExpressions = sourceExpressions;
+    analysis.aggregationTransformExpressions = aggregationTransformExpressions;
+    analysis.aggregationExpressions = aggregationExpressions;
+    analysis.transformExpressions = transformExpressions;
+    analysis.queryFilter = queryFilter;
+    analysis.havingExpression = havingExpression;
+    analysis.groupByLevelExpressions = groupByLevelExpressions;
+    analysis.rawPathToGroupedPathMap = rawPathToGroupedPathMap;
+    analysis.isRawDataSource = isRawDataSource;
+    analysis.deviceToSourceExpressions = deviceToSourceExpressions;
+    analysis.deviceToAggregationTransformExpressions = deviceToAggregationTransformExpressions;
+    analysis.deviceToAggregationExpressions = deviceToAggregationExpressions;
+    analysis.deviceToTransformExpressions = deviceToTransformExpressions;
+    analysis.deviceToQueryFilter = deviceToQueryFilter;
+    analysis.deviceToHavingExpression = deviceToHavingExpression;
+    analysis.deviceToMeasurementIndexesMap = deviceToMeasurementIndexesMap;
+    analysis.deviceToIsRawDataSource = deviceToIsRawDataSource;
+    analysis.outputExpressions = outputExpressions;
+    analysis.hasValueFilter = hasValueFilter;
+    analysis.isHasRawDataInputAggregation = isHasRawDataInputAggregation;
+    analysis.globalTimeFilter = globalTimeFilter;
+    analysis.fillDescriptor = fillDescriptor;
+    analysis.groupByTimeParameter = groupByTimeParameter;
+    if (respDatasetHeader != null) {
+      analysis.respDatasetHeader =
+          new DatasetHeader(
+              respDatasetHeader.getColumnHeaders(), respDatasetHeader.isIgnoreTimestamp());
+    }
+    analysis.mergeOrderParameter = mergeOrderParameter;
+    analysis.matchedNodes = matchedNodes;
+    analysis.templateSetInfo = templateSetInfo;
+    analysis.relatedTemplateInfo = relatedTemplateInfo;
+    return analysis;
+  }
+
   public List<TRegionReplicaSet> getPartitionInfo(PartialPath seriesPath, Filter timefilter) {
     // TODO: (xingtanzjr) implement the calculation of timePartitionIdList
     return dataPartition.getDataRegionReplicaSet(seriesPath.getDevice(), null);
@@ -19,6 +19,7 @@
 package org.apache.iotdb.db.mpp.plan.analyze;
 
 import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.exception.MetadataException;
 import org.apache.iotdb.commons.partition.DataPartition;
 import org.apache.iotdb.commons.partition.DataPartitionQueryParam;
@@ -501,16 +502,8 @@ public class AnalyzeVisitor extends StatementVisitor<Analysis, MPPQueryContext>
       analysis.setRespDatasetHeader(datasetHeader);
 
       // fetch partition information
-      Set<String> deviceSet = new HashSet<>();
-      if (queryStatement.isAlignByDevice()) {
-        deviceSet = analysis.getDeviceToSourceExpressions().keySet();
-      } else {
-        for (Expression expression : analysis.getSourceExpressions()) {
-          deviceSet.add(ExpressionAnalyzer.getDeviceNameInSourceExpression(expression));
-        }
-      }
-      DataPartition dataPartition = fetchDataPartitionByDevices(deviceSet, schemaTree);
-      analysis.setDataPartitionInfo(dataPartition);
+      analysis.setSchemaTree(schemaTree);
+      analysis.setDataPartitionInfo(fetchDataPartition(analysis));
     } catch (StatementAnalyzeException e) {
       logger.error("Meet error when analyzing the query statement: ", e);
       throw new StatementAnalyzeException(
@@ -679,7 +672,11 @@ public class AnalyzeVisitor extends StatementVisitor<Analysis, MPPQueryContext>
     return outputExpressions;
   }
 
-  private Pair<Filter, Boolean> analyzeGlobalTimeFilter(QueryStatement queryStatement) {
+  /**
+   * Extract the global time filter from the WHERE clause, which is rewritten to the rest predicate,
+   * and determine if there is a value filter.
+   */
+  static Pair<Filter, Boolean> analyzeGlobalTimeFilter(QueryStatement queryStatement) {
     Filter globalTimeFilter = null;
     boolean hasValueFilter = false;
     if (queryStatement.getWhereCondition() != null) {
@@ -766,7 +763,7 @@ public class AnalyzeVisitor extends StatementVisitor<Analysis, MPPQueryContext>
     return isHasRawDataInputAggregation;
   }
 
-  private Expression analyzeWhere(QueryStatement queryStatement, ISchemaTree schemaTree) {
+  private static Expression analyzeWhere(QueryStatement queryStatement, ISchemaTree schemaTree) {
     List<Expression> rewrittenPredicates =
         ExpressionAnalyzer.removeWildcardInFilter(
             queryStatement.getWhereCondition().getPredicate(),
@@ -777,7 +774,7 @@ public class AnalyzeVisitor extends StatementVisitor<Analysis, MPPQueryContext>
         rewrittenPredicates.stream().distinct().collect(Collectors.toList()));
   }
 
-  private Expression analyzeWhereSplitByDevice(
+  private static Expression analyzeWhereSplitByDevice(
       QueryStatement queryStatement, PartialPath devicePath, ISchemaTree schemaTree) {
     List<Expression> rewrittenPredicates =
         ExpressionAnalyzer.removeWildcardInFilterByDevice(
@@ -969,6 +966,47 @@ public class AnalyzeVisitor extends StatementVisitor<Analysis, MPPQueryContext>
     return analysis;
   }
 
+  /**
+   * Analyze the rest predicate of a query again against the schema tree of an analysis, which is
+   * the cached analysis of a query differing only in literals. The paths are the same, so only the
+   * query filters are replaced.
+   */
+  static void reanalyzeQueryFilter(Analysis analysis, QueryStatement queryStatement) {
+    ISchemaTree schemaTree = analysis.getSchemaTree();
+    if (queryStatement.isAlignByDevice()) {
+      Map<String, Expression> deviceToQueryFilter = new HashMap<>();
+      for (String deviceName : analysis.getDeviceToQueryFilter().keySet()) {
+        Expression queryFilter;
+        try {
+          queryFilter =
+              analyzeWhereSplitByDevice(queryStatement, new PartialPath(deviceName), schemaTree);
+        } catch (IllegalPathException e) {
+          throw new StatementAnalyzeException(e.getMessage());
+        }
+        ExpressionTypeAnalyzer.analyzeExpression(analysis, queryFilter);
+        deviceToQueryFilter.put(deviceName, queryFilter);
+      }
+      analysis.setDeviceToQueryFilter(deviceToQueryFilter);
+    } else {
+      Expression queryFilter = analyzeWhere(queryStatement, schemaTree);
+      ExpressionTypeAnalyzer.analyzeExpression(analysis, queryFilter);
+      analysis.setQueryFilter(queryFilter);
+    }
+  }
+
+  /** Fetch the data partition of all the devices queried by the analyzed query statement. */
+  DataPartition fetchDataPartition(Analysis analysis) {
+    Set<String> deviceSet = new HashSet<>();
+    if (((QueryStatement) analysis.getStatement()).isAlignByDevice()) {
+      deviceSet = analysis.getDeviceToSourceExpressions().keySet();
+    } else {
+      for (Expression expression : analysis.getSourceExpressions()) {
+        deviceSet.add(ExpressionAnalyzer.getDeviceNameInSourceExpression(expression));
+      }
+    }
+    return fetchDataPartitionByDevices(deviceSet, analysis.getSchemaTree());
+  }
+
   private DataPartition fetchDataPartitionByDevices(Set<String> deviceSet, ISchemaTree schemaTree) {
     Map<String, List<DataPartitionQueryParam>> sgNameToQueryParamsMap = new HashMap<>();
     for (String devicePath : deviceSet) {
@@ -1659,7 +1697,7 @@ public class AnalyzeVisitor extends StatementVisitor<Analysis, MPPQueryContext>
     return analysis;
   }
 
-  private GroupByFilter initGroupByFilter(GroupByTimeComponent groupByTimeComponent) {
+  private static GroupByFilter initGroupByFilter(GroupByTimeComponent groupByTimeComponent) {
     if (groupByTimeComponent.isIntervalByMonth() || groupByTimeComponent.isSlidingStepByMonth()) {
       return new GroupByMonthFilter(
           groupByTimeComponent.getInterval(),
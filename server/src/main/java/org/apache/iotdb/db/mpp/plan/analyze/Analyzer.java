@@ -19,15 +19,34 @@
 
 package org.apache.iotdb.db.mpp.plan.analyze;
 
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.runtime.SerializationRunTimeException;
 import org.apache.iotdb.db.mpp.common.MPPQueryContext;
+import org.apache.iotdb.db.mpp.plan.analyze.cache.AnalysisCache;
+import org.apache.iotdb.db.mpp.plan.analyze.cache.AnalysisCache.AnalysisCacheEntry;
+import org.apache.iotdb.db.mpp.plan.expression.Expression;
+import org.apache.iotdb.db.mpp.plan.planner.plan.parameter.GroupByTimeParameter;
 import org.apache.iotdb.db.mpp.plan.statement.Statement;
+import org.apache.iotdb.db.mpp.plan.statement.component.GroupByTimeComponent;
+import org.apache.iotdb.db.mpp.plan.statement.component.WhereCondition;
+import org.apache.iotdb.db.mpp.plan.statement.crud.QueryStatement;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.utils.Pair;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
 /** Analyze the statement and generate Analysis. */
 public class Analyzer {
   private static final Logger logger = LoggerFactory.getLogger(Analyzer.class);
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
 
   private final MPPQueryContext context;
 
@@ -42,6 +61,115 @@ public class Analyzer {
   }
 
   public Analysis analyze(Statement statement) {
+    if (config.isEnableAnalysisCache() && AnalysisCache.isCacheable(statement)) {
+      String template =
+          AnalysisCache.getTemplate(
+              context.getSql(),
+              context.getSession() == null ? null : context.getSession().getZoneId());
+      if (template != null) {
+        return analyzeByTemplate((QueryStatement) statement, template);
+      }
+    }
     return new AnalyzeVisitor(partitionFetcher, schemaFetcher, context).process(statement, context);
   }
+
+  /** Reuse the cached analysis of the template if the query matches it, otherwise cache it. */
+  private Analysis analyzeByTemplate(QueryStatement queryStatement, String template) {
+    AnalysisCache analysisCache = AnalysisCache.getInstance();
+    AnalyzeVisitor analyzeVisitor = new AnalyzeVisitor(partitionFetcher, schemaFetcher, context);
+    long startTime = System.nanoTime();
+    long version = analysisCache.getVersion();
+
+    AnalysisCacheEntry entry = analysisCache.get(template);
+    if (entry != null) {
+      Analysis analysis = rebind(queryStatement, entry.getAnalysis());
+      if (analysis != null) {
+        // new time partitions may have been created since the analysis is cached
+        analysis.setDataPartitionInfo(analyzeVisitor.fetchDataPartition(analysis));
+        analysisCache.record(true, entry.getAnalyzeCostInNs() - (System.nanoTime() - startTime));
+        logger.debug("Query[{}]: reuse the analysis of {}", context.getQueryId(), template);
+        return analysis;
+      }
+    }
+
+    Analysis analysis = analyzeVisitor.process(queryStatement, context);
+    analysisCache.record(false, 0);
+    if (!analysis.isFinishQueryAfterAnalyze()
+        && analysis.hasDataSource()
+        && AnalysisCache.isFullyResolved(queryStatement, analysis)) {
+      analysisCache.put(template, analysis, System.nanoTime() - startTime, version);
+    }
+    return analysis;
+  }
+
+  /**
+   * Re-bind the time range and the value filter of a query to the cached analysis of its template,
+   * i.e., a query differing only in the literals of WHERE and GROUP BY time. The query matches the
+   * analysis if they have the same GROUP BY time windows and both have or don't have a value
+   * filter. If the literals of the value filter differ, the value filter is analyzed again against
+   * the cached schema tree. The query statement is left intact.
+   *
+   * @return the analysis of the query, or null if the query doesn't match the cached analysis
+   */
+  static Analysis rebind(QueryStatement queryStatement, Analysis cachedAnalysis) {
+    QueryStatement cachedStatement = (QueryStatement) cachedAnalysis.getStatement();
+    if (queryStatement.isGroupByTime()
+        && !isSameWindow(
+            queryStatement.getGroupByTimeComponent(), cachedStatement.getGroupByTimeComponent())) {
+      return null;
+    }
+
+    // the predicate is rewritten when extracting the global time filter, so analyze a copy of it
+    WhereCondition whereCondition = queryStatement.getWhereCondition();
+    if (whereCondition != null) {
+      queryStatement.setWhereCondition(new WhereCondition(copy(whereCondition.getPredicate())));
+    }
+    Analysis analysis;
+    try {
+      Pair<Filter, Boolean> resultPair = AnalyzeVisitor.analyzeGlobalTimeFilter(queryStatement);
+      if (resultPair.right != cachedAnalysis.hasValueFilter()) {
+        return null;
+      }
+      analysis = cachedAnalysis.copy();
+      analysis.setGlobalTimeFilter(resultPair.left);
+      // the rest predicate is only planned if there is a value filter
+      if (resultPair.right
+          && !Objects.equals(
+              getPredicateString(queryStatement), getPredicateString(cachedStatement))) {
+        AnalyzeVisitor.reanalyzeQueryFilter(analysis, queryStatement);
+      }
+    } finally {
+      queryStatement.setWhereCondition(whereCondition);
+    }
+    if (queryStatement.isGroupByTime()) {
+      analysis.setGroupByTimeParameter(
+          new GroupByTimeParameter(queryStatement.getGroupByTimeComponent()));
+    }
+    return analysis;
+  }
+
+  private static boolean isSameWindow(GroupByTimeComponent left, GroupByTimeComponent right) {
+    return left.getInterval() == right.getInterval()
+        && left.getSlidingStep() == right.getSlidingStep()
+        && left.isIntervalByMonth() == right.isIntervalByMonth()
+        && left.isSlidingStepByMonth() == right.isSlidingStepByMonth()
+        && left.isLeftCRightO() == right.isLeftCRightO();
+  }
+
+  private static String getPredicateString(QueryStatement queryStatement) {
+    return queryStatement.getWhereCondition() == null
+        ? null
+        : queryStatement.getWhereCondition().getPredicate().getExpressionString();
+  }
+
+  private static Expression copy(Expression expression) {
+    try (PublicBAOS byteArrayOutputStream = new PublicBAOS();
+        DataOutputStream outputStream = new DataOutputStream(byteArrayOutputStream)) {
+      Expression.serialize(expression, outputStream);
+      return Expression.deserialize(
+          ByteBuffer.wrap(byteArrayOutputStream.getBuf(), 0, byteArrayOutputStream.size()));
+    } catch (IOException e) {
+      throw new SerializationRunTimeException(e);
+    }
+  }
 }
@@ -0,0 +1,276 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.plan.analyze.cache;
+
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.mpp.common.schematree.ISchemaTree;
+import org.apache.iotdb.db.mpp.plan.analyze.Analysis;
+import org.apache.iotdb.db.mpp.plan.analyze.ExpressionAnalyzer;
+import org.apache.iotdb.db.mpp.plan.statement.Statement;
+import org.apache.iotdb.db.mpp.plan.statement.crud.QueryStatement;
+import org.apache.iotdb.db.qp.sql.SqlLexer;
+import org.apache.iotdb.db.service.metrics.MetricService;
+import org.apache.iotdb.db.service.metrics.enums.Metric;
+import org.apache.iotdb.db.service.metrics.enums.Tag;
+import org.apache.iotdb.db.service.metrics.recorder.CacheMetricsRecorder;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.Token;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.iotdb.commons.conf.IoTDBConstant.ONE_LEVEL_PATH_WILDCARD;
+
+/**
+ * Cache of the analysis of query statements, keyed by the template of their SQL, in which the
+ * literals of WHERE and GROUP BY time clauses are replaced by '?'. A query hitting the cache only
+ * needs to re-bind its time range and value filter to the cached analysis, see {@link
+ * org.apache.iotdb.db.mpp.plan.analyze.Analyzer}, instead of fetching schema and analyzing all the
+ * expressions again.
+ *
+ * <p>All the entries are invalidated when the schema or the partition cached by this data node
+ * changes, including the changes notified by the config node for the whole cluster, e.g., deletion
+ * of series and storage groups, templates and UDFs. Series created on other data nodes are not
+ * notified, so queries with wildcard paths, or with paths not found at the time of analysis, are
+ * never cached. The expire time only bounds the staleness of what is not notified at all, e.g.,
+ * aliases altered elsewhere.
+ */
+public class AnalysisCache {
+
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private static final String ANALYSIS_CACHE_NAME = "Analysis";
+  private static final String PARAMETER = "?";
+
+  private static final Set<Integer> LITERAL_TOKEN_TYPES =
+      new HashSet<>(
+          Arrays.asList(
+              SqlLexer.STRING_LITERAL,
+              SqlLexer.DURATION_LITERAL,
+              SqlLexer.DATETIME_LITERAL,
+              SqlLexer.INTEGER_LITERAL,
+              SqlLexer.EXPONENT_NUM_PART));
+
+  /** clauses after WHERE and GROUP BY time, whose literals are never replaced */
+  private static final Set<Integer> CLAUSE_TOKEN_TYPES =
+      new HashSet<>(
+          Arrays.asList(
+              SqlLexer.HAVING,
+              SqlLexer.ORDER,
+              SqlLexer.FILL,
+              SqlLexer.LIMIT,
+              SqlLexer.OFFSET,
+              SqlLexer.SLIMIT,
+              SqlLexer.SOFFSET,
+              SqlLexer.WITHOUT,
+              SqlLexer.ALIGN,
+              SqlLexer.DISABLE));
+
+  private final Cache<String, AnalysisCacheEntry> cache;
+
+  /** increased each time the cache is invalidated */
+  private final AtomicLong version = new AtomicLong(0);
+
+  private AnalysisCache() {
+    cache =
+        Caffeine.newBuilder()
+            .maximumSize(config.getAnalysisCacheSize())
+            .expireAfterWrite(config.getAnalysisCacheExpireTimeInMs(), TimeUnit.MILLISECONDS)
+            .build();
+  }
+
+  public static AnalysisCache getInstance() {
+    return AnalysisCacheHolder.INSTANCE;
+  }
+
+  /** singleton pattern. */
+  private static class AnalysisCacheHolder {
+    private static final AnalysisCache INSTANCE = new AnalysisCache();
+  }
+
+  /**
+   * Whether the analysis of the statement may be cached, i.e., it is a non-last query without
+   * wildcard paths.
+   */
+  public static boolean isCacheable(Statement statement) {
+    if (!(statement instanceof QueryStatement) || ((QueryStatement) statement).isLastQuery()) {
+      return false;
+    }
+    for (PartialPath path : getQueriedPaths((QueryStatement) statement)) {
+      for (String node : path.getNodes()) {
+        if (node.contains(ONE_LEVEL_PATH_WILDCARD)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Whether all the series queried by the statement are found in the schema of its analysis. An
+   * analysis missing some of them is not cached, because the series may be created later on other
+   * data nodes without any notice to this one, e.g., in a schema region not replicated here. The
+   * other schema changes made elsewhere, e.g., deletion of series, templates and UDFs, are notified
+   * by the config node and invalidate the cache.
+   */
+  public static boolean isFullyResolved(QueryStatement queryStatement, Analysis analysis) {
+    ISchemaTree schemaTree = analysis.getSchemaTree();
+    if (schemaTree == null) {
+      return false;
+    }
+    for (PartialPath path : getQueriedPaths(queryStatement)) {
+      if (schemaTree.searchMeasurementPaths(path).left.isEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** the full paths in SELECT, WHERE and HAVING of the statement */
+  private static List<PartialPath> getQueriedPaths(QueryStatement queryStatement) {
+    List<PartialPath> prefixPaths = queryStatement.getFromComponent().getPrefixPaths();
+    List<PartialPath> paths = new ArrayList<>(queryStatement.getPaths());
+    if (queryStatement.getWhereCondition() != null) {
+      paths.addAll(
+          ExpressionAnalyzer.concatExpressionWithSuffixPaths(
+              queryStatement.getWhereCondition().getPredicate(), prefixPaths));
+    }
+    if (queryStatement.getHavingCondition() != null) {
+      paths.addAll(
+          ExpressionAnalyzer.concatExpressionWithSuffixPaths(
+              queryStatement.getHavingCondition().getPredicate(), prefixPaths));
+    }
+    return paths;
+  }
+
+  /**
+   * Get the template of a query, which consists of its tokens with the literals of WHERE and GROUP
+   * BY time clauses replaced by '?'. The literals of GROUP BY LEVEL and FILL are kept.
+   *
+   * @return the template, or null if the sql is empty
+   */
+  public static String getTemplate(String sql, String zoneId) {
+    if (sql == null || sql.isEmpty()) {
+      return null;
+    }
+    SqlLexer lexer = new SqlLexer(CharStreams.fromString(sql));
+    lexer.removeErrorListeners();
+    StringBuilder template = new StringBuilder(zoneId == null ? "" : zoneId);
+    int depth = 0;
+    boolean replaceLiteral = false;
+    for (Token token : lexer.getAllTokens()) {
+      if (token.getChannel() != Token.DEFAULT_CHANNEL) {
+        continue;
+      }
+      int type = token.getType();
+      if (type == SqlLexer.LR_BRACKET) {
+        depth++;
+      } else if (type == SqlLexer.RR_BRACKET) {
+        depth--;
+      } else if (type == SqlLexer.LEVEL || type == SqlLexer.FILL) {
+        replaceLiteral = false;
+      } else if (depth == 0) {
+        if (type == SqlLexer.WHERE || type == SqlLexer.GROUP) {
+          replaceLiteral = true;
+        } else if (CLAUSE_TOKEN_TYPES.contains(type)) {
+          replaceLiteral = false;
+        }
+      }
+      template
+          .append(' ')
+          .append(
+              replaceLiteral && LITERAL_TOKEN_TYPES.contains(type) ? PARAMETER : token.getText());
+    }
+    return template.toString();
+  }
+
+  public long getVersion() {
+    return version.get();
+  }
+
+  public AnalysisCacheEntry get(String template) {
+    return cache.getIfPresent(template);
+  }
+
+  /**
+   * Cache the analysis of a template, unless the cache has been invalidated since the analysis
+   * began.
+   *
+   * @param version the version of the cache before analyzing
+   */
+  public void put(String template, Analysis analysis, long analyzeCostInNs, long version) {
+    cache.put(template, new AnalysisCacheEntry(analysis, analyzeCostInNs));
+    // the analysis may see the schema or partition before the invalidation
+    if (this.version.get() != version) {
+      cache.invalidate(template);
+    }
+  }
+
+  /** Record whether the analysis is reused and the time saved if so. */
+  public void record(boolean hit, long savedCostInNs) {
+    CacheMetricsRecorder.record(hit, ANALYSIS_CACHE_NAME);
+    if (hit) {
+      MetricService.getInstance()
+          .timer(
+              Math.max(savedCostInNs, 0),
+              TimeUnit.NANOSECONDS,
+              Metric.ANALYSIS_COST_SAVED.toString(),
+              MetricLevel.IMPORTANT,
+              Tag.NAME.toString(),
+              ANALYSIS_CACHE_NAME);
+    }
+  }
+
+  /** Invalidate all the entries, called when the schema or partition changes. */
+  public void invalidateAll() {
+    version.incrementAndGet();
+    cache.invalidateAll();
+  }
+
+  public static class AnalysisCacheEntry {
+
+    private final Analysis analysis;
+
+    private final long analyzeCostInNs;
+
+    private AnalysisCacheEntry(Analysis analysis, long analyzeCostInNs) {
+      this.analysis = analysis;
+      this.analyzeCostInNs = analyzeCostInNs;
+    }
+
+    /** @return the analysis, which should be copied before being re-bound */
+    public Analysis getAnalysis() {
+      return analysis;
+    }
+
+    public long getAnalyzeCostInNs() {
+      return analyzeCostInNs;
+    }
+  }
+}
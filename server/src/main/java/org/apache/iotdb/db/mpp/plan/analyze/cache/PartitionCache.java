@@ -372,6 +372,7 @@ public class PartitionCache {
     } finally {
       storageGroupCacheLock.writeLock().unlock();
     }
+    AnalysisCache.getInstance().invalidateAll();
   }
 
   /** invalid all storage group cache */
@@ -382,6 +383,7 @@ public class PartitionCache {
     } finally {
       storageGroupCacheLock.writeLock().unlock();
     }
+    AnalysisCache.getInstance().invalidateAll();
   }
 
   // endregion
@@ -571,6 +573,7 @@ public class PartitionCache {
     } finally {
       schemaPartitionCacheLock.writeLock().unlock();
     }
+    AnalysisCache.getInstance().invalidateAll();
   }
 
   /** invalid all schemaPartitionCache */
@@ -581,6 +584,7 @@ public class PartitionCache {
     } finally {
       schemaPartitionCacheLock.writeLock().unlock();
     }
+    AnalysisCache.getInstance().invalidateAll();
   }
   // endregion
 
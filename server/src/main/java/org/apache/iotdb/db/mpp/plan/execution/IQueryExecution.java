@@ -39,6 +39,9 @@ public interface IQueryExecution {
 
   boolean hasNextResult();
 
+  /** Whether {@link #getBatchResult()} can return without waiting for the result to be produced */
+  boolean hasBufferedResult();
+
   int getOutputValueColumnCount();
 
   DatasetHeader getDatasetHeader();
@@ -381,6 +381,14 @@ public class QueryExecution implements IQueryExecution {
     return resultHandle != null && !resultHandle.isFinished();
   }
 
+  @Override
+  public boolean hasBufferedResult() {
+    return resultHandle != null
+        && (resultHandle.isFinished()
+            || resultHandle.isAborted()
+            || resultHandle.isBlocked().isDone());
+  }
+
   /** return the result column count without the time column */
   @Override
   public int getOutputValueColumnCount() {
@@ -171,6 +171,11 @@ public class ConfigExecution implements IQueryExecution {
     return !resultSetConsumed && resultSet != null;
   }
 
+  @Override
+  public boolean hasBufferedResult() {
+    return true;
+  }
+
   @Override
   public int getOutputValueColumnCount() {
     return datasetHeader.getOutputValueColumnCount();
@@ -19,6 +19,8 @@
 package org.apache.iotdb.db.mpp.plan.planner;
 
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.engine.storagegroup.DataRegion;
+import org.apache.iotdb.db.mpp.execution.driver.DataDriver;
 import org.apache.iotdb.db.mpp.execution.exchange.ISinkHandle;
 import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext;
 import org.apache.iotdb.db.mpp.execution.operator.source.DataSourceOperator;
@@ -35,6 +37,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
@@ -48,7 +51,8 @@ public class LocalExecutionPlanContext {
   private final List<DataSourceOperator> sourceOperators;
   private ISinkHandle sinkHandle;
 
-  private int nextOperatorId = 0;
+  // shared by the contexts of all the drivers of the fragment instance
+  private final AtomicInteger nextOperatorId;
 
   private final TypeProvider typeProvider;
 
@@ -62,6 +66,20 @@ public class LocalExecutionPlanContext {
 
   private final RuleBasedTimeSliceAllocator timeSliceAllocator;
 
+  // the DataRegion and time filter of the fragment instance, only for data query
+  private DataRegion dataRegion;
+  private Filter timeFilter;
+
+  // the max number of drivers a series scan can be split into, 1 if it should not be split
+  private int maxScanSplitNum = 1;
+
+  private final int pipelineId;
+  private int nextPipelineId = 1;
+
+  // the drivers outputting to the driver of this context, only in the context of pipeline 0
+  private final List<DataDriver> pipelineDrivers = new ArrayList<>();
+  private long pipelineMaxPeekMemory = 0;
+
   public LocalExecutionPlanContext(
       TypeProvider typeProvider, FragmentInstanceContext instanceContext) {
     this.typeProvider = typeProvider;
@@ -70,6 +88,22 @@ public class LocalExecutionPlanContext {
     this.allSensorsMap = new HashMap<>();
     this.sourceOperators = new ArrayList<>();
     this.timeSliceAllocator = new RuleBasedTimeSliceAllocator();
+    this.nextOperatorId = new AtomicInteger(0);
+    this.pipelineId = 0;
+  }
+
+  /** Create the context of another driver of the same fragment instance. */
+  private LocalExecutionPlanContext(LocalExecutionPlanContext parentContext, int pipelineId) {
+    this.typeProvider = parentContext.typeProvider;
+    this.instanceContext = parentContext.instanceContext;
+    this.paths = new ArrayList<>();
+    this.allSensorsMap = parentContext.allSensorsMap;
+    this.sourceOperators = new ArrayList<>();
+    this.timeSliceAllocator = parentContext.timeSliceAllocator;
+    this.nextOperatorId = parentContext.nextOperatorId;
+    this.dataRegion = parentContext.dataRegion;
+    this.timeFilter = parentContext.timeFilter;
+    this.pipelineId = pipelineId;
   }
 
   public LocalExecutionPlanContext(FragmentInstanceContext instanceContext) {
@@ -78,13 +112,62 @@ public class LocalExecutionPlanContext {
     this.allSensorsMap = new HashMap<>();
     this.sourceOperators = new ArrayList<>();
     this.typeProvider = null;
+    this.nextOperatorId = new AtomicInteger(0);
+    this.pipelineId = 0;
 
     // only used in `order by heat`
     this.timeSliceAllocator = new RuleBasedTimeSliceAllocator();
   }
 
   public int getNextOperatorId() {
-    return nextOperatorId++;
+    return nextOperatorId.getAndIncrement();
+  }
+
+  /** Create the context of a new driver, which outputs to the driver of this context. */
+  public LocalExecutionPlanContext createPipelineContext() {
+    return new LocalExecutionPlanContext(this, nextPipelineId++);
+  }
+
+  public int getPipelineId() {
+    return pipelineId;
+  }
+
+  public void addPipelineDriver(DataDriver driver, long maxPeekMemory) {
+    pipelineDrivers.add(driver);
+    pipelineMaxPeekMemory += maxPeekMemory;
+  }
+
+  public List<DataDriver> getPipelineDrivers() {
+    return pipelineDrivers;
+  }
+
+  /** the sum of the max peek memory of the operators in the drivers of pipelines */
+  public long getPipelineMaxPeekMemory() {
+    return pipelineMaxPeekMemory;
+  }
+
+  public DataRegion getDataRegion() {
+    return dataRegion;
+  }
+
+  public void setDataRegion(DataRegion dataRegion) {
+    this.dataRegion = dataRegion;
+  }
+
+  public Filter getTimeFilter() {
+    return timeFilter;
+  }
+
+  public void setTimeFilter(Filter timeFilter) {
+    this.timeFilter = timeFilter;
+  }
+
+  public int getMaxScanSplitNum() {
+    return maxScanSplitNum;
+  }
+
+  public void setMaxScanSplitNum(int maxScanSplitNum) {
+    this.maxScanSplitNum = maxScanSplitNum;
   }
 
   public List<PartialPath> getPaths() {
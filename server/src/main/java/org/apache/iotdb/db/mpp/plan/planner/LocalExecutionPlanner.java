@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.mpp.plan.planner;
 
+import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.storagegroup.DataRegion;
 import org.apache.iotdb.db.metadata.schemaregion.ISchemaRegion;
@@ -32,6 +33,7 @@ import org.apache.iotdb.db.mpp.execution.operator.Operator;
 import org.apache.iotdb.db.mpp.execution.timer.ITimeSliceAllocator;
 import org.apache.iotdb.db.mpp.plan.analyze.TypeProvider;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.source.SeriesSourceNode;
 import org.apache.iotdb.rpc.TSStatusCode;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 
@@ -39,10 +41,13 @@ import io.airlift.concurrent.SetThreadName;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
- * Used to plan a fragment instance. Currently, we simply change it from PlanNode to executable
- * Operator tree, but in the future, we may split one fragment instance into multiple pipeline to
- * run a fragment instance parallel and take full advantage of multi-cores
+ * Used to plan a fragment instance. We change it from PlanNode to executable Operator tree. The
+ * series scans of a data query may be split into multiple pipelines, each of which is run by its
+ * own driver, to run a fragment instance in parallel and take full advantage of multi-cores.
  */
 public class LocalExecutionPlanner {
 
@@ -56,7 +61,11 @@ public class LocalExecutionPlanner {
     return InstanceHolder.INSTANCE;
   }
 
-  public DataDriver plan(
+  /**
+   * @return the drivers of the fragment instance, the first one outputs to the sink of the fragment
+   *     instance, and the others output to it through local exchanges
+   */
+  public List<DataDriver> plan(
       PlanNode plan,
       TypeProvider types,
       FragmentInstanceContext instanceContext,
@@ -64,11 +73,19 @@ public class LocalExecutionPlanner {
       DataRegion dataRegion)
       throws MemoryNotEnoughException {
     LocalExecutionPlanContext context = new LocalExecutionPlanContext(types, instanceContext);
+    context.setDataRegion(dataRegion);
+    context.setTimeFilter(timeFilter);
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    if (config.isEnableRegionScanSplit()) {
+      // the query threads are shared by all the series scans
+      context.setMaxScanSplitNum(
+          config.getConcurrentQueryThread() / Math.max(countSeriesSourceNodes(plan), 1));
+    }
 
     Operator root = plan.accept(new OperatorTreeGenerator(), context);
 
     // check whether current free memory is enough to execute current query
-    checkMemory(root, instanceContext.getStateMachine());
+    checkMemory(root, context, instanceContext.getStateMachine());
 
     ITimeSliceAllocator timeSliceAllocator = context.getTimeSliceAllocator();
     instanceContext
@@ -85,7 +102,10 @@ public class LocalExecutionPlanner {
             dataRegion,
             context.getSourceOperators());
     instanceContext.setDriverContext(dataDriverContext);
-    return new DataDriver(root, context.getSinkHandle(), dataDriverContext);
+    List<DataDriver> drivers = new ArrayList<>();
+    drivers.add(new DataDriver(root, context.getSinkHandle(), dataDriverContext));
+    drivers.addAll(context.getPipelineDrivers());
+    return drivers;
   }
 
   public SchemaDriver plan(
@@ -101,7 +121,7 @@ public class LocalExecutionPlanner {
     Operator root = plan.accept(new OperatorTreeGenerator(), context);
 
     // check whether current free memory is enough to execute current query
-    checkMemory(root, instanceContext.getStateMachine());
+    checkMemory(root, context, instanceContext.getStateMachine());
 
     ITimeSliceAllocator timeSliceAllocator = context.getTimeSliceAllocator();
     instanceContext
@@ -113,7 +133,8 @@ public class LocalExecutionPlanner {
     return new SchemaDriver(root, context.getSinkHandle(), schemaDriverContext);
   }
 
-  private void checkMemory(Operator root, FragmentInstanceStateMachine stateMachine)
+  private void checkMemory(
+      Operator root, LocalExecutionPlanContext context, FragmentInstanceStateMachine stateMachine)
       throws MemoryNotEnoughException {
 
     // if it is disabled, just return
@@ -121,7 +142,8 @@ public class LocalExecutionPlanner {
       return;
     }
 
-    long estimatedMemorySize = root.calculateMaxPeekMemory();
+    // the drivers of the pipelines run at the same time
+    long estimatedMemorySize = root.calculateMaxPeekMemory() + context.getPipelineMaxPeekMemory();
 
     synchronized (this) {
       if (estimatedMemorySize > freeMemoryForOperators) {
@@ -156,6 +178,14 @@ public class LocalExecutionPlanner {
         });
   }
 
+  private static int countSeriesSourceNodes(PlanNode plan) {
+    int count = plan instanceof SeriesSourceNode ? 1 : 0;
+    for (PlanNode child : plan.getChildren()) {
+      count += countSeriesSourceNodes(child);
+    }
+    return count;
+  }
+
   private static class InstanceHolder {
 
     private InstanceHolder() {}
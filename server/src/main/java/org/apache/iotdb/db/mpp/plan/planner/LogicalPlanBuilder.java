@@ -59,7 +59,9 @@ import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.GroupByLevelNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.LimitNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.OffsetNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.SlidingWindowAggregationNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.SortNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TimeJoinNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TopKNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TransformNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.last.LastQueryNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.source.AlignedLastQueryScanNode;
@@ -703,15 +705,48 @@ public class LogicalPlanBuilder {
     return this;
   }
 
+  /**
+   * Plan a SortNode by time. The rows are already returned in the scan order, so the SortNode is
+   * only planned to be folded into a TopKNode by {@link #planLimit}, which then stops reading after
+   * the first rows.
+   */
+  public LogicalPlanBuilder planSort(Ordering sortOrder) {
+    this.root = new SortNode(context.getQueryId().genPlanNodeId(), this.getRoot(), sortOrder);
+    return this;
+  }
+
   public LogicalPlanBuilder planLimit(int rowLimit) {
     if (rowLimit == 0) {
       return this;
     }
 
+    // fold Sort + Limit into TopK, which only keeps rowLimit (+ rowOffset) rows in memory
+    if (this.getRoot() instanceof SortNode) {
+      this.root = planTopK((SortNode) this.getRoot(), rowLimit);
+      return this;
+    }
+    if (this.getRoot() instanceof OffsetNode
+        && ((OffsetNode) this.getRoot()).getChild() instanceof SortNode) {
+      OffsetNode offsetNode = (OffsetNode) this.getRoot();
+      offsetNode.addChild(
+          planTopK((SortNode) offsetNode.getChild(), rowLimit + offsetNode.getOffset()));
+      return this;
+    }
+
     this.root = new LimitNode(context.getQueryId().genPlanNodeId(), this.getRoot(), rowLimit);
     return this;
   }
 
+  private TopKNode planTopK(SortNode sortNode, int topValue) {
+    return new TopKNode(
+        context.getQueryId().genPlanNodeId(),
+        sortNode.getChildren().get(0),
+        topValue,
+        Collections.singletonList(ColumnHeaderConstant.COLUMN_TIME),
+        Collections.singletonList(sortNode.getSortOrder()),
+        true);
+  }
+
   public LogicalPlanBuilder planOffset(int rowOffset) {
     if (rowOffset == 0) {
       return this;
@@ -30,6 +30,7 @@ import org.apache.iotdb.db.mpp.plan.planner.plan.node.metedata.write.CreateMulti
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.metedata.write.CreateTimeSeriesNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.metedata.write.InternalCreateTimeSeriesNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.metedata.write.MeasurementGroup;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TimeJoinNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.DeleteDataNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertMultiTabletsNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertRowNode;
@@ -148,9 +149,19 @@ public class LogicalPlanVisitor extends StatementVisitor<PlanNode, MPPQueryConte
     }
 
     // other common upstream node
+    planBuilder =
+        planBuilder.planFill(analysis.getFillDescriptor(), queryStatement.getResultTimeOrder());
+    if (queryStatement.isOrderByTime()
+        && !queryStatement.isAlignByDevice()
+        && queryStatement.getRowLimit() != 0
+        && planBuilder.getRoot() instanceof TimeJoinNode
+        && planBuilder.getRoot().getChildren().size() > 1) {
+      // ORDER BY TIME ... LIMIT over a TimeJoin is planned as TopK, so that a partial TopK can be
+      // pushed down to each child of the TimeJoin. Otherwise the LimitNode is good enough.
+      planBuilder = planBuilder.planSort(queryStatement.getResultTimeOrder());
+    }
     planBuilder =
         planBuilder
-            .planFill(analysis.getFillDescriptor(), queryStatement.getResultTimeOrder())
             .planOffset(queryStatement.getRowOffset())
             .planLimit(queryStatement.getRowLimit());
 
@@ -20,6 +20,7 @@ package org.apache.iotdb.db.mpp.plan.planner;
 
 import org.apache.iotdb.common.rpc.thrift.TEndPoint;
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.metadata.cache.DataNodeSchemaCache;
 import org.apache.iotdb.db.metadata.path.AlignedPath;
@@ -30,15 +31,20 @@ import org.apache.iotdb.db.mpp.aggregation.slidingwindow.SlidingWindowAggregator
 import org.apache.iotdb.db.mpp.aggregation.timerangeiterator.ITimeRangeIterator;
 import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
 import org.apache.iotdb.db.mpp.common.NodeRef;
+import org.apache.iotdb.db.mpp.common.header.ColumnHeaderConstant;
+import org.apache.iotdb.db.mpp.execution.driver.DataDriver;
+import org.apache.iotdb.db.mpp.execution.driver.DataDriverContext;
 import org.apache.iotdb.db.mpp.execution.driver.SchemaDriverContext;
 import org.apache.iotdb.db.mpp.execution.exchange.ISinkHandle;
 import org.apache.iotdb.db.mpp.execution.exchange.ISourceHandle;
 import org.apache.iotdb.db.mpp.execution.exchange.MPPDataExchangeManager;
 import org.apache.iotdb.db.mpp.execution.exchange.MPPDataExchangeService;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext;
 import org.apache.iotdb.db.mpp.execution.operator.AggregationUtil;
 import org.apache.iotdb.db.mpp.execution.operator.Operator;
 import org.apache.iotdb.db.mpp.execution.operator.OperatorContext;
 import org.apache.iotdb.db.mpp.execution.operator.process.AggregationOperator;
+import org.apache.iotdb.db.mpp.execution.operator.process.ConcatOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.DeviceMergeOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.DeviceViewOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.FillOperator;
@@ -48,7 +54,9 @@ import org.apache.iotdb.db.mpp.execution.operator.process.LinearFillOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.OffsetOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.ProcessOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.RawDataAggregationOperator;
+import org.apache.iotdb.db.mpp.execution.operator.process.RowComparator;
 import org.apache.iotdb.db.mpp.execution.operator.process.SlidingWindowAggregationOperator;
+import org.apache.iotdb.db.mpp.execution.operator.process.TopKOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.TransformOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.fill.IFill;
 import org.apache.iotdb.db.mpp.execution.operator.process.fill.ILinearFill;
@@ -140,6 +148,7 @@ import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.OffsetNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.SlidingWindowAggregationNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.SortNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TimeJoinNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TopKNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TransformNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.last.LastQueryCollectNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.last.LastQueryMergeNode;
@@ -168,7 +177,9 @@ import org.apache.iotdb.db.mpp.transformation.dag.udf.UDTFContext;
 import org.apache.iotdb.db.utils.datastructure.TimeSelector;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.filter.operator.Gt;
 import org.apache.iotdb.tsfile.read.filter.operator.GtEq;
 import org.apache.iotdb.tsfile.utils.Binary;
@@ -187,6 +198,8 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -225,6 +238,23 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
   public Operator visitSeriesScan(SeriesScanNode node, LocalExecutionPlanContext context) {
     PartialPath seriesPath = node.getSeriesPath();
     boolean ascending = node.getScanOrder() == Ordering.ASC;
+    if (node.getLimit() == 0 && node.getOffset() == 0) {
+      Operator splitScanOperator =
+          trySplitRawDataScan(
+              node,
+              seriesPath.getDevice(),
+              node.getTimeFilter(),
+              ascending,
+              timeFilter -> {
+                SeriesScanNode splitNode = (SeriesScanNode) node.clone();
+                splitNode.setTimeFilter(timeFilter);
+                return splitNode;
+              },
+              context);
+      if (splitScanOperator != null) {
+        return splitScanOperator;
+      }
+    }
     OperatorContext operatorContext =
         context
             .getInstanceContext()
@@ -255,6 +285,23 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
       AlignedSeriesScanNode node, LocalExecutionPlanContext context) {
     AlignedPath seriesPath = node.getAlignedPath();
     boolean ascending = node.getScanOrder() == Ordering.ASC;
+    if (node.getLimit() == 0 && node.getOffset() == 0) {
+      Operator splitScanOperator =
+          trySplitRawDataScan(
+              node,
+              seriesPath.getDevice(),
+              node.getTimeFilter(),
+              ascending,
+              timeFilter -> {
+                AlignedSeriesScanNode splitNode = (AlignedSeriesScanNode) node.clone();
+                splitNode.setTimeFilter(timeFilter);
+                return splitNode;
+              },
+              context);
+      if (splitScanOperator != null) {
+        return splitScanOperator;
+      }
+    }
     OperatorContext operatorContext =
         context
             .getInstanceContext()
@@ -285,6 +332,26 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
       SeriesAggregationScanNode node, LocalExecutionPlanContext context) {
     PartialPath seriesPath = node.getSeriesPath();
     boolean ascending = node.getScanOrder() == Ordering.ASC;
+    Operator splitScanOperator =
+        trySplitAggregationScan(
+            node,
+            seriesPath.getDevice(),
+            node.getTimeFilter(),
+            node.getGroupByTimeParameter(),
+            ascending,
+            (timeFilter, groupByTimeParameter) ->
+                new SeriesAggregationScanNode(
+                    node.getPlanNodeId(),
+                    node.getSeriesPath(),
+                    node.getAggregationDescriptorList(),
+                    node.getScanOrder(),
+                    timeFilter,
+                    groupByTimeParameter,
+                    node.getRegionReplicaSet()),
+            context);
+    if (splitScanOperator != null) {
+      return splitScanOperator;
+    }
     OperatorContext operatorContext =
         context
             .getInstanceContext()
@@ -334,6 +401,26 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
       AlignedSeriesAggregationScanNode node, LocalExecutionPlanContext context) {
     AlignedPath seriesPath = node.getAlignedPath();
     boolean ascending = node.getScanOrder() == Ordering.ASC;
+    Operator splitScanOperator =
+        trySplitAggregationScan(
+            node,
+            seriesPath.getDevice(),
+            node.getTimeFilter(),
+            node.getGroupByTimeParameter(),
+            ascending,
+            (timeFilter, groupByTimeParameter) ->
+                new AlignedSeriesAggregationScanNode(
+                    node.getPlanNodeId(),
+                    node.getAlignedPath(),
+                    node.getAggregationDescriptorList(),
+                    node.getScanOrder(),
+                    timeFilter,
+                    groupByTimeParameter,
+                    node.getRegionReplicaSet()),
+            context);
+    if (splitScanOperator != null) {
+      return splitScanOperator;
+    }
     OperatorContext operatorContext =
         context
             .getInstanceContext()
@@ -1269,6 +1356,38 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
     return super.visitSort(node, context);
   }
 
+  @Override
+  public Operator visitTopK(TopKNode node, LocalExecutionPlanContext context) {
+    Operator child = node.getChild().accept(this, context);
+    OperatorContext operatorContext =
+        context
+            .getInstanceContext()
+            .addOperatorContext(
+                context.getNextOperatorId(),
+                node.getPlanNodeId(),
+                TopKOperator.class.getSimpleName());
+    context.getTimeSliceAllocator().recordExecutionWeight(operatorContext, 1);
+    List<String> outputColumnNames = node.getOutputColumnNames();
+    List<Integer> sortColumnIndexes = new ArrayList<>(node.getSortColumns().size());
+    for (String sortColumn : node.getSortColumns()) {
+      if (ColumnHeaderConstant.COLUMN_TIME.equals(sortColumn)) {
+        sortColumnIndexes.add(RowComparator.TIME_COLUMN_INDEX);
+      } else {
+        int index = outputColumnNames.indexOf(sortColumn);
+        checkArgument(index >= 0, "Sort column %s is not in the output columns", sortColumn);
+        sortColumnIndexes.add(index);
+      }
+    }
+    return new TopKOperator(
+        operatorContext,
+        child,
+        getOutputColumnTypes(node, context.getTypeProvider()),
+        sortColumnIndexes,
+        node.getOrderings(),
+        node.getTopValue(),
+        node.isChildOrdered());
+  }
+
   @Override
   public Operator visitTimeJoin(TimeJoinNode node, LocalExecutionPlanContext context) {
     List<Operator> children =
@@ -1326,6 +1445,140 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
     return mergers;
   }
 
+  /**
+   * Split a raw data scan into several drivers reading disjoint time ranges, if the data region has
+   * enough sequence files of the device.
+   *
+   * @param splitNodeGenerator generates the scan node of a time range by its time filter
+   * @return the operator concatenating the results of the drivers, null if the scan is not split
+   */
+  private Operator trySplitRawDataScan(
+      PlanNode node,
+      String device,
+      Filter timeFilter,
+      boolean ascending,
+      Function<Filter, PlanNode> splitNodeGenerator,
+      LocalExecutionPlanContext context) {
+    List<Long> splitPoints = getScanSplitPoints(device, timeFilter, context);
+    if (splitPoints.isEmpty()) {
+      return null;
+    }
+    List<TimeRange> timeRanges = RegionScanSplitter.getTimeRanges(splitPoints);
+    List<PlanNode> splitNodes = new ArrayList<>(timeRanges.size());
+    for (TimeRange timeRange : timeRanges) {
+      splitNodes.add(
+          splitNodeGenerator.apply(RegionScanSplitter.andTimeRange(timeFilter, timeRange)));
+    }
+    return planSplitScan(node, splitNodes, timeRanges, ascending, context);
+  }
+
+  /**
+   * Split an aggregation scan of GROUP BY TIME into several drivers aggregating disjoint time
+   * windows, if the data region has enough sequence files of the device.
+   *
+   * @param splitNodeGenerator generates the scan node of some windows by its time filter and
+   *     parameter of the windows
+   * @return the operator concatenating the results of the drivers, null if the scan is not split
+   */
+  private Operator trySplitAggregationScan(
+      PlanNode node,
+      String device,
+      Filter timeFilter,
+      GroupByTimeParameter groupByTimeParameter,
+      boolean ascending,
+      BiFunction<Filter, GroupByTimeParameter, PlanNode> splitNodeGenerator,
+      LocalExecutionPlanContext context) {
+    if (groupByTimeParameter == null) {
+      return null;
+    }
+    List<Long> splitPoints = getScanSplitPoints(device, timeFilter, context);
+    if (splitPoints.isEmpty()) {
+      return null;
+    }
+    List<GroupByTimeParameter> splitParameters =
+        RegionScanSplitter.splitGroupByTime(groupByTimeParameter, splitPoints);
+    if (splitParameters.isEmpty()) {
+      return null;
+    }
+    List<TimeRange> timeRanges = new ArrayList<>(splitParameters.size());
+    List<PlanNode> splitNodes = new ArrayList<>(splitParameters.size());
+    for (GroupByTimeParameter splitParameter : splitParameters) {
+      TimeRange timeRange = RegionScanSplitter.getTimeRange(splitParameter);
+      timeRanges.add(timeRange);
+      splitNodes.add(
+          splitNodeGenerator.apply(
+              RegionScanSplitter.andTimeRange(timeFilter, timeRange), splitParameter));
+    }
+    return planSplitScan(node, splitNodes, timeRanges, ascending, context);
+  }
+
+  private List<Long> getScanSplitPoints(
+      String device, Filter timeFilter, LocalExecutionPlanContext context) {
+    if (context.getMaxScanSplitNum() <= 1 || context.getDataRegion() == null) {
+      return Collections.emptyList();
+    }
+    return RegionScanSplitter.getSplitPoints(
+        context.getDataRegion().getSequenceFileList(),
+        device,
+        timeFilter,
+        context.getMaxScanSplitNum(),
+        IoTDBDescriptor.getInstance().getConfig().getRegionScanSplitMinFileNum());
+  }
+
+  /**
+   * Each split scan node is run by a new driver, which outputs to a local exchange read by the
+   * driver of the given context. The exchanges are read one after another in the scan order.
+   */
+  private Operator planSplitScan(
+      PlanNode node,
+      List<PlanNode> splitNodes,
+      List<TimeRange> timeRanges,
+      boolean ascending,
+      LocalExecutionPlanContext context) {
+    FragmentInstanceContext instanceContext = context.getInstanceContext();
+    List<Operator> children = new ArrayList<>(splitNodes.size());
+    for (int i = 0; i < splitNodes.size(); i++) {
+      LocalExecutionPlanContext pipelineContext = context.createPipelineContext();
+      Operator pipelineRoot = splitNodes.get(i).accept(this, pipelineContext);
+
+      Pair<ISinkHandle, ISourceHandle> handles =
+          MPP_DATA_EXCHANGE_MANAGER.createLocalPipelineHandles(
+              instanceContext.getId().toThrift(),
+              node.getPlanNodeId().getId() + "." + pipelineContext.getPipelineId(),
+              instanceContext::failed);
+      DataDriverContext driverContext =
+          new DataDriverContext(
+              instanceContext,
+              pipelineContext.getPipelineId(),
+              pipelineContext.getPaths(),
+              RegionScanSplitter.andTimeRange(context.getTimeFilter(), timeRanges.get(i)),
+              context.getDataRegion(),
+              pipelineContext.getSourceOperators());
+      context.addPipelineDriver(
+          new DataDriver(pipelineRoot, handles.left, driverContext),
+          pipelineRoot.calculateMaxPeekMemory());
+
+      OperatorContext operatorContext =
+          instanceContext.addOperatorContext(
+              context.getNextOperatorId(),
+              node.getPlanNodeId(),
+              ExchangeOperator.class.getSimpleName());
+      context.getTimeSliceAllocator().recordExecutionWeight(operatorContext, 0);
+      children.add(new ExchangeOperator(operatorContext, handles.right, node.getPlanNodeId()));
+    }
+    if (!ascending) {
+      Collections.reverse(children);
+    }
+
+    OperatorContext operatorContext =
+        instanceContext.addOperatorContext(
+            context.getNextOperatorId(),
+            node.getPlanNodeId(),
+            ConcatOperator.class.getSimpleName());
+    context.getTimeSliceAllocator().recordExecutionWeight(operatorContext, 1);
+    return new ConcatOperator(operatorContext, children);
+  }
+
   @Override
   public Operator visitExchange(ExchangeNode node, LocalExecutionPlanContext context) {
     OperatorContext operatorContext =
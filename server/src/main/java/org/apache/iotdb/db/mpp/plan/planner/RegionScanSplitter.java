@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.plan.planner;
+
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.mpp.plan.planner.plan.parameter.GroupByTimeParameter;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Splits a scan over one device of a data region into several disjoint time ranges, each of which
+ * covers about the same number of sealed sequence files, so that the time ranges can be read by
+ * different drivers in parallel.
+ */
+class RegionScanSplitter {
+
+  private RegionScanSplitter() {}
+
+  /**
+   * @param timeFilter time filter of the scan, files not satisfying it are not counted
+   * @param maxSplitNum the max number of time ranges
+   * @param minFileNumPerSplit the min number of files covered by each time range
+   * @return the start time of each time range except the first one in ascending order, empty if the
+   *     scan should not be split
+   */
+  static List<Long> getSplitPoints(
+      List<TsFileResource> seqResources,
+      String device,
+      Filter timeFilter,
+      int maxSplitNum,
+      int minFileNumPerSplit) {
+    List<Long> startTimes = new ArrayList<>();
+    for (TsFileResource resource : seqResources) {
+      if (resource.isClosed()
+          && resource.isSatisfied(device, timeFilter, true, Long.MAX_VALUE, false)) {
+        startTimes.add(resource.getStartTime(device));
+      }
+    }
+    int splitNum = Math.min(maxSplitNum, startTimes.size() / Math.max(minFileNumPerSplit, 1));
+    if (splitNum <= 1) {
+      return Collections.emptyList();
+    }
+    Collections.sort(startTimes);
+    List<Long> splitPoints = new ArrayList<>(splitNum - 1);
+    long lastPoint = startTimes.get(0);
+    for (int i = 1; i < splitNum; i++) {
+      long point = startTimes.get(i * startTimes.size() / splitNum);
+      if (point > lastPoint) {
+        splitPoints.add(point);
+        lastPoint = point;
+      }
+    }
+    return splitPoints;
+  }
+
+  /** @return the closed time ranges separated by the split points, covering all the time */
+  static List<TimeRange> getTimeRanges(List<Long> splitPoints) {
+    List<TimeRange> timeRanges = new ArrayList<>(splitPoints.size() + 1);
+    long startTime = Long.MIN_VALUE;
+    for (long splitPoint : splitPoints) {
+      timeRanges.add(new TimeRange(startTime, splitPoint - 1));
+      startTime = splitPoint;
+    }
+    timeRanges.add(new TimeRange(startTime, Long.MAX_VALUE));
+    return timeRanges;
+  }
+
+  /**
+   * Split the time windows of GROUP BY TIME at the window starts nearest to the split points, so
+   * that no window is split. Only windows not overlapping each other and not by month are split.
+   *
+   * @return the parameters of the windows of each split in ascending order, empty if the windows
+   *     should not be split
+   */
+  static List<GroupByTimeParameter> splitGroupByTime(
+      GroupByTimeParameter groupByTimeParameter, List<Long> splitPoints) {
+    if (groupByTimeParameter.isIntervalByMonth()
+        || groupByTimeParameter.isSlidingStepByMonth()
+        || groupByTimeParameter.getInterval() > groupByTimeParameter.getSlidingStep()) {
+      return Collections.emptyList();
+    }
+    long startTime = groupByTimeParameter.getStartTime();
+    long endTime = groupByTimeParameter.getEndTime();
+    long slidingStep = groupByTimeParameter.getSlidingStep();
+    List<GroupByTimeParameter> parameters = new ArrayList<>();
+    long lastStartTime = startTime;
+    for (long splitPoint : splitPoints) {
+      if (splitPoint <= startTime) {
+        continue;
+      }
+      if (splitPoint >= endTime) {
+        break;
+      }
+      long windowStartTime = startTime + (splitPoint - startTime) / slidingStep * slidingStep;
+      if (windowStartTime > lastStartTime) {
+        parameters.add(
+            subGroupByTimeParameter(groupByTimeParameter, lastStartTime, windowStartTime));
+        lastStartTime = windowStartTime;
+      }
+    }
+    if (parameters.isEmpty()) {
+      return Collections.emptyList();
+    }
+    parameters.add(subGroupByTimeParameter(groupByTimeParameter, lastStartTime, endTime));
+    return parameters;
+  }
+
+  /** @return the closed time range of the data aggregated by the windows */
+  static TimeRange getTimeRange(GroupByTimeParameter groupByTimeParameter) {
+    return groupByTimeParameter.isLeftCRightO()
+        ? new TimeRange(groupByTimeParameter.getStartTime(), groupByTimeParameter.getEndTime() - 1)
+        : new TimeRange(groupByTimeParameter.getStartTime() + 1, groupByTimeParameter.getEndTime());
+  }
+
+  /** @return the time filter of the time range AND the given filter, which may be null */
+  static Filter andTimeRange(Filter timeFilter, TimeRange timeRange) {
+    Filter rangeFilter;
+    if (timeRange.getMin() == Long.MIN_VALUE) {
+      rangeFilter = TimeFilter.ltEq(timeRange.getMax());
+    } else if (timeRange.getMax() == Long.MAX_VALUE) {
+      rangeFilter = TimeFilter.gtEq(timeRange.getMin());
+    } else {
+      rangeFilter = TimeFilter.between(timeRange.getMin(), timeRange.getMax(), false);
+    }
+    return timeFilter == null ? rangeFilter : FilterFactory.and(timeFilter, rangeFilter);
+  }
+
+  private static GroupByTimeParameter subGroupByTimeParameter(
+      GroupByTimeParameter groupByTimeParameter, long startTime, long endTime) {
+    return new GroupByTimeParameter(
+        startTime,
+        endTime,
+        groupByTimeParameter.getInterval(),
+        groupByTimeParameter.getSlidingStep(),
+        groupByTimeParameter.isLeftCRightO());
+  }
+}
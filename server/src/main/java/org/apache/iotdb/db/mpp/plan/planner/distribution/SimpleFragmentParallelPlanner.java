@@ -112,6 +112,7 @@ public class SimpleFragmentParallelPlanner implements IFragmentParallelPlaner {
     // to another host when scheduling
     fragmentInstance.setDataRegionAndHost(regionReplicaSet);
     fragmentInstance.setHostDataNode(selectTargetDataNode(regionReplicaSet));
+    fragmentInstance.setSessionInfo(queryContext.getSession());
 
     if (analysis.getStatement() instanceof QueryStatement) {
       fragmentInstance.getFragment().generateTypeProvider(queryContext.getTypeProvider());
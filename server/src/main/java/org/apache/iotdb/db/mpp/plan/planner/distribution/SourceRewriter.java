@@ -40,6 +40,7 @@ import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.GroupByLevelNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.MultiChildNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.SlidingWindowAggregationNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TimeJoinNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TopKNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.last.LastQueryCollectNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.last.LastQueryMergeNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.last.LastQueryNode;
@@ -487,6 +488,27 @@ public class SourceRewriter extends SimplePlanNodeRewriter<DistributionPlanConte
     return root;
   }
 
+  @Override
+  public PlanNode visitTopK(TopKNode node, DistributionPlanContext context) {
+    PlanNode child = visit(node.getChild(), context);
+    // Push a partial TopKNode down to each child of the TimeJoinNode, so that each DataRegion only
+    // returns topValue rows. It only works for ordering by time, because the children are joined by
+    // time and a row in the top k of the join is also in the top k of its children.
+    if (node.isOrderByTime() && child instanceof TimeJoinNode && child.getChildren().size() > 1) {
+      PlanNode newChild = child.clone();
+      for (PlanNode grandChild : child.getChildren()) {
+        TopKNode partialTopK = (TopKNode) node.clone();
+        partialTopK.setPlanNodeId(context.queryContext.getQueryId().genPlanNodeId());
+        partialTopK.addChild(grandChild);
+        newChild.addChild(partialTopK);
+      }
+      child = newChild;
+    }
+    PlanNode newRoot = node.clone();
+    newRoot.addChild(child);
+    return newRoot;
+  }
+
   private boolean isAggregationQuery(TimeJoinNode node) {
     for (PlanNode child : node.getChildren()) {
       if (child instanceof SeriesAggregationScanNode
@@ -26,6 +26,7 @@ import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.runtime.SerializationRunTimeException;
 import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
+import org.apache.iotdb.db.mpp.common.SessionInfo;
 import org.apache.iotdb.db.mpp.plan.analyze.QueryType;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeUtil;
@@ -65,6 +66,9 @@ public class FragmentInstance implements IConsensusRequest {
 
   private boolean isRoot;
 
+  // The session which issues the query, used for choosing the resource group of this instance
+  private SessionInfo sessionInfo;
+
   // We can add some more params for a specific FragmentInstance
   // So that we can make different FragmentInstance owns different data range.
 
@@ -193,6 +197,8 @@ public class FragmentInstance implements IConsensusRequest {
     boolean hasHostDataNode = ReadWriteIOUtils.readBool(buffer);
     fragmentInstance.hostDataNode =
         hasHostDataNode ? ThriftCommonsSerDeUtils.deserializeTDataNodeLocation(buffer) : null;
+    boolean hasSessionInfo = ReadWriteIOUtils.readBool(buffer);
+    fragmentInstance.sessionInfo = hasSessionInfo ? SessionInfo.deserialize(buffer) : null;
     return fragmentInstance;
   }
 
@@ -211,6 +217,10 @@ public class FragmentInstance implements IConsensusRequest {
       if (hostDataNode != null) {
         ThriftCommonsSerDeUtils.serializeTDataNodeLocation(hostDataNode, outputStream);
       }
+      ReadWriteIOUtils.write(sessionInfo != null, outputStream);
+      if (sessionInfo != null) {
+        sessionInfo.serialize(outputStream);
+      }
       return ByteBuffer.wrap(publicBAOS.getBuf(), 0, publicBAOS.size());
     } catch (IOException e) {
       logger.error("Unexpected error occurs when serializing this FragmentInstance.", e);
@@ -243,4 +253,12 @@ public class FragmentInstance implements IConsensusRequest {
   public long getTimeOut() {
     return timeOut;
   }
+
+  public SessionInfo getSessionInfo() {
+    return sessionInfo;
+  }
+
+  public void setSessionInfo(SessionInfo sessionInfo) {
+    this.sessionInfo = sessionInfo;
+  }
 }
@@ -54,6 +54,7 @@ import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.ProjectNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.SlidingWindowAggregationNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.SortNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TimeJoinNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TopKNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TransformNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.last.LastQueryCollectNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.last.LastQueryMergeNode;
@@ -132,7 +133,8 @@ public enum PlanNodeType {
   NODE_PATHS_COUNT((short) 51),
   INTERNAL_CREATE_TIMESERIES((short) 52),
   ACTIVATE_TEMPLATE((short) 53),
-  PATHS_USING_TEMPLATE_SCAN((short) 54);
+  PATHS_USING_TEMPLATE_SCAN((short) 54),
+  TOP_K((short) 55);
 
   public static final int BYTES = Short.BYTES;
 
@@ -291,6 +293,8 @@ public enum PlanNodeType {
         return ActivateTemplateNode.deserialize(buffer);
       case 54:
         return PathsUsingTemplateScanNode.deserialize(buffer);
+      case 55:
+        return TopKNode.deserialize(buffer);
       default:
         throw new IllegalArgumentException("Invalid node type: " + nodeType);
     }
@@ -34,8 +34,10 @@ import java.util.List;
 import java.util.Objects;
 
 /**
- * In general, the parameter in sortNode should be pushed down to the upstream operators. In our
- * optimized logical query plan, the sortNode should not appear.
+ * In general, the parameter in sortNode should be pushed down to the upstream operators, e.g.,
+ * ORDER BY TIME is the scan order. The logical planner only plans a SortNode for ORDER BY TIME with
+ * LIMIT over a TimeJoin, and folds it into a TopKNode at once, so the sortNode should not appear in
+ * the optimized logical query plan.
  */
 public class SortNode extends ProcessNode {
 
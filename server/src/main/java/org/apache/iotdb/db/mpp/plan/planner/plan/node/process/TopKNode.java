@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.plan.planner.plan.node.process;
+
+import org.apache.iotdb.db.mpp.common.header.ColumnHeaderConstant;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeType;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanVisitor;
+import org.apache.iotdb.db.mpp.plan.statement.component.Ordering;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import com.google.common.collect.ImmutableList;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * TopKNode returns the first k rows of its child in the order of the sort columns, i.e., a SortNode
+ * followed by a LimitNode. The sort columns are output columns of the child, {@link
+ * ColumnHeaderConstant#COLUMN_TIME} stands for the time column. If the child already returns its
+ * rows in this order, e.g., ORDER BY TIME over the scan order, only the first k rows are read.
+ */
+public class TopKNode extends ProcessNode {
+
+  private PlanNode child;
+
+  private final int topValue;
+
+  private final List<String> sortColumns;
+
+  private final List<Ordering> orderings;
+
+  /** whether the child returns its rows in the order of the sort columns */
+  private final boolean childOrdered;
+
+  public TopKNode(
+      PlanNodeId id,
+      int topValue,
+      List<String> sortColumns,
+      List<Ordering> orderings,
+      boolean childOrdered) {
+    super(id);
+    this.topValue = topValue;
+    this.sortColumns = sortColumns;
+    this.orderings = orderings;
+    this.childOrdered = childOrdered;
+  }
+
+  public TopKNode(
+      PlanNodeId id,
+      PlanNode child,
+      int topValue,
+      List<String> sortColumns,
+      List<Ordering> orderings,
+      boolean childOrdered) {
+    this(id, topValue, sortColumns, orderings, childOrdered);
+    this.child = child;
+  }
+
+  public int getTopValue() {
+    return topValue;
+  }
+
+  public List<String> getSortColumns() {
+    return sortColumns;
+  }
+
+  public List<Ordering> getOrderings() {
+    return orderings;
+  }
+
+  public boolean isChildOrdered() {
+    return childOrdered;
+  }
+
+  /** whether the rows are only ordered by time */
+  public boolean isOrderByTime() {
+    return sortColumns.size() == 1 && ColumnHeaderConstant.COLUMN_TIME.equals(sortColumns.get(0));
+  }
+
+  public PlanNode getChild() {
+    return child;
+  }
+
+  @Override
+  public List<PlanNode> getChildren() {
+    return ImmutableList.of(child);
+  }
+
+  @Override
+  public void addChild(PlanNode child) {
+    this.child = child;
+  }
+
+  @Override
+  public PlanNode clone() {
+    return new TopKNode(getPlanNodeId(), topValue, sortColumns, orderings, childOrdered);
+  }
+
+  @Override
+  public int allowedChildCount() {
+    return ONE_CHILD;
+  }
+
+  @Override
+  public List<String> getOutputColumnNames() {
+    return child.getOutputColumnNames();
+  }
+
+  @Override
+  public <R, C> R accept(PlanVisitor<R, C> visitor, C context) {
+    return visitor.visitTopK(this, context);
+  }
+
+  @Override
+  protected void serializeAttributes(ByteBuffer byteBuffer) {
+    PlanNodeType.TOP_K.serialize(byteBuffer);
+    ReadWriteIOUtils.write(topValue, byteBuffer);
+    ReadWriteIOUtils.write(sortColumns.size(), byteBuffer);
+    for (int i = 0; i < sortColumns.size(); i++) {
+      ReadWriteIOUtils.write(sortColumns.get(i), byteBuffer);
+      ReadWriteIOUtils.write(orderings.get(i).ordinal(), byteBuffer);
+    }
+    ReadWriteIOUtils.write(childOrdered, byteBuffer);
+  }
+
+  @Override
+  protected void serializeAttributes(DataOutputStream stream) throws IOException {
+    PlanNodeType.TOP_K.serialize(stream);
+    ReadWriteIOUtils.write(topValue, stream);
+    ReadWriteIOUtils.write(sortColumns.size(), stream);
+    for (int i = 0; i < sortColumns.size(); i++) {
+      ReadWriteIOUtils.write(sortColumns.get(i), stream);
+      ReadWriteIOUtils.write(orderings.get(i).ordinal(), stream);
+    }
+    ReadWriteIOUtils.write(childOrdered, stream);
+  }
+
+  public static TopKNode deserialize(ByteBuffer byteBuffer) {
+    int topValue = ReadWriteIOUtils.readInt(byteBuffer);
+    int sortColumnNum = ReadWriteIOUtils.readInt(byteBuffer);
+    List<String> sortColumns = new ArrayList<>(sortColumnNum);
+    List<Ordering> orderings = new ArrayList<>(sortColumnNum);
+    for (int i = 0; i < sortColumnNum; i++) {
+      sortColumns.add(ReadWriteIOUtils.readString(byteBuffer));
+      orderings.add(Ordering.values()[ReadWriteIOUtils.readInt(byteBuffer)]);
+    }
+    boolean childOrdered = ReadWriteIOUtils.readBool(byteBuffer);
+    PlanNodeId planNodeId = PlanNodeId.deserialize(byteBuffer);
+    return new TopKNode(planNodeId, topValue, sortColumns, orderings, childOrdered);
+  }
+
+  @Override
+  public String toString() {
+    return "TopKNode-" + this.getPlanNodeId();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    if (!super.equals(o)) {
+      return false;
+    }
+    TopKNode that = (TopKNode) o;
+    return topValue == that.topValue
+        && childOrdered == that.childOrdered
+        && child.equals(that.child)
+        && sortColumns.equals(that.sortColumns)
+        && orderings.equals(that.orderings);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(super.hashCode(), child, topValue, sortColumns, orderings, childOrdered);
+  }
+}
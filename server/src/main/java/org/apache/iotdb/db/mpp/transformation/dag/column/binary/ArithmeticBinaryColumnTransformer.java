@@ -22,7 +22,14 @@ package org.apache.iotdb.db.mpp.transformation.dag.column.binary;
 import org.apache.iotdb.db.mpp.transformation.dag.column.ColumnTransformer;
 import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.DoubleColumn;
 import org.apache.iotdb.tsfile.read.common.type.Type;
+import org.apache.iotdb.tsfile.read.common.type.TypeEnum;
+
+import java.util.Optional;
+
+import static org.apache.iotdb.db.mpp.transformation.dag.util.PrimitiveColumnUtils.getDoubles;
+import static org.apache.iotdb.db.mpp.transformation.dag.util.PrimitiveColumnUtils.getEitherNulls;
 
 public abstract class ArithmeticBinaryColumnTransformer extends BinaryColumnTransformer {
   public ArithmeticBinaryColumnTransformer(
@@ -30,6 +37,23 @@ public abstract class ArithmeticBinaryColumnTransformer extends BinaryColumnTran
     super(returnType, leftTransformer, rightTransformer);
   }
 
+  @Override
+  protected Column transformColumn(Column leftColumn, Column rightColumn, int positionCount) {
+    if (returnType.getTypeEnum() != TypeEnum.DOUBLE) {
+      return super.transformColumn(leftColumn, rightColumn, positionCount);
+    }
+    double[] values = new double[positionCount];
+    transform(
+        getDoubles(leftColumn, positionCount),
+        getDoubles(rightColumn, positionCount),
+        values,
+        positionCount);
+    return new DoubleColumn(
+        positionCount,
+        Optional.ofNullable(getEitherNulls(leftColumn, rightColumn, positionCount)),
+        values);
+  }
+
   @Override
   protected void doTransform(
       Column leftColumn, Column rightColumn, ColumnBuilder builder, int positionCount) {
@@ -54,4 +78,11 @@ public abstract class ArithmeticBinaryColumnTransformer extends BinaryColumnTran
   }
 
   protected abstract double transform(double d1, double d2);
+
+  /**
+   * Calculate the values at all the positions, the ones at null positions are ignored. Implemented
+   * by each subclass so that the loop can be vectorized.
+   */
+  protected abstract void transform(
+      double[] left, double[] right, double[] result, int positionCount);
 }
@@ -32,4 +32,11 @@ public class ArithmeticSubtractionColumnTransformer extends ArithmeticBinaryColu
   protected double transform(double d1, double d2) {
     return d1 - d2;
   }
+
+  @Override
+  protected void transform(double[] left, double[] right, double[] result, int positionCount) {
+    for (int i = 0; i < positionCount; i++) {
+      result[i] = left[i] - right[i];
+    }
+  }
 }
@@ -47,9 +47,17 @@ public abstract class BinaryColumnTransformer extends ColumnTransformer {
     Column leftColumn = leftTransformer.getColumn();
     Column rightColumn = rightTransformer.getColumn();
 
+    initializeColumnCache(transformColumn(leftColumn, rightColumn, positionCount));
+  }
+
+  /**
+   * Calculate the result column, whose values are written into the builder one by one by default.
+   * Subclasses may override it to calculate all the values in primitive loops.
+   */
+  protected Column transformColumn(Column leftColumn, Column rightColumn, int positionCount) {
     ColumnBuilder builder = returnType.createColumnBuilder(positionCount);
     doTransform(leftColumn, rightColumn, builder, positionCount);
-    initializeColumnCache(builder.build());
+    return builder.build();
   }
 
   protected abstract void doTransform(
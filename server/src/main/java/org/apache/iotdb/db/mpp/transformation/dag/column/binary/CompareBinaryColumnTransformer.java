@@ -21,11 +21,18 @@ package org.apache.iotdb.db.mpp.transformation.dag.column.binary;
 
 import org.apache.iotdb.db.mpp.transformation.dag.column.ColumnTransformer;
 import org.apache.iotdb.db.mpp.transformation.dag.util.TransformUtils;
+import org.apache.iotdb.tsfile.read.common.block.column.BooleanColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
 import org.apache.iotdb.tsfile.read.common.type.Type;
 import org.apache.iotdb.tsfile.read.common.type.TypeEnum;
 
+import java.util.Optional;
+
+import static org.apache.iotdb.db.mpp.transformation.dag.util.PrimitiveColumnUtils.getDoubles;
+import static org.apache.iotdb.db.mpp.transformation.dag.util.PrimitiveColumnUtils.getEitherNulls;
+import static org.apache.iotdb.db.mpp.transformation.dag.util.PrimitiveColumnUtils.isFloatingPoint;
+
 public abstract class CompareBinaryColumnTransformer extends BinaryColumnTransformer {
 
   public CompareBinaryColumnTransformer(
@@ -33,6 +40,29 @@ public abstract class CompareBinaryColumnTransformer extends BinaryColumnTransfo
     super(returnType, leftTransformer, rightTransformer);
   }
 
+  @Override
+  protected Column transformColumn(Column leftColumn, Column rightColumn, int positionCount) {
+    if (!leftTransformer.isReturnTypeNumeric() || !rightTransformer.isReturnTypeNumeric()) {
+      return super.transformColumn(leftColumn, rightColumn, positionCount);
+    }
+    double[] left = getDoubles(leftColumn, positionCount);
+    double[] right = getDoubles(rightColumn, positionCount);
+    boolean[] values = new boolean[positionCount];
+    transform(left, right, values, positionCount);
+    if (isFloatingPoint(leftColumn) || isFloatingPoint(rightColumn)) {
+      // NaN is not comparable
+      for (int i = 0; i < positionCount; i++) {
+        if (Double.isNaN(left[i]) || Double.isNaN(right[i])) {
+          values[i] = false;
+        }
+      }
+    }
+    return new BooleanColumn(
+        positionCount,
+        Optional.ofNullable(getEitherNulls(leftColumn, rightColumn, positionCount)),
+        values);
+  }
+
   @Override
   protected void doTransform(
       Column leftColumn, Column rightColumn, ColumnBuilder builder, int positionCount) {
@@ -88,4 +118,11 @@ public abstract class CompareBinaryColumnTransformer extends BinaryColumnTransfo
    * @return
    */
   protected abstract boolean transform(int flag);
+
+  /**
+   * Compare the numeric values at all the positions, the ones at null positions are ignored.
+   * Implemented by each subclass so that the loop can be inlined.
+   */
+  protected abstract void transform(
+      double[] left, double[] right, boolean[] result, int positionCount);
 }
@@ -44,4 +44,11 @@ public class CompareNonEqualColumnTransformer extends CompareBinaryColumnTransfo
   protected boolean transform(int flag) {
     return flag != 0;
   }
+
+  @Override
+  protected void transform(double[] left, double[] right, boolean[] result, int positionCount) {
+    for (int i = 0; i < positionCount; i++) {
+      result[i] = compare(left[i], right[i]) != 0;
+    }
+  }
 }
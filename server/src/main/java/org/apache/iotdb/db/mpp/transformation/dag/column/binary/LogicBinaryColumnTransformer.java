@@ -20,17 +20,38 @@
 package org.apache.iotdb.db.mpp.transformation.dag.column.binary;
 
 import org.apache.iotdb.db.mpp.transformation.dag.column.ColumnTransformer;
+import org.apache.iotdb.tsfile.read.common.block.column.BooleanColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
 import org.apache.iotdb.tsfile.read.common.type.Type;
 import org.apache.iotdb.tsfile.read.common.type.TypeEnum;
 
+import java.util.Optional;
+
+import static org.apache.iotdb.db.mpp.transformation.dag.util.PrimitiveColumnUtils.getBooleans;
+import static org.apache.iotdb.db.mpp.transformation.dag.util.PrimitiveColumnUtils.getBothNulls;
+
 public abstract class LogicBinaryColumnTransformer extends BinaryColumnTransformer {
   public LogicBinaryColumnTransformer(
       Type returnType, ColumnTransformer leftTransformer, ColumnTransformer rightTransformer) {
     super(returnType, leftTransformer, rightTransformer);
   }
 
+  @Override
+  protected Column transformColumn(Column leftColumn, Column rightColumn, int positionCount) {
+    // null is regarded as false unless both sides are null, the same as doTransform
+    boolean[] values = new boolean[positionCount];
+    transform(
+        getBooleans(leftColumn, positionCount),
+        getBooleans(rightColumn, positionCount),
+        values,
+        positionCount);
+    return new BooleanColumn(
+        positionCount,
+        Optional.ofNullable(getBothNulls(leftColumn, rightColumn, positionCount)),
+        values);
+  }
+
   @Override
   protected void doTransform(
       Column leftColumn, Column rightColumn, ColumnBuilder builder, int positionCount) {
@@ -62,4 +83,11 @@ public abstract class LogicBinaryColumnTransformer extends BinaryColumnTransform
   }
 
   protected abstract boolean transform(boolean left, boolean right);
+
+  /**
+   * Calculate the values at all the positions, in which null is regarded as false. Implemented by
+   * each subclass so that the loop can be vectorized.
+   */
+  protected abstract void transform(
+      boolean[] left, boolean[] right, boolean[] result, int positionCount);
 }
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.mpp.transformation.dag.util;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+
+/**
+ * Reads columns into primitive arrays starting at index 0, so that the column transformers can
+ * calculate in simple loops over arrays, which can be vectorized by JIT, instead of calling {@link
+ * org.apache.iotdb.tsfile.read.common.type.Type} and {@link
+ * org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder} for each value.
+ */
+public class PrimitiveColumnUtils {
+
+  private PrimitiveColumnUtils() {}
+
+  public static boolean isFloatingPoint(Column column) {
+    return column.getDataType() == TSDataType.FLOAT || column.getDataType() == TSDataType.DOUBLE;
+  }
+
+  /**
+   * @return the values of a numeric column as doubles, the ones at null positions are undefined.
+   *     The array may be the one of the column, so it must not be modified.
+   */
+  public static double[] getDoubles(Column column, int positionCount) {
+    int offset = column.getArrayOffset();
+    switch (column.getDataType()) {
+      case INT32:
+        return intsToDoubles(column.getInts(), offset, positionCount);
+      case INT64:
+        return longsToDoubles(column.getLongs(), offset, positionCount);
+      case FLOAT:
+        return floatsToDoubles(column.getFloats(), offset, positionCount);
+      case DOUBLE:
+        double[] doubles = column.getDoubles();
+        if (offset == 0) {
+          return doubles;
+        }
+        double[] result = new double[positionCount];
+        System.arraycopy(doubles, offset, result, 0, positionCount);
+        return result;
+      default:
+        throw new UnsupportedOperationException("Unsupported Type: " + column.getDataType());
+    }
+  }
+
+  /**
+   * @return the values of a boolean column, the ones at null positions are false. The array is
+   *     always a new one.
+   */
+  public static boolean[] getBooleans(Column column, int positionCount) {
+    boolean[] values = column.getBooleans();
+    int offset = column.getArrayOffset();
+    boolean[] result = new boolean[positionCount];
+    System.arraycopy(values, offset, result, 0, positionCount);
+    if (column.mayHaveNull()) {
+      boolean[] isNull = column.isNull();
+      for (int i = 0; i < positionCount; i++) {
+        result[i] &= !isNull[offset + i];
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return whether each position of the column is null, or null if the column has no null. The
+   *     array is always a new one.
+   */
+  public static boolean[] getNulls(Column column, int positionCount) {
+    if (!column.mayHaveNull()) {
+      return null;
+    }
+    boolean[] result = new boolean[positionCount];
+    System.arraycopy(column.isNull(), column.getArrayOffset(), result, 0, positionCount);
+    return result;
+  }
+
+  /**
+   * @return whether either of the columns is null at each position, or null if neither of them has
+   *     null
+   */
+  public static boolean[] getEitherNulls(Column left, Column right, int positionCount) {
+    boolean[] leftNulls = getNulls(left, positionCount);
+    boolean[] rightNulls = getNulls(right, positionCount);
+    if (leftNulls == null) {
+      return rightNulls;
+    }
+    if (rightNulls != null) {
+      for (int i = 0; i < positionCount; i++) {
+        leftNulls[i] |= rightNulls[i];
+      }
+    }
+    return leftNulls;
+  }
+
+  /**
+   * @return whether both of the columns are null at each position, or null if either of them has no
+   *     null
+   */
+  public static boolean[] getBothNulls(Column left, Column right, int positionCount) {
+    boolean[] leftNulls = getNulls(left, positionCount);
+    if (leftNulls == null) {
+      return null;
+    }
+    boolean[] rightNulls = getNulls(right, positionCount);
+    if (rightNulls == null) {
+      return null;
+    }
+    for (int i = 0; i < positionCount; i++) {
+      leftNulls[i] &= rightNulls[i];
+    }
+    return leftNulls;
+  }
+
+  private static double[] intsToDoubles(int[] values, int offset, int positionCount) {
+    double[] result = new double[positionCount];
+    for (int i = 0; i < positionCount; i++) {
+      result[i] = values[offset + i];
+    }
+    return result;
+  }
+
+  private static double[] longsToDoubles(long[] values, int offset, int positionCount) {
+    double[] result = new double[positionCount];
+    for (int i = 0; i < positionCount; i++) {
+      result[i] = values[offset + i];
+    }
+    return result;
+  }
+
+  private static double[] floatsToDoubles(float[] values, int offset, int positionCount) {
+    double[] result = new double[positionCount];
+    for (int i = 0; i < positionCount; i++) {
+      result[i] = values[offset + i];
+    }
+    return result;
+  }
+}
@@ -42,6 +42,8 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.StorageEngine;
 import org.apache.iotdb.db.engine.cache.BloomFilterCache;
 import org.apache.iotdb.db.engine.cache.ChunkCache;
+import org.apache.iotdb.db.engine.cache.PageCache;
+import org.apache.iotdb.db.engine.cache.PageIndexCache;
 import org.apache.iotdb.db.engine.cache.TimeSeriesMetadataCache;
 import org.apache.iotdb.db.engine.cq.ContinuousQueryService;
 import org.apache.iotdb.db.engine.flush.pool.FlushTaskPoolManager;
@@ -547,6 +549,8 @@ public class PlanExecutor implements IPlanExecutor {
 
   public static void operateClearCache() {
     ChunkCache.getInstance().clear();
+    PageCache.getInstance().clear();
+    PageIndexCache.getInstance().clear();
     TimeSeriesMetadataCache.getInstance().clear();
     BloomFilterCache.getInstance().clear();
   }
@@ -18,20 +18,33 @@
  */
 package org.apache.iotdb.db.query.control;
 
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.utils.MmapUtil;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.iotdb.tsfile.fileSystem.FSType;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.UnClosedTsFileReader;
+import org.apache.iotdb.tsfile.read.reader.MmapTsFileInput;
+import org.apache.iotdb.tsfile.read.reader.TsFileInput;
 import org.apache.iotdb.tsfile.v2.read.TsFileSequenceReaderForV2;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Paths;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * FileReaderManager is a singleton, which is used to manage all file readers(opened file streams)
@@ -74,6 +87,12 @@ public class FileReaderManager {
    */
   private Map<String, AtomicInteger> unclosedReferenceMap;
 
+  /**
+   * the total size of the regions of sealed TsFiles that are still memory-mapped. It is decreased
+   * only after a region is unmapped, which is when its reader is closed and no read is in flight.
+   */
+  private final AtomicLong totalMappedSize = new AtomicLong(0);
+
   private FileReaderManager() {
     closedFileReaderMap = new ConcurrentHashMap<>();
     unclosedFileReaderMap = new ConcurrentHashMap<>();
@@ -126,7 +145,7 @@ public class FileReaderManager {
       if (!isClosed) {
         tsFileReader = new UnClosedTsFileReader(filePath);
       } else {
-        tsFileReader = new TsFileSequenceReader(filePath);
+        tsFileReader = new TsFileSequenceReader(getClosedFileInput(filePath));
         if (tsFileReader.readVersionNumber() != TSFileConfig.VERSION_NUMBER) {
           tsFileReader.close();
           tsFileReader = new TsFileSequenceReaderForV2(filePath);
@@ -144,6 +163,30 @@ public class FileReaderManager {
     return readerMap.get(filePath);
   }
 
+  /**
+   * Get the input of a sealed TsFile. It is memory-mapped if mmap read is enabled and the total
+   * mapped size does not exceed the limit after mapping it; otherwise a normal input is returned.
+   * Only called by {@link #get(String, boolean)} under the lock of this, so that the limit holds.
+   */
+  private TsFileInput getClosedFileInput(String filePath) throws IOException {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    if (config.isEnableTsFileMmapRead()
+        && TSFileDescriptor.getInstance().getConfig().getTSFileStorageFs() == FSType.LOCAL) {
+      long fileSize = new File(filePath).length();
+      if (totalMappedSize.get() + fileSize <= config.getMaxTsFileMmapSizeInByte()) {
+        TsFileInput input = new MmapTsFileInput(Paths.get(filePath), this::unmap);
+        totalMappedSize.addAndGet(input.size());
+        return input;
+      }
+    }
+    return FSFactoryProducer.getFileInputFactory().getTsFileInput(filePath);
+  }
+
+  private void unmap(MappedByteBuffer region) {
+    MmapUtil.clean(region);
+    totalMappedSize.addAndGet(-region.capacity());
+  }
+
   /**
    * Increase the reference count of the reader specified by filePath. Only when the reference count
    * of a reader equals zero, the reader can be closed and removed.
@@ -242,6 +285,11 @@ public class FileReaderManager {
         || (!isClosed && unclosedFileReaderMap.containsKey(tsFile.getTsFilePath()));
   }
 
+  @TestOnly
+  public long getTotalMappedSize() {
+    return totalMappedSize.get();
+  }
+
   public synchronized void writeFileReferenceInfo() {
     DEBUG_LOGGER.info("[closedReferenceMap]\n");
     for (Map.Entry<String, AtomicInteger> entry : closedReferenceMap.entrySet()) {
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.query.reader.chunk;
+
+import org.apache.iotdb.db.engine.cache.PageCache;
+import org.apache.iotdb.db.engine.cache.PageCache.PageCacheKey;
+import org.apache.iotdb.tsfile.file.MetaMarker;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.reader.IChunkReader;
+import org.apache.iotdb.tsfile.read.reader.IPageReader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * To read one chunk from disk whose pages are decoded through {@link PageCache}, only used in iotdb
+ * server module. Unlike ChunkReader, the page body is not uncompressed when constructing the page
+ * reader, but lazily when its data is needed and is not in PageCache.
+ */
+public class CachedChunkReader implements IChunkReader {
+
+  private final ChunkHeader chunkHeader;
+  private final ByteBuffer chunkDataBuffer;
+  private final Filter filter;
+
+  private final List<IPageReader> pageReaderList = new LinkedList<>();
+
+  /** A list of deleted intervals. */
+  private final List<TimeRange> deleteIntervalList;
+
+  public CachedChunkReader(ChunkMetadata chunkMetadata, Chunk chunk, Filter filter)
+      throws IOException {
+    this.filter = filter;
+    this.chunkDataBuffer = chunk.getData();
+    this.deleteIntervalList = chunk.getDeleteIntervalList();
+    this.chunkHeader = chunk.getHeader();
+    initAllPageReaders(chunkMetadata, chunk);
+  }
+
+  private void initAllPageReaders(ChunkMetadata chunkMetadata, Chunk chunk) throws IOException {
+    int pageIndex = 0;
+    while (chunkDataBuffer.remaining() > 0) {
+      PageHeader pageHeader;
+      if (((byte) (chunkHeader.getChunkType() & 0x3F)) == MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER) {
+        pageHeader = PageHeader.deserializeFrom(chunkDataBuffer, chunk.getChunkStatistic());
+      } else {
+        pageHeader = PageHeader.deserializeFrom(chunkDataBuffer, chunkHeader.getDataType());
+      }
+      int compressedPageBodyLength = pageHeader.getCompressedSize();
+      // doesn't has a complete page body
+      if (compressedPageBodyLength > chunkDataBuffer.remaining()) {
+        throw new IOException(
+            "do not has a complete page body. Expected:"
+                + compressedPageBodyLength
+                + ". Actual:"
+                + chunkDataBuffer.remaining());
+      }
+      if (pageSatisfied(pageHeader)) {
+        ByteBuffer compressedPageBody = chunkDataBuffer.slice();
+        compressedPageBody.limit(compressedPageBodyLength);
+        CachedPageReader pageReader =
+            new CachedPageReader(
+                new PageCacheKey(
+                    chunkMetadata.getFilePath(), chunkMetadata.getOffsetOfChunkHeader(), pageIndex),
+                pageHeader,
+                chunkHeader,
+                compressedPageBody,
+                filter);
+        pageReader.setDeleteIntervalList(deleteIntervalList);
+        pageReaderList.add(pageReader);
+      }
+      chunkDataBuffer.position(chunkDataBuffer.position() + compressedPageBodyLength);
+      pageIndex++;
+    }
+  }
+
+  private boolean pageSatisfied(PageHeader pageHeader) {
+    if (deleteIntervalList != null) {
+      for (TimeRange range : deleteIntervalList) {
+        if (range.contains(pageHeader.getStartTime(), pageHeader.getEndTime())) {
+          return false;
+        }
+        if (range.overlaps(new TimeRange(pageHeader.getStartTime(), pageHeader.getEndTime()))) {
+          pageHeader.setModified(true);
+        }
+      }
+    }
+    return filter == null || filter.satisfy(pageHeader.getStatistics());
+  }
+
+  @Override
+  public boolean hasNextSatisfiedPage() {
+    return !pageReaderList.isEmpty();
+  }
+
+  @Override
+  public BatchData nextPageData() throws IOException {
+    if (pageReaderList.isEmpty()) {
+      throw new IOException("No more page");
+    }
+    return pageReaderList.remove(0).getAllSatisfiedPageData();
+  }
+
+  @Override
+  public void close() {
+    // do nothing
+  }
+
+  @Override
+  public List<IPageReader> loadPageReaderList() {
+    return pageReaderList;
+  }
+}
@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.query.reader.chunk;
+
+import org.apache.iotdb.db.engine.cache.PageCache;
+import org.apache.iotdb.db.engine.cache.PageCache.PageCacheKey;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.BatchDataFactory;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.operator.AndFilter;
+import org.apache.iotdb.tsfile.read.reader.IPageReader;
+import org.apache.iotdb.tsfile.read.reader.page.PageReader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * To read one page of a disk chunk through {@link PageCache}. The page body is only uncompressed
+ * and decoded when it is not cached yet, and the decoded page is shared by all queries; filter and
+ * deletions are applied on the cached TsBlock.
+ */
+public class CachedPageReader implements IPageReader {
+
+  private final PageCacheKey pageCacheKey;
+
+  private final PageHeader pageHeader;
+
+  private final ChunkHeader chunkHeader;
+
+  /** loads the compressed page body, only used when the page is not cached */
+  private final PageBodyLoader compressedPageBodyLoader;
+
+  private Filter filter;
+
+  /** A list of deleted intervals. */
+  private List<TimeRange> deleteIntervalList;
+
+  private int deleteCursor = 0;
+
+  public CachedPageReader(
+      PageCacheKey pageCacheKey,
+      PageHeader pageHeader,
+      ChunkHeader chunkHeader,
+      ByteBuffer compressedPageBody,
+      Filter filter) {
+    this(pageCacheKey, pageHeader, chunkHeader, compressedPageBody::duplicate, filter);
+  }
+
+  public CachedPageReader(
+      PageCacheKey pageCacheKey,
+      PageHeader pageHeader,
+      ChunkHeader chunkHeader,
+      PageBodyLoader compressedPageBodyLoader,
+      Filter filter) {
+    this.pageCacheKey = pageCacheKey;
+    this.pageHeader = pageHeader;
+    this.chunkHeader = chunkHeader;
+    this.compressedPageBodyLoader = compressedPageBodyLoader;
+    this.filter = filter;
+  }
+
+  /** uncompress and decode all points of the page, without filter and deletions */
+  private TsBlock decodePage() throws IOException {
+    IUnCompressor unCompressor = IUnCompressor.getUnCompressor(chunkHeader.getCompressionType());
+    byte[] uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
+    ByteBuffer compressedPage = compressedPageBodyLoader.load();
+    byte[] compressedPageData = new byte[compressedPage.remaining()];
+    compressedPage.get(compressedPageData);
+    try {
+      unCompressor.uncompress(
+          compressedPageData, 0, compressedPageData.length, uncompressedPageData, 0);
+    } catch (Exception e) {
+      throw new IOException(
+          "Uncompress error! uncompress size: "
+              + pageHeader.getUncompressedSize()
+              + "compressed size: "
+              + pageHeader.getCompressedSize()
+              + "page header: "
+              + pageHeader
+              + e.getMessage());
+    }
+    Decoder valueDecoder =
+        Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
+    Decoder timeDecoder =
+        Decoder.getDecoderByType(
+            TSEncoding.valueOf(TSFileDescriptor.getInstance().getConfig().getTimeEncoder()),
+            TSDataType.INT64);
+    return new PageReader(
+            pageHeader,
+            ByteBuffer.wrap(uncompressedPageData),
+            chunkHeader.getDataType(),
+            valueDecoder,
+            timeDecoder,
+            null)
+        .getAllSatisfiedData();
+  }
+
+  @Override
+  public BatchData getAllSatisfiedPageData(boolean ascending) throws IOException {
+    BatchData pageData =
+        BatchDataFactory.createBatchData(chunkHeader.getDataType(), ascending, false);
+    if (filter == null || filter.satisfy(getStatistics())) {
+      TsBlock page = PageCache.getInstance().get(pageCacheKey, this::decodePage);
+      TimeColumn timeColumn = page.getTimeColumn();
+      Column valueColumn = page.getColumn(0);
+      for (int i = 0, size = page.getPositionCount(); i < size; i++) {
+        long timestamp = timeColumn.getLong(i);
+        Object value = valueColumn.getObject(i);
+        if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, value))) {
+          pageData.putAnObject(timestamp, value);
+        }
+      }
+    }
+    return pageData.flip();
+  }
+
+  @Override
+  public TsBlock getAllSatisfiedData() throws IOException {
+    TsBlockBuilder builder =
+        new TsBlockBuilder(Collections.singletonList(chunkHeader.getDataType()));
+    if (filter != null && !filter.satisfy(getStatistics())) {
+      return builder.build();
+    }
+    // the cached page is shared and the returned TsBlock may be modified in place (e.g., reversed
+    // in descending scan), so the satisfied points are always copied out
+    TsBlock page = PageCache.getInstance().get(pageCacheKey, this::decodePage);
+    TimeColumnBuilder timeBuilder = builder.getTimeColumnBuilder();
+    ColumnBuilder valueBuilder = builder.getColumnBuilder(0);
+    TimeColumn timeColumn = page.getTimeColumn();
+    Column valueColumn = page.getColumn(0);
+    for (int i = 0, size = page.getPositionCount(); i < size; i++) {
+      long timestamp = timeColumn.getLong(i);
+      if (!isDeleted(timestamp)
+          && (filter == null || filter.satisfy(timestamp, valueColumn.getObject(i)))) {
+        timeBuilder.writeLong(timestamp);
+        valueBuilder.write(valueColumn, i);
+        builder.declarePosition();
+      }
+    }
+    return builder.build();
+  }
+
+  @Override
+  public Statistics getStatistics() {
+    return pageHeader.getStatistics();
+  }
+
+  @Override
+  public void setFilter(Filter filter) {
+    if (this.filter == null) {
+      this.filter = filter;
+    } else {
+      this.filter = new AndFilter(this.filter, filter);
+    }
+  }
+
+  public void setDeleteIntervalList(List<TimeRange> list) {
+    this.deleteIntervalList = list;
+  }
+
+  @Override
+  public boolean isModified() {
+    return pageHeader.isModified();
+  }
+
+  @Override
+  public void initTsBlockBuilder(List<TSDataType> dataTypes) {}
+
+  private boolean isDeleted(long timestamp) {
+    while (deleteIntervalList != null && deleteCursor < deleteIntervalList.size()) {
+      if (deleteIntervalList.get(deleteCursor).contains(timestamp)) {
+        return true;
+      } else if (deleteIntervalList.get(deleteCursor).getMax() < timestamp) {
+        deleteCursor++;
+      } else {
+        return false;
+      }
+    }
+    return false;
+  }
+
+  @FunctionalInterface
+  public interface PageBodyLoader {
+
+    ByteBuffer load() throws IOException;
+  }
+}
@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.query.reader.chunk;
 
 import org.apache.iotdb.db.engine.cache.ChunkCache;
+import org.apache.iotdb.db.engine.cache.PageCache;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 import org.apache.iotdb.tsfile.read.common.Chunk;
@@ -54,6 +55,9 @@ public class DiskChunkLoader implements IChunkLoader {
       throws IOException {
     Chunk chunk = ChunkCache.getInstance().get((ChunkMetadata) chunkMetaData, debug);
     chunk.setFromOldFile(chunkMetaData.isFromOldTsFile());
+    if (PageCache.getInstance().isEnabled() && !chunk.isFromOldFile()) {
+      return new CachedChunkReader((ChunkMetadata) chunkMetaData, chunk, timeFilter);
+    }
     return new ChunkReader(chunk, timeFilter);
   }
 }
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.reader.chunk;
+
+import org.apache.iotdb.db.engine.cache.PageCache.PageCacheKey;
+import org.apache.iotdb.db.engine.cache.PageIndexCache;
+import org.apache.iotdb.db.engine.cache.TsFilePageIndex.ChunkPageIndex;
+import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.reader.IChunkReader;
+import org.apache.iotdb.tsfile.read.reader.IPageReader;
+
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * To read one chunk from disk by its page index in {@link PageIndexCache}, only used in iotdb
+ * server module. The chunk data is not loaded; the body of a page is read from the TsFile only when
+ * its data is needed, so that pages answered by their statistics cost no IO.
+ */
+public class IndexedChunkReader implements IChunkReader {
+
+  private final Filter filter;
+
+  private final List<IPageReader> pageReaderList = new LinkedList<>();
+
+  /** A list of deleted intervals. */
+  private final List<TimeRange> deleteIntervalList;
+
+  public IndexedChunkReader(
+      ChunkMetadata chunkMetadata, ChunkPageIndex chunkPageIndex, Filter filter) {
+    this.filter = filter;
+    this.deleteIntervalList = chunkMetadata.getDeleteIntervalList();
+    initAllPageReaders(chunkMetadata, chunkPageIndex);
+  }
+
+  private void initAllPageReaders(ChunkMetadata chunkMetadata, ChunkPageIndex chunkPageIndex) {
+    String filePath = chunkMetadata.getFilePath();
+    ChunkHeader chunkHeader =
+        new ChunkHeader(
+            chunkMetadata.getMeasurementUid(),
+            0,
+            chunkPageIndex.getDataType(),
+            chunkPageIndex.getCompressionType(),
+            chunkPageIndex.getEncoding(),
+            chunkPageIndex.getPageNum());
+    for (int pageIndex = 0; pageIndex < chunkPageIndex.getPageNum(); pageIndex++) {
+      PageHeader pageHeader = chunkPageIndex.getPageHeader(pageIndex);
+      if (pageSatisfied(pageHeader)) {
+        long pageDataOffset = chunkPageIndex.getPageDataOffset(pageIndex);
+        int compressedSize = pageHeader.getCompressedSize();
+        CachedPageReader pageReader =
+            new CachedPageReader(
+                new PageCacheKey(filePath, chunkMetadata.getOffsetOfChunkHeader(), pageIndex),
+                pageHeader,
+                chunkHeader,
+                () ->
+                    FileReaderManager.getInstance()
+                        .get(filePath, true)
+                        .readCompressedPage(pageDataOffset, compressedSize),
+                filter);
+        pageReader.setDeleteIntervalList(deleteIntervalList);
+        pageReaderList.add(pageReader);
+      }
+    }
+  }
+
+  private boolean pageSatisfied(PageHeader pageHeader) {
+    if (deleteIntervalList != null) {
+      for (TimeRange range : deleteIntervalList) {
+        if (range.contains(pageHeader.getStartTime(), pageHeader.getEndTime())) {
+          return false;
+        }
+        if (range.overlaps(new TimeRange(pageHeader.getStartTime(), pageHeader.getEndTime()))) {
+          pageHeader.setModified(true);
+        }
+      }
+    }
+    return filter == null || filter.satisfy(pageHeader.getStatistics());
+  }
+
+  @Override
+  public boolean hasNextSatisfiedPage() {
+    return !pageReaderList.isEmpty();
+  }
+
+  @Override
+  public BatchData nextPageData() throws IOException {
+    if (pageReaderList.isEmpty()) {
+      throw new IOException("No more page");
+    }
+    return pageReaderList.remove(0).getAllSatisfiedPageData();
+  }
+
+  @Override
+  public void close() {
+    // do nothing
+  }
+
+  @Override
+  public List<IPageReader> loadPageReaderList() {
+    return pageReaderList;
+  }
+}
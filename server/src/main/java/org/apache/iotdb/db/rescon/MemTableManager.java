@@ -43,16 +43,21 @@ public class MemTableManager {
     return InstanceHolder.INSTANCE;
   }
 
-  public synchronized IMemTable getAvailableMemTable(String storageGroup)
+  /**
+   * Get a new memtable for the storage group.
+   *
+   * @param offHeap whether the memtable keeps data points in off-heap memory
+   */
+  public synchronized IMemTable getAvailableMemTable(String storageGroup, boolean offHeap)
       throws WriteProcessException {
     if (CONFIG.isEnableMemControl()) {
       currentMemtableNumber++;
-      return new PrimitiveMemTable(CONFIG.isEnableMemControl());
+      return new PrimitiveMemTable(CONFIG.isEnableMemControl(), offHeap);
     }
 
     if (!reachMaxMemtableNumber()) {
       currentMemtableNumber++;
-      return new PrimitiveMemTable();
+      return new PrimitiveMemTable(false, offHeap);
     }
 
     // wait until the total number of memtable is less than the system capacity
@@ -60,7 +65,7 @@ public class MemTableManager {
     while (true) {
       if (!reachMaxMemtableNumber()) {
         currentMemtableNumber++;
-        return new PrimitiveMemTable();
+        return new PrimitiveMemTable(false, offHeap);
       }
       try {
         wait(WAIT_TIME);
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.rescon;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+
+import io.netty.util.internal.PlatformDependent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Direct memory budget of off-heap memtables. It is separated from the heap memory of write in
+ * {@link SystemInfo}, and is a proportion of the max direct memory of the JVM, so that off-heap
+ * memtables never run into -XX:MaxDirectMemorySize.
+ *
+ * <p>The owner of off-heap memory, e.g., an OffHeapTVList, registers a {@link Reservation} and
+ * records every allocation and explicit release in it. Memory of an owner which is left to GC,
+ * e.g., a TVList still referenced by queries, is returned to the budget once the owner has been
+ * collected.
+ */
+public class OffHeapMemoryManager {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+  private static final Logger logger = LoggerFactory.getLogger(OffHeapMemoryManager.class);
+
+  private volatile long totalMemory;
+  private final AtomicLong usedMemory = new AtomicLong(0L);
+
+  // keep the reservations reachable until their owners are collected
+  private final Set<Reservation> reservations = ConcurrentHashMap.newKeySet();
+  private final ReferenceQueue<Object> collectedOwners = new ReferenceQueue<>();
+
+  private OffHeapMemoryManager() {
+    totalMemory =
+        (long) (PlatformDependent.maxDirectMemory() * CONFIG.getOffHeapMemTableMemoryProportion());
+    logger.info("Off-heap memory for memtables: {} bytes", totalMemory);
+  }
+
+  public static OffHeapMemoryManager getInstance() {
+    return InstanceHolder.INSTANCE;
+  }
+
+  /** register an owner of off-heap memory, the returned reservation records its memory */
+  public Reservation register(Object owner) {
+    Reservation reservation = new Reservation(owner);
+    reservations.add(reservation);
+    return reservation;
+  }
+
+  /** whether size bytes can be allocated without exceeding the budget */
+  public boolean isAvailable(long size) {
+    releaseCollectedOwners();
+    return usedMemory.get() + size <= totalMemory;
+  }
+
+  public long getUsedMemory() {
+    releaseCollectedOwners();
+    return usedMemory.get();
+  }
+
+  public long getTotalMemory() {
+    return totalMemory;
+  }
+
+  @TestOnly
+  public void setTotalMemory(long totalMemory) {
+    this.totalMemory = totalMemory;
+  }
+
+  private void releaseCollectedOwners() {
+    Reference<?> reference;
+    while ((reference = collectedOwners.poll()) != null) {
+      ((Reservation) reference).close();
+    }
+  }
+
+  /** off-heap memory of one owner, it does not keep the owner reachable */
+  public class Reservation extends PhantomReference<Object> {
+
+    private final AtomicLong allocatedMemory = new AtomicLong(0L);
+
+    private Reservation(Object owner) {
+      super(owner, collectedOwners);
+    }
+
+    public void allocate(long size) {
+      releaseCollectedOwners();
+      allocatedMemory.addAndGet(size);
+      usedMemory.addAndGet(size);
+    }
+
+    public void release(long size) {
+      allocatedMemory.addAndGet(-size);
+      usedMemory.addAndGet(-size);
+    }
+
+    public long getAllocatedMemory() {
+      return allocatedMemory.get();
+    }
+
+    private void close() {
+      reservations.remove(this);
+      usedMemory.addAndGet(-allocatedMemory.getAndSet(0L));
+    }
+  }
+
+  private static class InstanceHolder {
+
+    private static final OffHeapMemoryManager INSTANCE = new OffHeapMemoryManager();
+
+    private InstanceHolder() {}
+  }
+}
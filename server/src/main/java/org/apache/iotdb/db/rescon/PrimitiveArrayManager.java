@@ -278,41 +278,55 @@ public class PrimitiveArrayManager {
    * @return an array of primitive data arrays
    */
   public static Object createDataListsByType(TSDataType dataType, int size) {
+    return createDataListsByType(dataType, 0, size);
+  }
+
+  /**
+   * Get primitive data lists according to data type and size, only for TVList's sorting. Only the
+   * arrays holding rows in [start, size) are allocated, the arrays before them are null.
+   *
+   * @param dataType data type
+   * @param start the first row to hold
+   * @param size needed capacity
+   * @return an array of primitive data arrays
+   */
+  public static Object createDataListsByType(TSDataType dataType, int start, int size) {
     int arrayNumber = getArrayRowCount(size);
+    int firstArray = start / ARRAY_SIZE;
     switch (dataType) {
       case BOOLEAN:
         boolean[][] booleans = new boolean[arrayNumber][];
-        for (int i = 0; i < arrayNumber; i++) {
+        for (int i = firstArray; i < arrayNumber; i++) {
           booleans[i] = new boolean[ARRAY_SIZE];
         }
         return booleans;
       case INT32:
         int[][] ints = new int[arrayNumber][];
-        for (int i = 0; i < arrayNumber; i++) {
+        for (int i = firstArray; i < arrayNumber; i++) {
           ints[i] = new int[ARRAY_SIZE];
         }
         return ints;
       case INT64:
         long[][] longs = new long[arrayNumber][];
-        for (int i = 0; i < arrayNumber; i++) {
+        for (int i = firstArray; i < arrayNumber; i++) {
           longs[i] = new long[ARRAY_SIZE];
         }
         return longs;
       case FLOAT:
         float[][] floats = new float[arrayNumber][];
-        for (int i = 0; i < arrayNumber; i++) {
+        for (int i = firstArray; i < arrayNumber; i++) {
           floats[i] = new float[ARRAY_SIZE];
         }
         return floats;
       case DOUBLE:
         double[][] doubles = new double[arrayNumber][];
-        for (int i = 0; i < arrayNumber; i++) {
+        for (int i = firstArray; i < arrayNumber; i++) {
           doubles[i] = new double[ARRAY_SIZE];
         }
         return doubles;
       case TEXT:
         Binary[][] binaries = new Binary[arrayNumber][];
-        for (int i = 0; i < arrayNumber; i++) {
+        for (int i = firstArray; i < arrayNumber; i++) {
           binaries[i] = new Binary[ARRAY_SIZE];
         }
         return binaries;
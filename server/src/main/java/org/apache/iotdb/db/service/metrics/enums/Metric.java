@@ -28,10 +28,14 @@ public enum Metric {
   MEM,
   CACHE,
   CACHE_HIT,
+  CHUNK_PREFETCH,
+  ANALYSIS_COST_SAVED,
   ERROR_LOG,
   QUANTITY,
   DATA_WRITTEN,
   DATA_READ,
+  DATA_EXCHANGED,
+  DRIVER_SCHEDULE,
   COMPACTION_TASK_COUNT,
   CLUSTER_NODE_STATUS,
   CLUSTER_NODE_LEADER_COUNT,
@@ -60,6 +64,8 @@ public enum Metric {
   STORAGE_GROUP,
   REGION,
   SLOT,
+  WAL_GROUP_COMMIT,
+  FLUSH_THROUGHPUT,
   THRIFT_CONNECTIONS,
   THRIFT_ACTIVE_THREADS;
 
@@ -61,6 +61,7 @@ import org.apache.iotdb.db.service.basic.BasicOpenSessionResp;
 import org.apache.iotdb.db.service.metrics.MetricService;
 import org.apache.iotdb.db.service.metrics.enums.Operation;
 import org.apache.iotdb.db.sync.SyncService;
+import org.apache.iotdb.db.utils.ArrowQueryDataSetUtils;
 import org.apache.iotdb.db.utils.QueryDataSetUtils;
 import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
 import org.apache.iotdb.metrics.utils.MetricLevel;
@@ -581,8 +582,14 @@ public class ClientRPCServiceImpl implements IClientRPCServiceWithHandler {
         if (queryExecution != null && queryExecution.isQuery()) {
           resp = createResponse(queryExecution.getDatasetHeader(), queryId);
           resp.setStatus(result.status);
-          resp.setQueryDataSet(
-              QueryDataSetUtils.convertTsBlockByFetchSize(queryExecution, req.fetchSize));
+          if (req.isArrowFormat()) {
+            resp.setArrowBatches(
+                ArrowQueryDataSetUtils.convertTsBlocksToArrowBatches(
+                    queryExecution, req.fetchSize));
+          } else {
+            resp.setQueryDataSet(
+                QueryDataSetUtils.convertTsBlockByFetchSize(queryExecution, req.fetchSize));
+          }
         } else {
           resp = RpcUtils.getTSExecuteStatementResp(result.status);
         }
@@ -683,12 +690,20 @@ public class ClientRPCServiceImpl implements IClientRPCServiceWithHandler {
       IQueryExecution queryExecution = COORDINATOR.getQueryExecution(req.queryId);
       try (SetThreadName queryName = new SetThreadName(queryExecution.getQueryId())) {
 
-        TSQueryDataSet result =
-            QueryDataSetUtils.convertTsBlockByFetchSize(queryExecution, req.fetchSize);
-        boolean hasResultSet = result.bufferForTime().limit() != 0;
+        boolean hasResultSet;
+        if (req.isArrowFormat()) {
+          List<ByteBuffer> arrowBatches =
+              ArrowQueryDataSetUtils.convertTsBlocksToArrowBatches(queryExecution, req.fetchSize);
+          hasResultSet = !arrowBatches.isEmpty();
+          resp.setArrowBatches(arrowBatches);
+        } else {
+          TSQueryDataSet result =
+              QueryDataSetUtils.convertTsBlockByFetchSize(queryExecution, req.fetchSize);
+          hasResultSet = result.bufferForTime().limit() != 0;
+          resp.setQueryDataSet(result);
+        }
 
         resp.setHasResultSet(hasResultSet);
-        resp.setQueryDataSet(result);
         resp.setIsAlign(true);
 
         QUERY_TIME_MANAGER.unRegisterQuery(req.queryId, false);
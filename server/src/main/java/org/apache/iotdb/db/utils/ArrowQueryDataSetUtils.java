@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils;
+
+import org.apache.iotdb.commons.exception.IoTDBException;
+import org.apache.iotdb.db.mpp.common.header.ColumnHeader;
+import org.apache.iotdb.db.mpp.common.header.DatasetHeader;
+import org.apache.iotdb.db.mpp.plan.execution.IQueryExecution;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Convert the query results from TsBlocks to Apache Arrow record batches. Each TsBlock becomes a
+ * record batch, written as a complete Arrow IPC stream with the schema, so that every batch can be
+ * read on its own. The schema has a "Time" column of INT64, unless the timestamps are ignored,
+ * followed by the response columns of the dataset header in order.
+ */
+public class ArrowQueryDataSetUtils {
+
+  public static final String TIME_COLUMN_NAME = "Time";
+
+  private static final BufferAllocator ROOT_ALLOCATOR = new RootAllocator();
+
+  private ArrowQueryDataSetUtils() {}
+
+  /**
+   * Get the results of at most about fetchSize rows as Arrow record batches. It waits for the first
+   * TsBlock if none is available yet, but only takes the following TsBlocks that have already been
+   * received, so the client gets the results as soon as they are produced. The rest stay in the
+   * result handle, whose buffer is bounded, so the fragment instances producing them are blocked if
+   * the client doesn't fetch them.
+   *
+   * @return the record batches, empty if the results are finished.
+   */
+  public static List<ByteBuffer> convertTsBlocksToArrowBatches(
+      IQueryExecution queryExecution, int fetchSize) throws IOException, IoTDBException {
+    List<ByteBuffer> arrowBatches = new ArrayList<>();
+    int rowCount = 0;
+    while (rowCount < fetchSize && (arrowBatches.isEmpty() || queryExecution.hasBufferedResult())) {
+      Optional<TsBlock> optionalTsBlock = queryExecution.getBatchResult();
+      if (!optionalTsBlock.isPresent()) {
+        break;
+      }
+      TsBlock tsBlock = optionalTsBlock.get();
+      if (tsBlock.isEmpty()) {
+        continue;
+      }
+      arrowBatches.add(convertTsBlockToArrowBatch(queryExecution.getDatasetHeader(), tsBlock));
+      rowCount += tsBlock.getPositionCount();
+    }
+    return arrowBatches;
+  }
+
+  /** Convert a TsBlock to an Arrow IPC stream of one record batch. */
+  public static ByteBuffer convertTsBlockToArrowBatch(DatasetHeader header, TsBlock tsBlock)
+      throws IOException {
+    List<ColumnHeader> columnHeaders = header.getColumnHeaders();
+    Map<String, Integer> columnNameIndexMap = header.getColumnNameIndexMap();
+    boolean withTime = !header.isIgnoreTimestamp();
+
+    List<Field> fields = new ArrayList<>(columnHeaders.size() + 1);
+    if (withTime) {
+      fields.add(Field.nullable(TIME_COLUMN_NAME, new ArrowType.Int(64, true)));
+    }
+    for (ColumnHeader columnHeader : columnHeaders) {
+      fields.add(
+          Field.nullable(
+              columnHeader.getColumnNameWithAlias(), toArrowType(columnHeader.getColumnType())));
+    }
+
+    int positionCount = tsBlock.getPositionCount();
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try (VectorSchemaRoot root = VectorSchemaRoot.create(new Schema(fields), ROOT_ALLOCATOR)) {
+      root.allocateNew();
+      int vectorIndex = 0;
+      if (withTime) {
+        BigIntVector timeVector = (BigIntVector) root.getVector(vectorIndex++);
+        for (int i = 0; i < positionCount; i++) {
+          timeVector.setSafe(i, tsBlock.getTimeByIndex(i));
+        }
+      }
+      for (int i = 0; i < columnHeaders.size(); i++) {
+        ColumnHeader columnHeader = columnHeaders.get(i);
+        Integer columnIndex =
+            columnNameIndexMap == null
+                ? null
+                : columnNameIndexMap.get(columnHeader.getColumnNameWithAlias());
+        fillVector(
+            root.getVector(vectorIndex++),
+            tsBlock.getColumn(columnIndex == null ? i : columnIndex),
+            positionCount);
+      }
+      root.setRowCount(positionCount);
+      try (ArrowStreamWriter writer =
+          new ArrowStreamWriter(root, null, Channels.newChannel(outputStream))) {
+        writer.start();
+        writer.writeBatch();
+        writer.end();
+      }
+    }
+    return ByteBuffer.wrap(outputStream.toByteArray());
+  }
+
+  private static ArrowType toArrowType(TSDataType dataType) {
+    switch (dataType) {
+      case BOOLEAN:
+        return ArrowType.Bool.INSTANCE;
+      case INT32:
+        return new ArrowType.Int(32, true);
+      case INT64:
+        return new ArrowType.Int(64, true);
+      case FLOAT:
+        return new ArrowType.FloatingPoint(FloatingPointPrecision.SINGLE);
+      case DOUBLE:
+        return new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+      case TEXT:
+        return ArrowType.Utf8.INSTANCE;
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format("Data type %s is not supported.", dataType));
+    }
+  }
+
+  private static void fillVector(FieldVector vector, Column column, int positionCount) {
+    switch (column.getDataType()) {
+      case BOOLEAN:
+        BitVector bitVector = (BitVector) vector;
+        for (int i = 0; i < positionCount; i++) {
+          if (column.isNull(i)) {
+            bitVector.setNull(i);
+          } else {
+            bitVector.setSafe(i, column.getBoolean(i) ? 1 : 0);
+          }
+        }
+        break;
+      case INT32:
+        IntVector intVector = (IntVector) vector;
+        for (int i = 0; i < positionCount; i++) {
+          if (column.isNull(i)) {
+            intVector.setNull(i);
+          } else {
+            intVector.setSafe(i, column.getInt(i));
+          }
+        }
+        break;
+      case INT64:
+        BigIntVector bigIntVector = (BigIntVector) vector;
+        for (int i = 0; i < positionCount; i++) {
+          if (column.isNull(i)) {
+            bigIntVector.setNull(i);
+          } else {
+            bigIntVector.setSafe(i, column.getLong(i));
+          }
+        }
+        break;
+      case FLOAT:
+        Float4Vector float4Vector = (Float4Vector) vector;
+        for (int i = 0; i < positionCount; i++) {
+          if (column.isNull(i)) {
+            float4Vector.setNull(i);
+          } else {
+            float4Vector.setSafe(i, column.getFloat(i));
+          }
+        }
+        break;
+      case DOUBLE:
+        Float8Vector float8Vector = (Float8Vector) vector;
+        for (int i = 0; i < positionCount; i++) {
+          if (column.isNull(i)) {
+            float8Vector.setNull(i);
+          } else {
+            float8Vector.setSafe(i, column.getDouble(i));
+          }
+        }
+        break;
+      case TEXT:
+        VarCharVector varCharVector = (VarCharVector) vector;
+        for (int i = 0; i < positionCount; i++) {
+          if (column.isNull(i)) {
+            varCharVector.setNull(i);
+          } else {
+            varCharVector.setSafe(i, column.getBinary(i).getValues());
+          }
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format("Data type %s is not supported.", column.getDataType()));
+    }
+  }
+}
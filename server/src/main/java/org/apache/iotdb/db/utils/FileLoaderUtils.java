@@ -19,18 +19,23 @@
 package org.apache.iotdb.db.utils;
 
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.engine.cache.PageIndexCache;
 import org.apache.iotdb.db.engine.cache.TimeSeriesMetadataCache;
 import org.apache.iotdb.db.engine.cache.TimeSeriesMetadataCache.TimeSeriesMetadataCacheKey;
+import org.apache.iotdb.db.engine.cache.TsFilePageIndex.ChunkPageIndex;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
 import org.apache.iotdb.db.metadata.path.AlignedPath;
 import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.reader.chunk.DiskChunkLoader;
+import org.apache.iotdb.db.query.reader.chunk.IndexedChunkReader;
 import org.apache.iotdb.db.query.reader.chunk.metadata.DiskAlignedChunkMetadataLoader;
 import org.apache.iotdb.db.query.reader.chunk.metadata.DiskChunkMetadataLoader;
 import org.apache.iotdb.db.query.reader.chunk.metadata.MemAlignedChunkMetadataLoader;
 import org.apache.iotdb.db.query.reader.chunk.metadata.MemChunkMetadataLoader;
 import org.apache.iotdb.tsfile.file.metadata.AlignedTimeSeriesMetadata;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ITimeSeriesMetadata;
 import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
@@ -263,4 +268,27 @@ public class FileLoaderUtils {
     IChunkReader chunkReader = chunkLoader.getChunkReader(chunkMetaData, timeFilter);
     return chunkReader.loadPageReaderList();
   }
+
+  /**
+   * load all page readers in one chunk that satisfying the timeFilter, the page readers are built
+   * from the page index of the TsFile if possible, whose page bodies are read only when needed
+   *
+   * @param chunkMetaData the corresponding chunk metadata
+   * @param timeFilter it should be a TimeFilter instead of a ValueFilter
+   * @param usePageIndex whether to use the page index in {@link PageIndexCache}
+   */
+  public static List<IPageReader> loadPageReaderList(
+      IChunkMetadata chunkMetaData, Filter timeFilter, boolean usePageIndex) throws IOException {
+    if (usePageIndex
+        && chunkMetaData instanceof ChunkMetadata
+        && chunkMetaData.getChunkLoader() instanceof DiskChunkLoader) {
+      ChunkPageIndex chunkPageIndex =
+          PageIndexCache.getInstance().get((ChunkMetadata) chunkMetaData);
+      if (chunkPageIndex != null) {
+        return new IndexedChunkReader((ChunkMetadata) chunkMetaData, chunkPageIndex, timeFilter)
+            .loadPageReaderList();
+      }
+    }
+    return loadPageReaderList(chunkMetaData, timeFilter);
+  }
 }
@@ -18,7 +18,6 @@
  */
 package org.apache.iotdb.db.utils.datastructure;
 
-import org.apache.iotdb.db.rescon.PrimitiveArrayManager;
 import org.apache.iotdb.db.wal.buffer.IWALByteBufferView;
 import org.apache.iotdb.db.wal.utils.WALWriteUtils;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -45,14 +44,26 @@ public abstract class IntTVList extends TVList {
   }
 
   public TimIntTVList clone() {
+    return cloneSharingArrays(0);
+  }
+
+  @Override
+  protected TimIntTVList cloneSharingArrays(int sharedArrayNum) {
     TimIntTVList cloneList = new TimIntTVList();
-    cloneAs(cloneList);
-    for (int[] valueArray : values) {
-      cloneList.values.add(cloneValue(valueArray));
+    cloneAs(cloneList, sharedArrayNum);
+    for (int i = 0; i < values.size(); i++) {
+      cloneList.values.add(i < sharedArrayNum ? values.get(i) : cloneValue(values.get(i)));
     }
     return cloneList;
   }
 
+  @Override
+  protected void copySharedValueArrays() {
+    for (int i = 0; i < sharedArrayNum; i++) {
+      values.set(i, cloneValue(values.get(i)));
+    }
+  }
+
   private int[] cloneValue(int[] array) {
     int[] cloneArray = new int[array.length];
     System.arraycopy(array, 0, cloneArray, 0, array.length);
@@ -96,8 +107,8 @@ public abstract class IntTVList extends TVList {
   @Override
   void clearValue() {
     if (values != null) {
-      for (int[] dataArray : values) {
-        PrimitiveArrayManager.release(dataArray);
+      for (int i = 0; i < values.size(); i++) {
+        releaseArray(i, values.get(i));
       }
       values.clear();
     }
@@ -139,7 +150,7 @@ public abstract class IntTVList extends TVList {
 
   @Override
   protected void releaseLastValueArray() {
-    PrimitiveArrayManager.release(values.remove(values.size() - 1));
+    releaseArray(values.size() - 1, values.remove(values.size() - 1));
   }
 
   @Override
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.utils.BitMap;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
+
+/** An off-heap TVList of DOUBLE values, see {@link OffHeapTVList}. */
+public class OffHeapDoubleTVList extends OffHeapTVList {
+
+  OffHeapDoubleTVList() {
+    super(TSDataType.DOUBLE);
+  }
+
+  @Override
+  public void putDouble(long timestamp, double value) {
+    putRow(timestamp, Double.doubleToRawLongBits(value));
+  }
+
+  @Override
+  public void putDoubles(long[] time, double[] value, BitMap bitMap, int start, int end) {
+    for (int i = start; i < end; i++) {
+      // skip null values
+      if (bitMap == null || !bitMap.isMarked(i)) {
+        putRow(time[i], Double.doubleToRawLongBits(value[i]));
+      }
+    }
+  }
+
+  @Override
+  public double getDouble(int index) {
+    return Double.longBitsToDouble(getRawValue(index));
+  }
+
+  @Override
+  public TimeValuePair getTimeValuePair(int index) {
+    return new TimeValuePair(
+        getTime(index), TsPrimitiveType.getByType(TSDataType.DOUBLE, getDouble(index)));
+  }
+
+  @Override
+  protected TimeValuePair getTimeValuePair(
+      int index, long time, Integer floatPrecision, TSEncoding encoding) {
+    return new TimeValuePair(
+        time,
+        TsPrimitiveType.getByType(
+            TSDataType.DOUBLE,
+            roundValueWithGivenPrecision(getDouble(index), floatPrecision, encoding)));
+  }
+
+  @Override
+  protected void writeValue(
+      ColumnBuilder columnBuilder, long rawValue, int floatPrecision, TSEncoding encoding) {
+    columnBuilder.writeDouble(
+        roundValueWithGivenPrecision(Double.longBitsToDouble(rawValue), floatPrecision, encoding));
+  }
+
+  @Override
+  public TSDataType getDataType() {
+    return TSDataType.DOUBLE;
+  }
+}
@@ -0,0 +1,386 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.db.rescon.OffHeapMemoryManager;
+import org.apache.iotdb.db.utils.MmapUtil;
+import org.apache.iotdb.db.wal.buffer.IWALByteBufferView;
+import org.apache.iotdb.db.wal.utils.WALWriteUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
+import org.apache.iotdb.tsfile.utils.RamUsageEstimator;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
+import static org.apache.iotdb.tsfile.utils.RamUsageEstimator.NUM_BYTES_OBJECT_REF;
+
+/**
+ * A TVList of a fixed-width data type which keeps its data points in off-heap memory, so that large
+ * memtables do not stay in the old generation of the heap. Points are stored row by row in direct
+ * slabs of ARRAY_SIZE rows, each row is a timestamp followed by the raw bits of the value.
+ *
+ * <p>Slabs are released explicitly when the list is cleared after flushing. Slabs of a list that
+ * has been referenced by queries are left to GC instead, because the queries may still read them.
+ * The slabs are accounted in {@link OffHeapMemoryManager} rather than the heap memory of write.
+ */
+public abstract class OffHeapTVList extends TVList implements TimSort {
+
+  /** heap memory of the ByteBuffer object of a slab and its reference in the slab list */
+  private static final long SLAB_HEAP_MEM_COST =
+      RamUsageEstimator.shallowSizeOf(ByteBuffer.allocateDirect(0)) + NUM_BYTES_OBJECT_REF;
+
+  private final int valueSize;
+  private final int rowSize;
+  private final int slabSize;
+  private final OffHeapMemoryManager.Reservation reservation;
+
+  // list of direct slabs, add 1 when expanded
+  // index relation: slabIndex -> rowIndex
+  private final List<ByteBuffer> slabs = new ArrayList<>();
+
+  private List<ByteBuffer> sortedSlabs;
+  private long pivotTime;
+  private long pivotValue;
+
+  OffHeapTVList(TSDataType dataType) {
+    super();
+    valueSize = dataType.getDataTypeSize();
+    rowSize = Long.BYTES + valueSize;
+    slabSize = ARRAY_SIZE * rowSize;
+    reservation = OffHeapMemoryManager.getInstance().register(this);
+  }
+
+  /** off-heap memory cost of one slab of the given type, i.e., ARRAY_SIZE rows */
+  public static long slabMemCost(TSDataType type) {
+    return (long) ARRAY_SIZE * (Long.BYTES + type.getDataTypeSize());
+  }
+
+  /** heap memory cost of one slab, the data points themselves are off heap */
+  public static long slabHeapMemCost() {
+    return SLAB_HEAP_MEM_COST;
+  }
+
+  /** off-heap memory held by this list, including slabs left to GC until the list is collected */
+  public long getOffHeapMemCost() {
+    return reservation.getAllocatedMemory();
+  }
+
+  /** whether the data type can be stored in an off-heap TVList */
+  public static boolean isSupported(TSDataType type) {
+    switch (type) {
+      case BOOLEAN:
+      case INT32:
+      case INT64:
+      case FLOAT:
+      case DOUBLE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  @Override
+  public long getTime(int index) {
+    if (index >= rowCount) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    return slabs.get(index / ARRAY_SIZE).getLong((index % ARRAY_SIZE) * rowSize);
+  }
+
+  /** get the raw bits of the value, e.g., Double.doubleToRawLongBits for DOUBLE */
+  protected long getRawValue(int index) {
+    if (index >= rowCount) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    return readValue(slabs.get(index / ARRAY_SIZE), (index % ARRAY_SIZE) * rowSize);
+  }
+
+  /** append a row, the value is given as raw bits */
+  protected void putRow(long timestamp, long rawValue) {
+    checkExpansion();
+    minTime = Math.min(minTime, timestamp);
+    writeRow(
+        slabs.get(rowCount / ARRAY_SIZE), (rowCount % ARRAY_SIZE) * rowSize, timestamp, rawValue);
+    rowCount++;
+    if (sorted && rowCount > 1 && timestamp < getTime(rowCount - 2)) {
+      sorted = false;
+    }
+  }
+
+  protected void set(int index, long timestamp, long rawValue) {
+    if (index >= rowCount) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    writeRow(slabs.get(index / ARRAY_SIZE), (index % ARRAY_SIZE) * rowSize, timestamp, rawValue);
+  }
+
+  @Override
+  protected void set(int src, int dest) {
+    set(dest, getTime(src), getRawValue(src));
+  }
+
+  private long readValue(ByteBuffer slab, int rowOffset) {
+    switch (valueSize) {
+      case Long.BYTES:
+        return slab.getLong(rowOffset + Long.BYTES);
+      case Integer.BYTES:
+        return slab.getInt(rowOffset + Long.BYTES);
+      default:
+        return slab.get(rowOffset + Long.BYTES);
+    }
+  }
+
+  private void writeRow(ByteBuffer slab, int rowOffset, long timestamp, long rawValue) {
+    slab.putLong(rowOffset, timestamp);
+    switch (valueSize) {
+      case Long.BYTES:
+        slab.putLong(rowOffset + Long.BYTES, rawValue);
+        break;
+      case Integer.BYTES:
+        slab.putInt(rowOffset + Long.BYTES, (int) rawValue);
+        break;
+      default:
+        slab.put(rowOffset + Long.BYTES, (byte) rawValue);
+        break;
+    }
+  }
+
+  private ByteBuffer allocateSlab() {
+    ByteBuffer slab = ByteBuffer.allocateDirect(slabSize).order(ByteOrder.nativeOrder());
+    reservation.allocate(slabSize);
+    return slab;
+  }
+
+  /**
+   * slabs that may be read by queries are released by GC, their memory is returned to {@link
+   * OffHeapMemoryManager} once this list is collected
+   */
+  private void releaseSlab(ByteBuffer slab) {
+    if (referenceCount.get() == 0) {
+      cleanSlab(slab);
+    }
+  }
+
+  private void cleanSlab(ByteBuffer slab) {
+    MmapUtil.clean((MappedByteBuffer) slab);
+    reservation.release(slabSize);
+  }
+
+  @Override
+  protected void expandValues() {
+    slabs.add(allocateSlab());
+  }
+
+  @Override
+  protected void checkExpansion() {
+    if ((rowCount % ARRAY_SIZE) == 0) {
+      expandValues();
+    }
+  }
+
+  @Override
+  protected void releaseLastValueArray() {
+    releaseSlab(slabs.remove(slabs.size() - 1));
+  }
+
+  @Override
+  public int delete(long lowerBound, long upperBound) {
+    int deletedNumber = super.delete(lowerBound, upperBound);
+    // the time arrays of TVList are not used, so release the empty slabs here
+    int newSlabNum = rowCount / ARRAY_SIZE + (rowCount % ARRAY_SIZE == 0 ? 0 : 1);
+    while (slabs.size() > newSlabNum) {
+      releaseLastValueArray();
+    }
+    return deletedNumber;
+  }
+
+  @Override
+  void clearValue() {
+    for (ByteBuffer slab : slabs) {
+      releaseSlab(slab);
+    }
+    slabs.clear();
+  }
+
+  @Override
+  public void clear() {
+    super.clear();
+    clearSortedTime();
+  }
+
+  @Override
+  public TVList clone() {
+    OffHeapTVList cloneList = (OffHeapTVList) TVList.newList(getDataType(), true);
+    cloneAs(cloneList);
+    for (ByteBuffer slab : slabs) {
+      ByteBuffer source = slab.duplicate();
+      source.clear();
+      ByteBuffer cloneSlab = cloneList.allocateSlab();
+      cloneSlab.put(source);
+      cloneList.slabs.add(cloneSlab);
+    }
+    return cloneList;
+  }
+
+  @Override
+  public void sort() {
+    if (!sorted) {
+      int lo = getFirstRowToSort();
+      // only the slabs holding rows in [lo, rowCount) are used
+      sortedSlabs = new ArrayList<>(slabs.size());
+      for (int i = 0; i < slabs.size(); i++) {
+        sortedSlabs.add(i < lo / ARRAY_SIZE ? null : allocateSlab());
+      }
+      sortTail(lo, sortedRowCount, rowCount);
+    }
+    clearSortedTime();
+    clearSortedValue();
+    sorted = true;
+    sortedRowCount = rowCount;
+  }
+
+  @Override
+  public void tim_set(int src, int dest) {
+    set(src, dest);
+  }
+
+  @Override
+  public void setToSorted(int src, int dest) {
+    writeRow(
+        sortedSlabs.get(dest / ARRAY_SIZE),
+        (dest % ARRAY_SIZE) * rowSize,
+        getTime(src),
+        getRawValue(src));
+  }
+
+  @Override
+  public void setFromSorted(int src, int dest) {
+    ByteBuffer sortedSlab = sortedSlabs.get(src / ARRAY_SIZE);
+    int rowOffset = (src % ARRAY_SIZE) * rowSize;
+    set(dest, sortedSlab.getLong(rowOffset), readValue(sortedSlab, rowOffset));
+  }
+
+  @Override
+  public void saveAsPivot(int pos) {
+    pivotTime = getTime(pos);
+    pivotValue = getRawValue(pos);
+  }
+
+  @Override
+  public void setPivotTo(int pos) {
+    set(pos, pivotTime, pivotValue);
+  }
+
+  /** the sorted slabs are never shared with queries, so they are always released explicitly */
+  @Override
+  public void clearSortedTime() {
+    if (sortedSlabs != null) {
+      for (ByteBuffer sortedSlab : sortedSlabs) {
+        if (sortedSlab != null) {
+          cleanSlab(sortedSlab);
+        }
+      }
+      sortedSlabs = null;
+    }
+  }
+
+  /** values are stored in the same rows as timestamps, see {@link #clearSortedTime()} */
+  @Override
+  public void clearSortedValue() {
+    // nothing to release
+  }
+
+  @Override
+  public int compare(int idx1, int idx2) {
+    return Long.compare(getTime(idx1), getTime(idx2));
+  }
+
+  @Override
+  public void reverseRange(int lo, int hi) {
+    hi--;
+    while (lo < hi) {
+      long loT = getTime(lo);
+      long loV = getRawValue(lo);
+      long hiT = getTime(hi);
+      long hiV = getRawValue(hi);
+      set(lo++, hiT, hiV);
+      set(hi--, loT, loV);
+    }
+  }
+
+  @Override
+  protected void writeValidValuesIntoTsBlock(
+      TsBlockBuilder builder,
+      int floatPrecision,
+      TSEncoding encoding,
+      List<TimeRange> deletionList) {
+    TimeColumnBuilder timeColumnBuilder = builder.getTimeColumnBuilder();
+    ColumnBuilder valueColumnBuilder = builder.getColumnBuilder(0);
+    Integer deleteCursor = 0;
+    for (int i = 0; i < rowCount; i++) {
+      long time = getTime(i);
+      if (!isPointDeleted(time, deletionList, deleteCursor)
+          && (i == rowCount - 1 || time != getTime(i + 1))) {
+        timeColumnBuilder.writeLong(time);
+        writeValue(valueColumnBuilder, getRawValue(i), floatPrecision, encoding);
+        builder.declarePosition();
+      }
+    }
+  }
+
+  /** write the value given as raw bits into the column */
+  protected abstract void writeValue(
+      ColumnBuilder columnBuilder, long rawValue, int floatPrecision, TSEncoding encoding);
+
+  /** the same format as the on-heap TVList of the data type */
+  @Override
+  public int serializedSize() {
+    return Byte.BYTES + Integer.BYTES + rowCount * rowSize;
+  }
+
+  @Override
+  public void serializeToWAL(IWALByteBufferView buffer) {
+    WALWriteUtils.write(getDataType(), buffer);
+    buffer.putInt(rowCount);
+    for (int rowIdx = 0; rowIdx < rowCount; ++rowIdx) {
+      buffer.putLong(getTime(rowIdx));
+      long rawValue = getRawValue(rowIdx);
+      switch (valueSize) {
+        case Long.BYTES:
+          buffer.putLong(rawValue);
+          break;
+        case Integer.BYTES:
+          buffer.putInt((int) rawValue);
+          break;
+        default:
+          buffer.put((byte) rawValue);
+          break;
+      }
+    }
+  }
+}
@@ -54,6 +54,12 @@ public abstract class TVList implements WALEntryValue {
   protected int rowCount;
 
   protected boolean sorted = true;
+  // rows in [0, sortedRowCount) are known to be sorted, see getFirstRowToSort()
+  protected int sortedRowCount;
+  // the first sharedArrayNum arrays are shared with the list this one is cloned from, they are
+  // never modified by sorting, and are left to GC instead of being released to
+  // PrimitiveArrayManager because the other list may still be read by queries
+  protected int sharedArrayNum;
   protected long minTime;
   // record reference count of this tv list
   // currently this reference will only be increase because we can't know when to decrease it
@@ -87,6 +93,50 @@ public abstract class TVList implements WALEntryValue {
     return null;
   }
 
+  /**
+   * Create a TVList of the data type. If offHeap is true and the data type has a fixed width, the
+   * data points are kept in off-heap memory, see {@link OffHeapTVList}.
+   */
+  public static TVList newList(TSDataType dataType, boolean offHeap) {
+    if (!offHeap || !OffHeapTVList.isSupported(dataType)) {
+      return newList(dataType);
+    }
+    switch (dataType) {
+      case FLOAT:
+        return new OffHeapFloatTVList();
+      case INT32:
+        return new OffHeapIntTVList();
+      case INT64:
+        return new OffHeapLongTVList();
+      case DOUBLE:
+        return new OffHeapDoubleTVList();
+      case BOOLEAN:
+        return new OffHeapBooleanTVList();
+      default:
+        break;
+    }
+    return null;
+  }
+
+  /** the heap memory cost of expanding a TVList created by {@link #newList(TSDataType, boolean)} */
+  public static long tvListArrayMemCost(TSDataType type, boolean offHeap) {
+    if (offHeap && OffHeapTVList.isSupported(type)) {
+      return OffHeapTVList.slabHeapMemCost();
+    }
+    return tvListArrayMemCost(type);
+  }
+
+  /**
+   * the off-heap memory cost of expanding a TVList created by {@link #newList(TSDataType,
+   * boolean)}, see {@link org.apache.iotdb.db.rescon.OffHeapMemoryManager}
+   */
+  public static long tvListArrayOffHeapMemCost(TSDataType type, boolean offHeap) {
+    if (offHeap && OffHeapTVList.isSupported(type)) {
+      return OffHeapTVList.slabMemCost(type);
+    }
+    return 0;
+  }
+
   public static long tvListArrayMemCost(TSDataType type) {
     long size = 0;
     // time array mem size
@@ -241,22 +291,125 @@ public abstract class TVList implements WALEntryValue {
     return clone();
   }
 
+  /**
+   * Clone the list, sharing its first sharedArrayNum arrays with the clone instead of copying them.
+   * Lists that do not support sharing arrays copy all of them.
+   */
+  protected TVList cloneSharingArrays(int sharedArrayNum) {
+    return clone();
+  }
+
+  /**
+   * Clone the list so that the clone can be sorted while this list is still read by queries.
+   * Sorting only moves the rows from {@link #getFirstRowToSort()}, so the full arrays before that
+   * row are shared with the clone instead of being copied.
+   */
+  public TVList cloneForSort() {
+    return cloneSharingArrays(getFirstRowToSort() / ARRAY_SIZE);
+  }
+
+  /**
+   * Get the first row that has to be moved to sort the list. The list is treated as a sorted prefix
+   * and an unsorted tail, only the tail is sorted and then merged with the rows of the prefix that
+   * are larger than the smallest timestamp of the tail. So refreshing a sorted snapshot only costs
+   * as much as the new rows, instead of sorting the whole list again.
+   *
+   * <p>The sorted prefix is also recorded in sortedRowCount.
+   */
+  protected int getFirstRowToSort() {
+    if (sorted || rowCount == 0) {
+      sortedRowCount = rowCount;
+      return rowCount;
+    }
+    // extend the known sorted prefix with the rows appended in order
+    int prefixEnd = Math.max(1, Math.min(sortedRowCount, rowCount));
+    while (prefixEnd < rowCount && getTime(prefixEnd) >= getTime(prefixEnd - 1)) {
+      prefixEnd++;
+    }
+    sortedRowCount = prefixEnd;
+    if (prefixEnd == rowCount) {
+      return rowCount;
+    }
+    long tailMinTime = Long.MAX_VALUE;
+    for (int i = prefixEnd; i < rowCount; i++) {
+      tailMinTime = Math.min(tailMinTime, getTime(i));
+    }
+    // rows of the prefix equal to the smallest timestamp of the tail stay before the tail, so that
+    // the sort is still stable and the latest written point of a timestamp is still the last one
+    int left = 0;
+    int right = prefixEnd;
+    while (left < right) {
+      int mid = (left + right) >>> 1;
+      if (getTime(mid) > tailMinTime) {
+        right = mid;
+      } else {
+        left = mid + 1;
+      }
+    }
+    return left;
+  }
+
+  /**
+   * Get the first row to sort as {@link #getFirstRowToSort()}, and copy the shared arrays first if
+   * sorting this list in place moves rows inside them.
+   */
+  protected int getFirstRowToSortInPlace() {
+    int firstRowToSort = getFirstRowToSort();
+    if (firstRowToSort < sharedArrayNum * ARRAY_SIZE) {
+      copySharedArrays();
+    }
+    return firstRowToSort;
+  }
+
+  /**
+   * Replace the arrays shared with another list by copies before moving rows in place, because the
+   * other list may still be read by queries.
+   */
+  protected void copySharedArrays() {
+    for (int i = 0; i < sharedArrayNum; i++) {
+      timestamps.set(i, cloneTime(timestamps.get(i)));
+    }
+    copySharedValueArrays();
+    sharedArrayNum = 0;
+  }
+
+  /** Replace the first sharedArrayNum value arrays by copies, see {@link #copySharedArrays()}. */
+  protected void copySharedValueArrays() {}
+
+  /** Release the array at arrayIndex to PrimitiveArrayManager unless it is shared. */
+  protected void releaseArray(int arrayIndex, Object array) {
+    if (arrayIndex >= sharedArrayNum) {
+      PrimitiveArrayManager.release(array);
+    }
+  }
+
   protected abstract void releaseLastValueArray();
 
   protected void releaseLastTimeArray() {
-    PrimitiveArrayManager.release(timestamps.remove(timestamps.size() - 1));
+    releaseArray(timestamps.size() - 1, timestamps.remove(timestamps.size() - 1));
   }
 
   public int delete(long lowerBound, long upperBound) {
     int newSize = 0;
+    int newSortedRowCount = 0;
     minTime = Long.MAX_VALUE;
     for (int i = 0; i < rowCount; i++) {
       long time = getTime(i);
       if (time < lowerBound || time > upperBound) {
-        set(i, newSize++);
+        if (i != newSize) {
+          if (newSize < sharedArrayNum * ARRAY_SIZE) {
+            copySharedArrays();
+          }
+          set(i, newSize);
+        }
+        newSize++;
         minTime = Math.min(time, minTime);
+        if (i < sortedRowCount) {
+          newSortedRowCount++;
+        }
       }
     }
+    sortedRowCount = newSortedRowCount;
     int deletedNumber = rowCount - newSize;
     rowCount = newSize;
     // release primitive arrays that are empty
@@ -273,26 +426,35 @@ public abstract class TVList implements WALEntryValue {
   }
 
   protected void cloneAs(TVList cloneList) {
-    for (long[] timestampArray : timestamps) {
-      cloneList.timestamps.add(cloneTime(timestampArray));
+    cloneAs(cloneList, 0);
+  }
+
+  protected void cloneAs(TVList cloneList, int sharedArrayNum) {
+    for (int i = 0; i < timestamps.size(); i++) {
+      cloneList.timestamps.add(
+          i < sharedArrayNum ? timestamps.get(i) : cloneTime(timestamps.get(i)));
     }
+    cloneList.sharedArrayNum = sharedArrayNum;
     cloneList.rowCount = rowCount;
     cloneList.sorted = sorted;
+    cloneList.sortedRowCount = sortedRowCount;
     cloneList.minTime = minTime;
   }
 
   public void clear() {
     rowCount = 0;
     sorted = true;
+    sortedRowCount = 0;
     minTime = Long.MAX_VALUE;
     clearTime();
     clearValue();
+    sharedArrayNum = 0;
   }
 
   protected void clearTime() {
     if (timestamps != null) {
-      for (long[] dataArray : timestamps) {
-        PrimitiveArrayManager.release(dataArray);
+      for (int i = 0; i < timestamps.size(); i++) {
+        releaseArray(i, timestamps.get(i));
       }
       timestamps.clear();
     }
@@ -108,22 +108,18 @@ public class TimAlignedTVList extends AlignedTVList implements TimSort {
 
   @Override
   public void sort() {
-    if (sortedTimestamps == null
-        || sortedTimestamps.length < PrimitiveArrayManager.getArrayRowCount(rowCount)) {
+    if (!sorted) {
+      int lo = getFirstRowToSort();
       sortedTimestamps =
-          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, rowCount);
-    }
-    if (sortedIndices == null
-        || sortedIndices.length < PrimitiveArrayManager.getArrayRowCount(rowCount)) {
+          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, lo, rowCount);
       sortedIndices =
-          (int[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT32, rowCount);
-    }
-    if (!sorted) {
-      sort(0, rowCount);
+          (int[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT32, lo, rowCount);
+      sortTail(lo, sortedRowCount, rowCount);
     }
     clearSortedValue();
     clearSortedTime();
     sorted = true;
+    sortedRowCount = rowCount;
   }
 
   @Override
@@ -38,14 +38,26 @@ public class TimBinaryTVList extends BinaryTVList implements TimSort {
 
   @Override
   public TimBinaryTVList clone() {
+    return cloneSharingArrays(0);
+  }
+
+  @Override
+  protected TimBinaryTVList cloneSharingArrays(int sharedArrayNum) {
     TimBinaryTVList cloneList = new TimBinaryTVList();
-    cloneAs(cloneList);
-    for (Binary[] valueArray : values) {
-      cloneList.values.add(cloneValue(valueArray));
+    cloneAs(cloneList, sharedArrayNum);
+    for (int i = 0; i < values.size(); i++) {
+      cloneList.values.add(i < sharedArrayNum ? values.get(i) : cloneValue(values.get(i)));
     }
     return cloneList;
   }
 
+  @Override
+  protected void copySharedValueArrays() {
+    for (int i = 0; i < sharedArrayNum; i++) {
+      values.set(i, cloneValue(values.get(i)));
+    }
+  }
+
   private Binary[] cloneValue(Binary[] array) {
     Binary[] cloneArray = new Binary[array.length];
     System.arraycopy(array, 0, cloneArray, 0, array.length);
@@ -54,20 +66,18 @@ public class TimBinaryTVList extends BinaryTVList implements TimSort {
 
   @Override
   public void sort() {
-    if (sortedTimestamps == null
-        || sortedTimestamps.length < PrimitiveArrayManager.getArrayRowCount(rowCount)) {
+    if (!sorted) {
+      int lo = getFirstRowToSortInPlace();
       sortedTimestamps =
-          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, rowCount);
-    }
-    if (sortedValues == null
-        || sortedValues.length < PrimitiveArrayManager.getArrayRowCount(rowCount)) {
+          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, lo, rowCount);
       sortedValues =
-          (Binary[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.TEXT, rowCount);
+          (Binary[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.TEXT, lo, rowCount);
+      sortTail(lo, sortedRowCount, rowCount);
     }
-    sort(0, rowCount);
     clearSortedValue();
     clearSortedTime();
     sorted = true;
+    sortedRowCount = rowCount;
   }
 
   @Override
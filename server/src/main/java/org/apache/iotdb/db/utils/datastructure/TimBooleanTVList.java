@@ -36,14 +36,26 @@ public class TimBooleanTVList extends BooleanTVList implements TimSort {
 
   @Override
   public TimBooleanTVList clone() {
+    return cloneSharingArrays(0);
+  }
+
+  @Override
+  protected TimBooleanTVList cloneSharingArrays(int sharedArrayNum) {
     TimBooleanTVList cloneList = new TimBooleanTVList();
-    cloneAs(cloneList);
-    for (boolean[] valueArray : values) {
-      cloneList.values.add(cloneValue(valueArray));
+    cloneAs(cloneList, sharedArrayNum);
+    for (int i = 0; i < values.size(); i++) {
+      cloneList.values.add(i < sharedArrayNum ? values.get(i) : cloneValue(values.get(i)));
     }
     return cloneList;
   }
 
+  @Override
+  protected void copySharedValueArrays() {
+    for (int i = 0; i < sharedArrayNum; i++) {
+      values.set(i, cloneValue(values.get(i)));
+    }
+  }
+
   private boolean[] cloneValue(boolean[] array) {
     boolean[] cloneArray = new boolean[array.length];
     System.arraycopy(array, 0, cloneArray, 0, array.length);
@@ -52,22 +64,19 @@ public class TimBooleanTVList extends BooleanTVList implements TimSort {
 
   @Override
   public void sort() {
-    if (sortedTimestamps == null
-        || sortedTimestamps.length < PrimitiveArrayManager.getArrayRowCount(rowCount)) {
+    if (!sorted) {
+      int lo = getFirstRowToSortInPlace();
       sortedTimestamps =
-          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, rowCount);
-    }
-    if (sortedValues == null
-        || sortedValues.length < PrimitiveArrayManager.getArrayRowCount(rowCount)) {
+          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, lo, rowCount);
       sortedValues =
-          (boolean[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.BOOLEAN, rowCount);
-    }
-    if (!sorted) {
-      sort(0, rowCount);
+          (boolean[][])
+              PrimitiveArrayManager.createDataListsByType(TSDataType.BOOLEAN, lo, rowCount);
+      sortTail(lo, sortedRowCount, rowCount);
     }
     clearSortedValue();
     clearSortedTime();
     sorted = true;
+    sortedRowCount = rowCount;
   }
 
   @Override
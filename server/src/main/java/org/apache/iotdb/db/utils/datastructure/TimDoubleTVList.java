@@ -35,14 +35,26 @@ public class TimDoubleTVList extends DoubleTVList implements TimSort {
 
   @Override
   public TimDoubleTVList clone() {
+    return cloneSharingArrays(0);
+  }
+
+  @Override
+  protected TimDoubleTVList cloneSharingArrays(int sharedArrayNum) {
     TimDoubleTVList cloneList = new TimDoubleTVList();
-    cloneAs(cloneList);
-    for (double[] valueArray : values) {
-      cloneList.values.add(cloneValue(valueArray));
+    cloneAs(cloneList, sharedArrayNum);
+    for (int i = 0; i < values.size(); i++) {
+      cloneList.values.add(i < sharedArrayNum ? values.get(i) : cloneValue(values.get(i)));
     }
     return cloneList;
   }
 
+  @Override
+  protected void copySharedValueArrays() {
+    for (int i = 0; i < sharedArrayNum; i++) {
+      values.set(i, cloneValue(values.get(i)));
+    }
+  }
+
   private double[] cloneValue(double[] array) {
     double[] cloneArray = new double[array.length];
     System.arraycopy(array, 0, cloneArray, 0, array.length);
@@ -51,22 +63,18 @@ public class TimDoubleTVList extends DoubleTVList implements TimSort {
 
   @Override
   public void sort() {
-    if (sortedTimestamps == null
-        || sortedTimestamps.length < PrimitiveArrayManager.getArrayRowCount(rowCount)) {
+    if (!sorted) {
+      int lo = getFirstRowToSortInPlace();
       sortedTimestamps =
-          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, rowCount);
-    }
-    if (sortedValues == null
-        || sortedValues.length < PrimitiveArrayManager.getArrayRowCount(rowCount)) {
+          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, lo, rowCount);
       sortedValues =
-          (double[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.DOUBLE, rowCount);
-    }
-    if (!sorted) {
-      sort(0, rowCount);
+          (double[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.DOUBLE, lo, rowCount);
+      sortTail(lo, sortedRowCount, rowCount);
     }
     clearSortedValue();
     clearSortedTime();
     sorted = true;
+    sortedRowCount = rowCount;
   }
 
   @Override
@@ -36,14 +36,26 @@ public class TimFloatTVList extends FloatTVList implements TimSort {
 
   @Override
   public TimFloatTVList clone() {
+    return cloneSharingArrays(0);
+  }
+
+  @Override
+  protected TimFloatTVList cloneSharingArrays(int sharedArrayNum) {
     TimFloatTVList cloneList = new TimFloatTVList();
-    cloneAs(cloneList);
-    for (float[] valueArray : values) {
-      cloneList.values.add(cloneValue(valueArray));
+    cloneAs(cloneList, sharedArrayNum);
+    for (int i = 0; i < values.size(); i++) {
+      cloneList.values.add(i < sharedArrayNum ? values.get(i) : cloneValue(values.get(i)));
     }
     return cloneList;
   }
 
+  @Override
+  protected void copySharedValueArrays() {
+    for (int i = 0; i < sharedArrayNum; i++) {
+      values.set(i, cloneValue(values.get(i)));
+    }
+  }
+
   private float[] cloneValue(float[] array) {
     float[] cloneArray = new float[array.length];
     System.arraycopy(array, 0, cloneArray, 0, array.length);
@@ -52,22 +64,18 @@ public class TimFloatTVList extends FloatTVList implements TimSort {
 
   @Override
   public void sort() {
-    if (sortedTimestamps == null
-        || sortedTimestamps.length < PrimitiveArrayManager.getArrayRowCount(rowCount)) {
+    if (!sorted) {
+      int lo = getFirstRowToSortInPlace();
       sortedTimestamps =
-          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, rowCount);
-    }
-    if (sortedValues == null
-        || sortedValues.length < PrimitiveArrayManager.getArrayRowCount(rowCount)) {
+          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, lo, rowCount);
       sortedValues =
-          (float[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.FLOAT, rowCount);
-    }
-    if (!sorted) {
-      sort(0, rowCount);
+          (float[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.FLOAT, lo, rowCount);
+      sortTail(lo, sortedRowCount, rowCount);
     }
     clearSortedValue();
     clearSortedTime();
     sorted = true;
+    sortedRowCount = rowCount;
   }
 
   @Override
@@ -70,6 +70,20 @@ public interface TimSort {
     merge(lo, mid, hi);
   }
 
+  /**
+   * Sort [lo, hi) when [lo, mid) is already sorted: only the tail [mid, hi) is sorted, then it is
+   * merged with [lo, mid).
+   */
+  default void sortTail(int lo, int mid, int hi) {
+    if (mid >= hi) {
+      return;
+    }
+    sort(mid, hi);
+    if (lo < mid) {
+      merge(lo, mid, hi);
+    }
+  }
+
   default int countRunAndMakeAscending(int lo, int hi) {
     assert lo < hi;
     int runHi = lo + 1;
@@ -41,8 +41,8 @@ public abstract class AbstractWALBuffer implements IWALBuffer {
   protected final String logDirectory;
   /** current wal file version id */
   protected final AtomicLong currentWALFileVersion = new AtomicLong();
-  /** current search index */
-  protected volatile long currentSearchIndex;
+  /** current search index, written by concurrent writers so it only grows */
+  protected final AtomicLong currentSearchIndex = new AtomicLong();
   /** current wal file log writer */
   protected volatile WALWriter currentWALFileWriter;
 
@@ -55,7 +55,7 @@ public abstract class AbstractWALBuffer implements IWALBuffer {
     if (!logDirFile.exists() && logDirFile.mkdirs()) {
       logger.info("Create folder {} for wal node-{}'s buffer.", logDirectory, identifier);
     }
-    currentSearchIndex = startSearchIndex;
+    currentSearchIndex.set(startSearchIndex);
     currentWALFileVersion.set(startFileVersion);
     currentWALFileWriter =
         new WALWriter(
@@ -63,7 +63,7 @@ public abstract class AbstractWALBuffer implements IWALBuffer {
                 logDirectory,
                 WALFileUtils.getLogFileName(
                     currentWALFileVersion.get(),
-                    currentSearchIndex,
+                    currentSearchIndex.get(),
                     WALFileStatus.CONTAINS_SEARCH_INDEX)));
   }
 
@@ -108,6 +108,6 @@ public abstract class AbstractWALBuffer implements IWALBuffer {
 
   @Override
   public long getCurrentSearchIndex() {
-    return currentSearchIndex;
+    return currentSearchIndex.get();
   }
 }
@@ -25,11 +25,16 @@ import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.DeleteDataNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertNode;
+import org.apache.iotdb.db.service.metrics.MetricService;
+import org.apache.iotdb.db.service.metrics.enums.Metric;
+import org.apache.iotdb.db.service.metrics.enums.Tag;
 import org.apache.iotdb.db.utils.MmapUtil;
 import org.apache.iotdb.db.wal.exception.WALNodeClosedException;
 import org.apache.iotdb.db.wal.io.WALMetaData;
 import org.apache.iotdb.db.wal.utils.WALFileStatus;
 import org.apache.iotdb.db.wal.utils.listener.WALFlushListener;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+import org.apache.iotdb.metrics.utils.MetricType;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,14 +43,21 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 
 import static org.apache.iotdb.db.wal.node.WALNode.DEFAULT_SEARCH_INDEX;
@@ -53,36 +65,52 @@ import static org.apache.iotdb.db.wal.node.WALNode.DEFAULT_SEARCH_INDEX;
 /**
  * This buffer guarantees the concurrent safety and uses double buffers mechanism to accelerate
  * writes and avoid waiting for buffer syncing to disk.
+ *
+ * <p>Writers serialize WALEntry into their thread-local buffers, then reserve space in the working
+ * buffer by an atomic cursor and copy the bytes there, so multiple writers can fill the working
+ * buffer at the same time without queueing. The sync thread seals the working buffer and fsyncs it
+ * (group commit) once enough bytes or waiting writers are pending, or fsync_wal_delay_in_ms has
+ * passed since the first pending entry.
  */
 public class WALBuffer extends AbstractWALBuffer {
   private static final Logger logger = LoggerFactory.getLogger(WALBuffer.class);
   private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
   private static final int HALF_WAL_BUFFER_SIZE = config.getWalBufferSize() / 2;
-  private static final int QUEUE_CAPACITY = config.getWalBufferQueueCapacity();
+  private static final int ENTRY_BUFFER_SIZE = config.getWalBufferEntrySize();
+  /** max time the sync thread parks when nothing is pending, it's woken up by writers anyway */
+  private static final long MAX_PARK_TIME_IN_NS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  /** thread-local buffers to serialize WALEntry before copying it into the working buffer */
+  private static final ThreadLocal<EntryBuffer> entryBuffers =
+      ThreadLocal.withInitial(EntryBuffer::new);
 
   /** whether close method is called */
   private volatile boolean isClosed = false;
-  /** WALEntries */
-  private final BlockingQueue<WALEntry> walEntries = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+  /** whether the last segment has been sealed by close method */
+  private volatile boolean isAllSegmentsSealed = false;
   /** lock to provide synchronization for double buffers mechanism, protecting buffers status */
   private final Lock buffersLock = new ReentrantLock();
   /** condition to guarantee correctness of switching buffers */
   private final Condition idleBufferReadyCondition = buffersLock.newCondition();
+  /** condition to wait for a sealed working segment being replaced */
+  private final Condition workingSegmentRolledCondition = buffersLock.newCondition();
   // region these variables should be protected by buffersLock
   /** two buffers switch between three statuses (there is always 1 buffer working) */
-  // buffer in working status, only updated by serializeThread
-  private volatile ByteBuffer workingBuffer;
+  // buffer in working status, writers reserve space in it lock-freely
+  private volatile Segment workingSegment;
   // buffer in idle status
   private volatile ByteBuffer idleBuffer;
-  // buffer in syncing status, serializeThread makes sure no more writes to syncingBuffer
-  private volatile ByteBuffer syncingBuffer;
   // endregion
-  /** file status of working buffer, updating file writer's status when syncing */
-  protected volatile WALFileStatus currentFileStatus;
-  /** single thread to serialize WALEntry to workingBuffer */
-  private final ExecutorService serializeThread;
-  /** single thread to sync syncingBuffer to disk */
+  /** sealed segments waiting for syncing, in the order of sealing */
+  private final BlockingQueue<Segment> sealedSegments = new LinkedBlockingQueue<>();
+  /** number of failed reservations caused by concurrent writers since last group commit */
+  private final LongAdder reserveRetryNum = new LongAdder();
+  /** single thread to sync sealed segments to disk */
   private final ExecutorService syncBufferThread;
+  /** the thread running SyncBufferTask, used to wake it up */
+  private volatile Thread syncThread;
+  /** true when syncThread is parking, writers wake it up only in this case */
+  private volatile boolean syncThreadParked = false;
 
   public WALBuffer(String identifier, String logDirectory) throws FileNotFoundException {
     this(identifier, logDirectory, 0, 0L);
@@ -92,21 +120,17 @@ public class WALBuffer extends AbstractWALBuffer {
       String identifier, String logDirectory, long startFileVersion, long startSearchIndex)
       throws FileNotFoundException {
     super(identifier, logDirectory, startFileVersion, startSearchIndex);
-    currentFileStatus = WALFileStatus.CONTAINS_NONE_SEARCH_INDEX;
     allocateBuffers();
-    serializeThread =
-        IoTDBThreadPoolFactory.newSingleThreadExecutor(
-            ThreadName.WAL_SERIALIZE.getName() + "(node-" + identifier + ")");
     syncBufferThread =
         IoTDBThreadPoolFactory.newSingleThreadExecutor(
             ThreadName.WAL_SYNC.getName() + "(node-" + identifier + ")");
-    // start receiving serialize tasks
-    serializeThread.submit(new SerializeTask());
+    // start syncing sealed segments
+    syncBufferThread.submit(new SyncBufferTask(startSearchIndex));
   }
 
   private void allocateBuffers() {
     try {
-      workingBuffer = ByteBuffer.allocateDirect(HALF_WAL_BUFFER_SIZE);
+      workingSegment = new Segment(ByteBuffer.allocateDirect(HALF_WAL_BUFFER_SIZE));
       idleBuffer = ByteBuffer.allocateDirect(HALF_WAL_BUFFER_SIZE);
     } catch (OutOfMemoryError e) {
       logger.error("Fail to allocate wal node-{}'s buffer because out of memory.", identifier, e);
@@ -123,333 +147,326 @@ public class WALBuffer extends AbstractWALBuffer {
       walEntry.getWalFlushListener().fail(new WALNodeClosedException(identifier));
       return;
     }
-    // just add this WALEntry to queue
-    try {
-      walEntries.put(walEntry);
-    } catch (InterruptedException e) {
-      logger.warn("Interrupted when waiting for adding WALEntry to buffer.");
-      Thread.currentThread().interrupt();
+    if (walEntry.isSignal()) {
+      handleSignalEntry((WALSignalEntry) walEntry);
+    } else {
+      writeInfoEntry(walEntry);
     }
   }
 
-  // region Task of serializeThread
-  /** This info class traverses some extra info from serializeThread to syncBufferThread */
-  private static class SerializeInfo {
-    final WALMetaData metaData = new WALMetaData();
-    final List<WALFlushListener> fsyncListeners = new LinkedList<>();
-    WALFlushListener rollWALFileWriterListener = null;
-  }
-
-  /** This task serializes WALEntry to workingBuffer and will call fsync at last. */
-  private class SerializeTask implements Runnable {
-    private final ByteBufferView byteBufferVew = new ByteBufferView();
-    private final SerializeInfo info = new SerializeInfo();
-    private int batchSize = 0;
-
-    @Override
-    public void run() {
-      try {
-        serialize();
-      } finally {
-        if (!isClosed) {
-          serializeThread.submit(new SerializeTask());
-        }
-      }
-    }
-
-    /** In order to control memory usage of blocking queue, get 1 and then serialize 1 */
-    private void serialize() {
-      // try to get first WALEntry with blocking interface
-      try {
-        WALEntry firstWALEntry = walEntries.take();
-        boolean returnFlag = handleWALEntry(firstWALEntry);
-        if (returnFlag) {
-          return;
-        }
-      } catch (InterruptedException e) {
-        logger.warn(
-            "Interrupted when waiting for taking WALEntry from blocking queue to serialize.");
-        Thread.currentThread().interrupt();
-      }
-
-      // for better fsync performance, sleep a while to enlarge write batch
-      long fsyncDelay = config.getFsyncWalDelayInMs();
-      if (fsyncDelay > 0) {
-        try {
-          Thread.sleep(fsyncDelay);
-        } catch (InterruptedException e) {
-          logger.warn("Interrupted when sleeping a while to enlarge wal write batch.");
-          Thread.currentThread().interrupt();
-        }
-      }
-
-      // try to get more WALEntries with non-blocking interface to enlarge write batch
-      while (walEntries.peek() != null && batchSize < QUEUE_CAPACITY) {
-        WALEntry walEntry = walEntries.poll();
-        boolean returnFlag = handleWALEntry(walEntry);
-        if (returnFlag) {
-          return;
-        }
-      }
-
-      // call fsync at last and set fsyncListeners
-      if (batchSize > 0) {
-        fsyncWorkingBuffer(currentSearchIndex, currentFileStatus, info);
-      }
-    }
-
-    /**
-     * @return true if fsyncWorkingBuffer has been called, which means this serialization task
-     *     should be ended.
-     */
-    private boolean handleWALEntry(WALEntry walEntry) {
-      if (walEntry.isSignal()) {
-        return handleSignalEntry((WALSignalEntry) walEntry);
-      }
-
-      boolean success = handleInfoEntry(walEntry);
-      if (success) {
-        ++batchSize;
-        info.fsyncListeners.add(walEntry.getWalFlushListener());
-      }
-      return false;
-    }
-
-    /**
-     * Handle a normal WALEntry.
-     *
-     * @return true if serialization is successful.
-     */
-    private boolean handleInfoEntry(WALEntry walEntry) {
-      int size = byteBufferVew.position();
+  // region write entries
+  /** Serialize the entry into thread-local buffer, then copy it into the working segment. */
+  private void writeInfoEntry(WALEntry walEntry) {
+    EntryBuffer entryBuffer = entryBuffers.get();
+    try {
+      entryBuffer.clear();
       try {
-        walEntry.serialize(byteBufferVew);
-        size = byteBufferVew.position() - size;
-        logger.debug("wal entry size is: {}", size);
+        walEntry.serialize(entryBuffer);
       } catch (Exception e) {
         logger.error(
             "Fail to serialize WALEntry to wal node-{}'s buffer, discard it.", identifier, e);
         walEntry.getWalFlushListener().fail(e);
-        return false;
+        return;
       }
-      // update search index
-      long searchIndex = DEFAULT_SEARCH_INDEX;
-      if (walEntry.getType().needSearch()) {
-        if (walEntry.getType() == WALEntryType.DELETE_DATA_NODE) {
-          searchIndex = ((DeleteDataNode) walEntry.getValue()).getSearchIndex();
-        } else {
-          searchIndex = ((InsertNode) walEntry.getValue()).getSearchIndex();
+      ByteBuffer bytes = entryBuffer.flip();
+      int size = bytes.remaining();
+      logger.debug("wal entry size is: {}", size);
+      long searchIndex = getSearchIndex(walEntry);
+      WALFlushListener listener = walEntry.getWalFlushListener();
+      if (size > HALF_WAL_BUFFER_SIZE) {
+        writeHugeEntry(bytes, searchIndex, listener);
+        return;
+      }
+
+      while (true) {
+        Segment segment = workingSegment;
+        int offset = segment.reserve(size);
+        if (offset < 0) {
+          rollWorkingSegment(segment);
+          continue;
         }
+        segment.write(offset, bytes, searchIndex, listener);
         if (searchIndex != DEFAULT_SEARCH_INDEX) {
-          currentSearchIndex = searchIndex;
-          currentFileStatus = WALFileStatus.CONTAINS_SEARCH_INDEX;
+          currentSearchIndex.accumulateAndGet(searchIndex, Math::max);
         }
+        // wake up the sync thread when the first entry arrives or thresholds are reached
+        int waiterNum = listener.isWait() ? segment.waiterNum.get() : 0;
+        int groupCommitSize = config.getWalGroupCommitSizeInByte();
+        if (offset == 0
+            || (offset < groupCommitSize && offset + size >= groupCommitSize)
+            || waiterNum >= config.getWalGroupCommitWaiterNum()) {
+          notifySyncThread();
+        }
+        return;
       }
-      info.metaData.add(size, searchIndex);
-      return true;
-    }
-
-    /**
-     * @return true if fsyncWorkingBuffer has been called, which means this serialization task
-     *     should be ended.
-     */
-    private boolean handleSignalEntry(WALSignalEntry walSignalEntry) {
-      switch (walSignalEntry.getType()) {
-        case ROLL_WAL_LOG_WRITER_SIGNAL:
-          logger.debug("Handle roll log writer signal for wal node-{}.", identifier);
-          info.rollWALFileWriterListener = walSignalEntry.getWalFlushListener();
-          fsyncWorkingBuffer(currentSearchIndex, currentFileStatus, info);
-          return true;
-        case CLOSE_SIGNAL:
-          logger.debug(
-              "Handle close signal for wal node-{}, there are {} entries left.",
-              identifier,
-              walEntries.size());
-          boolean dataExists = batchSize > 0;
-          if (dataExists) {
-            fsyncWorkingBuffer(currentSearchIndex, currentFileStatus, info);
-          }
-          return dataExists;
-        default:
-          return false;
-      }
+    } finally {
+      entryBuffer.shrink();
     }
   }
 
   /**
-   * This view uses workingBuffer lock-freely because workingBuffer is only updated by
-   * serializeThread and this class is only used by serializeThread.
+   * Huge entry can not be put into one buffer, so it's copied into the buffers exclusively and the
+   * bytes are synced to disk buffer by buffer.
    */
-  private class ByteBufferView implements IWALByteBufferView {
-    private int flushedBytesNum = 0;
-
-    private void ensureEnoughSpace(int bytesNum) {
-      if (workingBuffer.remaining() < bytesNum) {
-        rollBuffer();
+  private void writeHugeEntry(ByteBuffer bytes, long searchIndex, WALFlushListener listener) {
+    int size = bytes.remaining();
+    buffersLock.lock();
+    try {
+      // seal the working segment to stop other writers, then copy the entry into new segments
+      Segment segment = awaitUnsealedWorkingSegment();
+      segment.sealed = true;
+      addSealedSegment(segment);
+      segment = new Segment(takeIdleBuffer());
+      segment.compressible = false;
+      while (bytes.remaining() > segment.buffer.remaining()) {
+        ByteBuffer slice = bytes.slice();
+        slice.limit(segment.buffer.remaining());
+        segment.buffer.put(slice);
+        bytes.position(bytes.position() + slice.limit());
+        // middle part of this entry, sync it without fsync
+        segment.cursor.set(segment.buffer.position());
+        segment.forceFlag = false;
+        segment.sealed = true;
+        addSealedSegment(segment);
+        segment = new Segment(takeIdleBuffer());
+        segment.compressible = false;
       }
-    }
-
-    private void rollBuffer() {
-      flushedBytesNum += workingBuffer.position();
-      syncWorkingBuffer(currentSearchIndex, currentFileStatus);
-    }
-
-    @Override
-    public void put(byte b) {
-      ensureEnoughSpace(Byte.BYTES);
-      workingBuffer.put(b);
-    }
-
-    @Override
-    public void put(byte[] src) {
-      int offset = 0;
-      while (true) {
-        int leftCapacity = workingBuffer.remaining();
-        int needCapacity = src.length - offset;
-        if (leftCapacity >= needCapacity) {
-          workingBuffer.put(src, offset, needCapacity);
-          break;
-        } else {
-          workingBuffer.put(src, offset, leftCapacity);
-          offset += leftCapacity;
-          rollBuffer();
-        }
+      segment.buffer.put(bytes);
+      // the tail segment holds the end of this entry, so the info of this entry is put there
+      segment.addEntryInfo(new EntryInfo(0, size, searchIndex, listener));
+      if (searchIndex != DEFAULT_SEARCH_INDEX) {
+        currentSearchIndex.accumulateAndGet(searchIndex, Math::max);
       }
+      segment.cursor.set(segment.buffer.position());
+      workingSegment = segment;
+      workingSegmentRolledCondition.signalAll();
+      notifySyncThread();
+    } catch (InterruptedException e) {
+      logger.warn("Interrupted When waiting for available working buffer.");
+      listener.fail(e);
+      Thread.currentThread().interrupt();
+    } finally {
+      buffersLock.unlock();
     }
+  }
 
-    @Override
-    public void putChar(char value) {
-      ensureEnoughSpace(Character.BYTES);
-      workingBuffer.putChar(value);
-    }
-
-    @Override
-    public void putShort(short value) {
-      ensureEnoughSpace(Short.BYTES);
-      workingBuffer.putShort(value);
+  private void handleSignalEntry(WALSignalEntry walSignalEntry) {
+    if (walSignalEntry.getType() != WALEntryType.ROLL_WAL_LOG_WRITER_SIGNAL) {
+      return;
     }
-
-    @Override
-    public void putInt(int value) {
-      ensureEnoughSpace(Integer.BYTES);
-      workingBuffer.putInt(value);
+    logger.debug("Handle roll log writer signal for wal node-{}.", identifier);
+    buffersLock.lock();
+    try {
+      Segment segment = awaitUnsealedWorkingSegment();
+      segment.rollWALFileWriterListener = walSignalEntry.getWalFlushListener();
+      sealWorkingSegment(segment);
+    } catch (InterruptedException e) {
+      logger.warn("Interrupted When waiting for available working buffer.");
+      walSignalEntry.getWalFlushListener().fail(e);
+      Thread.currentThread().interrupt();
+    } finally {
+      buffersLock.unlock();
     }
+  }
 
-    @Override
-    public void putLong(long value) {
-      ensureEnoughSpace(Long.BYTES);
-      workingBuffer.putLong(value);
+  private long getSearchIndex(WALEntry walEntry) {
+    long searchIndex = DEFAULT_SEARCH_INDEX;
+    if (walEntry.getType().needSearch()) {
+      if (walEntry.getType() == WALEntryType.DELETE_DATA_NODE) {
+        searchIndex = ((DeleteDataNode) walEntry.getValue()).getSearchIndex();
+      } else {
+        searchIndex = ((InsertNode) walEntry.getValue()).getSearchIndex();
+      }
     }
+    return searchIndex;
+  }
 
-    @Override
-    public void putFloat(float value) {
-      ensureEnoughSpace(Float.BYTES);
-      workingBuffer.putFloat(value);
+  /** Called by writers when the given segment is exhausted. */
+  private void rollWorkingSegment(Segment segment) {
+    buffersLock.lock();
+    try {
+      if (workingSegment != segment) {
+        return;
+      }
+      if (segment.sealed) {
+        // some other thread is rolling it
+        awaitUnsealedWorkingSegment();
+        return;
+      }
+      sealWorkingSegment(segment);
+    } catch (InterruptedException e) {
+      logger.warn("Interrupted When waiting for available working buffer.");
+      Thread.currentThread().interrupt();
+    } finally {
+      buffersLock.unlock();
     }
+  }
 
-    @Override
-    public void putDouble(double value) {
-      ensureEnoughSpace(Double.BYTES);
-      workingBuffer.putDouble(value);
+  // must hold buffersLock
+  private Segment awaitUnsealedWorkingSegment() throws InterruptedException {
+    while (workingSegment.sealed) {
+      workingSegmentRolledCondition.await();
     }
+    return workingSegment;
+  }
 
-    @Override
-    public int position() {
-      return flushedBytesNum + workingBuffer.position();
-    }
+  /** Seal the working segment and replace it with the idle buffer, must hold buffersLock. */
+  private void sealWorkingSegment(Segment segment) {
+    segment.sealed = true;
+    addSealedSegment(segment);
+    workingSegment = new Segment(takeIdleBuffer());
+    workingSegmentRolledCondition.signalAll();
   }
 
-  /** Notice: this method only called when buffer is exhausted by SerializeTask. */
-  private void syncWorkingBuffer(long searchIndex, WALFileStatus fileStatus) {
-    switchWorkingBufferToFlushing();
-    syncBufferThread.submit(new SyncBufferTask(searchIndex, fileStatus, false));
-    currentFileStatus = WALFileStatus.CONTAINS_NONE_SEARCH_INDEX;
+  /**
+   * Must hold buffersLock. Waiting is not interruptible, because the idle buffer is surely returned
+   * after syncing the pending segment and a sealed working segment must be replaced.
+   */
+  private ByteBuffer takeIdleBuffer() {
+    while (idleBuffer == null) {
+      idleBufferReadyCondition.awaitUninterruptibly();
+    }
+    ByteBuffer buffer = idleBuffer;
+    idleBuffer = null;
+    buffer.clear();
+    return buffer;
   }
 
-  /** Notice: this method only called at the last of SerializeTask. */
-  private void fsyncWorkingBuffer(long searchIndex, WALFileStatus fileStatus, SerializeInfo info) {
-    switchWorkingBufferToFlushing();
-    syncBufferThread.submit(new SyncBufferTask(searchIndex, fileStatus, true, info));
-    currentFileStatus = WALFileStatus.CONTAINS_NONE_SEARCH_INDEX;
+  private void addSealedSegment(Segment segment) {
+    sealedSegments.add(segment);
+    notifySyncThread();
   }
 
-  // only called by serializeThread
-  private void switchWorkingBufferToFlushing() {
-    buffersLock.lock();
-    try {
-      while (idleBuffer == null) {
-        idleBufferReadyCondition.await();
-      }
-      syncingBuffer = workingBuffer;
-      workingBuffer = idleBuffer;
-      workingBuffer.clear();
-      idleBuffer = null;
-    } catch (InterruptedException e) {
-      logger.warn("Interrupted When waiting for available working buffer.");
-      Thread.currentThread().interrupt();
-    } finally {
-      buffersLock.unlock();
+  private void notifySyncThread() {
+    Thread thread = syncThread;
+    if (syncThreadParked && thread != null) {
+      LockSupport.unpark(thread);
     }
   }
   // endregion
 
   // region Task of syncBufferThread
-  /**
-   * This task syncs syncingBuffer to disk. The precondition is that syncingBuffer cannot be null.
-   */
+  /** This task waits for pending entries and syncs sealed segments to disk. */
   private class SyncBufferTask implements Runnable {
-    private final long searchIndex;
-    private final WALFileStatus fileStatus;
-    private final boolean forceFlag;
-    private final SerializeInfo info;
+    /** search index of the last synced entry */
+    private long syncedSearchIndex;
+    /** the working segment holding pending entries, and the time its first entry is seen */
+    private Segment pendingSegment;
 
-    public SyncBufferTask(long searchIndex, WALFileStatus fileStatus, boolean forceFlag) {
-      this(searchIndex, fileStatus, forceFlag, null);
-    }
+    private long pendingStartTime;
 
-    public SyncBufferTask(
-        long searchIndex, WALFileStatus fileStatus, boolean forceFlag, SerializeInfo info) {
-      this.searchIndex = searchIndex;
-      this.fileStatus = fileStatus;
-      this.forceFlag = forceFlag;
-      this.info = info == null ? new SerializeInfo() : info;
+    private SyncBufferTask(long startSearchIndex) {
+      this.syncedSearchIndex = startSearchIndex;
     }
 
     @Override
     public void run() {
-      currentWALFileWriter.updateFileStatus(fileStatus);
+      syncThread = Thread.currentThread();
+      while (true) {
+        Segment segment = sealedSegments.poll();
+        if (segment != null) {
+          syncSegment(segment);
+        } else if (isAllSegmentsSealed && sealedSegments.isEmpty()) {
+          break;
+        } else {
+          tryGroupCommit();
+        }
+      }
+    }
+
+    /** Seal the working segment when it should be committed, otherwise park for a while. */
+    private void tryGroupCommit() {
+      Segment segment = workingSegment;
+      int size = segment.cursor.get();
+      long parkTime = MAX_PARK_TIME_IN_NS;
+      if (size > 0 && !segment.sealed) {
+        long now = System.nanoTime();
+        if (segment != pendingSegment) {
+          pendingSegment = segment;
+          pendingStartTime = now;
+        }
+        long delay =
+            TimeUnit.MILLISECONDS.toNanos(config.getFsyncWalDelayInMs()) - (now - pendingStartTime);
+        if (delay <= 0
+            || size >= config.getWalGroupCommitSizeInByte()
+            || segment.waiterNum.get() >= config.getWalGroupCommitWaiterNum()) {
+          sealForGroupCommit(segment);
+          return;
+        }
+        parkTime = delay;
+      }
+
+      syncThreadParked = true;
+      // check again to avoid missing the notification of writers
+      if (sealedSegments.isEmpty() && workingSegment.cursor.get() == size && !isAllSegmentsSealed) {
+        LockSupport.parkNanos(this, parkTime);
+      }
+      syncThreadParked = false;
+    }
+
+    private void sealForGroupCommit(Segment segment) {
+      buffersLock.lock();
+      try {
+        // idle buffer is null only when some segment is waiting for syncing
+        if (workingSegment == segment && !segment.sealed && idleBuffer != null) {
+          sealWorkingSegment(segment);
+        }
+      } finally {
+        buffersLock.unlock();
+      }
+    }
+
+    private void syncSegment(Segment segment) {
+      segment.awaitWriters();
+      ByteBuffer buffer = segment.buffer;
+      buffer.position(segment.cursor.get());
+      List<EntryInfo> entryInfos = new ArrayList<>(segment.entryInfos);
+      entryInfos.sort(Comparator.comparingInt(info -> info.offset));
+      WALMetaData metaData = new WALMetaData();
+      for (EntryInfo info : entryInfos) {
+        metaData.add(info.size, info.searchIndex);
+        if (info.searchIndex != DEFAULT_SEARCH_INDEX) {
+          syncedSearchIndex = info.searchIndex;
+        }
+      }
+      currentWALFileWriter.updateFileStatus(
+          segment.maxSearchIndex.get() != DEFAULT_SEARCH_INDEX
+              ? WALFileStatus.CONTAINS_SEARCH_INDEX
+              : WALFileStatus.CONTAINS_NONE_SEARCH_INDEX);
 
       // flush buffer to os
       try {
-        currentWALFileWriter.write(syncingBuffer, info.metaData);
+        currentWALFileWriter.write(buffer, metaData, segment.compressible);
       } catch (Throwable e) {
         logger.error(
             "Fail to sync wal node-{}'s buffer, change system mode to error.", identifier, e);
         CommonDescriptor.getInstance().getConfig().handleUnrecoverableError();
       } finally {
-        switchSyncingBufferToIdle();
+        switchSyncingBufferToIdle(buffer);
       }
 
       boolean forceSuccess = false;
+      WALFlushListener rollWALFileWriterListener = segment.rollWALFileWriterListener;
       // try to roll log writer
-      if (info.rollWALFileWriterListener != null
-          || (forceFlag && currentWALFileWriter.size() >= config.getWalFileSizeThresholdInByte())) {
+      if (rollWALFileWriterListener != null
+          || (segment.forceFlag
+              && currentWALFileWriter.size() >= config.getWalFileSizeThresholdInByte())) {
         try {
-          rollLogWriter(searchIndex, currentWALFileWriter.getWalFileStatus());
+          rollLogWriter(syncedSearchIndex, currentWALFileWriter.getWalFileStatus());
           forceSuccess = true;
-          if (info.rollWALFileWriterListener != null) {
-            info.rollWALFileWriterListener.succeed();
+          if (rollWALFileWriterListener != null) {
+            rollWALFileWriterListener.succeed();
           }
         } catch (IOException e) {
           logger.error(
               "Fail to roll wal node-{}'s log writer, change system mode to error.", identifier, e);
-          if (info.rollWALFileWriterListener != null) {
-            info.rollWALFileWriterListener.fail(e);
+          if (rollWALFileWriterListener != null) {
+            rollWALFileWriterListener.fail(e);
           }
           CommonDescriptor.getInstance().getConfig().handleUnrecoverableError();
         }
-      } else if (forceFlag) { // force os cache to the storage device, avoid force twice by judging
-        // after rolling file
+      } else if (segment.forceFlag) { // force os cache to the storage device, avoid force twice by
+        // judging after rolling file
         try {
           currentWALFileWriter.force();
           forceSuccess = true;
@@ -458,8 +475,8 @@ public class WALBuffer extends AbstractWALBuffer {
               "Fail to fsync wal node-{}'s log writer, change system mode to error.",
               identifier,
               e);
-          for (WALFlushListener fsyncListener : info.fsyncListeners) {
-            fsyncListener.fail(e);
+          for (EntryInfo info : entryInfos) {
+            info.listener.fail(e);
           }
           CommonDescriptor.getInstance().getConfig().handleUnrecoverableError();
         }
@@ -467,21 +484,57 @@ public class WALBuffer extends AbstractWALBuffer {
 
       // notify all waiting listeners
       if (forceSuccess) {
-        for (WALFlushListener fsyncListener : info.fsyncListeners) {
-          fsyncListener.succeed();
+        for (EntryInfo info : entryInfos) {
+          info.listener.succeed();
         }
+        recordGroupCommit(entryInfos);
+      }
+    }
+
+    /** Record the size of this batch and the contention of writers since last batch. */
+    private void recordGroupCommit(List<EntryInfo> entryInfos) {
+      if (entryInfos.isEmpty()) {
+        return;
       }
+      long bytesNum = 0;
+      for (EntryInfo info : entryInfos) {
+        bytesNum += info.size;
+      }
+      MetricService metricService = MetricService.getInstance();
+      metricService.histogram(
+          entryInfos.size(),
+          Metric.WAL_GROUP_COMMIT.toString(),
+          MetricLevel.IMPORTANT,
+          Tag.NAME.toString(),
+          identifier,
+          Tag.TYPE.toString(),
+          ENTRY_NUM);
+      metricService.histogram(
+          bytesNum,
+          Metric.WAL_GROUP_COMMIT.toString(),
+          MetricLevel.IMPORTANT,
+          Tag.NAME.toString(),
+          identifier,
+          Tag.TYPE.toString(),
+          SIZE_IN_BYTE);
+      metricService.histogram(
+          reserveRetryNum.sumThenReset(),
+          Metric.WAL_GROUP_COMMIT.toString(),
+          MetricLevel.IMPORTANT,
+          Tag.NAME.toString(),
+          identifier,
+          Tag.TYPE.toString(),
+          RESERVE_RETRY_NUM);
     }
   }
 
   // only called by syncBufferThread
-  private void switchSyncingBufferToIdle() {
+  private void switchSyncingBufferToIdle(ByteBuffer syncingBuffer) {
     buffersLock.lock();
     try {
       // No need to judge whether idleBuffer is null because syncingBuffer is not null
       // and there is only one buffer can be null between syncingBuffer and idleBuffer
       idleBuffer = syncingBuffer;
-      syncingBuffer = null;
       idleBufferReadyCondition.signalAll();
     } finally {
       buffersLock.unlock();
@@ -512,17 +565,25 @@ public class WALBuffer extends AbstractWALBuffer {
   @Override
   public void close() {
     isClosed = true;
-    // first waiting serialize and sync tasks finished, then release all resources
-    if (serializeThread != null) {
-      // add close signal WALEntry to notify serializeThread
+    // first seal the last segment and wait sync task finished, then release all resources
+    if (syncBufferThread != null) {
+      buffersLock.lock();
       try {
-        walEntries.put(new WALSignalEntry(WALEntryType.CLOSE_SIGNAL));
+        Segment segment = awaitUnsealedWorkingSegment();
+        if (segment.cursor.get() > 0) {
+          sealWorkingSegment(segment);
+        }
       } catch (InterruptedException e) {
-        logger.error("Fail to put CLOSE_SIGNAL to walEntries.", e);
+        logger.error("Interrupted when sealing the last segment of wal node-{}.", identifier, e);
+        Thread.currentThread().interrupt();
+      } finally {
+        buffersLock.unlock();
+      }
+      isAllSegmentsSealed = true;
+      Thread thread = syncThread;
+      if (thread != null) {
+        LockSupport.unpark(thread);
       }
-      shutdownThread(serializeThread, ThreadName.WAL_SERIALIZE);
-    }
-    if (syncBufferThread != null) {
       shutdownThread(syncBufferThread, ThreadName.WAL_SYNC);
     }
 
@@ -534,14 +595,22 @@ public class WALBuffer extends AbstractWALBuffer {
       }
     }
 
-    if (workingBuffer != null) {
-      MmapUtil.clean((MappedByteBuffer) workingBuffer);
+    for (String type : new String[] {ENTRY_NUM, SIZE_IN_BYTE, RESERVE_RETRY_NUM}) {
+      MetricService.getInstance()
+          .remove(
+              MetricType.HISTOGRAM,
+              Metric.WAL_GROUP_COMMIT.toString(),
+              Tag.NAME.toString(),
+              identifier,
+              Tag.TYPE.toString(),
+              type);
     }
-    if (idleBuffer != null) {
-      MmapUtil.clean((MappedByteBuffer) workingBuffer);
+
+    if (workingSegment != null) {
+      MmapUtil.clean((MappedByteBuffer) workingSegment.buffer);
     }
-    if (syncingBuffer != null) {
-      MmapUtil.clean((MappedByteBuffer) syncingBuffer);
+    if (idleBuffer != null) {
+      MmapUtil.clean((MappedByteBuffer) idleBuffer);
     }
   }
 
@@ -559,6 +628,197 @@ public class WALBuffer extends AbstractWALBuffer {
 
   @Override
   public boolean isAllWALEntriesConsumed() {
-    return walEntries.isEmpty();
+    return sealedSegments.isEmpty() && workingSegment.cursor.get() == 0 && idleBuffer != null;
+  }
+
+  private static final String ENTRY_NUM = "entry_num";
+  private static final String SIZE_IN_BYTE = "size_in_byte";
+  private static final String RESERVE_RETRY_NUM = "reserve_retry_num";
+
+  /** Position and listener of one WALEntry in the segment. */
+  private static class EntryInfo {
+    final int offset;
+    final int size;
+    final long searchIndex;
+    final WALFlushListener listener;
+
+    EntryInfo(int offset, int size, long searchIndex, WALFlushListener listener) {
+      this.offset = offset;
+      this.size = size;
+      this.searchIndex = searchIndex;
+      this.listener = listener;
+    }
+  }
+
+  /**
+   * A buffer in working status. Writers reserve space by the atomic cursor and copy entries into
+   * the reserved space concurrently. After sealed, no more reservation succeeds and the sync thread
+   * waits for the running writers before syncing it.
+   */
+  private class Segment {
+    final ByteBuffer buffer;
+    /** number of reserved bytes */
+    final AtomicInteger cursor = new AtomicInteger();
+    /** number of writers which may be reserving or writing */
+    final AtomicInteger writerNum = new AtomicInteger();
+    /** number of writers waiting for the fsync of this segment */
+    final AtomicInteger waiterNum = new AtomicInteger();
+    /** entries written, not sorted by offset */
+    final Queue<EntryInfo> entryInfos = new ConcurrentLinkedQueue<>();
+    /** max search index of entries written */
+    final AtomicLong maxSearchIndex = new AtomicLong(DEFAULT_SEARCH_INDEX);
+    /** set before adding to sealedSegments, then no more reservation succeeds */
+    volatile boolean sealed = false;
+    // region these variables are set before sealed
+    /** false only when this segment is a middle part of a huge entry */
+    boolean forceFlag = true;
+    /**
+     * false when this segment holds a part of a huge entry, i.e., it doesn't begin or end at an
+     * entry boundary, so it can't be compressed as a self-contained block
+     */
+    boolean compressible = true;
+
+    WALFlushListener rollWALFileWriterListener = null;
+    // endregion
+
+    Segment(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    /**
+     * Reserve space for an entry.
+     *
+     * @return offset of the reserved space, or -1 if this segment is sealed or exhausted. Notice:
+     *     {@link #write} must be called after a successful reservation.
+     */
+    int reserve(int size) {
+      // increase writerNum before checking sealed, so the sync thread either waits for this writer
+      // or this writer sees the segment sealed
+      writerNum.incrementAndGet();
+      if (!sealed) {
+        int offset = cursor.get();
+        while (offset + size <= buffer.capacity()) {
+          if (cursor.compareAndSet(offset, offset + size)) {
+            return offset;
+          }
+          reserveRetryNum.increment();
+          offset = cursor.get();
+        }
+      }
+      writerNum.decrementAndGet();
+      return -1;
+    }
+
+    void write(int offset, ByteBuffer bytes, long searchIndex, WALFlushListener listener) {
+      try {
+        ByteBuffer target = buffer.duplicate();
+        target.position(offset);
+        target.put(bytes);
+        addEntryInfo(new EntryInfo(offset, bytes.limit(), searchIndex, listener));
+      } finally {
+        writerNum.decrementAndGet();
+      }
+    }
+
+    void addEntryInfo(EntryInfo info) {
+      if (info.listener.isWait()) {
+        waiterNum.incrementAndGet();
+      }
+      if (info.searchIndex != DEFAULT_SEARCH_INDEX) {
+        maxSearchIndex.accumulateAndGet(info.searchIndex, Math::max);
+      }
+      entryInfos.add(info);
+    }
+
+    /** Wait for writers which reserved space before sealed. */
+    void awaitWriters() {
+      while (writerNum.get() > 0) {
+        Thread.yield();
+      }
+    }
+  }
+
+  /** Growable heap buffer to serialize one WALEntry, reused by the same thread. */
+  private static class EntryBuffer implements IWALByteBufferView {
+    private ByteBuffer buffer = ByteBuffer.allocate(ENTRY_BUFFER_SIZE);
+
+    private void clear() {
+      buffer.clear();
+    }
+
+    private ByteBuffer flip() {
+      buffer.flip();
+      return buffer;
+    }
+
+    /** Release the memory of a large entry. */
+    private void shrink() {
+      if (buffer.capacity() > ENTRY_BUFFER_SIZE * 4) {
+        buffer = ByteBuffer.allocate(ENTRY_BUFFER_SIZE);
+      }
+    }
+
+    private void ensureEnoughSpace(int bytesNum) {
+      if (buffer.remaining() < bytesNum) {
+        int newCapacity = Math.max(buffer.capacity() * 2, buffer.position() + bytesNum);
+        ByteBuffer newBuffer = ByteBuffer.allocate(newCapacity);
+        buffer.flip();
+        newBuffer.put(buffer);
+        buffer = newBuffer;
+      }
+    }
+
+    @Override
+    public void put(byte b) {
+      ensureEnoughSpace(Byte.BYTES);
+      buffer.put(b);
+    }
+
+    @Override
+    public void put(byte[] src) {
+      ensureEnoughSpace(src.length);
+      buffer.put(src);
+    }
+
+    @Override
+    public void putChar(char value) {
+      ensureEnoughSpace(Character.BYTES);
+      buffer.putChar(value);
+    }
+
+    @Override
+    public void putShort(short value) {
+      ensureEnoughSpace(Short.BYTES);
+      buffer.putShort(value);
+    }
+
+    @Override
+    public void putInt(int value) {
+      ensureEnoughSpace(Integer.BYTES);
+      buffer.putInt(value);
+    }
+
+    @Override
+    public void putLong(long value) {
+      ensureEnoughSpace(Long.BYTES);
+      buffer.putLong(value);
+    }
+
+    @Override
+    public void putFloat(float value) {
+      ensureEnoughSpace(Float.BYTES);
+      buffer.putFloat(value);
+    }
+
+    @Override
+    public void putDouble(double value) {
+      ensureEnoughSpace(Double.BYTES);
+      buffer.putDouble(value);
+    }
+
+    @Override
+    public int position() {
+      return buffer.position();
+    }
   }
 }
@@ -43,6 +43,8 @@ public enum WALEntryType {
   ROLL_WAL_LOG_WRITER_SIGNAL((byte) (Byte.MIN_VALUE + 1)),
   /** mark the wal file info part ends */
   WAL_FILE_INFO_END_MARKER((byte) (Byte.MIN_VALUE + 2)),
+  /** mark a block of compressed wal entries, see {@link org.apache.iotdb.db.wal.io.WALWriter} */
+  COMPRESSED_BLOCK((byte) (Byte.MIN_VALUE + 3)),
 // endregion
 ;
 
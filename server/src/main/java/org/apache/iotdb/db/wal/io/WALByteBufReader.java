@@ -19,6 +19,9 @@
 package org.apache.iotdb.db.wal.io;
 
 import org.apache.iotdb.db.wal.buffer.WALEntry;
+import org.apache.iotdb.db.wal.buffer.WALEntryType;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
 import java.io.Closeable;
 import java.io.File;
@@ -28,6 +31,7 @@ import java.nio.channels.FileChannel;
 import java.nio.file.StandardOpenOption;
 import java.util.Iterator;
 
+import static org.apache.iotdb.db.wal.io.WALWriter.COMPRESSED_BLOCK_HEADER_BYTES;
 import static org.apache.iotdb.db.wal.io.WALWriter.MAGIC_STRING;
 import static org.apache.iotdb.db.wal.io.WALWriter.MAGIC_STRING_BYTES;
 
@@ -40,6 +44,10 @@ public class WALByteBufReader implements Closeable {
   private final FileChannel channel;
   private final WALMetaData metaData;
   private final Iterator<Integer> sizeIterator;
+  /**
+   * uncompressed entries of the compressed block being read, null when reading uncompressed ones
+   */
+  private ByteBuffer block;
 
   public WALByteBufReader(File logFile) throws IOException {
     this.logFile = logFile;
@@ -71,12 +79,44 @@ public class WALByteBufReader implements Closeable {
   /** Like {@link Iterator#next()} */
   public ByteBuffer next() throws IOException {
     int size = sizeIterator.next();
+    if (block == null || !block.hasRemaining()) {
+      block = readCompressedBlock();
+    }
     ByteBuffer buffer = ByteBuffer.allocate(size);
-    channel.read(buffer);
+    if (block != null) {
+      ByteBuffer entry = block.duplicate();
+      entry.limit(entry.position() + size);
+      buffer.put(entry);
+      block.position(entry.limit());
+    } else {
+      channel.read(buffer);
+    }
     buffer.clear();
     return buffer;
   }
 
+  /** Returns the uncompressed entries when next block is compressed, otherwise null */
+  private ByteBuffer readCompressedBlock() throws IOException {
+    long position = channel.position();
+    ByteBuffer header = ByteBuffer.allocate(COMPRESSED_BLOCK_HEADER_BYTES);
+    channel.read(header);
+    header.flip();
+    if (header.remaining() < COMPRESSED_BLOCK_HEADER_BYTES
+        || header.get() != WALEntryType.COMPRESSED_BLOCK.getCode()) {
+      channel.position(position);
+      return null;
+    }
+    CompressionType compressionType = CompressionType.deserialize(header.get());
+    int rawSize = header.getInt();
+    int compressedSize = header.getInt();
+    ByteBuffer compressed = ByteBuffer.allocate(compressedSize);
+    channel.read(compressed);
+    byte[] raw = new byte[rawSize];
+    IUnCompressor.getUnCompressor(compressionType)
+        .uncompress(compressed.array(), 0, compressedSize, raw, 0);
+    return ByteBuffer.wrap(raw);
+  }
+
   private String readTailMagic() throws IOException {
     ByteBuffer magicStringBytes = ByteBuffer.allocate(MAGIC_STRING_BYTES);
     channel.read(magicStringBytes, channel.size() - MAGIC_STRING_BYTES);
@@ -28,7 +28,9 @@ import static org.apache.iotdb.db.wal.node.WALNode.DEFAULT_SEARCH_INDEX;
 
 /**
  * Metadata exists at the end of each wal file, including each entry's size, search index of first
- * entry and the number of entries.
+ * entry and the number of entries. When wal compression is enabled, the on-disk size and the
+ * uncompressed size of each compressed block are appended as an optional part, which is skipped for
+ * uncompressed files to keep them compatible.
  */
 public class WALMetaData implements SerializedSize {
   /** search index 8 byte, wal entries' number 4 bytes */
@@ -37,16 +39,32 @@ public class WALMetaData implements SerializedSize {
   /** search index of first entry */
   private long firstSearchIndex;
 
-  /** each entry's size */
+  /** each entry's size, entries in compressed blocks are counted by their uncompressed size */
   private final List<Integer> buffersSize;
 
+  /** each compressed block's size on disk, including its header */
+  private final List<Integer> blocksSize;
+
+  /** each compressed block's uncompressed size, i.e. total size of the entries in it */
+  private final List<Integer> blocksRawSize;
+
   public WALMetaData() {
     this(DEFAULT_SEARCH_INDEX, new ArrayList<>());
   }
 
   public WALMetaData(long firstSearchIndex, List<Integer> buffersSize) {
+    this(firstSearchIndex, buffersSize, new ArrayList<>(), new ArrayList<>());
+  }
+
+  private WALMetaData(
+      long firstSearchIndex,
+      List<Integer> buffersSize,
+      List<Integer> blocksSize,
+      List<Integer> blocksRawSize) {
     this.firstSearchIndex = firstSearchIndex;
     this.buffersSize = buffersSize;
+    this.blocksSize = blocksSize;
+    this.blocksRawSize = blocksRawSize;
   }
 
   public void add(int size, long searchIndex) {
@@ -56,16 +74,43 @@ public class WALMetaData implements SerializedSize {
     buffersSize.add(size);
   }
 
+  public void addCompressedBlock(int size, int rawSize) {
+    blocksSize.add(size);
+    blocksRawSize.add(rawSize);
+  }
+
   public void addAll(WALMetaData metaData) {
     if (buffersSize.isEmpty()) {
       firstSearchIndex = metaData.getFirstSearchIndex();
     }
     buffersSize.addAll(metaData.getBuffersSize());
+    addCompressedBlocks(metaData);
+  }
+
+  public void addCompressedBlocks(WALMetaData metaData) {
+    blocksSize.addAll(metaData.blocksSize);
+    blocksRawSize.addAll(metaData.blocksRawSize);
+  }
+
+  /** Returns the size of all entries on disk, which equals the size of wal file before metadata */
+  public long getLogSize() {
+    long size = 0;
+    for (int bufferSize : buffersSize) {
+      size += bufferSize;
+    }
+    for (int i = 0; i < blocksSize.size(); ++i) {
+      size += blocksSize.get(i) - blocksRawSize.get(i);
+    }
+    return size;
   }
 
   @Override
   public int serializedSize() {
-    return FIXED_SERIALIZED_SIZE + buffersSize.size() * Integer.BYTES;
+    int size = FIXED_SERIALIZED_SIZE + buffersSize.size() * Integer.BYTES;
+    if (!blocksSize.isEmpty()) {
+      size += Integer.BYTES + blocksSize.size() * Integer.BYTES * 2;
+    }
+    return size;
   }
 
   public void serialize(ByteBuffer buffer) {
@@ -74,6 +119,13 @@ public class WALMetaData implements SerializedSize {
     for (int size : buffersSize) {
       buffer.putInt(size);
     }
+    if (!blocksSize.isEmpty()) {
+      buffer.putInt(blocksSize.size());
+      for (int i = 0; i < blocksSize.size(); ++i) {
+        buffer.putInt(blocksSize.get(i));
+        buffer.putInt(blocksRawSize.get(i));
+      }
+    }
   }
 
   public static WALMetaData deserialize(ByteBuffer buffer) {
@@ -83,13 +135,26 @@ public class WALMetaData implements SerializedSize {
     for (int i = 0; i < entriesNum; ++i) {
       buffersSize.add(buffer.getInt());
     }
-    return new WALMetaData(firstSearchIndex, buffersSize);
+    List<Integer> blocksSize = new ArrayList<>();
+    List<Integer> blocksRawSize = new ArrayList<>();
+    if (buffer.hasRemaining()) {
+      int blocksNum = buffer.getInt();
+      for (int i = 0; i < blocksNum; ++i) {
+        blocksSize.add(buffer.getInt());
+        blocksRawSize.add(buffer.getInt());
+      }
+    }
+    return new WALMetaData(firstSearchIndex, buffersSize, blocksSize, blocksRawSize);
   }
 
   public List<Integer> getBuffersSize() {
     return buffersSize;
   }
 
+  public List<Integer> getBlocksSize() {
+    return blocksSize;
+  }
+
   public long getFirstSearchIndex() {
     return firstSearchIndex;
   }
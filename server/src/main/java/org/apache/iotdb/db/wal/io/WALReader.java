@@ -22,11 +22,14 @@ import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.wal.buffer.WALEntry;
 import org.apache.iotdb.db.wal.buffer.WALEntryType;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.DataInputStream;
 import java.io.File;
@@ -49,6 +52,10 @@ public class WALReader implements Closeable {
   private final DataInputStream logStream;
   private WALEntry nextEntry;
   private boolean fileCorrupted = false;
+  /** stream of the compressed block being read, null when reading uncompressed entries */
+  private DataInputStream blockStream;
+  /** compressed blocks which have been read */
+  private final WALMetaData blocksMetaData = new WALMetaData();
 
   public WALReader(File logFile) throws IOException {
     this(logFile, false);
@@ -72,7 +79,7 @@ public class WALReader implements Closeable {
       if (fileCorrupted) {
         return false;
       }
-      nextEntry = WALEntry.deserialize(logStream);
+      nextEntry = WALEntry.deserialize(nextEntryStream());
       if (nextEntry.getType() == WALEntryType.WAL_FILE_INFO_END_MARKER) {
         nextEntry = null;
         return false;
@@ -92,6 +99,33 @@ public class WALReader implements Closeable {
     return nextEntry != null;
   }
 
+  /** Returns the stream of next entry, decompress the next block when it's compressed */
+  private DataInputStream nextEntryStream() throws IOException {
+    if (blockStream != null) {
+      if (blockStream.available() > 0) {
+        return blockStream;
+      }
+      blockStream = null;
+    }
+    logStream.mark(Byte.BYTES);
+    if (logStream.readByte() != WALEntryType.COMPRESSED_BLOCK.getCode()) {
+      logStream.reset();
+      return logStream;
+    }
+    CompressionType compressionType = CompressionType.deserialize(logStream.readByte());
+    int rawSize = logStream.readInt();
+    int compressedSize = logStream.readInt();
+    byte[] compressed = new byte[compressedSize];
+    logStream.readFully(compressed);
+    byte[] raw = new byte[rawSize];
+    IUnCompressor.getUnCompressor(compressionType)
+        .uncompress(compressed, 0, compressedSize, raw, 0);
+    blocksMetaData.addCompressedBlock(
+        WALWriter.COMPRESSED_BLOCK_HEADER_BYTES + compressedSize, rawSize);
+    blockStream = new DataInputStream(new ByteArrayInputStream(raw));
+    return blockStream;
+  }
+
   /** Like {@link Iterator#next()} */
   public WALEntry next() {
     if (nextEntry == null) {
@@ -102,6 +136,11 @@ public class WALReader implements Closeable {
     return next;
   }
 
+  /** Returns sizes of the compressed blocks which have been read */
+  public WALMetaData getCompressedBlocks() {
+    return blocksMetaData;
+  }
+
   @Override
   public void close() throws IOException {
     logStream.close();
@@ -18,36 +18,117 @@
  */
 package org.apache.iotdb.db.wal.io;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.wal.buffer.WALEntry;
 import org.apache.iotdb.db.wal.buffer.WALEntryType;
 import org.apache.iotdb.db.wal.buffer.WALSignalEntry;
 import org.apache.iotdb.db.wal.utils.WALFileStatus;
+import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 
-/** WALWriter writes the binary {@link WALEntry} into .wal file. */
+/**
+ * WALWriter writes the binary {@link WALEntry} into .wal file. When wal compression is enabled,
+ * each buffer is compressed as a block: {@link WALEntryType#COMPRESSED_BLOCK} code, compression
+ * type, uncompressed size, compressed size and the compressed entries. Buffers which can't be
+ * shrunk are written uncompressed, readers distinguish them by the first byte. A block must begin
+ * and end at entry boundaries, so the parts of a huge entry spanning several buffers are written
+ * uncompressed.
+ */
 public class WALWriter extends LogWriter {
   public static final String MAGIC_STRING = "WAL";
   public static final int MAGIC_STRING_BYTES = MAGIC_STRING.getBytes().length;
+  /**
+   * block type 1 byte, compression type 1 byte, uncompressed size 4 bytes, compressed size 4 bytes
+   */
+  public static final int COMPRESSED_BLOCK_HEADER_BYTES = Byte.BYTES * 2 + Integer.BYTES * 2;
 
   private WALFileStatus walFileStatus = WALFileStatus.CONTAINS_NONE_SEARCH_INDEX;
 
   /** wal files' metadata */
   protected final WALMetaData metaData = new WALMetaData();
 
+  private final CompressionType compressionType;
+  /** null when wal compression is disabled */
+  private final ICompressor compressor;
+  /** reused arrays for compression */
+  private byte[] rawBytes = new byte[0];
+
+  private byte[] compressedBytes = new byte[0];
+
   public WALWriter(File logFile) throws FileNotFoundException {
+    this(logFile, IoTDBDescriptor.getInstance().getConfig().getWalCompressionType());
+  }
+
+  public WALWriter(File logFile, CompressionType compressionType) throws FileNotFoundException {
     super(logFile);
+    this.compressionType = compressionType;
+    this.compressor =
+        compressionType == CompressionType.UNCOMPRESSED
+            ? null
+            : ICompressor.getCompressor(compressionType);
   }
 
   /** Writes buffer and update its' metadata */
   public void write(ByteBuffer buffer, WALMetaData metaData) throws IOException {
+    write(buffer, metaData, true);
+  }
+
+  /**
+   * Writes buffer and update its' metadata
+   *
+   * @param compressible false if the buffer doesn't begin or end at an entry boundary, then it's
+   *     written uncompressed
+   */
+  public void write(ByteBuffer buffer, WALMetaData metaData, boolean compressible)
+      throws IOException {
     // update metadata
     updateMetaData(metaData);
     // flush buffer
-    write(buffer);
+    if (compressor != null && compressible && buffer.position() > 0) {
+      writeCompressedBlock(buffer);
+    } else {
+      write(buffer);
+    }
+  }
+
+  private void writeCompressedBlock(ByteBuffer buffer) throws IOException {
+    int rawSize = buffer.position();
+    if (rawBytes.length < rawSize) {
+      rawBytes = new byte[rawSize];
+    }
+    ByteBuffer rawBuffer = buffer.duplicate();
+    rawBuffer.flip();
+    rawBuffer.get(rawBytes, 0, rawSize);
+    int maxCompressedSize = compressor.getMaxBytesForCompression(rawSize);
+    if (compressedBytes.length < maxCompressedSize) {
+      compressedBytes = new byte[maxCompressedSize];
+    }
+    int compressedSize;
+    try {
+      compressedSize = compressor.compress(rawBytes, 0, rawSize, compressedBytes);
+    } catch (IOException e) {
+      // e.g. GZIP may overflow the estimated max size, write this buffer uncompressed
+      compressedSize = Integer.MAX_VALUE;
+    }
+    if (compressedSize >= rawSize - COMPRESSED_BLOCK_HEADER_BYTES) {
+      write(buffer);
+      return;
+    }
+    ByteBuffer header = ByteBuffer.allocate(COMPRESSED_BLOCK_HEADER_BYTES);
+    header.put(WALEntryType.COMPRESSED_BLOCK.getCode());
+    header.put(compressionType.serialize());
+    header.putInt(rawSize);
+    header.putInt(compressedSize);
+    write(header);
+    ByteBuffer compressed = ByteBuffer.wrap(compressedBytes);
+    compressed.position(compressedSize);
+    write(compressed);
+    metaData.addCompressedBlock(COMPRESSED_BLOCK_HEADER_BYTES + compressedSize, rawSize);
   }
 
   public void updateMetaData(WALMetaData metaData) {
@@ -156,6 +156,7 @@ public class WALNodeRecoverTask implements Runnable {
         }
         metaData.add(walEntry.serializedSize(), searchIndex);
       }
+      metaData.addCompressedBlocks(walReader.getCompressedBlocks());
     } catch (Exception e) {
       logger.warn("Fail to read wal logs from {}, skip them", lastWALFile, e);
     }
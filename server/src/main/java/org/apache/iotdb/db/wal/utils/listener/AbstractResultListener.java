@@ -74,6 +74,11 @@ public abstract class AbstractResultListener {
     return status;
   }
 
+  /** Return true if some thread will wait until getting the result. */
+  public boolean isWait() {
+    return wait;
+  }
+
   /** Get the cause exception to failure. */
   public Exception getCause() {
     return cause;
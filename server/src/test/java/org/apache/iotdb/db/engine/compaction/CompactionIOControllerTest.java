@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class CompactionIOControllerTest {
+  private static final long INTERVAL = TimeUnit.SECONDS.toNanos(1);
+  private static final double MB = 1024.0 * 1024.0;
+
+  private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private final CompactionIOController controller = CompactionIOController.getInstance();
+
+  private int originWriteThroughput;
+  private int originReadThroughput;
+  private int originSubTaskNum;
+  private boolean originEnableAdaptiveControl;
+  private double originMinBudgetRatio;
+
+  @Before
+  public void setUp() {
+    originWriteThroughput = config.getCompactionWriteThroughputMbPerSec();
+    originReadThroughput = config.getCompactionReadThroughputMbPerSec();
+    originSubTaskNum = config.getSubCompactionTaskNum();
+    originEnableAdaptiveControl = config.isEnableAdaptiveCompactionIOControl();
+    originMinBudgetRatio = config.getCompactionIOMinBudgetRatio();
+    config.setCompactionWriteThroughputMbPerSec(16);
+    config.setCompactionReadThroughputMbPerSec(0);
+    config.setSubCompactionTaskNum(4);
+    config.setEnableAdaptiveCompactionIOControl(true);
+    config.setCompactionIOMinBudgetRatio(0.2);
+    controller.reset();
+  }
+
+  @After
+  public void tearDown() {
+    config.setCompactionWriteThroughputMbPerSec(originWriteThroughput);
+    config.setCompactionReadThroughputMbPerSec(originReadThroughput);
+    config.setSubCompactionTaskNum(originSubTaskNum);
+    config.setEnableAdaptiveCompactionIOControl(originEnableAdaptiveControl);
+    config.setCompactionIOMinBudgetRatio(originMinBudgetRatio);
+    controller.reset();
+  }
+
+  @Test
+  public void testBackOffWhenQueriesWaitForIO() {
+    controller.recordQueryIOWait(INTERVAL);
+    controller.adjust(INTERVAL, 0);
+    Assert.assertEquals(0.5, controller.getBudgetRatio(), 0.0001);
+    Assert.assertEquals(8 * MB, controller.getWriteRateLimiter().getRate(), 0.0001);
+    Assert.assertEquals(2, controller.getSubCompactionTaskNum());
+
+    // the IO wait of queries is cleared after each adjustment
+    controller.adjust(INTERVAL, 0);
+    Assert.assertEquals(0.6, controller.getBudgetRatio(), 0.0001);
+  }
+
+  @Test
+  public void testGuaranteedFloorAndRecovery() {
+    for (int i = 0; i < 10; i++) {
+      controller.adjust(INTERVAL, 3);
+    }
+    Assert.assertEquals(0.2, controller.getBudgetRatio(), 0.0001);
+    Assert.assertEquals(16 * MB * 0.2, controller.getWriteRateLimiter().getRate(), 0.0001);
+    Assert.assertEquals(1, controller.getSubCompactionTaskNum());
+
+    for (int i = 0; i < 10; i++) {
+      controller.adjust(INTERVAL, 0);
+    }
+    Assert.assertEquals(1.0, controller.getBudgetRatio(), 0.0001);
+    Assert.assertEquals(16 * MB, controller.getWriteRateLimiter().getRate(), 0.0001);
+    Assert.assertEquals(4, controller.getSubCompactionTaskNum());
+  }
+
+  /* The unlimited read throughput is throttled relative to the peak throughput observed. */
+  @Test
+  public void testThrottleUnlimitedThroughput() {
+    Assert.assertEquals(Double.MAX_VALUE, controller.getReadRateLimiter().getRate(), 0.0001);
+    controller.acquireRead(10 * 1024 * 1024);
+    controller.adjust(INTERVAL, 1);
+    Assert.assertEquals(5 * MB, controller.getReadRateLimiter().getRate(), 0.0001);
+
+    for (int i = 0; i < 10; i++) {
+      controller.adjust(INTERVAL, 0);
+    }
+    Assert.assertEquals(Double.MAX_VALUE, controller.getReadRateLimiter().getRate(), 0.0001);
+  }
+
+  @Test
+  public void testDisableAdaptiveControl() {
+    config.setEnableAdaptiveCompactionIOControl(false);
+    controller.recordQueryIOWait(INTERVAL * 10);
+    controller.adjust(INTERVAL, 3);
+    Assert.assertEquals(1.0, controller.getBudgetRatio(), 0.0001);
+    Assert.assertEquals(16 * MB, controller.getWriteRateLimiter().getRate(), 0.0001);
+  }
+}
@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.exception.MetadataException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.compaction.performer.ICompactionPerformer;
+import org.apache.iotdb.db.engine.compaction.performer.impl.FastCompactionPerformer;
+import org.apache.iotdb.db.engine.compaction.reader.IDataBlockReader;
+import org.apache.iotdb.db.engine.compaction.reader.SeriesDataBlockReader;
+import org.apache.iotdb.db.engine.compaction.task.CompactionTaskSummary;
+import org.apache.iotdb.db.engine.compaction.utils.CompactionFileGeneratorUtils;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.metadata.path.MeasurementPath;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.IBatchDataIterator;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.utils.Pair;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.iotdb.commons.conf.IoTDBConstant.PATH_SEPARATOR;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The data read from the target files of the fast performer should be the same as the data read
+ * from the source files.
+ */
+public class FastCompactionPerformerTest extends AbstractCompactionTest {
+  private final String oldThreadName = Thread.currentThread().getName();
+
+  @Before
+  public void setUp() throws IOException, WriteProcessException, MetadataException {
+    super.setUp();
+    IoTDBDescriptor.getInstance().getConfig().setTargetChunkSize(1024);
+    Thread.currentThread().setName("pool-1-IoTDB-Compaction-1");
+  }
+
+  @After
+  public void tearDown() throws IOException, StorageEngineException {
+    super.tearDown();
+    Thread.currentThread().setName(oldThreadName);
+    for (TsFileResource tsFileResource : seqResources) {
+      FileReaderManager.getInstance().closeFileAndRemoveReader(tsFileResource.getTsFilePath());
+    }
+    for (TsFileResource tsFileResource : unseqResources) {
+      FileReaderManager.getInstance().closeFileAndRemoveReader(tsFileResource.getTsFilePath());
+    }
+  }
+
+  /* Total 5 seq files without overlap, so that all the chunks are written without decompressing. */
+  @Test
+  public void testSeqInnerSpaceCompaction() throws Exception {
+    registerTimeseriesInMManger(2, 3, false);
+    createFiles(5, 2, 3, 1000, 0, 0, 50, 50, false, true);
+
+    Map<String, List<String>> sourceData = readData(seqResources, unseqResources, 2, 3);
+    List<TsFileResource> targetResources =
+        CompactionFileGeneratorUtils.getInnerCompactionTargetTsFileResources(seqResources, true);
+    performCompaction(targetResources);
+    CompactionUtils.moveTargetFile(targetResources, true, COMPACTION_TEST_SG);
+
+    assertEquals(sourceData, readData(targetResources, new ArrayList<>(), 2, 3));
+  }
+
+  /* Total 5 unseq files overlapped with each other, and the newer data overwrites the older. */
+  @Test
+  public void testUnSeqInnerSpaceCompactionWithOverlappedPages() throws Exception {
+    TSFileDescriptor.getInstance().getConfig().setMaxNumberOfPointsInPage(30);
+    registerTimeseriesInMManger(4, 5, false);
+    createFiles(2, 2, 3, 300, 0, 0, 50, 50, false, false);
+    createFiles(2, 4, 5, 300, 150, 10150, 50, 50, false, false);
+    createFiles(1, 3, 4, 200, 20, 20020, 30, 30, false, false);
+
+    Map<String, List<String>> sourceData = readData(new ArrayList<>(), unseqResources, 4, 5);
+    List<TsFileResource> targetResources =
+        CompactionFileGeneratorUtils.getInnerCompactionTargetTsFileResources(unseqResources, false);
+    performCompaction(targetResources);
+    CompactionUtils.moveTargetFile(targetResources, true, COMPACTION_TEST_SG);
+
+    assertEquals(sourceData, readData(new ArrayList<>(), targetResources, 4, 5));
+  }
+
+  @Test
+  public void testCrossSpaceCompactionWithSameTimeseries() throws Exception {
+    registerTimeseriesInMManger(2, 3, false);
+    createFiles(5, 2, 3, 100, 0, 0, 0, 0, false, true);
+    createFiles(5, 2, 3, 50, 0, 10000, 50, 50, false, false);
+
+    Map<String, List<String>> sourceData = readData(seqResources, unseqResources, 2, 3);
+    List<TsFileResource> targetResources =
+        CompactionFileGeneratorUtils.getCrossCompactionTargetTsFileResources(seqResources);
+    performCompaction(targetResources);
+    CompactionUtils.moveTargetFile(targetResources, false, COMPACTION_TEST_SG);
+
+    assertEquals(sourceData, readData(targetResources, new ArrayList<>(), 2, 3));
+  }
+
+  /* Part of the data is deleted, so that some chunks and pages are modified. */
+  @Test
+  public void testCrossSpaceCompactionWithDifferentTimeseriesAndDeletion() throws Exception {
+    TSFileDescriptor.getInstance().getConfig().setMaxNumberOfPointsInPage(30);
+    registerTimeseriesInMManger(4, 5, false);
+    createFiles(2, 2, 3, 300, 0, 0, 50, 50, false, true);
+    createFiles(2, 4, 5, 300, 700, 700, 50, 50, false, true);
+    createFiles(3, 3, 4, 200, 20, 10020, 30, 30, false, false);
+    createFiles(2, 1, 5, 100, 450, 20450, 0, 0, false, false);
+
+    List<String> seriesPaths = new ArrayList<>();
+    seriesPaths.add(COMPACTION_TEST_SG + PATH_SEPARATOR + "d0" + PATH_SEPARATOR + "s0");
+    seriesPaths.add(COMPACTION_TEST_SG + PATH_SEPARATOR + "d1" + PATH_SEPARATOR + "s2");
+    seriesPaths.add(COMPACTION_TEST_SG + PATH_SEPARATOR + "d3" + PATH_SEPARATOR + "s4");
+    generateModsFile(seriesPaths, seqResources, 100, 760);
+    generateModsFile(seriesPaths, unseqResources, 500, 520);
+
+    Map<String, List<String>> sourceData = readData(seqResources, unseqResources, 4, 5);
+    List<TsFileResource> targetResources =
+        CompactionFileGeneratorUtils.getCrossCompactionTargetTsFileResources(seqResources);
+    performCompaction(targetResources);
+    CompactionUtils.moveTargetFile(targetResources, false, COMPACTION_TEST_SG);
+
+    assertEquals(sourceData, readData(targetResources, new ArrayList<>(), 4, 5));
+  }
+
+  private void performCompaction(List<TsFileResource> targetResources) throws Exception {
+    ICompactionPerformer performer =
+        new FastCompactionPerformer(seqResources, unseqResources, targetResources);
+    performer.setSummary(new CompactionTaskSummary());
+    performer.perform();
+  }
+
+  /** Read all the points of each series as "time,value" strings. */
+  private Map<String, List<String>> readData(
+      List<TsFileResource> seqFiles,
+      List<TsFileResource> unseqFiles,
+      int deviceNum,
+      int measurementNum)
+      throws IOException, IllegalPathException {
+    Map<String, List<String>> data = new HashMap<>();
+    for (int i = 0; i < deviceNum; i++) {
+      for (int j = 0; j < measurementNum; j++) {
+        PartialPath path =
+            new MeasurementPath(
+                COMPACTION_TEST_SG + PATH_SEPARATOR + "d" + i,
+                "s" + j,
+                new MeasurementSchema("s" + j, TSDataType.INT64));
+        IDataBlockReader tsBlockReader =
+            new SeriesDataBlockReader(
+                path,
+                TSDataType.INT64,
+                FragmentInstanceContext.createFragmentInstanceContextForCompaction(
+                    EnvironmentUtils.TEST_QUERY_CONTEXT.getQueryId()),
+                seqFiles,
+                unseqFiles,
+                true);
+        List<String> points = new ArrayList<>();
+        while (tsBlockReader.hasNextBatch()) {
+          TsBlock block = tsBlockReader.nextBatch();
+          IBatchDataIterator iterator = block.getTsBlockSingleColumnIterator();
+          while (iterator.hasNext()) {
+            points.add(iterator.currentTime() + "," + iterator.currentValue());
+            iterator.next();
+          }
+        }
+        tsBlockReader.close();
+        data.put(path.getFullPath(), points);
+      }
+    }
+    return data;
+  }
+
+  private void generateModsFile(
+      List<String> seriesPaths, List<TsFileResource> resources, long startValue, long endValue)
+      throws IllegalPathException, IOException {
+    for (TsFileResource resource : resources) {
+      Map<String, Pair<Long, Long>> deleteMap = new HashMap<>();
+      for (String path : seriesPaths) {
+        deleteMap.put(path, new Pair<>(startValue, endValue));
+      }
+      CompactionFileGeneratorUtils.generateMods(deleteMap, resource, false);
+    }
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.compaction.writer.AbstractCompactionWriter;
+import org.apache.iotdb.db.engine.compaction.writer.CrossSpaceCompactionWriter;
+import org.apache.iotdb.db.engine.compaction.writer.InnerSpaceCompactionWriter;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.reader.IPointReader;
+import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Throughput benchmark of the compaction writers used by ReadPointCompactionPerformer. The TsBlocks
+ * read from the source files are written into the target files of an unseq inner space compaction
+ * (inner) and a cross space compaction with several seq files (cross), both point by point (point)
+ * and TsBlock by TsBlock (batch), and the number of points written per second is printed.
+ *
+ * <p>Usage: ReadPointCompactionPerformerBenchmark [pointNumPerSeries], 1000000 by default.
+ */
+public class ReadPointCompactionPerformerBenchmark {
+
+  private static final String DEVICE = "root.bench.d0";
+  private static final int MEASUREMENT_NUM = 10;
+  private static final int POINT_NUM_PER_BLOCK = 1000;
+  private static final int SEQ_FILE_NUM = 4;
+  private static final int WARM_UP_ROUND = 1;
+  private static final int ROUND = 3;
+
+  public static void main(String[] args) throws IOException {
+    int pointNum = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    int oldWriteThroughput = config.getCompactionWriteThroughputMbPerSec();
+    // disable the rate limiter
+    config.setCompactionWriteThroughputMbPerSec(0);
+    try {
+      List<TsBlock> tsBlocks = createTsBlocks(pointNum);
+      for (boolean cross : new boolean[] {false, true}) {
+        for (boolean batch : new boolean[] {false, true}) {
+          for (int i = 0; i < WARM_UP_ROUND; i++) {
+            run(tsBlocks, pointNum, cross, batch);
+          }
+          long time = 0;
+          for (int i = 0; i < ROUND; i++) {
+            time += run(tsBlocks, pointNum, cross, batch);
+          }
+          System.out.println(
+              String.format(
+                  "%s, %s: %.2f million points/s",
+                  cross ? "cross" : "inner",
+                  batch ? "batch" : "point",
+                  (double) pointNum * MEASUREMENT_NUM * ROUND / time * 1000));
+        }
+      }
+    } finally {
+      config.setCompactionWriteThroughputMbPerSec(oldWriteThroughput);
+    }
+  }
+
+  private static List<TsBlock> createTsBlocks(int pointNum) {
+    List<TsBlock> tsBlocks = new ArrayList<>();
+    for (int start = 0; start < pointNum; start += POINT_NUM_PER_BLOCK) {
+      TsBlockBuilder builder = new TsBlockBuilder(Collections.singletonList(TSDataType.INT64));
+      for (int time = start; time < Math.min(start + POINT_NUM_PER_BLOCK, pointNum); time++) {
+        builder.getTimeColumnBuilder().writeLong(time);
+        builder.getColumnBuilder(0).writeLong(time * 7L % 1000);
+        builder.declarePosition();
+      }
+      tsBlocks.add(builder.build());
+    }
+    return tsBlocks;
+  }
+
+  /** Write all the measurements once and return the elapsed time in ns. */
+  private static long run(List<TsBlock> tsBlocks, int pointNum, boolean cross, boolean batch)
+      throws IOException {
+    File dir = Files.createTempDirectory("compaction-benchmark").toFile();
+    try {
+      List<TsFileResource> targetResources = new ArrayList<>();
+      List<TsFileResource> seqResources = new ArrayList<>();
+      for (int i = 0; i < (cross ? SEQ_FILE_NUM : 1); i++) {
+        TsFileResource seqResource =
+            new TsFileResource(new File(dir, String.format("%d-%d-0-0.tsfile", i, i)));
+        // the device of each seq file covers a part of the time range
+        seqResource.updateStartTime(DEVICE, (long) pointNum / SEQ_FILE_NUM * i);
+        seqResource.updateEndTime(DEVICE, (long) pointNum / SEQ_FILE_NUM * (i + 1) - 1);
+        seqResources.add(seqResource);
+        targetResources.add(
+            new TsFileResource(new File(dir, String.format("%d-%d-0-1.tsfile", i, i))));
+      }
+
+      long startTime = System.nanoTime();
+      try (AbstractCompactionWriter writer =
+          cross
+              ? new CrossSpaceCompactionWriter(targetResources, seqResources)
+              : new InnerSpaceCompactionWriter(targetResources.get(0))) {
+        writer.startChunkGroup(DEVICE, false);
+        for (int i = 0; i < MEASUREMENT_NUM; i++) {
+          List<IMeasurementSchema> schemas =
+              Collections.singletonList(
+                  new MeasurementSchema(
+                      "s" + i, TSDataType.INT64, TSEncoding.RLE, CompressionType.SNAPPY));
+          writer.startMeasurement(schemas, 0);
+          for (TsBlock tsBlock : tsBlocks) {
+            if (batch) {
+              writer.write(
+                  tsBlock.getTimeColumn(),
+                  tsBlock.getValueColumns(),
+                  0,
+                  tsBlock.getPositionCount());
+            } else {
+              IPointReader pointReader = tsBlock.getTsBlockSingleColumnIterator();
+              while (pointReader.hasNextTimeValuePair()) {
+                TimeValuePair timeValuePair = pointReader.nextTimeValuePair();
+                writer.write(timeValuePair.getTimestamp(), timeValuePair.getValue().getValue(), 0);
+              }
+            }
+          }
+          writer.endMeasurement(0);
+        }
+        writer.endChunkGroup();
+        writer.endFile();
+      }
+      return System.nanoTime() - startTime;
+    } finally {
+      FileUtils.deleteDirectory(dir);
+    }
+  }
+}
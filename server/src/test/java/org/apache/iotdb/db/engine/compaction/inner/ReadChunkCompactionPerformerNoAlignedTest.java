@@ -40,6 +40,7 @@ import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 
@@ -51,6 +52,7 @@ import org.junit.Test;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -943,4 +945,74 @@ public class ReadChunkCompactionPerformerNoAlignedTest {
           .setChunkPointNumLowerBoundInCompaction(originChunkPointNumLowerBound);
     }
   }
+
+  /**
+   * Generate a file whose chunks have three pages, the first one is totally deleted, the second one
+   * is partially deleted and the third one is not touched. The first page should be dropped, the
+   * second one rewritten and the third one copied to the target file as it is.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testDropDeletedPages() throws Exception {
+    IoTDBDescriptor.getInstance().getConfig().setTargetChunkPointNum(300);
+    TsFileResource sourceFile = new TsFileResource(new File(SEQ_DIRS, "1-1-0-0.tsfile"));
+    List<List<Long>> chunkPagePointsNum = new ArrayList<>();
+    chunkPagePointsNum.add(Arrays.asList(100L, 100L, 100L));
+    CompactionFileGeneratorUtils.writeTsFile(fullPathSet, chunkPagePointsNum, 0, sourceFile);
+    Map<String, Pair<Long, Long>> deleteMap = new HashMap<>();
+    deleteMap.put(storageGroup + ".**", new Pair<>(0L, 99L));
+    deleteMap.put(storageGroup + ".*.*", new Pair<>(150L, 179L));
+    CompactionFileGeneratorUtils.generateMods(deleteMap, sourceFile, false);
+    List<TsFileResource> sourceFiles = Collections.singletonList(sourceFile);
+    Map<PartialPath, List<TimeValuePair>> originData =
+        CompactionCheckerUtils.getDataByQuery(paths, schemaList, sourceFiles, new ArrayList<>());
+
+    TsFileResource targetResource = new TsFileResource(new File(SEQ_DIRS, "1-1-1-0.tsfile"));
+    ICompactionPerformer performer = new ReadChunkCompactionPerformer(sourceFiles, targetResource);
+    performer.setSummary(new CompactionTaskSummary());
+    performer.perform();
+
+    Map<String, List<List<Long>>> chunkPagePointsNumMerged = new HashMap<>();
+    for (String path : fullPathSet) {
+      CompactionCheckerUtils.putChunk(chunkPagePointsNumMerged, path, new long[] {70, 100});
+    }
+    CompactionCheckerUtils.checkChunkAndPage(chunkPagePointsNumMerged, targetResource);
+    Map<PartialPath, List<TimeValuePair>> compactedData =
+        CompactionCheckerUtils.getDataByQuery(
+            paths, schemaList, Collections.singletonList(targetResource), new ArrayList<>());
+    CompactionCheckerUtils.validDataByValueList(originData, compactedData);
+    for (String device : devices) {
+      Assert.assertEquals(100, targetResource.getStartTime(storageGroup + "." + device));
+      Assert.assertEquals(299, targetResource.getEndTime(storageGroup + "." + device));
+    }
+  }
+
+  /**
+   * Generate a file whose data are all deleted, the empty target file should be removed from the
+   * disk and the target file list.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testRemoveEmptyTargetFile() throws Exception {
+    TsFileResource sourceFile = new TsFileResource(new File(SEQ_DIRS, "1-1-0-0.tsfile"));
+    List<List<Long>> chunkPagePointsNum = new ArrayList<>();
+    chunkPagePointsNum.add(Arrays.asList(100L, 100L));
+    CompactionFileGeneratorUtils.writeTsFile(fullPathSet, chunkPagePointsNum, 0, sourceFile);
+    Map<String, Pair<Long, Long>> deleteMap = new HashMap<>();
+    deleteMap.put(storageGroup + ".**", new Pair<>(0L, 199L));
+    CompactionFileGeneratorUtils.generateMods(deleteMap, sourceFile, false);
+
+    TsFileResource targetResource = new TsFileResource(new File(SEQ_DIRS, "1-1-1-0.tsfile"));
+    List<TsFileResource> targetFiles = new ArrayList<>(Collections.singletonList(targetResource));
+    ReadChunkCompactionPerformer performer = new ReadChunkCompactionPerformer();
+    performer.setSourceFiles(Collections.singletonList(sourceFile));
+    performer.setTargetFiles(targetFiles);
+    performer.setSummary(new CompactionTaskSummary());
+    performer.perform();
+
+    Assert.assertTrue(targetFiles.isEmpty());
+    Assert.assertFalse(targetResource.getTsFile().exists());
+  }
 }
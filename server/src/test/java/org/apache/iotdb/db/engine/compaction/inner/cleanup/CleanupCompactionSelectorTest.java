@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.inner.cleanup;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.engine.modification.Deletion;
+import org.apache.iotdb.db.engine.storagegroup.TsFileManager;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CleanupCompactionSelectorTest {
+  private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private final File dataDir = new File(TestConstant.BASE_OUTPUT_PATH, "cleanup");
+  private final List<TsFileResource> resources = new ArrayList<>();
+  private double originMinDeletedRatio;
+
+  @Before
+  public void setUp() {
+    originMinDeletedRatio = config.getCleanupCompactionMinDeletedRatio();
+    config.setCleanupCompactionMinDeletedRatio(0.3);
+    dataDir.mkdirs();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    config.setCleanupCompactionMinDeletedRatio(originMinDeletedRatio);
+    for (TsFileResource resource : resources) {
+      resource.getModFile().close();
+    }
+    FileUtils.deleteDirectory(dataDir);
+  }
+
+  @Test
+  public void testEstimateDeletedRatioByMods() throws IOException, IllegalPathException {
+    TsFileResource resource = createResource(0, 1024);
+    resource.getModFile().write(new Deletion(new PartialPath("root.test.d0.s0"), 0, 0, 49));
+    resource.getModFile().write(new Deletion(new PartialPath("root.test.d0.*"), 0, 20, 59));
+    resource.getModFile().write(new Deletion(new PartialPath("root.test.d2.s0"), 0, 0, 99));
+
+    // 60% of d0 and nothing of d1 are deleted
+    Assert.assertEquals(
+        0.3, CleanupCompactionSelector.estimateDeletedRatio(resource, Long.MIN_VALUE), 0.0001);
+  }
+
+  @Test
+  public void testEstimateDeletedRatioByTTL() throws IOException, IllegalPathException {
+    TsFileResource resource = createResource(0, 1024);
+    resource.getModFile().write(new Deletion(new PartialPath("root.test.**"), 0, 80, 99));
+
+    // [0, 39] is expired and [80, 99] is deleted
+    Assert.assertEquals(0.6, CleanupCompactionSelector.estimateDeletedRatio(resource, 40), 0.0001);
+    Assert.assertEquals(1.0, CleanupCompactionSelector.estimateDeletedRatio(resource, 200), 0.0001);
+  }
+
+  @Test
+  public void testSelectFilesByDeletedRatio() throws IOException, IllegalPathException {
+    TsFileResource smallFile = createResource(0, 1024);
+    TsFileResource largeFile = createResource(1, 4096);
+    TsFileResource untouchedFile = createResource(2, 4096);
+    smallFile.getModFile().write(new Deletion(new PartialPath("root.test.**"), 0, 0, 49));
+    largeFile.getModFile().write(new Deletion(new PartialPath("root.test.d1.*"), 0, 0, 99));
+    untouchedFile.getModFile().write(new Deletion(new PartialPath("root.test.d1.*"), 0, 0, 9));
+
+    TsFileManager manager = new TsFileManager("root.test", "0", "");
+    manager.addAll(resources, true);
+    CleanupCompactionSelector selector =
+        new CleanupCompactionSelector("root.test", "0", 0, manager);
+    List<List<TsFileResource>> taskList = selector.selectInnerSpaceTask(new ArrayList<>(resources));
+    Assert.assertEquals(2, taskList.size());
+    Assert.assertEquals(smallFile, taskList.get(0).get(0));
+    Assert.assertEquals(largeFile, taskList.get(1).get(0));
+    // the score is the estimated size of the deleted data
+    Assert.assertEquals(512, selector.getCompactionTaskScores().get(0), 0.0001);
+    Assert.assertEquals(2048, selector.getCompactionTaskScores().get(1), 0.0001);
+  }
+
+  /** Create a closed file containing root.test.d0 and root.test.d1 in [0, 99]. */
+  private TsFileResource createResource(int version, long fileSize) {
+    TsFileResource resource =
+        new TsFileResource(new File(dataDir, String.format("%d-%d-0-0.tsfile", version, version))) {
+          @Override
+          public long getTsFileSize() {
+            return fileSize;
+          }
+
+          @Override
+          public long getTimePartition() {
+            return 0;
+          }
+        };
+    for (int i = 0; i < 2; i++) {
+      resource.updateStartTime("root.test.d" + i, 0);
+      resource.updateEndTime("root.test.d" + i, 99);
+    }
+    resource.setStatus(TsFileResourceStatus.CLOSED);
+    resources.add(resource);
+    return resource;
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.compaction.inner.hybrid;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.storagegroup.TsFileManager;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+public class HybridCompactionSelectorTest {
+  private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private long originTargetCompactionFileSize;
+  private int originMaxCandidateFileNum;
+  private double originMinTaskScore;
+
+  @Before
+  public void setUp() {
+    originTargetCompactionFileSize = config.getTargetCompactionFileSize();
+    originMaxCandidateFileNum = config.getMaxInnerCompactionCandidateFileNum();
+    originMinTaskScore = config.getMinInnerCompactionTaskScore();
+    config.setTargetCompactionFileSize(1024L * 1024 * 1024);
+    config.setMaxInnerCompactionCandidateFileNum(30);
+    config.setMinInnerCompactionTaskScore(2.0);
+  }
+
+  @After
+  public void tearDown() {
+    config.setTargetCompactionFileSize(originTargetCompactionFileSize);
+    config.setMaxInnerCompactionCandidateFileNum(originMaxCandidateFileNum);
+    config.setMinInnerCompactionTaskScore(originMinTaskScore);
+  }
+
+  /* Files of the same size are merged together like tiered compaction. */
+  @Test
+  public void testSelectFilesOfSimilarSize() {
+    List<TsFileResource> resources = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      resources.add(createResource(i, 1024, "root.test.d", i * 100, i * 100 + 99));
+    }
+
+    HybridCompactionSelector selector = createSelector(resources);
+    List<List<TsFileResource>> taskList = selector.selectInnerSpaceTask(new ArrayList<>(resources));
+    Assert.assertEquals(1, taskList.size());
+    Assert.assertEquals(resources, taskList.get(0));
+    Assert.assertEquals(1, selector.getCompactionTaskScores().size());
+    // 5 files saved per query, and the write amplification is 6 / 5
+    Assert.assertEquals(5 / 1.2, selector.getCompactionTaskScores().get(0), 0.0001);
+  }
+
+  /* Small files are not merged into a large file, since the write amplification is too high. */
+  @Test
+  public void testNotMergeSmallFilesIntoLargeFile() {
+    List<TsFileResource> resources = new ArrayList<>();
+    resources.add(createResource(0, 1024 * 1024, "root.test.d", 0, 99));
+    for (int i = 1; i <= 2; i++) {
+      resources.add(createResource(i, 1024, "root.test.d", i * 100, i * 100 + 99));
+    }
+    Assert.assertTrue(
+        createSelector(resources).selectInnerSpaceTask(new ArrayList<>(resources)).isEmpty());
+
+    for (int i = 3; i <= 8; i++) {
+      resources.add(createResource(i, 1024, "root.test.d", i * 100, i * 100 + 99));
+    }
+    HybridCompactionSelector selector = createSelector(resources);
+    List<List<TsFileResource>> taskList = selector.selectInnerSpaceTask(new ArrayList<>(resources));
+    Assert.assertEquals(1, taskList.size());
+    Assert.assertEquals(resources.subList(1, resources.size()), taskList.get(0));
+    Assert.assertTrue(
+        selector.getCompactionTaskScores().get(0) >= config.getMinInnerCompactionTaskScore());
+  }
+
+  /* Files without common devices are still merged when the file number reaches the threshold. */
+  @Test
+  public void testSelectWhenReachingFileNumThreshold() {
+    config.setMaxInnerCompactionCandidateFileNum(5);
+    List<TsFileResource> resources = new ArrayList<>();
+    for (int i = 0; i < 7; i++) {
+      resources.add(createResource(i, 1024, "root.test.d" + i, i * 100, i * 100 + 99));
+    }
+
+    List<List<TsFileResource>> taskList =
+        createSelector(resources).selectInnerSpaceTask(new ArrayList<>(resources));
+    Assert.assertEquals(1, taskList.size());
+    Assert.assertEquals(5, taskList.get(0).size());
+  }
+
+  @Test
+  public void testOverlappedFilesHaveHigherScore() {
+    CompactionCandidate overlapped = new CompactionCandidate(0);
+    CompactionCandidate disjoint = new CompactionCandidate(0);
+    for (int i = 0; i < 3; i++) {
+      overlapped.addFile(createResource(i, 1024, "root.test.d", 0, 100));
+      disjoint.addFile(createResource(i, 1024, "root.test.d", i * 100, i * 100 + 99));
+    }
+    Assert.assertEquals(disjoint.getFileReductionPerQuery(), 2, 0.0001);
+    Assert.assertEquals(0, disjoint.getOverlapRatio(), 0.0001);
+    Assert.assertEquals(2.0 / 3, overlapped.getOverlapRatio(), 0.0001);
+    Assert.assertTrue(overlapped.getScore() > disjoint.getScore());
+  }
+
+  private HybridCompactionSelector createSelector(List<TsFileResource> resources) {
+    TsFileManager manager = new TsFileManager("root.test", "0", "");
+    manager.addAll(resources, true);
+    return new HybridCompactionSelector("root.test", "0", 0, true, manager);
+  }
+
+  private TsFileResource createResource(
+      int version, long fileSize, String device, long startTime, long endTime) {
+    TsFileResource resource =
+        new TsFileResource(new File(String.format("%d-%d-0-0.tsfile", version, version))) {
+          @Override
+          public long getTsFileSize() {
+            return fileSize;
+          }
+
+          @Override
+          public long getTimePartition() {
+            return 0;
+          }
+        };
+    resource.updateStartTime(device, startTime);
+    resource.updateEndTime(device, endTime);
+    resource.setStatus(TsFileResourceStatus.CLOSED);
+    return resource;
+  }
+}
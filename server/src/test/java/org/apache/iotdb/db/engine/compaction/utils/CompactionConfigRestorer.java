@@ -44,6 +44,7 @@ public class CompactionConfigRestorer {
   private long compactionScheduleIntervalInMs = 60000L;
   private long compactionSubmissionIntervalInMs = 60000L;
   private int compactionWriteThroughputMbPerSec = 8;
+  private int compactionReadThroughputMbPerSec = 0;
 
   public CompactionConfigRestorer() {}
 
@@ -66,5 +67,6 @@ public class CompactionConfigRestorer {
     config.setCompactionScheduleIntervalInMs(compactionScheduleIntervalInMs);
     config.setCompactionSubmissionIntervalInMs(compactionSubmissionIntervalInMs);
     config.setCompactionWriteThroughputMbPerSec(compactionWriteThroughputMbPerSec);
+    config.setCompactionReadThroughputMbPerSec(compactionReadThroughputMbPerSec);
   }
 }
@@ -19,6 +19,7 @@
 package org.apache.iotdb.db.engine.memtable;
 
 import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.constant.TestConstant;
 import org.apache.iotdb.db.engine.MetadataManagerHelper;
 import org.apache.iotdb.db.engine.flush.MemTableFlushTask;
@@ -33,6 +34,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 
 import static org.junit.Assert.assertEquals;
@@ -158,4 +160,40 @@ public class MemTableFlushTaskTest {
     assertEquals(TSDataType.BOOLEAN, chunkMetaData.getDataType());
     assertEquals(endTime - startTime + 1, chunkMetaData.getNumOfPoints());
   }
+
+  @Test
+  public void testFlushMemTableWithConcurrentEncoding()
+      throws ExecutionException, InterruptedException, IllegalPathException {
+    int prevFlushEncodingThreadNum =
+        IoTDBDescriptor.getInstance().getConfig().getFlushEncodingThreadNum();
+    IoTDBDescriptor.getInstance().getConfig().setFlushEncodingThreadNum(4);
+    try {
+      // enough series to use several encoding tasks
+      int deviceNum = 5;
+      int measurementNum = 600;
+      for (int i = 0; i < deviceNum; i++) {
+        for (int j = 0; j < measurementNum; j++) {
+          MemTableTestUtils.produceData(
+              memTable, startTime, endTime, "d" + i, "s" + j, TSDataType.INT32);
+        }
+      }
+      MemTableFlushTask memTableFlushTask = new MemTableFlushTask(memTable, writer, storageGroup);
+      memTableFlushTask.syncFlushMemTable();
+      writer.makeMetadataVisible();
+      for (int i = 0; i < deviceNum; i++) {
+        for (int j = 0; j < measurementNum; j++) {
+          List<ChunkMetadata> chunkMetadataList =
+              writer.getVisibleMetadataList("d" + i, "s" + j, TSDataType.INT32);
+          assertEquals(1, chunkMetadataList.size());
+          assertEquals(startTime, chunkMetadataList.get(0).getStartTime());
+          assertEquals(endTime, chunkMetadataList.get(0).getEndTime());
+          assertEquals(endTime - startTime + 1, chunkMetadataList.get(0).getNumOfPoints());
+        }
+      }
+    } finally {
+      IoTDBDescriptor.getInstance()
+          .getConfig()
+          .setFlushEncodingThreadNum(prevFlushEncodingThreadNum);
+    }
+  }
 }
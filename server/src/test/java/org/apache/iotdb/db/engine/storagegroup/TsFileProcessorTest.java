@@ -35,8 +35,10 @@ import org.apache.iotdb.db.metadata.path.MeasurementPath;
 import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
 import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.rescon.OffHeapMemoryManager;
 import org.apache.iotdb.db.rescon.SystemInfo;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -358,6 +360,46 @@ public class TsFileProcessorTest {
     Assert.assertEquals(1441200, memTable.memSize());
   }
 
+  @Test
+  public void offHeapTvListRamCostTest()
+      throws MetadataException, WriteProcessException, IOException {
+    sgInfo.getDataRegion().setOffHeapMemTable(true);
+    processor =
+        new TsFileProcessor(
+            storageGroup,
+            SystemFileFactory.INSTANCE.getFile(filePath),
+            sgInfo,
+            this::closeTsFileProcessor,
+            (tsFileProcessor) -> true,
+            true);
+    TsFileProcessorInfo tsFileProcessorInfo = new TsFileProcessorInfo(sgInfo);
+    processor.setTsFileProcessorInfo(tsFileProcessorInfo);
+    this.sgInfo.initTsFileProcessorInfo(processor);
+    SystemInfo.getInstance().reportStorageGroupStatus(sgInfo, processor);
+    processor.insertTablet(genInsertTablePlan(0, false), 0, 10, new TSStatus[10]);
+    IMemTable memTable = processor.getWorkMemTable();
+    Assert.assertTrue(memTable.isOffHeap());
+    // the slabs are off heap, only their objects are charged to the heap memory of write
+    Assert.assertEquals(
+        3000 * TVList.tvListArrayMemCost(TSDataType.INT64, true), memTable.getTVListsRamCost());
+    Assert.assertTrue(memTable.getTVListsRamCost() < 1656000);
+    Assert.assertFalse(processor.shouldFlush());
+
+    OffHeapMemoryManager manager = OffHeapMemoryManager.getInstance();
+    long totalMemory = manager.getTotalMemory();
+    try {
+      manager.setTotalMemory(manager.getUsedMemory());
+      TSRecord record = new TSRecord(1, deviceId);
+      record.addTuple(DataPoint.getDataPoint(dataType, measurementId, "1"));
+      processor.insert(new InsertRowPlan(record));
+      // the memtable is flushed to release the off-heap memory when it is exhausted
+      Assert.assertTrue(processor.shouldFlush());
+    } finally {
+      manager.setTotalMemory(totalMemory);
+      processor.syncClose();
+    }
+  }
+
   @Test
   public void testWriteAndClose() throws IOException, WriteProcessException, MetadataException {
     logger.info("testWriteAndRestoreMetadata begin..");
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.exchange;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnEncoding;
+import org.apache.iotdb.tsfile.read.common.block.column.IntColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.TsBlockSerde;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Random;
+
+public class CompressedTsBlockSerdeTest {
+
+  @Test
+  public void testSerializeAndDeserialize() throws IOException {
+    final int positionCount = 1000;
+    TsBlockBuilder builder = new TsBlockBuilder(Arrays.asList(TSDataType.INT64, TSDataType.TEXT));
+    for (int i = 0; i < positionCount; i++) {
+      builder.getTimeColumnBuilder().writeLong(1000L * i);
+      builder.getColumnBuilder(0).writeLong(i % 10);
+      if (i % 3 == 0) {
+        builder.getColumnBuilder(1).appendNull();
+      } else {
+        builder.getColumnBuilder(1).writeBinary(new Binary("v" + i));
+      }
+      builder.declarePosition();
+    }
+    TsBlock tsBlock = builder.build();
+    int rawSize = new TsBlockSerde(true).serialize(tsBlock).remaining();
+
+    for (CompressionType compressionType :
+        new CompressionType[] {
+          CompressionType.UNCOMPRESSED, CompressionType.LZ4, CompressionType.ZSTD
+        }) {
+      ByteBuffer buffer = new CompressedTsBlockSerde(compressionType).serialize(tsBlock);
+      Assert.assertEquals(compressionType, CompressionType.deserialize(buffer.get(0)));
+      if (compressionType == CompressionType.UNCOMPRESSED) {
+        Assert.assertEquals(rawSize + 5, buffer.remaining());
+      } else {
+        Assert.assertTrue(buffer.remaining() < rawSize);
+      }
+
+      // the receiver reads the compression type of the TsBlock
+      TsBlock output = new CompressedTsBlockSerde(CompressionType.UNCOMPRESSED).deserialize(buffer);
+      Assert.assertEquals(positionCount, output.getPositionCount());
+      for (int i = 0; i < positionCount; i++) {
+        Assert.assertEquals(tsBlock.getTimeByIndex(i), output.getTimeByIndex(i));
+        Assert.assertEquals(tsBlock.getColumn(0).getLong(i), output.getColumn(0).getLong(i));
+        Assert.assertEquals(tsBlock.getColumn(1).isNull(i), output.getColumn(1).isNull(i));
+        if (!tsBlock.getColumn(1).isNull(i)) {
+          Assert.assertEquals(tsBlock.getColumn(1).getBinary(i), output.getColumn(1).getBinary(i));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testRunLengthEncodedColumn() throws IOException {
+    final int positionCount = 100;
+    long[] times = new long[positionCount];
+    for (int i = 0; i < positionCount; i++) {
+      times[i] = i;
+    }
+    TsBlock tsBlock =
+        new TsBlock(
+            new TimeColumn(positionCount, times),
+            new RunLengthEncodedColumn(
+                new IntColumn(1, Optional.empty(), new int[] {42}), positionCount));
+    CompressedTsBlockSerde serde = new CompressedTsBlockSerde(CompressionType.LZ4);
+
+    TsBlock output = serde.deserialize(serde.serialize(tsBlock));
+    Assert.assertEquals(ColumnEncoding.RLE, output.getColumn(0).getEncoding());
+    Assert.assertEquals(positionCount, output.getPositionCount());
+    for (int i = 0; i < positionCount; i++) {
+      Assert.assertEquals(i, output.getTimeByIndex(i));
+      Assert.assertEquals(42, output.getColumn(0).getInt(i));
+    }
+  }
+
+  @Test
+  public void testIncompressibleTsBlock() throws IOException {
+    final int positionCount = 100;
+    Random random = new Random(0);
+    TsBlockBuilder builder = new TsBlockBuilder(Arrays.asList(TSDataType.DOUBLE));
+    for (int i = 0; i < positionCount; i++) {
+      builder.getTimeColumnBuilder().writeLong(random.nextLong());
+      builder.getColumnBuilder(0).writeDouble(random.nextDouble());
+      builder.declarePosition();
+    }
+    TsBlock tsBlock = builder.build();
+    CompressedTsBlockSerde serde = new CompressedTsBlockSerde(CompressionType.LZ4);
+
+    ByteBuffer buffer = serde.serialize(tsBlock);
+    Assert.assertEquals(CompressionType.UNCOMPRESSED, CompressionType.deserialize(buffer.get(0)));
+    TsBlock output = serde.deserialize(buffer);
+    for (int i = 0; i < positionCount; i++) {
+      Assert.assertEquals(tsBlock.getTimeByIndex(i), output.getTimeByIndex(i));
+      Assert.assertEquals(
+          tsBlock.getColumn(0).getDouble(i), output.getColumn(0).getDouble(i), 0.0D);
+    }
+  }
+}
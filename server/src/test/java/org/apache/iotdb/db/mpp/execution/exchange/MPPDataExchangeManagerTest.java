@@ -27,11 +27,14 @@ import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext;
 import org.apache.iotdb.db.mpp.execution.memory.LocalMemoryManager;
 import org.apache.iotdb.db.mpp.execution.memory.MemoryPool;
 import org.apache.iotdb.mpp.rpc.thrift.TFragmentInstanceId;
+import org.apache.iotdb.tsfile.utils.Pair;
 
 import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Executors;
 
 public class MPPDataExchangeManagerTest {
@@ -120,4 +123,48 @@ public class MPPDataExchangeManagerTest {
         ((LocalSinkHandle) localSinkHandle).getSharedTsBlockQueue(),
         ((LocalSourceHandle) localSourceHandle).getSharedTsBlockQueue());
   }
+
+  @Test
+  public void testCreateLocalPipelineHandles() {
+    final TFragmentInstanceId fragmentInstanceId = new TFragmentInstanceId("q0", 0, "0");
+    final long mockTsBlockSize = 128L;
+
+    LocalMemoryManager mockLocalMemoryManager = Mockito.mock(LocalMemoryManager.class);
+    MemoryPool spyMemoryPool = Mockito.spy(new MemoryPool("test", 10240L, 5120L));
+    Mockito.when(mockLocalMemoryManager.getQueryPool()).thenReturn(spyMemoryPool);
+
+    MPPDataExchangeManager mppDataExchangeManager =
+        new MPPDataExchangeManager(
+            mockLocalMemoryManager,
+            new TsBlockSerdeFactory(),
+            Executors.newSingleThreadExecutor(),
+            new IClientManager.Factory<TEndPoint, SyncDataNodeMPPDataExchangeServiceClient>()
+                .createClientManager(
+                    new DataNodeClientPoolFactory
+                        .SyncDataNodeMPPDataExchangeServiceClientPoolFactory()));
+
+    List<Throwable> failures = new ArrayList<>();
+    Pair<ISinkHandle, ISourceHandle> handles =
+        mppDataExchangeManager.createLocalPipelineHandles(
+            fragmentInstanceId, "scan_0.1", failures::add);
+    ISinkHandle sinkHandle = handles.left;
+    ISourceHandle sourceHandle = handles.right;
+    Assert.assertEquals(
+        ((LocalSinkHandle) sinkHandle).getSharedTsBlockQueue(),
+        ((LocalSourceHandle) sourceHandle).getSharedTsBlockQueue());
+
+    sinkHandle.send(Utils.createMockTsBlock(mockTsBlockSize));
+    sinkHandle.send(Utils.createMockTsBlock(mockTsBlockSize));
+    sinkHandle.setNoMoreTsBlocks();
+    Assert.assertFalse(sourceHandle.isFinished());
+    Assert.assertTrue(sourceHandle.isBlocked().isDone());
+    Assert.assertEquals(mockTsBlockSize, sourceHandle.receive().getRetainedSizeInBytes());
+    Assert.assertEquals(mockTsBlockSize, sourceHandle.receive().getRetainedSizeInBytes());
+    Assert.assertTrue(sourceHandle.isFinished());
+    Assert.assertTrue(sinkHandle.isFinished());
+    Assert.assertEquals(0L, spyMemoryPool.getQueryMemoryReservedBytes("q0"));
+    Assert.assertTrue(failures.isEmpty());
+    sourceHandle.close();
+    sinkHandle.close();
+  }
 }
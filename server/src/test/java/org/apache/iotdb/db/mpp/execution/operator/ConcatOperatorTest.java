@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator;
+
+import org.apache.iotdb.db.mpp.execution.operator.process.ConcatOperator;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ConcatOperatorTest {
+
+  @Test
+  public void concatTest() throws Exception {
+    // the second child is empty, and the third one is blocked at first
+    SettableFuture<Void> blocked = SettableFuture.create();
+    MockChild child1 = new MockChild(Operator.NOT_BLOCKED, block(0, 100), block(100, 200));
+    MockChild child2 = new MockChild(Operator.NOT_BLOCKED);
+    MockChild child3 = new MockChild(blocked, block(200, 300));
+    ConcatOperator concatOperator =
+        new ConcatOperator(
+            new OperatorContext(1, null, ConcatOperator.class.getSimpleName(), null),
+            Arrays.asList(child1, child2, child3));
+
+    List<Long> times = new ArrayList<>();
+    while (concatOperator.hasNext()) {
+      ListenableFuture<?> future = concatOperator.isBlocked();
+      if (!future.isDone()) {
+        assertEquals(blocked, future);
+        assertNull(concatOperator.next());
+        blocked.set(null);
+        continue;
+      }
+      TsBlock tsBlock = concatOperator.next();
+      if (tsBlock != null) {
+        for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+          times.add(tsBlock.getTimeByIndex(i));
+        }
+      }
+    }
+    assertTrue(concatOperator.isFinished());
+    assertEquals(300, times.size());
+    for (int i = 0; i < times.size(); i++) {
+      assertEquals(i, (long) times.get(i));
+    }
+
+    concatOperator.close();
+    assertTrue(child1.closed && child2.closed && child3.closed);
+  }
+
+  @Test
+  public void memoryTest() {
+    MockChild child1 = new MockChild(Operator.NOT_BLOCKED);
+    MockChild child2 = new MockChild(Operator.NOT_BLOCKED);
+    child2.maxPeekMemory = 2048L;
+    ConcatOperator concatOperator =
+        new ConcatOperator(
+            new OperatorContext(1, null, ConcatOperator.class.getSimpleName(), null),
+            Arrays.asList(child1, child2));
+    assertEquals(2048L, concatOperator.calculateMaxPeekMemory());
+    assertEquals(1024L, concatOperator.calculateMaxReturnSize());
+    assertEquals(0L, concatOperator.calculateRetainedSizeAfterCallingNext());
+    assertFalse(concatOperator.hasNext());
+  }
+
+  private static TsBlock block(long startTime, long endTime) {
+    TsBlockBuilder builder = new TsBlockBuilder(Collections.singletonList(TSDataType.INT64));
+    for (long time = startTime; time < endTime; time++) {
+      builder.getTimeColumnBuilder().writeLong(time);
+      builder.getColumnBuilder(0).writeLong(time);
+      builder.declarePosition();
+    }
+    return builder.build();
+  }
+
+  private static class MockChild implements Operator {
+
+    private final ListenableFuture<?> blocked;
+    private final Deque<TsBlock> tsBlocks;
+    private long maxPeekMemory = 1024L;
+    private boolean closed = false;
+
+    private MockChild(ListenableFuture<?> blocked, TsBlock... tsBlocks) {
+      this.blocked = blocked;
+      this.tsBlocks = new ArrayDeque<>(Arrays.asList(tsBlocks));
+    }
+
+    @Override
+    public OperatorContext getOperatorContext() {
+      return null;
+    }
+
+    @Override
+    public ListenableFuture<?> isBlocked() {
+      return blocked;
+    }
+
+    @Override
+    public TsBlock next() {
+      assertTrue(blocked.isDone());
+      return tsBlocks.poll();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return !tsBlocks.isEmpty();
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+
+    @Override
+    public boolean isFinished() {
+      return tsBlocks.isEmpty();
+    }
+
+    @Override
+    public long calculateMaxPeekMemory() {
+      return maxPeekMemory;
+    }
+
+    @Override
+    public long calculateMaxReturnSize() {
+      return 1024L;
+    }
+
+    @Override
+    public long calculateRetainedSizeAfterCallingNext() {
+      return 0L;
+    }
+  }
+}
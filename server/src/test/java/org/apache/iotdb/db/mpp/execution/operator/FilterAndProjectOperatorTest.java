@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator;
+
+import org.apache.iotdb.db.mpp.execution.operator.process.FilterAndProjectOperator;
+import org.apache.iotdb.db.mpp.transformation.dag.column.ColumnTransformer;
+import org.apache.iotdb.db.mpp.transformation.dag.column.binary.ArithmeticAdditionColumnTransformer;
+import org.apache.iotdb.db.mpp.transformation.dag.column.binary.CompareGreaterThanColumnTransformer;
+import org.apache.iotdb.db.mpp.transformation.dag.column.binary.CompareLessThanColumnTransformer;
+import org.apache.iotdb.db.mpp.transformation.dag.column.binary.LogicOrColumnTransformer;
+import org.apache.iotdb.db.mpp.transformation.dag.column.leaf.ConstantColumnTransformer;
+import org.apache.iotdb.db.mpp.transformation.dag.column.leaf.IdentityColumnTransformer;
+import org.apache.iotdb.db.mpp.transformation.dag.column.leaf.LeafColumnTransformer;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.DoubleColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.IntColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.type.TypeFactory;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FilterAndProjectOperatorTest {
+
+  private static final int ROW_NUM = 10;
+
+  /** select s1 + s2, s2 where s1 > 3 or s2 < 1.0, in which s1 is INT32 and s2 is DOUBLE */
+  @Test
+  public void filterAndProjectTest() throws Exception {
+    LeafColumnTransformer filterS1 = identity(TSDataType.INT32, 0);
+    LeafColumnTransformer filterS2 = identity(TSDataType.DOUBLE, 1);
+    LeafColumnTransformer three = constant(TSDataType.INT32, 3);
+    LeafColumnTransformer one = constant(TSDataType.DOUBLE, 1);
+    ColumnTransformer filter =
+        reference(
+            new LogicOrColumnTransformer(
+                TypeFactory.getType(TSDataType.BOOLEAN),
+                reference(
+                    new CompareGreaterThanColumnTransformer(
+                        TypeFactory.getType(TSDataType.BOOLEAN),
+                        reference(filterS1),
+                        reference(three))),
+                reference(
+                    new CompareLessThanColumnTransformer(
+                        TypeFactory.getType(TSDataType.BOOLEAN),
+                        reference(filterS2),
+                        reference(one)))));
+
+    LeafColumnTransformer projectS1 = identity(TSDataType.INT32, 0);
+    LeafColumnTransformer projectS2 = identity(TSDataType.DOUBLE, 1);
+    ColumnTransformer addition =
+        reference(
+            new ArithmeticAdditionColumnTransformer(
+                TypeFactory.getType(TSDataType.DOUBLE),
+                reference(projectS1),
+                reference(projectS2)));
+    reference(projectS2);
+
+    FilterAndProjectOperator operator =
+        new FilterAndProjectOperator(
+            new OperatorContext(1, null, FilterAndProjectOperator.class.getSimpleName(), null),
+            new MockChild(input()),
+            Arrays.asList(TSDataType.INT32, TSDataType.DOUBLE),
+            Arrays.asList(filterS1, filterS2, three, one),
+            filter,
+            Collections.emptyList(),
+            Arrays.asList(projectS1, projectS2),
+            Arrays.asList(addition, projectS2),
+            false,
+            true);
+
+    assertTrue(operator.hasNext());
+    TsBlock tsBlock = operator.next();
+    assertFalse(operator.hasNext());
+
+    int row = 0;
+    for (int i = 0; i < ROW_NUM; i++) {
+      Integer s1 = s1(i);
+      Double s2 = s2(i);
+      boolean s1GreaterThanThree = s1 != null && s1 > 3;
+      boolean s2LessThanOne = s2 != null && !Double.isNaN(s2) && s2 < 1.0;
+      if (!s1GreaterThanThree && !s2LessThanOne) {
+        continue;
+      }
+      assertEquals(i, tsBlock.getTimeByIndex(row));
+      if (s1 == null || s2 == null) {
+        assertTrue(tsBlock.getColumn(0).isNull(row));
+      } else {
+        assertEquals(s1 + s2, tsBlock.getColumn(0).getDouble(row), 0);
+      }
+      if (s2 == null) {
+        assertTrue(tsBlock.getColumn(1).isNull(row));
+      } else {
+        assertEquals(s2, tsBlock.getColumn(1).getDouble(row), 0);
+      }
+      row++;
+    }
+    assertEquals(6, row);
+    assertEquals(row, tsBlock.getPositionCount());
+  }
+
+  /** s1 is null at 0, 4 and 8 */
+  private static Integer s1(int i) {
+    return i % 4 == 0 ? null : i;
+  }
+
+  /** s2 is null at 5 and NaN at 7 */
+  private static Double s2(int i) {
+    return i == 5 ? null : i == 7 ? Double.NaN : i * 0.5;
+  }
+
+  /** the rows are in a region of a larger TsBlock to check the offset of arrays */
+  private static TsBlock input() {
+    TsBlockBuilder builder = new TsBlockBuilder(Arrays.asList(TSDataType.INT32, TSDataType.DOUBLE));
+    for (int i = -2; i < ROW_NUM; i++) {
+      builder.getTimeColumnBuilder().writeLong(i);
+      Integer s1 = i < 0 ? Integer.valueOf(i) : s1(i);
+      Double s2 = i < 0 ? Double.valueOf(i) : s2(i);
+      if (s1 == null) {
+        builder.getColumnBuilder(0).appendNull();
+      } else {
+        builder.getColumnBuilder(0).writeInt(s1);
+      }
+      if (s2 == null) {
+        builder.getColumnBuilder(1).appendNull();
+      } else {
+        builder.getColumnBuilder(1).writeDouble(s2);
+      }
+      builder.declarePosition();
+    }
+    return builder.build().getRegion(2, ROW_NUM);
+  }
+
+  private static LeafColumnTransformer identity(TSDataType dataType, int index) {
+    return new IdentityColumnTransformer(TypeFactory.getType(dataType), index);
+  }
+
+  private static LeafColumnTransformer constant(TSDataType dataType, double value) {
+    if (dataType == TSDataType.INT32) {
+      IntColumnBuilder builder = new IntColumnBuilder(null, 1);
+      builder.writeInt((int) value);
+      return new ConstantColumnTransformer(TypeFactory.getType(dataType), builder.build());
+    }
+    DoubleColumnBuilder builder = new DoubleColumnBuilder(null, 1);
+    builder.writeDouble(value);
+    return new ConstantColumnTransformer(TypeFactory.getType(dataType), builder.build());
+  }
+
+  /** add a reference, like ColumnTransformerVisitor does for each usage of the transformer */
+  private static <T extends ColumnTransformer> T reference(T columnTransformer) {
+    columnTransformer.addReferenceCount();
+    return columnTransformer;
+  }
+
+  private static class MockChild implements Operator {
+
+    private TsBlock tsBlock;
+
+    private MockChild(TsBlock tsBlock) {
+      this.tsBlock = tsBlock;
+    }
+
+    @Override
+    public OperatorContext getOperatorContext() {
+      return null;
+    }
+
+    @Override
+    public ListenableFuture<?> isBlocked() {
+      return NOT_BLOCKED;
+    }
+
+    @Override
+    public TsBlock next() {
+      TsBlock res = tsBlock;
+      tsBlock = null;
+      return res;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return tsBlock != null;
+    }
+
+    @Override
+    public void close() {}
+
+    @Override
+    public boolean isFinished() {
+      return tsBlock == null;
+    }
+
+    @Override
+    public long calculateMaxPeekMemory() {
+      return 0L;
+    }
+
+    @Override
+    public long calculateMaxReturnSize() {
+      return 0L;
+    }
+
+    @Override
+    public long calculateRetainedSizeAfterCallingNext() {
+      return 0L;
+    }
+  }
+}
@@ -41,6 +41,7 @@ import org.apache.iotdb.db.mpp.execution.operator.process.OffsetOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.RawDataAggregationOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.SlidingWindowAggregationOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.SortOperator;
+import org.apache.iotdb.db.mpp.execution.operator.process.TopKOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.fill.IFill;
 import org.apache.iotdb.db.mpp.execution.operator.process.fill.linear.LinearFill;
 import org.apache.iotdb.db.mpp.execution.operator.process.join.RowBasedTimeJoinOperator;
@@ -449,6 +450,32 @@ public class OperatorMemoryTest {
     assertEquals(0, sortOperator.calculateRetainedSizeAfterCallingNext());
   }
 
+  @Test
+  public void topKOperatorTest() {
+    Operator child = Mockito.mock(Operator.class);
+    Mockito.when(child.calculateMaxPeekMemory()).thenReturn(2 * 1024L);
+    Mockito.when(child.calculateMaxReturnSize()).thenReturn(1024L);
+    Mockito.when(child.calculateRetainedSizeAfterCallingNext()).thenReturn(512L);
+
+    TopKOperator topKOperator =
+        new TopKOperator(
+            Mockito.mock(OperatorContext.class),
+            child,
+            Collections.singletonList(TSDataType.INT32),
+            Collections.singletonList(0),
+            Collections.singletonList(Ordering.DESC),
+            100,
+            false);
+
+    // two TsBlocks of k rows
+    long keptSize = 2 * DEFAULT_MAX_TSBLOCK_SIZE_IN_BYTES;
+    assertEquals(
+        keptSize + 1024L + DEFAULT_MAX_TSBLOCK_SIZE_IN_BYTES,
+        topKOperator.calculateMaxPeekMemory());
+    assertEquals(DEFAULT_MAX_TSBLOCK_SIZE_IN_BYTES, topKOperator.calculateMaxReturnSize());
+    assertEquals(keptSize + 512L, topKOperator.calculateRetainedSizeAfterCallingNext());
+  }
+
   @Test
   public void timeJoinOperatorTest() {
     List<Operator> children = new ArrayList<>(4);
@@ -19,8 +19,9 @@
 package org.apache.iotdb.db.mpp.execution.operator;
 
 import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
-import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.exception.MetadataException;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.metadata.path.MeasurementPath;
@@ -75,6 +76,22 @@ public class SeriesScanOperatorTest {
 
   @Test
   public void batchTest() {
+    scanAndCheck();
+  }
+
+  @Test
+  public void batchTestWithChunkPrefetch() {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    boolean enableChunkPrefetch = config.isEnableChunkPrefetch();
+    config.setEnableChunkPrefetch(true);
+    try {
+      scanAndCheck();
+    } finally {
+      config.setEnableChunkPrefetch(enableChunkPrefetch);
+    }
+  }
+
+  private void scanAndCheck() {
     ExecutorService instanceNotificationExecutor =
         IoTDBThreadPoolFactory.newFixedThreadPool(1, "test-instance-notification");
     try {
@@ -104,7 +121,12 @@ public class SeriesScanOperatorTest {
               true);
       seriesScanOperator.initQueryDataSource(new QueryDataSource(seqResources, unSeqResources));
       int count = 0;
-      while (seriesScanOperator.hasNext()) {
+      while (true) {
+        // wait for the chunks read ahead, like the driver does
+        seriesScanOperator.isBlocked().get();
+        if (!seriesScanOperator.hasNext()) {
+          break;
+        }
         TsBlock tsBlock = seriesScanOperator.next();
         assertEquals(1, tsBlock.getValueColumnCount());
         assertTrue(tsBlock.getColumn(0) instanceof IntColumn);
@@ -125,7 +147,8 @@ public class SeriesScanOperatorTest {
         count++;
       }
       assertEquals(25, count);
-    } catch (IllegalPathException e) {
+      seriesScanOperator.close();
+    } catch (Exception e) {
       e.printStackTrace();
       fail();
     } finally {
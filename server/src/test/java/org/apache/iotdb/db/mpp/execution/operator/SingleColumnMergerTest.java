@@ -27,6 +27,7 @@ import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.LazyColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
 
 import org.junit.Test;
@@ -207,4 +208,92 @@ public class SingleColumnMergerTest {
     assertTrue(result.isNull(2));
     assertTrue(result.isNull(3));
   }
+
+  /** merge into a lazy column, whose values are read from the input column */
+  @Test
+  public void mergeLazilyTest() {
+    SingleColumnMerger merger =
+        new SingleColumnMerger(new InputLocation(0, 0), new AscTimeComparator());
+
+    // input: 2 -> 20, 4 -> 40, 5 -> null, 6 -> 60
+    TsBlockBuilder inputBuilder = new TsBlockBuilder(Collections.singletonList(TSDataType.INT32));
+    inputBuilder.getTimeColumnBuilder().writeLong(2);
+    inputBuilder.getColumnBuilder(0).writeInt(20);
+    inputBuilder.declarePosition();
+    inputBuilder.getTimeColumnBuilder().writeLong(4);
+    inputBuilder.getColumnBuilder(0).writeInt(40);
+    inputBuilder.declarePosition();
+    inputBuilder.getTimeColumnBuilder().writeLong(5);
+    inputBuilder.getColumnBuilder(0).appendNull();
+    inputBuilder.declarePosition();
+    inputBuilder.getTimeColumnBuilder().writeLong(6);
+    inputBuilder.getColumnBuilder(0).writeInt(60);
+    inputBuilder.declarePosition();
+
+    TsBlock[] inputTsBlocks = new TsBlock[] {inputBuilder.build()};
+    int[] inputIndex = new int[] {1};
+    int[] updatedInputIndex = new int[] {1};
+
+    // result times: 3, 4, 5, and current endTime is 5
+    TimeColumnBuilder timeColumnBuilder = new TimeColumnBuilder(null, 3);
+    timeColumnBuilder.writeLong(3);
+    timeColumnBuilder.writeLong(4);
+    timeColumnBuilder.writeLong(5);
+
+    Column result =
+        merger.mergeColumn(
+            inputTsBlocks, inputIndex, updatedInputIndex, timeColumnBuilder, 5, TSDataType.INT32);
+
+    assertEquals(3, updatedInputIndex[0]);
+    assertTrue(result instanceof LazyColumn);
+    assertFalse(((LazyColumn) result).isMaterialized());
+    assertEquals(3, result.getPositionCount());
+    assertTrue(result.isNull(0));
+    assertFalse(result.isNull(1));
+    assertEquals(40, result.getInt(1));
+    assertTrue(result.isNull(2));
+  }
+
+  /** the input column has exactly the rows of result, so its region is returned */
+  @Test
+  public void mergePassThroughTest() {
+    SingleColumnMerger merger =
+        new SingleColumnMerger(new InputLocation(0, 0), new DescTimeComparator());
+
+    // input: 6 -> 60, 4 -> 40, 2 -> 20
+    TsBlockBuilder inputBuilder = new TsBlockBuilder(Collections.singletonList(TSDataType.INT32));
+    for (int time = 6; time > 0; time -= 2) {
+      inputBuilder.getTimeColumnBuilder().writeLong(time);
+      inputBuilder.getColumnBuilder(0).writeInt(time * 10);
+      inputBuilder.declarePosition();
+    }
+
+    TsBlock[] inputTsBlocks = new TsBlock[] {inputBuilder.build()};
+    int[] inputIndex = new int[] {1};
+    int[] updatedInputIndex = new int[] {1};
+
+    // result times: 4, 2, and current endTime is 2
+    TimeColumnBuilder timeColumnBuilder = new TimeColumnBuilder(null, 2);
+    timeColumnBuilder.writeLong(4);
+    timeColumnBuilder.writeLong(2);
+
+    Column result =
+        merger.mergeColumn(
+            inputTsBlocks, inputIndex, updatedInputIndex, timeColumnBuilder, 2, TSDataType.INT32);
+
+    assertEquals(3, updatedInputIndex[0]);
+    assertFalse(result instanceof LazyColumn);
+    assertEquals(2, result.getPositionCount());
+    assertEquals(40, result.getInt(0));
+    assertEquals(20, result.getInt(1));
+
+    // the input column has been consumed up, so nulls are returned
+    inputIndex[0] = 3;
+    result =
+        merger.mergeColumn(
+            inputTsBlocks, inputIndex, updatedInputIndex, timeColumnBuilder, 2, TSDataType.INT32);
+    assertEquals(2, result.getPositionCount());
+    assertTrue(result.isNull(0));
+    assertTrue(result.isNull(1));
+  }
 }
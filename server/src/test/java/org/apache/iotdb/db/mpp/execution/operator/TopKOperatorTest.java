@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator;
+
+import org.apache.iotdb.db.mpp.execution.operator.process.RowComparator;
+import org.apache.iotdb.db.mpp.execution.operator.process.TopKOperator;
+import org.apache.iotdb.db.mpp.plan.statement.component.Ordering;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TopKOperatorTest {
+
+  private static final List<TSDataType> DATA_TYPES =
+      Arrays.asList(TSDataType.DOUBLE, TSDataType.TEXT);
+
+  @Test
+  public void topKByValueTest() throws Exception {
+    // top 100 rows by value desc, then time asc
+    topKTest(100, Arrays.asList(0, RowComparator.TIME_COLUMN_INDEX));
+  }
+
+  @Test
+  public void topKLargerThanInputTest() throws Exception {
+    topKTest(10000, Arrays.asList(0, RowComparator.TIME_COLUMN_INDEX));
+  }
+
+  @Test
+  public void topKByTimeTest() throws Exception {
+    topKTest(10, Collections.singletonList(RowComparator.TIME_COLUMN_INDEX));
+  }
+
+  @Test
+  public void topKOrderedChildTest() throws Exception {
+    // the child returns rows in time desc, 300 rows per TsBlock
+    List<TsBlock> input = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      TsBlockBuilder builder = new TsBlockBuilder(DATA_TYPES);
+      for (int j = 0; j < 300; j++) {
+        long time = 1000 - i * 300 - j;
+        builder.getTimeColumnBuilder().writeLong(time);
+        builder.getColumnBuilder(0).writeDouble(time);
+        builder.getColumnBuilder(1).writeBinary(new Binary(Long.toString(time)));
+        builder.declarePosition();
+      }
+      input.add(builder.build());
+    }
+
+    Operator child = Mockito.mock(Operator.class);
+    Mockito.when(child.hasNext()).thenReturn(true);
+    Mockito.when(child.next()).thenReturn(input.get(0), input.get(1), input.get(2));
+
+    TopKOperator topKOperator =
+        new TopKOperator(
+            Mockito.mock(OperatorContext.class),
+            child,
+            DATA_TYPES,
+            Collections.singletonList(RowComparator.TIME_COLUMN_INDEX),
+            Collections.singletonList(Ordering.DESC),
+            500,
+            true);
+
+    int count = 0;
+    while (topKOperator.hasNext()) {
+      TsBlock tsBlock = topKOperator.next();
+      if (tsBlock == null) {
+        continue;
+      }
+      for (int i = 0; i < tsBlock.getPositionCount(); i++, count++) {
+        assertEquals(1000 - count, tsBlock.getTimeByIndex(i));
+        assertEquals(1000 - count, tsBlock.getColumn(0).getDouble(i), 0);
+      }
+    }
+    assertEquals(500, count);
+    assertTrue(topKOperator.isFinished());
+    // the last TsBlock is not read
+    Mockito.verify(child, Mockito.times(2)).next();
+    topKOperator.close();
+  }
+
+  private void topKTest(int topValue, List<Integer> sortColumns) throws Exception {
+    // rows of (time, value), value is null if time % 11 == 0 and contains duplicates
+    Random random = new Random(0);
+    List<double[]> rows = new ArrayList<>();
+    List<TsBlock> input = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      TsBlockBuilder builder = new TsBlockBuilder(DATA_TYPES);
+      for (int j = 0; j < 300; j++) {
+        long time = random.nextInt(1000000);
+        builder.getTimeColumnBuilder().writeLong(time);
+        if (time % 11 == 0) {
+          builder.getColumnBuilder(0).appendNull();
+          rows.add(new double[] {time});
+        } else {
+          double value = random.nextInt(500);
+          builder.getColumnBuilder(0).writeDouble(value);
+          rows.add(new double[] {time, value});
+        }
+        builder.getColumnBuilder(1).writeBinary(new Binary(Long.toString(time)));
+        builder.declarePosition();
+      }
+      input.add(builder.build());
+    }
+
+    Operator child = Mockito.mock(Operator.class);
+    Boolean[] hasNext = new Boolean[input.size()];
+    Arrays.fill(hasNext, true);
+    hasNext[hasNext.length - 1] = false;
+    Mockito.when(child.hasNext()).thenReturn(true, hasNext);
+    Mockito.when(child.next())
+        .thenReturn(input.get(0), input.subList(1, input.size()).toArray(new TsBlock[0]));
+
+    TopKOperator topKOperator =
+        new TopKOperator(
+            Mockito.mock(OperatorContext.class),
+            child,
+            DATA_TYPES,
+            sortColumns,
+            sortColumns.size() == 1
+                ? Collections.singletonList(Ordering.DESC)
+                : Arrays.asList(Ordering.DESC, Ordering.ASC),
+            topValue,
+            false);
+
+    if (sortColumns.size() == 1) {
+      rows.sort((left, right) -> Double.compare(right[0], left[0]));
+    } else {
+      rows.sort(
+          (left, right) -> {
+            if (left.length != right.length) {
+              // nulls last
+              return Integer.compare(right.length, left.length);
+            }
+            int result = left.length == 1 ? 0 : Double.compare(right[1], left[1]);
+            return result != 0 ? result : Double.compare(left[0], right[0]);
+          });
+    }
+
+    int count = 0;
+    while (topKOperator.hasNext()) {
+      TsBlock tsBlock = topKOperator.next();
+      if (tsBlock == null) {
+        continue;
+      }
+      for (int i = 0; i < tsBlock.getPositionCount(); i++, count++) {
+        double[] expected = rows.get(count);
+        assertEquals((long) expected[0], tsBlock.getTimeByIndex(i));
+        if (sortColumns.size() > 1) {
+          if (expected.length == 1) {
+            assertTrue(tsBlock.getColumn(0).isNull(i));
+          } else {
+            assertEquals(expected[1], tsBlock.getColumn(0).getDouble(i), 0);
+          }
+        }
+        assertEquals(
+            Long.toString(tsBlock.getTimeByIndex(i)),
+            tsBlock.getColumn(1).getBinary(i).getStringValue());
+      }
+    }
+    assertEquals(Math.min(topValue, rows.size()), count);
+    assertTrue(topKOperator.isFinished());
+    topKOperator.close();
+  }
+}
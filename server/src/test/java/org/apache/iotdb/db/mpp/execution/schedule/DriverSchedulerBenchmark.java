@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.schedule;
+
+import org.apache.iotdb.db.mpp.execution.schedule.queue.IndexedBlockingQueue;
+import org.apache.iotdb.db.mpp.execution.schedule.queue.L2PriorityQueue;
+import org.apache.iotdb.db.mpp.execution.schedule.queue.QueueElement;
+import org.apache.iotdb.db.mpp.execution.schedule.queue.WorkStealingQueue;
+
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ready queue benchmark of the driver scheduler. Thousands of short tasks are run time slice by
+ * time slice by the worker threads, which poll a task, spin for a short while and push it back
+ * until it is finished, through both a single global L2PriorityQueue (global) and a
+ * WorkStealingQueue with one local queue per worker (stealing), and get the time per slice.
+ *
+ * <p>Usage: DriverSchedulerBenchmark [workerNum], 64 by default.
+ */
+public class DriverSchedulerBenchmark {
+
+  private static final int TASK_NUM = 8192;
+  private static final int SLICE_NUM_PER_TASK = 16;
+  private static final int SPIN_PER_SLICE = 200;
+  private static final int WARM_UP_ROUND = 2;
+  private static final int ROUND = 5;
+
+  private static final Comparator<QueueElement> COMPARATOR =
+      (o1, o2) -> {
+        if (o1.equals(o2)) {
+          return 0;
+        }
+        int res = Integer.compare(o1.getValue(), o2.getValue());
+        return res != 0
+            ? res
+            : Integer.compare(
+                ((QueueElement.QueueElementID) o1.getId()).getId(),
+                ((QueueElement.QueueElementID) o2.getId()).getId());
+      };
+
+  private static volatile long blackHole;
+
+  public static void main(String[] args) throws InterruptedException {
+    int workerNum = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+    for (boolean stealing : new boolean[] {false, true}) {
+      for (int i = 0; i < WARM_UP_ROUND; i++) {
+        run(workerNum, stealing);
+      }
+      long time = 0;
+      for (int i = 0; i < ROUND; i++) {
+        time += run(workerNum, stealing);
+      }
+      System.out.println(
+          String.format(
+              "Workers: %d, %s: %.2f ns/slice",
+              workerNum,
+              stealing ? "stealing" : "global",
+              (double) time / ROUND / TASK_NUM / SLICE_NUM_PER_TASK));
+    }
+  }
+
+  /** Run all the tasks once and return the elapsed time in ns. */
+  private static long run(int workerNum, boolean stealing) throws InterruptedException {
+    TaskQueue queue = stealing ? createWorkStealingQueue(workerNum) : createGlobalQueue();
+    int[] remainingSlices = new int[TASK_NUM];
+    AtomicInteger remainingTasks = new AtomicInteger(TASK_NUM);
+    Thread[] workers = new Thread[workerNum];
+    for (int i = 0; i < workerNum; i++) {
+      int workerIndex = i;
+      workers[i] =
+          new Thread(
+              () -> {
+                try {
+                  while (true) {
+                    QueueElement task = queue.poll(workerIndex);
+                    int id = ((QueueElement.QueueElementID) task.getId()).getId();
+                    if (id < 0) {
+                      // the stop signal
+                      return;
+                    }
+                    spin();
+                    if (--remainingSlices[id] > 0) {
+                      queue.push(
+                          new QueueElement(
+                              (QueueElement.QueueElementID) task.getId(), remainingSlices[id]));
+                    } else if (remainingTasks.decrementAndGet() == 0) {
+                      for (int j = 1; j <= workerNum; j++) {
+                        queue.push(new QueueElement(new QueueElement.QueueElementID(-j), 0));
+                      }
+                    }
+                  }
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+              });
+    }
+    long startTime = System.nanoTime();
+    for (int i = 0; i < TASK_NUM; i++) {
+      remainingSlices[i] = SLICE_NUM_PER_TASK;
+      queue.push(new QueueElement(new QueueElement.QueueElementID(i), SLICE_NUM_PER_TASK));
+    }
+    for (Thread worker : workers) {
+      worker.start();
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    return System.nanoTime() - startTime;
+  }
+
+  private static void spin() {
+    long value = 0;
+    for (int i = 0; i < SPIN_PER_SLICE; i++) {
+      value = value * 31 + i;
+    }
+    blackHole = value;
+  }
+
+  private static TaskQueue createGlobalQueue() {
+    IndexedBlockingQueue<QueueElement> queue =
+        new L2PriorityQueue<>(
+            TASK_NUM * 2, COMPARATOR, new QueueElement(new QueueElement.QueueElementID(0), 0));
+    return new TaskQueue() {
+      @Override
+      public QueueElement poll(int workerIndex) throws InterruptedException {
+        return queue.poll();
+      }
+
+      @Override
+      public void push(QueueElement element) {
+        queue.push(element);
+      }
+    };
+  }
+
+  private static TaskQueue createWorkStealingQueue(int workerNum) {
+    WorkStealingQueue<QueueElement> queue =
+        new WorkStealingQueue<>(
+            workerNum,
+            TASK_NUM * 2,
+            () ->
+                new L2PriorityQueue<>(
+                    TASK_NUM * 2,
+                    COMPARATOR,
+                    new QueueElement(new QueueElement.QueueElementID(0), 0)));
+    return new TaskQueue() {
+      @Override
+      public QueueElement poll(int workerIndex) throws InterruptedException {
+        return queue.poll(workerIndex);
+      }
+
+      @Override
+      public void push(QueueElement element) {
+        queue.push(element);
+      }
+    };
+  }
+
+  private interface TaskQueue {
+
+    QueueElement poll(int workerIndex) throws InterruptedException;
+
+    void push(QueueElement element);
+  }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.mpp.execution.schedule;
 
+import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
 import org.apache.iotdb.db.mpp.common.PlanFragmentId;
@@ -27,7 +28,9 @@ import org.apache.iotdb.db.mpp.execution.exchange.IMPPDataExchangeManager;
 import org.apache.iotdb.db.mpp.execution.schedule.task.DriverTask;
 import org.apache.iotdb.db.mpp.execution.schedule.task.DriverTaskID;
 import org.apache.iotdb.db.mpp.execution.schedule.task.DriverTaskStatus;
+import org.apache.iotdb.db.utils.stats.CpuTimer;
 
+import io.airlift.units.Duration;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
@@ -36,6 +39,7 @@ import org.mockito.Mockito;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class DriverSchedulerTest {
 
@@ -49,6 +53,12 @@ public class DriverSchedulerTest {
     manager.getBlockedTasks().clear();
     manager.getReadyQueue().clear();
     manager.getTimeoutQueue().clear();
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    manager.setResourceGroupManager(
+        new ResourceGroupManager(
+            config.getQueryResourceGroupPolicy(),
+            config.getQueryResourceGroupCpuShares(),
+            config.getQueryResourceGroupMaxRunningDrivers()));
   }
 
   @Test
@@ -165,4 +175,67 @@ public class DriverSchedulerTest {
         FragmentInstanceAbortedException.BY_QUERY_CASCADING_ABORTED, task3.getAbortCause());
     Assert.assertNull(task4.getAbortCause());
   }
+
+  @Test
+  public void testResourceGroupWithProducerAndConsumer() {
+    manager.setBlockManager(Mockito.mock(IMPPDataExchangeManager.class));
+    manager.setResourceGroupManager(new ResourceGroupManager("none", "", 1));
+    // the consumer of the root fragment is submitted before the producer it waits for
+    QueryId queryId = new QueryId("test");
+    FragmentInstanceId consumerId =
+        new FragmentInstanceId(new PlanFragmentId(queryId, 0), "inst-0");
+    IDriver consumerDriver = Mockito.mock(IDriver.class);
+    Mockito.when(consumerDriver.getInfo()).thenReturn(consumerId);
+    FragmentInstanceId producerId =
+        new FragmentInstanceId(new PlanFragmentId(queryId, 1), "inst-0");
+    IDriver producerDriver = Mockito.mock(IDriver.class);
+    Mockito.when(producerDriver.getInfo()).thenReturn(producerId);
+    manager.submitDrivers(queryId, Arrays.asList(consumerDriver, producerDriver), QUERY_TIMEOUT_MS);
+    DriverTask consumer = manager.getTimeoutQueue().get(new DriverTaskID(consumerId));
+    DriverTask producer = manager.getTimeoutQueue().get(new DriverTaskID(producerId));
+    ResourceGroup group = consumer.getHandle().getResourceGroup();
+    Assert.assertSame(group, producer.getHandle().getResourceGroup());
+    Assert.assertEquals(1, group.getRunningDriverNum());
+    Assert.assertEquals(1, group.getWaitingDriverNum());
+    Assert.assertNotNull(manager.getReadyQueue().get(consumer.getId()));
+    Assert.assertNull(manager.getReadyQueue().get(producer.getId()));
+
+    // the consumer is blocked waiting for data, so the producer takes its place
+    ITaskScheduler scheduler = manager.getScheduler();
+    manager.getReadyQueue().remove(consumer.getId());
+    Assert.assertTrue(scheduler.readyToRunning(consumer));
+    scheduler.runningToBlocked(consumer, createContext());
+    Assert.assertEquals(DriverTaskStatus.BLOCKED, consumer.getStatus());
+    Assert.assertNotNull(manager.getReadyQueue().get(producer.getId()));
+    Assert.assertEquals(1, group.getRunningDriverNum());
+    Assert.assertEquals(0, group.getWaitingDriverNum());
+
+    // the data of the producer unblocks the consumer, which waits until the producer yields
+    manager.getReadyQueue().remove(producer.getId());
+    Assert.assertTrue(scheduler.readyToRunning(producer));
+    scheduler.blockedToReady(consumer);
+    Assert.assertEquals(DriverTaskStatus.READY, consumer.getStatus());
+    Assert.assertNull(manager.getReadyQueue().get(consumer.getId()));
+    Assert.assertEquals(1, group.getWaitingDriverNum());
+    scheduler.runningToReady(producer, createContext());
+    Assert.assertNotNull(manager.getReadyQueue().get(consumer.getId()));
+    Assert.assertNull(manager.getReadyQueue().get(producer.getId()));
+    Assert.assertEquals(1, group.getWaitingDriverNum());
+
+    // the producer runs again once the consumer is done
+    manager.getReadyQueue().remove(consumer.getId());
+    Assert.assertTrue(scheduler.readyToRunning(consumer));
+    scheduler.runningToFinished(consumer, createContext());
+    Assert.assertEquals(DriverTaskStatus.FINISHED, consumer.getStatus());
+    Assert.assertNotNull(manager.getReadyQueue().get(producer.getId()));
+    Assert.assertEquals(1, group.getRunningDriverNum());
+    Assert.assertEquals(0, group.getWaitingDriverNum());
+  }
+
+  private static ExecutionContext createContext() {
+    ExecutionContext context = new ExecutionContext();
+    context.setTimeSlice(new Duration(1, TimeUnit.SECONDS));
+    context.setCpuDuration(new CpuTimer.CpuDuration());
+    return context;
+  }
 }
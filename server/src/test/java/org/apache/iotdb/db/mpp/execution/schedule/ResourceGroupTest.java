@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.schedule;
+
+import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
+import org.apache.iotdb.db.mpp.common.PlanFragmentId;
+import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.common.SessionInfo;
+import org.apache.iotdb.db.mpp.execution.driver.IDriver;
+import org.apache.iotdb.db.mpp.execution.schedule.task.DriverTask;
+import org.apache.iotdb.db.mpp.execution.schedule.task.DriverTaskStatus;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class ResourceGroupTest {
+
+  @Test
+  public void testConcurrencyLimit() {
+    ResourceGroup group = new ResourceGroup("test", 1, 2);
+    DriverTask task1 = createTask(1);
+    DriverTask task2 = createTask(2);
+    DriverTask task3 = createTask(3);
+    DriverTask task4 = createTask(4);
+    Assert.assertTrue(group.tryAdmit(task1));
+    Assert.assertTrue(group.tryAdmit(task2));
+    Assert.assertFalse(group.tryAdmit(task3));
+    Assert.assertFalse(group.tryAdmit(task4));
+    Assert.assertEquals(2, group.getRunningDriverNum());
+    Assert.assertEquals(2, group.getWaitingDriverNum());
+
+    // a waiting task is done, e.g. timeout
+    Assert.assertNull(group.release(task4));
+    Assert.assertEquals(1, group.getWaitingDriverNum());
+
+    // a running task is done, the waiting one takes its place only once
+    Assert.assertEquals(task3, group.release(task1));
+    Assert.assertNull(group.release(task1));
+    Assert.assertEquals(2, group.getRunningDriverNum());
+    Assert.assertEquals(0, group.getWaitingDriverNum());
+
+    Assert.assertNull(group.release(task2));
+    Assert.assertNull(group.release(task3));
+    Assert.assertEquals(0, group.getRunningDriverNum());
+  }
+
+  @Test
+  public void testResourceGroupManager() {
+    SessionInfo root = new SessionInfo(1, "root", "UTC");
+    SessionInfo guest = new SessionInfo(2, "guest", "UTC");
+    SessionInfo anotherRoot = new SessionInfo(3, "root", "UTC");
+
+    Assert.assertNull(new ResourceGroupManager("none", "", 0).getResourceGroup(root));
+
+    ResourceGroupManager byUser = new ResourceGroupManager("user", "root:4,guest:x", 0);
+    ResourceGroup rootGroup = byUser.getResourceGroup(root);
+    Assert.assertEquals(4, rootGroup.getCpuShares());
+    Assert.assertSame(rootGroup, byUser.getResourceGroup(anotherRoot));
+    Assert.assertEquals(1, byUser.getResourceGroup(guest).getCpuShares());
+
+    ResourceGroupManager bySession = new ResourceGroupManager("session", "", 0);
+    Assert.assertNotSame(bySession.getResourceGroup(root), bySession.getResourceGroup(anotherRoot));
+  }
+
+  private static DriverTask createTask(int id) {
+    FragmentInstanceId instanceId =
+        new FragmentInstanceId(new PlanFragmentId(new QueryId("test"), 0), "inst-" + id);
+    IDriver driver = Mockito.mock(IDriver.class);
+    Mockito.when(driver.getInfo()).thenReturn(instanceId);
+    return new DriverTask(driver, 10_000L, DriverTaskStatus.READY);
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.schedule.queue;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+public class MultilevelPriorityQueueTest {
+
+  private static final Comparator<QueueElement> COMPARATOR =
+      (o1, o2) -> {
+        if (o1.equals(o2)) {
+          return 0;
+        }
+        return Integer.compare(o1.getValue(), o2.getValue());
+      };
+
+  /** The level of an element is its value */
+  private static MultilevelPriorityQueue<QueueElement> createQueue(
+      LevelScheduledTime levelScheduledTime) {
+    return new MultilevelPriorityQueue<>(
+        100,
+        COMPARATOR,
+        QueueElement::getValue,
+        new QueueElement(new QueueElement.QueueElementID(0), 0),
+        levelScheduledTime);
+  }
+
+  @Test
+  public void testComputeLevel() {
+    Assert.assertEquals(0, LevelScheduledTime.computeLevel(0));
+    Assert.assertEquals(0, LevelScheduledTime.computeLevel(TimeUnit.MILLISECONDS.toNanos(999)));
+    Assert.assertEquals(1, LevelScheduledTime.computeLevel(TimeUnit.SECONDS.toNanos(1)));
+    Assert.assertEquals(2, LevelScheduledTime.computeLevel(TimeUnit.SECONDS.toNanos(30)));
+    Assert.assertEquals(
+        LevelScheduledTime.LEVEL_NUM - 1,
+        LevelScheduledTime.computeLevel(TimeUnit.HOURS.toNanos(1)));
+  }
+
+  @Test
+  public void testPollByLevelShare() throws InterruptedException {
+    LevelScheduledTime levelScheduledTime = new LevelScheduledTime();
+    MultilevelPriorityQueue<QueueElement> queue = createQueue(levelScheduledTime);
+    QueueElement e0 = new QueueElement(new QueueElement.QueueElementID(1), 0);
+    QueueElement e1 = new QueueElement(new QueueElement.QueueElementID(2), 1);
+    queue.push(e1);
+    queue.push(e0);
+
+    // no level has been scheduled, the higher level goes first
+    Assert.assertEquals(e0, queue.poll());
+    queue.push(e0);
+
+    // level 1 is expected to get half of the time of level 0
+    levelScheduledTime.addScheduledTime(0, 100);
+    levelScheduledTime.addScheduledTime(1, 40);
+    Assert.assertEquals(e1, queue.poll());
+    queue.push(e1);
+    levelScheduledTime.addScheduledTime(1, 20);
+    Assert.assertEquals(e0, queue.poll());
+    Assert.assertEquals(e1, queue.poll());
+    Assert.assertEquals(0, queue.size());
+  }
+
+  @Test
+  public void testActivateLevel() throws InterruptedException {
+    LevelScheduledTime levelScheduledTime = new LevelScheduledTime();
+    MultilevelPriorityQueue<QueueElement> queue = createQueue(levelScheduledTime);
+    QueueElement e0 = new QueueElement(new QueueElement.QueueElementID(1), 0);
+    queue.push(e0);
+    levelScheduledTime.addScheduledTime(0, 1000);
+
+    // level 1 has been idle, it should not take the time it didn't use
+    QueueElement e1 = new QueueElement(new QueueElement.QueueElementID(2), 1);
+    queue.push(e1);
+    Assert.assertEquals(
+        levelScheduledTime.getNormalizedScheduledTime(0),
+        levelScheduledTime.getNormalizedScheduledTime(1),
+        0.0);
+  }
+
+  @Test
+  public void testRemoveAndGet() {
+    MultilevelPriorityQueue<QueueElement> queue = createQueue(new LevelScheduledTime());
+    QueueElement e0 = new QueueElement(new QueueElement.QueueElementID(1), 0);
+    QueueElement e3 = new QueueElement(new QueueElement.QueueElementID(2), 3);
+    queue.push(e0);
+    queue.push(e3);
+    Assert.assertEquals(e3, queue.get(new QueueElement.QueueElementID(2)));
+    Assert.assertEquals(e3, queue.remove(new QueueElement.QueueElementID(2)));
+    Assert.assertNull(queue.get(new QueueElement.QueueElementID(2)));
+    Assert.assertEquals(1, queue.size());
+    try {
+      queue.push(new QueueElement(new QueueElement.QueueElementID(1), 2));
+      Assert.fail();
+    } catch (IllegalStateException e) {
+      Assert.assertEquals(1, queue.size());
+    }
+  }
+}
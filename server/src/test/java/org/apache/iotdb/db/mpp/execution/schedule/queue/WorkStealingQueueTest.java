@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.schedule.queue;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class WorkStealingQueueTest {
+
+  private static final Comparator<QueueElement> COMPARATOR =
+      (o1, o2) -> {
+        if (o1.equals(o2)) {
+          return 0;
+        }
+        return Integer.compare(o1.getValue(), o2.getValue());
+      };
+
+  private static WorkStealingQueue<QueueElement> createQueue(int localQueueNum, int maxCapacity) {
+    return new WorkStealingQueue<>(
+        localQueueNum,
+        maxCapacity,
+        () ->
+            new L2PriorityQueue<>(
+                maxCapacity, COMPARATOR, new QueueElement(new QueueElement.QueueElementID(0), 0)));
+  }
+
+  @Test
+  public void testPollBlocked() throws InterruptedException {
+    WorkStealingQueue<QueueElement> queue = createQueue(4, 10);
+    List<QueueElement> res = new ArrayList<>();
+    Thread t1 =
+        new Thread(
+            () -> {
+              try {
+                QueueElement e = queue.poll(0);
+                res.add(e);
+              } catch (InterruptedException e) {
+                e.printStackTrace();
+                Assert.fail();
+              }
+            });
+    t1.start();
+    Thread.sleep(100);
+    Assert.assertTrue(t1.isAlive());
+    QueueElement e2 = new QueueElement(new QueueElement.QueueElementID(1), 1);
+    queue.push(e2);
+    t1.join(1000);
+    Assert.assertEquals(Thread.State.TERMINATED, t1.getState());
+    Assert.assertEquals(1, res.size());
+    Assert.assertEquals(e2.getId().toString(), res.get(0).getId().toString());
+    Assert.assertEquals(0, queue.size());
+  }
+
+  @Test
+  public void testSteal() throws InterruptedException {
+    WorkStealingQueue<QueueElement> queue = createQueue(4, 10);
+    // pushed by a non-worker thread, the elements are spread over all local queues
+    for (int i = 1; i <= 8; i++) {
+      queue.push(new QueueElement(new QueueElement.QueueElementID(i), i));
+    }
+    Assert.assertEquals(8, queue.size());
+    // a single worker gets all of them by stealing from the others
+    List<Integer> res = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      res.add(queue.poll(0).getValue());
+    }
+    res.sort(Integer::compareTo);
+    for (int i = 1; i <= 8; i++) {
+      Assert.assertEquals(i, (int) res.get(i - 1));
+    }
+    Assert.assertEquals(0, queue.size());
+  }
+
+  @Test
+  public void testPushExceedCapacity() {
+    WorkStealingQueue<QueueElement> queue = createQueue(2, 1);
+    queue.push(new QueueElement(new QueueElement.QueueElementID(1), 1));
+    try {
+      queue.push(new QueueElement(new QueueElement.QueueElementID(2), 2));
+      Assert.fail();
+    } catch (IllegalStateException e) {
+      Assert.assertEquals(1, queue.size());
+    }
+  }
+
+  @Test
+  public void testPushExistElement() {
+    WorkStealingQueue<QueueElement> queue = createQueue(2, 10);
+    queue.push(new QueueElement(new QueueElement.QueueElementID(1), 1));
+    try {
+      queue.push(new QueueElement(new QueueElement.QueueElementID(1), 1));
+      Assert.fail();
+    } catch (IllegalStateException e) {
+      Assert.assertEquals(1, queue.size());
+    }
+  }
+
+  @Test
+  public void testRemoveAndGet() throws InterruptedException {
+    WorkStealingQueue<QueueElement> queue = createQueue(4, 10);
+    QueueElement e1 = new QueueElement(new QueueElement.QueueElementID(1), 1);
+    QueueElement e2 = new QueueElement(new QueueElement.QueueElementID(2), 2);
+    queue.push(e1);
+    queue.push(e2);
+    Assert.assertEquals(e1, queue.get(new QueueElement.QueueElementID(1)));
+    Assert.assertEquals(e1, queue.remove(new QueueElement.QueueElementID(1)));
+    Assert.assertNull(queue.get(new QueueElement.QueueElementID(1)));
+    Assert.assertNull(queue.remove(new QueueElement.QueueElementID(1)));
+    Assert.assertEquals(1, queue.size());
+    Assert.assertEquals(e2, queue.poll(3));
+    Assert.assertEquals(0, queue.size());
+    Assert.assertNull(queue.get(new QueueElement.QueueElementID(2)));
+  }
+}
@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.plan.analyze;
+
+import org.apache.iotdb.db.mpp.common.MPPQueryContext;
+import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.plan.analyze.cache.AnalysisCache;
+import org.apache.iotdb.db.mpp.plan.expression.Expression;
+import org.apache.iotdb.db.mpp.plan.parser.StatementGenerator;
+import org.apache.iotdb.db.mpp.plan.statement.crud.QueryStatement;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+
+import org.junit.Test;
+
+import java.time.ZoneId;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class AnalysisCacheTest {
+
+  private static final ZoneId ZONE_ID = ZoneId.of("+08:00");
+
+  @Test
+  public void templateTest() {
+    assertSameTemplate(
+        "select s1 from root.sg.d1 where time >= 100 and time < 200",
+        "select s1  from root.sg.d1 where time >= 2022-01-01T00:00:00 and time < 2022-01-02T00:00:00");
+    assertSameTemplate(
+        "select count(s1) from root.sg.d1 group by ([0, 100), 10ms) limit 10",
+        "select count(s1) from root.sg.d1 group by ([100, 200), 20ms) limit 10");
+    assertSameTemplate(
+        "select s1 from root.sg.d1 where time > 100 and s1 > 'a'",
+        "select s1 from root.sg.d1 where time > 200 and s1 > 'b'");
+
+    assertDifferentTemplate(
+        "select s1 from root.sg.d1 where time > 100", "select s2 from root.sg.d1 where time > 100");
+    assertDifferentTemplate(
+        "select s1 from root.sg.d1 where time > 100 limit 10",
+        "select s1 from root.sg.d1 where time > 100 limit 20");
+    assertDifferentTemplate(
+        "select count(s1) from root.sg.d1 group by ([0, 100), 10ms), level = 1",
+        "select count(s1) from root.sg.d1 group by ([0, 100), 10ms), level = 2");
+    assertDifferentTemplate(
+        "select count(s1) from root.sg.d1 group by ([0, 100), 10ms) fill(previous, 1ms)",
+        "select count(s1) from root.sg.d1 group by ([0, 100), 10ms) fill(previous, 2ms)");
+    assertNotEquals(
+        AnalysisCache.getTemplate("select s1 from root.sg.d1", "+08:00"),
+        AnalysisCache.getTemplate("select s1 from root.sg.d1", "+00:00"));
+    assertNull(AnalysisCache.getTemplate("", "+08:00"));
+  }
+
+  @Test
+  public void cacheableTest() {
+    assertTrue(AnalysisCache.isCacheable(parse("select s1 from root.sg.d1 where s2 > 1")));
+    assertFalse(AnalysisCache.isCacheable(parse("select * from root.sg.d1")));
+    assertFalse(AnalysisCache.isCacheable(parse("select s1 from root.sg.*")));
+    assertFalse(AnalysisCache.isCacheable(parse("select s1 from root.sg.d1 where * > 1")));
+    assertFalse(AnalysisCache.isCacheable(parse("select last s1 from root.sg.d1")));
+  }
+
+  @Test
+  public void fullyResolvedTest() {
+    assertFullyResolved(true, "select s1 from root.sg.d1 where time > 100 and s2 > 1");
+    assertFullyResolved(true, "select count(s1) from root.sg.d1, root.sg.d2 group by level = 1");
+    assertFullyResolved(true, "select status from root.sg.d1");
+    // s3 of d2 may be created later on another data node
+    assertFullyResolved(false, "select s3 from root.sg.d1, root.sg.d2");
+    assertFullyResolved(false, "select s1, s4 from root.sg.d1");
+  }
+
+  @Test
+  public void rebindTest() {
+    Analysis cachedAnalysis = analyze("select s1 from root.sg.d1 where time > 100 and s1 > 10");
+
+    QueryStatement queryStatement = parse("select s1 from root.sg.d1 where time > 200 and s1 > 10");
+    String predicate = queryStatement.getWhereCondition().getPredicate().getExpressionString();
+    Analysis analysis = Analyzer.rebind(queryStatement, cachedAnalysis);
+    assertNotNull(analysis);
+    assertEquals(TimeFilter.gt(200).toString(), analysis.getGlobalTimeFilter().toString());
+    assertEquals(TimeFilter.gt(100).toString(), cachedAnalysis.getGlobalTimeFilter().toString());
+    assertTrue(analysis.hasValueFilter());
+    assertEquals(cachedAnalysis.getStatement(), analysis.getStatement());
+    assertEquals(
+        predicate, queryStatement.getWhereCondition().getPredicate().getExpressionString());
+
+    // different literal in the value filter
+    queryStatement = parse("select s1 from root.sg.d1 where time > 200 and s1 > 20");
+    predicate = queryStatement.getWhereCondition().getPredicate().getExpressionString();
+    analysis = Analyzer.rebind(queryStatement, cachedAnalysis);
+    assertNotNull(analysis);
+    assertEquals(TimeFilter.gt(200).toString(), analysis.getGlobalTimeFilter().toString());
+    assertEquals("root.sg.d1.s1 > 20", analysis.getQueryFilter().getExpressionString());
+    assertEquals(TSDataType.BOOLEAN, analysis.getType(analysis.getQueryFilter()));
+    assertEquals("root.sg.d1.s1 > 10", cachedAnalysis.getQueryFilter().getExpressionString());
+    assertEquals(
+        predicate, queryStatement.getWhereCondition().getPredicate().getExpressionString());
+
+    // no value filter
+    assertNull(
+        Analyzer.rebind(parse("select s1 from root.sg.d1 where time > 200"), cachedAnalysis));
+  }
+
+  @Test
+  public void rebindAlignByDeviceTest() {
+    Analysis cachedAnalysis =
+        analyze("select s1 from root.sg.d1, root.sg.d2 where s1 > 10 align by device");
+
+    Analysis analysis =
+        Analyzer.rebind(
+            parse("select s1 from root.sg.d1, root.sg.d2 where s1 > 20 align by device"),
+            cachedAnalysis);
+    assertNotNull(analysis);
+    assertEquals(2, analysis.getDeviceToQueryFilter().size());
+    for (Map.Entry<String, Expression> entry : analysis.getDeviceToQueryFilter().entrySet()) {
+      assertEquals(entry.getKey() + ".s1 > 20", entry.getValue().getExpressionString());
+      assertEquals(TSDataType.BOOLEAN, analysis.getType(entry.getValue()));
+      assertEquals(
+          entry.getKey() + ".s1 > 10",
+          cachedAnalysis.getDeviceToQueryFilter().get(entry.getKey()).getExpressionString());
+    }
+  }
+
+  @Test
+  public void rebindGroupByTimeTest() {
+    Analysis cachedAnalysis =
+        analyze("select count(s1) from root.sg.d1 where time > 0 group by ([0, 100), 10ms)");
+
+    Analysis analysis =
+        Analyzer.rebind(
+            parse("select count(s1) from root.sg.d1 where time > 100 group by ([100, 300), 10ms)"),
+            cachedAnalysis);
+    assertNotNull(analysis);
+    assertEquals(100, analysis.getGroupByTimeParameter().getStartTime());
+    assertEquals(300, analysis.getGroupByTimeParameter().getEndTime());
+    assertEquals(0, cachedAnalysis.getGroupByTimeParameter().getStartTime());
+    assertFalse(analysis.hasValueFilter());
+
+    // different windows
+    assertNull(
+        Analyzer.rebind(
+            parse("select count(s1) from root.sg.d1 where time > 100 group by ([100, 300), 20ms)"),
+            cachedAnalysis));
+  }
+
+  private static void assertSameTemplate(String sql1, String sql2) {
+    assertEquals(
+        AnalysisCache.getTemplate(sql1, ZONE_ID.getId()),
+        AnalysisCache.getTemplate(sql2, ZONE_ID.getId()));
+  }
+
+  private static void assertDifferentTemplate(String sql1, String sql2) {
+    assertNotEquals(
+        AnalysisCache.getTemplate(sql1, ZONE_ID.getId()),
+        AnalysisCache.getTemplate(sql2, ZONE_ID.getId()));
+  }
+
+  private static void assertFullyResolved(boolean expected, String sql) {
+    QueryStatement queryStatement = parse(sql);
+    MPPQueryContext context = new MPPQueryContext(new QueryId("test_query"));
+    Analysis analysis =
+        new AnalyzeVisitor(new FakePartitionFetcherImpl(), new FakeSchemaFetcherImpl(), context)
+            .process(queryStatement, context);
+    assertEquals(sql, expected, AnalysisCache.isFullyResolved(queryStatement, analysis));
+  }
+
+  private static QueryStatement parse(String sql) {
+    return (QueryStatement) StatementGenerator.createStatement(sql, ZONE_ID);
+  }
+
+  private static Analysis analyze(String sql) {
+    MPPQueryContext context = new MPPQueryContext(new QueryId("test_query"));
+    return new Analyzer(context, new FakePartitionFetcherImpl(), new FakeSchemaFetcherImpl())
+        .analyze(parse(sql));
+  }
+}
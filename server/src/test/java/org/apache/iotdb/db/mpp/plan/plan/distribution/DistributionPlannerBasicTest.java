@@ -26,8 +26,14 @@ import org.apache.iotdb.db.metadata.path.AlignedPath;
 import org.apache.iotdb.db.metadata.path.MeasurementPath;
 import org.apache.iotdb.db.mpp.common.MPPQueryContext;
 import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.common.header.ColumnHeaderConstant;
 import org.apache.iotdb.db.mpp.plan.analyze.Analysis;
+import org.apache.iotdb.db.mpp.plan.analyze.Analyzer;
+import org.apache.iotdb.db.mpp.plan.analyze.FakePartitionFetcherImpl;
+import org.apache.iotdb.db.mpp.plan.analyze.FakeSchemaFetcherImpl;
 import org.apache.iotdb.db.mpp.plan.analyze.QueryType;
+import org.apache.iotdb.db.mpp.plan.parser.StatementGenerator;
+import org.apache.iotdb.db.mpp.plan.planner.LogicalPlanner;
 import org.apache.iotdb.db.mpp.plan.planner.distribution.DistributionPlanner;
 import org.apache.iotdb.db.mpp.plan.planner.plan.DistributedQueryPlan;
 import org.apache.iotdb.db.mpp.plan.planner.plan.LogicalQueryPlan;
@@ -37,20 +43,27 @@ import org.apache.iotdb.db.mpp.plan.planner.plan.node.metedata.read.SchemaQueryM
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.metedata.read.TimeSeriesSchemaScanNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.ExchangeNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.LimitNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.OffsetNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TimeJoinNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TopKNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.source.AlignedSeriesScanNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.source.SeriesScanNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertRowNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertRowsNode;
+import org.apache.iotdb.db.mpp.plan.statement.Statement;
 import org.apache.iotdb.db.mpp.plan.statement.component.Ordering;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 
 import org.junit.Test;
 
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class DistributionPlannerBasicTest {
 
@@ -207,6 +220,115 @@ public class DistributionPlannerBasicTest {
     assertEquals(2, exchangeNodeCount);
   }
 
+  @Test
+  public void testPushDownTopK() throws IllegalPathException {
+    QueryId queryId = new QueryId("test_query");
+    TimeJoinNode timeJoinNode = new TimeJoinNode(queryId.genPlanNodeId(), Ordering.DESC);
+
+    timeJoinNode.addChild(
+        new SeriesScanNode(
+            queryId.genPlanNodeId(),
+            new MeasurementPath("root.sg.d1.s1", TSDataType.INT32),
+            Ordering.DESC));
+    timeJoinNode.addChild(
+        new SeriesScanNode(
+            queryId.genPlanNodeId(),
+            new MeasurementPath("root.sg.d1.s2", TSDataType.INT32),
+            Ordering.DESC));
+    timeJoinNode.addChild(
+        new SeriesScanNode(
+            queryId.genPlanNodeId(),
+            new MeasurementPath("root.sg.d22.s1", TSDataType.INT32),
+            Ordering.DESC));
+
+    TopKNode root =
+        new TopKNode(
+            queryId.genPlanNodeId(),
+            timeJoinNode,
+            10,
+            Collections.singletonList(ColumnHeaderConstant.COLUMN_TIME),
+            Collections.singletonList(Ordering.DESC),
+            true);
+
+    Analysis analysis = Util.constructAnalysis();
+
+    DistributionPlanner planner =
+        new DistributionPlanner(analysis, new LogicalQueryPlan(new MPPQueryContext(queryId), root));
+    PlanNode rootAfterRewrite = planner.rewriteSource();
+    PlanNode rootWithExchange = planner.addExchangeNode(rootAfterRewrite);
+    assertTrue(rootWithExchange instanceof TopKNode);
+    assertEquals(4, rootWithExchange.getChildren().get(0).getChildren().size());
+    int exchangeNodeCount = 0;
+    for (PlanNode child : rootWithExchange.getChildren().get(0).getChildren()) {
+      // each DataRegion only returns the top k rows
+      if (child instanceof ExchangeNode) {
+        exchangeNodeCount++;
+        child = child.getChildren().get(0);
+      }
+      assertTrue(child instanceof TopKNode);
+    }
+    assertEquals(2, exchangeNodeCount);
+  }
+
+  @Test
+  public void testPlanOrderByTimeLimitAsTopK() {
+    // ORDER BY TIME ... LIMIT over a TimeJoin is planned as TopK
+    MPPQueryContext context = new MPPQueryContext(new QueryId("test_query"));
+    Analysis analysis =
+        analyzeSQL("select s1 from root.sg.d1, root.sg.d2 order by time desc limit 10", context);
+    PlanNode root = new LogicalPlanner(context, new ArrayList<>()).plan(analysis).getRootNode();
+    assertTrue(root instanceof TopKNode);
+    TopKNode topKNode = (TopKNode) root;
+    assertEquals(10, topKNode.getTopValue());
+    assertTrue(topKNode.isOrderByTime());
+    assertEquals(Collections.singletonList(Ordering.DESC), topKNode.getOrderings());
+    assertTrue(topKNode.isChildOrdered());
+    assertTrue(topKNode.getChild() instanceof TimeJoinNode);
+
+    // a partial TopK is pushed down to each child of the TimeJoin
+    DistributionPlanner planner =
+        new DistributionPlanner(analysis, new LogicalQueryPlan(context, root));
+    PlanNode rootAfterRewrite = planner.rewriteSource();
+    assertTrue(rootAfterRewrite instanceof TopKNode);
+    PlanNode timeJoinNode = rootAfterRewrite.getChildren().get(0);
+    assertTrue(timeJoinNode instanceof TimeJoinNode);
+    assertEquals(2, timeJoinNode.getChildren().size());
+    for (PlanNode child : timeJoinNode.getChildren()) {
+      assertTrue(child instanceof TopKNode);
+      assertEquals(10, ((TopKNode) child).getTopValue());
+      assertTrue(((TopKNode) child).isChildOrdered());
+    }
+
+    // the offset rows are also kept by TopK
+    context = new MPPQueryContext(new QueryId("test_query"));
+    analysis =
+        analyzeSQL(
+            "select s1 from root.sg.d1, root.sg.d2 order by time desc limit 10 offset 5", context);
+    root = new LogicalPlanner(context, new ArrayList<>()).plan(analysis).getRootNode();
+    assertTrue(root instanceof OffsetNode);
+    assertTrue(root.getChildren().get(0) instanceof TopKNode);
+    assertEquals(15, ((TopKNode) root.getChildren().get(0)).getTopValue());
+
+    // without LIMIT, the rows are returned in the scan order without being sorted
+    context = new MPPQueryContext(new QueryId("test_query"));
+    analysis = analyzeSQL("select s1 from root.sg.d1, root.sg.d2 order by time desc", context);
+    root = new LogicalPlanner(context, new ArrayList<>()).plan(analysis).getRootNode();
+    assertTrue(root instanceof TimeJoinNode);
+
+    // a single series is read in order and limited without TopK
+    context = new MPPQueryContext(new QueryId("test_query"));
+    analysis = analyzeSQL("select s1 from root.sg.d1 order by time desc limit 10", context);
+    root = new LogicalPlanner(context, new ArrayList<>()).plan(analysis).getRootNode();
+    assertTrue(root instanceof LimitNode);
+  }
+
+  private Analysis analyzeSQL(String sql, MPPQueryContext context) {
+    Statement statement = StatementGenerator.createStatement(sql, ZonedDateTime.now().getOffset());
+    Analyzer analyzer =
+        new Analyzer(context, new FakePartitionFetcherImpl(), new FakeSchemaFetcherImpl());
+    return analyzer.analyze(statement);
+  }
+
   @Test
   public void testSplitFragment() throws IllegalPathException {
     QueryId queryId = new QueryId("test_query");
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.plan.planner;
+
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
+import org.apache.iotdb.db.mpp.plan.planner.plan.parameter.GroupByTimeParameter;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RegionScanSplitterTest {
+
+  private static final String DEVICE = "root.sg.d1";
+
+  @Test
+  public void getSplitPointsTest() {
+    // 8 files of [100 * i, 100 * i + 99], the last one is unclosed
+    List<TsFileResource> resources = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      resources.add(createResource(i, 100L * i, 100L * i + 99, i < 7));
+    }
+
+    assertEquals(Arrays.asList(200L, 400L), getSplitPoints(resources, null, 3, 2));
+    assertEquals(Arrays.asList(300L), getSplitPoints(resources, null, 4, 3));
+    // files out of the time filter are not counted
+    assertEquals(Arrays.asList(500L), getSplitPoints(resources, TimeFilter.gtEq(350L), 4, 2));
+    assertEquals(Arrays.asList(200L, 400L), getSplitPoints(resources, TimeFilter.lt(550L), 4, 2));
+    // no split when there are not enough files or only one split is allowed
+    assertEquals(Collections.emptyList(), getSplitPoints(resources, null, 4, 4));
+    assertEquals(Collections.emptyList(), getSplitPoints(resources, null, 1, 1));
+  }
+
+  @Test
+  public void getTimeRangesTest() {
+    List<TimeRange> timeRanges = RegionScanSplitter.getTimeRanges(Arrays.asList(200L, 400L));
+    assertEquals(
+        Arrays.asList(
+            new TimeRange(Long.MIN_VALUE, 199L),
+            new TimeRange(200L, 399L),
+            new TimeRange(400L, Long.MAX_VALUE)),
+        timeRanges);
+
+    Filter filter = RegionScanSplitter.andTimeRange(TimeFilter.gt(250L), timeRanges.get(1));
+    assertFalse(filter.satisfy(250L, null));
+    assertTrue(filter.satisfy(399L, null));
+    assertFalse(filter.satisfy(400L, null));
+    filter = RegionScanSplitter.andTimeRange(null, timeRanges.get(2));
+    assertFalse(filter.satisfy(399L, null));
+    assertTrue(filter.satisfy(Long.MAX_VALUE, null));
+  }
+
+  @Test
+  public void splitGroupByTimeTest() {
+    GroupByTimeParameter parameter = new GroupByTimeParameter(0L, 1000L, 100L, 100L, true);
+    List<GroupByTimeParameter> parameters =
+        RegionScanSplitter.splitGroupByTime(
+            parameter, Arrays.asList(-50L, 250L, 280L, 620L, 1200L));
+    assertEquals(3, parameters.size());
+    assertEquals(0L, parameters.get(0).getStartTime());
+    assertEquals(200L, parameters.get(0).getEndTime());
+    assertEquals(200L, parameters.get(1).getStartTime());
+    assertEquals(600L, parameters.get(1).getEndTime());
+    assertEquals(600L, parameters.get(2).getStartTime());
+    assertEquals(1000L, parameters.get(2).getEndTime());
+    assertEquals(new TimeRange(200L, 599L), RegionScanSplitter.getTimeRange(parameters.get(1)));
+
+    // overlapped windows and windows by month are not split
+    assertTrue(
+        RegionScanSplitter.splitGroupByTime(
+                new GroupByTimeParameter(0L, 1000L, 200L, 100L, true), Arrays.asList(250L))
+            .isEmpty());
+    assertTrue(
+        RegionScanSplitter.splitGroupByTime(
+                new GroupByTimeParameter(0L, 1000L, 100L, 100L, true, true, true),
+                Arrays.asList(250L))
+            .isEmpty());
+    // no window start is between the split points
+    assertTrue(RegionScanSplitter.splitGroupByTime(parameter, Arrays.asList(10L, 50L)).isEmpty());
+  }
+
+  private static List<Long> getSplitPoints(
+      List<TsFileResource> resources, Filter timeFilter, int maxSplitNum, int minFileNumPerSplit) {
+    return RegionScanSplitter.getSplitPoints(
+        resources, DEVICE, timeFilter, maxSplitNum, minFileNumPerSplit);
+  }
+
+  private static TsFileResource createResource(
+      int version, long startTime, long endTime, boolean closed) {
+    TsFileResource resource =
+        new TsFileResource(new File(String.format("%d-%d-0-0.tsfile", startTime, version)));
+    resource.updateStartTime(DEVICE, startTime);
+    resource.updateEndTime(DEVICE, endTime);
+    resource.setStatus(closed ? TsFileResourceStatus.CLOSED : TsFileResourceStatus.UNCLOSED);
+    return resource;
+  }
+}
@@ -0,0 +1,265 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.transformation.dag.column.binary;
+
+import org.apache.iotdb.db.mpp.transformation.dag.column.ColumnTransformer;
+import org.apache.iotdb.db.mpp.transformation.dag.column.leaf.ConstantColumnTransformer;
+import org.apache.iotdb.db.mpp.transformation.dag.column.leaf.IdentityColumnTransformer;
+import org.apache.iotdb.db.mpp.transformation.dag.column.leaf.LeafColumnTransformer;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.DoubleColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.type.Type;
+import org.apache.iotdb.tsfile.read.common.type.TypeFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Column transformer benchmark. Evaluate common arithmetic and compare expressions over the same
+ * TsBlocks of INT32, INT64, FLOAT and DOUBLE columns, both value by value through Type and
+ * ColumnBuilder as before (scalar) and in primitive loops (vectorized), and get the time per row.
+ */
+public class ColumnTransformerBenchmark {
+
+  private static final int ROW_NUM_PER_BLOCK = 1024;
+  private static final int BLOCK_NUM = 1024;
+  private static final int WARM_UP_ROUND = 5;
+  private static final int ROUND = 10;
+
+  private static final Type BOOLEAN = TypeFactory.getType(TSDataType.BOOLEAN);
+  private static final Type DOUBLE = TypeFactory.getType(TSDataType.DOUBLE);
+
+  /** s1 INT32, s2 INT64, s3 FLOAT, s4 DOUBLE, 1/16 of which are null */
+  private static final List<TSDataType> DATA_TYPES =
+      Arrays.asList(TSDataType.INT32, TSDataType.INT64, TSDataType.FLOAT, TSDataType.DOUBLE);
+
+  public static void main(String[] args) {
+    List<TsBlock> tsBlocks = generateTsBlocks();
+    for (String expression :
+        new String[] {"s1 + s2", "s3 * s4", "s4 * 2.0", "s2 > s4", "s1 > 10 and s3 < 0.5"}) {
+      for (boolean vectorized : new boolean[] {false, true}) {
+        List<LeafColumnTransformer> leaves = new ArrayList<>();
+        ColumnTransformer root = create(expression, leaves, vectorized);
+        for (int i = 0; i < WARM_UP_ROUND; i++) {
+          evaluate(tsBlocks, leaves, root);
+        }
+        long startTime = System.nanoTime();
+        for (int i = 0; i < ROUND; i++) {
+          evaluate(tsBlocks, leaves, root);
+        }
+        long time = System.nanoTime() - startTime;
+        System.out.println(
+            String.format(
+                "Expression: %s, %s: %.2f ns/row",
+                expression,
+                vectorized ? "vectorized" : "scalar",
+                (double) time / ROUND / BLOCK_NUM / ROW_NUM_PER_BLOCK));
+      }
+    }
+  }
+
+  private static void evaluate(
+      List<TsBlock> tsBlocks, List<LeafColumnTransformer> leaves, ColumnTransformer root) {
+    for (TsBlock tsBlock : tsBlocks) {
+      for (LeafColumnTransformer leaf : leaves) {
+        leaf.initFromTsBlock(tsBlock);
+      }
+      root.tryEvaluate();
+      root.getColumn();
+    }
+  }
+
+  private static ColumnTransformer create(
+      String expression, List<LeafColumnTransformer> leaves, boolean vectorized) {
+    ColumnTransformer root;
+    switch (expression) {
+      case "s1 + s2":
+        root =
+            vectorized
+                ? new ArithmeticAdditionColumnTransformer(
+                    DOUBLE, series(0, leaves), series(1, leaves))
+                : new ArithmeticAdditionColumnTransformer(
+                    DOUBLE, series(0, leaves), series(1, leaves)) {
+                  @Override
+                  protected Column transformColumn(
+                      Column leftColumn, Column rightColumn, int positionCount) {
+                    return scalar(this, leftColumn, rightColumn, positionCount);
+                  }
+                };
+        break;
+      case "s3 * s4":
+        root =
+            vectorized
+                ? new ArithmeticMultiplicationColumnTransformer(
+                    DOUBLE, series(2, leaves), series(3, leaves))
+                : new ArithmeticMultiplicationColumnTransformer(
+                    DOUBLE, series(2, leaves), series(3, leaves)) {
+                  @Override
+                  protected Column transformColumn(
+                      Column leftColumn, Column rightColumn, int positionCount) {
+                    return scalar(this, leftColumn, rightColumn, positionCount);
+                  }
+                };
+        break;
+      case "s4 * 2.0":
+        root =
+            vectorized
+                ? new ArithmeticMultiplicationColumnTransformer(
+                    DOUBLE, series(3, leaves), constant(2.0, leaves))
+                : new ArithmeticMultiplicationColumnTransformer(
+                    DOUBLE, series(3, leaves), constant(2.0, leaves)) {
+                  @Override
+                  protected Column transformColumn(
+                      Column leftColumn, Column rightColumn, int positionCount) {
+                    return scalar(this, leftColumn, rightColumn, positionCount);
+                  }
+                };
+        break;
+      case "s2 > s4":
+        root =
+            vectorized
+                ? new CompareGreaterThanColumnTransformer(
+                    BOOLEAN, series(1, leaves), series(3, leaves))
+                : new CompareGreaterThanColumnTransformer(
+                    BOOLEAN, series(1, leaves), series(3, leaves)) {
+                  @Override
+                  protected Column transformColumn(
+                      Column leftColumn, Column rightColumn, int positionCount) {
+                    return scalar(this, leftColumn, rightColumn, positionCount);
+                  }
+                };
+        break;
+      case "s1 > 10 and s3 < 0.5":
+        ColumnTransformer left;
+        ColumnTransformer right;
+        if (vectorized) {
+          left =
+              new CompareGreaterThanColumnTransformer(
+                  BOOLEAN, series(0, leaves), constant(10, leaves));
+          right =
+              new CompareLessThanColumnTransformer(
+                  BOOLEAN, series(2, leaves), constant(0.5, leaves));
+          root = new LogicAndColumnTransformer(BOOLEAN, left, right);
+        } else {
+          left =
+              new CompareGreaterThanColumnTransformer(
+                  BOOLEAN, series(0, leaves), constant(10, leaves)) {
+                @Override
+                protected Column transformColumn(
+                    Column leftColumn, Column rightColumn, int positionCount) {
+                  return scalar(this, leftColumn, rightColumn, positionCount);
+                }
+              };
+          right =
+              new CompareLessThanColumnTransformer(
+                  BOOLEAN, series(2, leaves), constant(0.5, leaves)) {
+                @Override
+                protected Column transformColumn(
+                    Column leftColumn, Column rightColumn, int positionCount) {
+                  return scalar(this, leftColumn, rightColumn, positionCount);
+                }
+              };
+          root =
+              new LogicAndColumnTransformer(BOOLEAN, left, right) {
+                @Override
+                protected Column transformColumn(
+                    Column leftColumn, Column rightColumn, int positionCount) {
+                  return scalar(this, leftColumn, rightColumn, positionCount);
+                }
+              };
+        }
+        left.addReferenceCount();
+        right.addReferenceCount();
+        break;
+      default:
+        throw new IllegalArgumentException(expression);
+    }
+    root.addReferenceCount();
+    return root;
+  }
+
+  /** calculate value by value, as before the columns are calculated in primitive loops */
+  private static Column scalar(
+      BinaryColumnTransformer transformer,
+      Column leftColumn,
+      Column rightColumn,
+      int positionCount) {
+    ColumnBuilder builder = transformer.getType().createColumnBuilder(positionCount);
+    transformer.doTransform(leftColumn, rightColumn, builder, positionCount);
+    return builder.build();
+  }
+
+  private static LeafColumnTransformer series(int index, List<LeafColumnTransformer> leaves) {
+    LeafColumnTransformer leaf =
+        new IdentityColumnTransformer(TypeFactory.getType(DATA_TYPES.get(index)), index);
+    leaf.addReferenceCount();
+    leaves.add(leaf);
+    return leaf;
+  }
+
+  private static LeafColumnTransformer constant(double value, List<LeafColumnTransformer> leaves) {
+    DoubleColumnBuilder builder = new DoubleColumnBuilder(null, 1);
+    builder.writeDouble(value);
+    LeafColumnTransformer leaf = new ConstantColumnTransformer(DOUBLE, builder.build());
+    leaf.addReferenceCount();
+    leaves.add(leaf);
+    return leaf;
+  }
+
+  private static List<TsBlock> generateTsBlocks() {
+    Random random = new Random(0);
+    List<TsBlock> tsBlocks = new ArrayList<>(BLOCK_NUM);
+    long time = 0;
+    for (int i = 0; i < BLOCK_NUM; i++) {
+      TsBlockBuilder builder = new TsBlockBuilder(ROW_NUM_PER_BLOCK, DATA_TYPES);
+      for (int j = 0; j < ROW_NUM_PER_BLOCK; j++) {
+        builder.getTimeColumnBuilder().writeLong(time++);
+        for (int k = 0; k < DATA_TYPES.size(); k++) {
+          ColumnBuilder columnBuilder = builder.getColumnBuilder(k);
+          if (random.nextInt(16) == 0) {
+            columnBuilder.appendNull();
+            continue;
+          }
+          switch (DATA_TYPES.get(k)) {
+            case INT32:
+              columnBuilder.writeInt(random.nextInt(20));
+              break;
+            case INT64:
+              columnBuilder.writeLong(random.nextInt(20));
+              break;
+            case FLOAT:
+              columnBuilder.writeFloat(random.nextFloat());
+              break;
+            default:
+              columnBuilder.writeDouble(random.nextDouble() * 20);
+          }
+        }
+        builder.declarePosition();
+      }
+      tsBlocks.add(builder.build());
+    }
+    return tsBlocks;
+  }
+}
@@ -23,6 +23,15 @@ import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.constant.TestConstant;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -31,6 +40,7 @@ import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 
 import static org.junit.Assert.fail;
 
@@ -134,4 +144,64 @@ public class FileReaderManagerTest {
       }
     }
   }
+
+  @Test
+  public void testMmapLimitAndUnmap() throws Exception {
+    boolean enableMmapRead = dbConfig.isEnableTsFileMmapRead();
+    long maxMmapSize = dbConfig.getMaxTsFileMmapSizeInByte();
+    FileReaderManager manager = FileReaderManager.getInstance();
+    File file1 = createTsFile(TestConstant.BASE_OUTPUT_PATH.concat("mmap-1.tsfile"));
+    File file2 = createTsFile(TestConstant.BASE_OUTPUT_PATH.concat("mmap-2.tsfile"));
+    try {
+      dbConfig.setEnableTsFileMmapRead(true);
+      // only one of the files can be mapped
+      dbConfig.setMaxTsFileMmapSizeInByte(file1.length() + file2.length() - 1);
+      Assert.assertEquals(0, manager.getTotalMappedSize());
+
+      TsFileSequenceReader reader1 = manager.get(file1.getPath(), true);
+      Assert.assertEquals(file1.length(), manager.getTotalMappedSize());
+      Assert.assertTrue(isMapped(file1));
+      TsFileSequenceReader reader2 = manager.get(file2.getPath(), true);
+      Assert.assertEquals(file1.length(), manager.getTotalMappedSize());
+      Assert.assertFalse(isMapped(file2));
+      Assert.assertEquals(TSFileConfig.MAGIC_STRING, reader1.readTailMagic());
+      Assert.assertEquals(TSFileConfig.MAGIC_STRING, reader2.readTailMagic());
+
+      // the file is deleted, e.g. by compaction
+      manager.closeFileAndRemoveReader(file1.getPath());
+      Assert.assertEquals(0, manager.getTotalMappedSize());
+      Assert.assertFalse(isMapped(file1));
+      Assert.assertTrue(file1.delete());
+    } finally {
+      dbConfig.setEnableTsFileMmapRead(enableMmapRead);
+      dbConfig.setMaxTsFileMmapSizeInByte(maxMmapSize);
+      manager.closeAndRemoveAllOpenedReaders();
+      Files.deleteIfExists(file1.toPath());
+      Files.deleteIfExists(file2.toPath());
+    }
+  }
+
+  private static File createTsFile(String filePath) throws Exception {
+    File file = SystemFileFactory.INSTANCE.getFile(filePath);
+    try (TsFileWriter writer = new TsFileWriter(file)) {
+      writer.registerTimeseries(
+          new Path("root.sg.d1"), new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.RLE));
+      for (long time = 0; time < 100; time++) {
+        TSRecord record = new TSRecord(time, "root.sg.d1");
+        record.addTuple(new LongDataPoint("s1", time));
+        writer.write(record);
+      }
+    }
+    return file;
+  }
+
+  /** Whether the file is mapped into the address space of this process, only checked on Linux. */
+  private static boolean isMapped(File file) throws IOException {
+    File maps = new File("/proc/self/maps");
+    if (!maps.exists()) {
+      return false;
+    }
+    String path = file.getCanonicalPath();
+    return Files.readAllLines(maps.toPath()).stream().anyMatch(line -> line.endsWith(path));
+  }
 }
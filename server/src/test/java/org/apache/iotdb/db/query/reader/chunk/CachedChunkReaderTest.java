@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.query.reader.chunk;
+
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.engine.cache.TsFilePageIndex;
+import org.apache.iotdb.db.engine.cache.TsFilePageIndex.ChunkPageIndex;
+import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.reader.IPageReader;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class CachedChunkReaderTest {
+
+  private static final String DEVICE = "root.sg1.d1";
+  private static final String MEASUREMENT = "s1";
+
+  private final File file = new File(TestConstant.getTestTsFilePath("root.sg1", 0, 0, 1));
+  private int maxNumberOfPointsInPage;
+
+  @Before
+  public void setUp() throws Exception {
+    maxNumberOfPointsInPage =
+        TSFileDescriptor.getInstance().getConfig().getMaxNumberOfPointsInPage();
+    TSFileDescriptor.getInstance().getConfig().setMaxNumberOfPointsInPage(10);
+    if (!file.getParentFile().exists()) {
+      Assert.assertTrue(file.getParentFile().mkdirs());
+    }
+    try (TsFileWriter writer = new TsFileWriter(file)) {
+      writer.registerTimeseries(
+          new Path(DEVICE),
+          new MeasurementSchema(
+              MEASUREMENT, TSDataType.INT64, TSEncoding.RLE, CompressionType.SNAPPY));
+      for (long i = 0; i < 100; i++) {
+        TSRecord record = new TSRecord(i, DEVICE);
+        record.addTuple(DataPoint.getDataPoint(TSDataType.INT64, MEASUREMENT, String.valueOf(i)));
+        writer.write(record);
+      }
+    }
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    TSFileDescriptor.getInstance().getConfig().setMaxNumberOfPointsInPage(maxNumberOfPointsInPage);
+    FileReaderManager.getInstance().closeAndRemoveAllOpenedReaders();
+    Assert.assertTrue(file.delete());
+    Files.deleteIfExists(new File(file.getPath() + TsFilePageIndex.FILE_SUFFIX).toPath());
+  }
+
+  @Test
+  public void testSameResultAsChunkReader() throws IOException {
+    Filter filter = TimeFilter.gtEq(25L);
+    List<TimeRange> deletions = Collections.singletonList(new TimeRange(40, 55));
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath())) {
+      ChunkMetadata chunkMetadata =
+          reader.getChunkMetadataList(new Path(DEVICE, MEASUREMENT)).get(0);
+      chunkMetadata.setFilePath(file.getPath());
+
+      Chunk chunk = reader.readMemChunk(chunkMetadata);
+      chunk.setDeleteIntervalList(deletions);
+      List<TsBlock> expected = readAll(new ChunkReader(chunk, filter).loadPageReaderList());
+
+      chunk = reader.readMemChunk(chunkMetadata);
+      chunk.setDeleteIntervalList(deletions);
+      List<TsBlock> actual =
+          readAll(new CachedChunkReader(chunkMetadata, chunk, filter).loadPageReaderList());
+
+      Assert.assertTrue(expected.size() > 1);
+      Assert.assertEquals(expected.size(), actual.size());
+      int pointCount = 0;
+      for (int i = 0; i < expected.size(); i++) {
+        TsBlock expectedBlock = expected.get(i);
+        TsBlock actualBlock = actual.get(i);
+        Assert.assertEquals(expectedBlock.getPositionCount(), actualBlock.getPositionCount());
+        for (int j = 0; j < expectedBlock.getPositionCount(); j++) {
+          Assert.assertEquals(expectedBlock.getTimeByIndex(j), actualBlock.getTimeByIndex(j));
+          Assert.assertEquals(
+              expectedBlock.getColumn(0).getLong(j), actualBlock.getColumn(0).getLong(j));
+        }
+        pointCount += actualBlock.getPositionCount();
+      }
+      // [25, 100) without [40, 55]
+      Assert.assertEquals(59, pointCount);
+    }
+  }
+
+  @Test
+  public void testIndexedChunkReader() throws IOException {
+    Filter filter = TimeFilter.gtEq(25L);
+    List<TimeRange> deletions = Collections.singletonList(new TimeRange(40, 55));
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath())) {
+      ChunkMetadata chunkMetadata =
+          reader.getChunkMetadataList(new Path(DEVICE, MEASUREMENT)).get(0);
+      chunkMetadata.setFilePath(file.getPath());
+      chunkMetadata.setDeleteIntervalList(deletions);
+
+      Chunk chunk = reader.readMemChunk(chunkMetadata);
+      chunk.setDeleteIntervalList(deletions);
+      List<IPageReader> expectedPageReaders = new ChunkReader(chunk, filter).loadPageReaderList();
+
+      // the first load builds the index and persists it, the second one reads it back
+      TsFilePageIndex.loadOrBuild(file.getPath());
+      Assert.assertTrue(new File(file.getPath() + TsFilePageIndex.FILE_SUFFIX).exists());
+      ChunkPageIndex chunkPageIndex =
+          TsFilePageIndex.loadOrBuild(file.getPath())
+              .getChunkPageIndex(chunkMetadata.getOffsetOfChunkHeader());
+      Assert.assertNotNull(chunkPageIndex);
+      Assert.assertEquals(10, chunkPageIndex.getPageNum());
+
+      List<IPageReader> actualPageReaders =
+          new IndexedChunkReader(chunkMetadata, chunkPageIndex, filter).loadPageReaderList();
+      Assert.assertEquals(expectedPageReaders.size(), actualPageReaders.size());
+      for (int i = 0; i < expectedPageReaders.size(); i++) {
+        Assert.assertEquals(
+            expectedPageReaders.get(i).getStatistics(), actualPageReaders.get(i).getStatistics());
+        Assert.assertEquals(
+            expectedPageReaders.get(i).isModified(), actualPageReaders.get(i).isModified());
+      }
+
+      List<TsBlock> expected = readAll(expectedPageReaders);
+      List<TsBlock> actual = readAll(actualPageReaders);
+      int pointCount = 0;
+      for (int i = 0; i < expected.size(); i++) {
+        TsBlock expectedBlock = expected.get(i);
+        TsBlock actualBlock = actual.get(i);
+        Assert.assertEquals(expectedBlock.getPositionCount(), actualBlock.getPositionCount());
+        for (int j = 0; j < expectedBlock.getPositionCount(); j++) {
+          Assert.assertEquals(expectedBlock.getTimeByIndex(j), actualBlock.getTimeByIndex(j));
+          Assert.assertEquals(
+              expectedBlock.getColumn(0).getLong(j), actualBlock.getColumn(0).getLong(j));
+        }
+        pointCount += actualBlock.getPositionCount();
+      }
+      // [25, 100) without [40, 55]
+      Assert.assertEquals(59, pointCount);
+    }
+  }
+
+  private List<TsBlock> readAll(List<IPageReader> pageReaders) throws IOException {
+    List<TsBlock> result = new ArrayList<>();
+    for (IPageReader pageReader : pageReaders) {
+      result.add(pageReader.getAllSatisfiedData());
+    }
+    return result;
+  }
+}
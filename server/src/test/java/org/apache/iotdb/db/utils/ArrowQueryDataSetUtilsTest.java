@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils;
+
+import org.apache.iotdb.db.mpp.common.header.ColumnHeader;
+import org.apache.iotdb.db.mpp.common.header.DatasetHeader;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public class ArrowQueryDataSetUtilsTest {
+
+  @Test
+  public void testConvertTsBlockToArrowBatch() throws IOException {
+    DatasetHeader header =
+        new DatasetHeader(
+            Arrays.asList(
+                new ColumnHeader("root.sg.d1.s1", TSDataType.DOUBLE),
+                new ColumnHeader("root.sg.d1.s2", TSDataType.TEXT, "alias")),
+            false);
+    // the columns of the TsBlock are in different order from the header
+    header.setColumnToTsBlockIndexMap(Arrays.asList("root.sg.d1.s2", "root.sg.d1.s1"));
+
+    TsBlockBuilder builder = new TsBlockBuilder(Arrays.asList(TSDataType.TEXT, TSDataType.DOUBLE));
+    for (int i = 0; i < 10; i++) {
+      builder.getTimeColumnBuilder().writeLong(i);
+      builder.getColumnBuilder(0).writeBinary(Binary.valueOf("v" + i));
+      if (i % 3 == 0) {
+        builder.getColumnBuilder(1).appendNull();
+      } else {
+        builder.getColumnBuilder(1).writeDouble(i * 1.5);
+      }
+      builder.declarePosition();
+    }
+    TsBlock tsBlock = builder.build();
+
+    ByteBuffer batch = ArrowQueryDataSetUtils.convertTsBlockToArrowBatch(header, tsBlock);
+    byte[] bytes = new byte[batch.remaining()];
+    batch.get(bytes);
+
+    try (BufferAllocator allocator = new RootAllocator();
+        ArrowStreamReader reader =
+            new ArrowStreamReader(new ByteArrayInputStream(bytes), allocator)) {
+      Assert.assertTrue(reader.loadNextBatch());
+      VectorSchemaRoot root = reader.getVectorSchemaRoot();
+      Assert.assertEquals(10, root.getRowCount());
+      Assert.assertEquals(
+          Arrays.asList(ArrowQueryDataSetUtils.TIME_COLUMN_NAME, "root.sg.d1.s1", "alias"),
+          Arrays.asList(
+              root.getSchema().getFields().get(0).getName(),
+              root.getSchema().getFields().get(1).getName(),
+              root.getSchema().getFields().get(2).getName()));
+
+      BigIntVector timeVector = (BigIntVector) root.getVector(0);
+      Float8Vector doubleVector = (Float8Vector) root.getVector(1);
+      VarCharVector textVector = (VarCharVector) root.getVector(2);
+      for (int i = 0; i < 10; i++) {
+        Assert.assertEquals(i, timeVector.get(i));
+        if (i % 3 == 0) {
+          Assert.assertTrue(doubleVector.isNull(i));
+        } else {
+          Assert.assertEquals(i * 1.5, doubleVector.get(i), 0.0);
+        }
+        Assert.assertEquals("v" + i, new String(textVector.get(i)));
+      }
+      Assert.assertFalse(reader.loadNextBatch());
+    }
+  }
+
+  @Test
+  public void testIgnoreTimestamp() throws IOException {
+    DatasetHeader header =
+        new DatasetHeader(
+            Arrays.asList(new ColumnHeader("count(root.sg.d1.s1)", TSDataType.INT64)), true);
+    TsBlockBuilder builder = new TsBlockBuilder(Arrays.asList(TSDataType.INT64));
+    builder.getTimeColumnBuilder().writeLong(0);
+    builder.getColumnBuilder(0).writeLong(100);
+    builder.declarePosition();
+
+    ByteBuffer batch = ArrowQueryDataSetUtils.convertTsBlockToArrowBatch(header, builder.build());
+    byte[] bytes = new byte[batch.remaining()];
+    batch.get(bytes);
+
+    try (BufferAllocator allocator = new RootAllocator();
+        ArrowStreamReader reader =
+            new ArrowStreamReader(new ByteArrayInputStream(bytes), allocator)) {
+      Assert.assertTrue(reader.loadNextBatch());
+      VectorSchemaRoot root = reader.getVectorSchemaRoot();
+      Assert.assertEquals(1, root.getSchema().getFields().size());
+      Assert.assertEquals(100L, ((BigIntVector) root.getVector(0)).get(0));
+    }
+  }
+}
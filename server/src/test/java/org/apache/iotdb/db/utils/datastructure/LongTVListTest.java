@@ -155,4 +155,110 @@ public class LongTVListTest {
       Assert.assertEquals(tvList.getTime((int) i), clonedTvList.getTime((int) i));
     }
   }
+
+  @Test
+  public void testSortTailOnly() {
+    Random random = new Random();
+    TimLongTVList tvList = new TimLongTVList();
+    List<TimeValuePair> inputs = new ArrayList<>();
+    for (long i = 0; i < 10000; i++) {
+      tvList.putLong(i, i);
+      inputs.add(new TimeValuePair(i, new TsLong(i)));
+    }
+    for (int round = 0; round < 3; round++) {
+      // out-of-order tail, including timestamps that already exist
+      for (int i = 0; i < 200; i++) {
+        long time = 9000 + random.nextInt(2000);
+        long value = random.nextLong();
+        tvList.putLong(time, value);
+        inputs.add(new TimeValuePair(time, new TsLong(value)));
+      }
+      Assert.assertFalse(tvList.isSorted());
+      // rows before the overlapped part of the sorted prefix are not moved
+      Assert.assertTrue(tvList.getFirstRowToSort() >= 9000);
+      tvList.sort();
+      // stable sort, the latest point of a timestamp is still the last one
+      inputs.sort(TimeValuePair::compareTo);
+      Assert.assertEquals(inputs.size(), tvList.rowCount);
+      for (int i = 0; i < tvList.rowCount; i++) {
+        Assert.assertEquals(inputs.get(i).getTimestamp(), tvList.getTime(i));
+        Assert.assertEquals(inputs.get(i).getValue().getLong(), tvList.getLong(i));
+      }
+    }
+  }
+
+  @Test
+  public void testCloneForSort() {
+    TimLongTVList tvList = new TimLongTVList();
+    for (long i = 0; i < 10000; i++) {
+      tvList.putLong(i, i);
+    }
+    tvList.putLong(9999, -1);
+    tvList.putLong(5000, -2);
+    TimLongTVList sortedList = (TimLongTVList) tvList.cloneForSort();
+    sortedList.sort();
+    // the arrays before row 5000 are shared instead of copied
+    Assert.assertSame(tvList.values.get(0), sortedList.values.get(0));
+    Assert.assertSame(tvList.timestamps.get(0), sortedList.timestamps.get(0));
+    // the original list is not modified
+    Assert.assertFalse(tvList.isSorted());
+    Assert.assertEquals(5000, tvList.getTime(10001));
+    Assert.assertEquals(-2, tvList.getLong(10001));
+    Assert.assertEquals(5000, sortedList.getTime(5001));
+    Assert.assertEquals(-2, sortedList.getLong(5001));
+    Assert.assertEquals(5001, sortedList.getTime(5002));
+    Assert.assertEquals(-1, sortedList.getLong(10001));
+    sortedList.clear();
+    Assert.assertEquals(0, tvList.getLong(0));
+  }
+
+  @Test
+  public void testDeleteFromClonedList() {
+    TimLongTVList tvList = new TimLongTVList();
+    for (long i = 0; i < 10000; i++) {
+      tvList.putLong(i, i);
+    }
+    tvList.putLong(5000, -1);
+    TimLongTVList sortedList = (TimLongTVList) tvList.cloneForSort();
+    sortedList.sort();
+    Assert.assertSame(tvList.values.get(0), sortedList.values.get(0));
+
+    // the original list is being read by a query while the cloned one is deleted from
+    Assert.assertEquals(10, tvList.getTime(10));
+    Assert.assertEquals(10, sortedList.delete(0, 9));
+    Assert.assertNotSame(tvList.values.get(0), sortedList.values.get(0));
+    Assert.assertNotSame(tvList.timestamps.get(0), sortedList.timestamps.get(0));
+    for (int i = 0; i < 10000; i++) {
+      Assert.assertEquals(i, tvList.getTime(i));
+      Assert.assertEquals(i, tvList.getLong(i));
+    }
+    Assert.assertEquals(9991, sortedList.rowCount());
+    Assert.assertEquals(10, sortedList.getTime(0));
+    Assert.assertEquals(5000, sortedList.getTime(4991));
+    Assert.assertEquals(-1, sortedList.getLong(4991));
+  }
+
+  @Test
+  public void testSortClonedListAgain() {
+    TimLongTVList tvList = new TimLongTVList();
+    for (long i = 0; i < 10000; i++) {
+      tvList.putLong(i, i);
+    }
+    tvList.putLong(9999, -1);
+    TimLongTVList sortedList = (TimLongTVList) tvList.cloneForSort();
+    sortedList.sort();
+    Assert.assertSame(tvList.values.get(0), sortedList.values.get(0));
+
+    // the new row is sorted into the arrays shared with the original list
+    sortedList.putLong(0, -2);
+    sortedList.sort();
+    Assert.assertNotSame(tvList.values.get(0), sortedList.values.get(0));
+    for (int i = 0; i < 10000; i++) {
+      Assert.assertEquals(i, tvList.getTime(i));
+      Assert.assertEquals(i, tvList.getLong(i));
+    }
+    Assert.assertEquals(0, sortedList.getTime(1));
+    Assert.assertEquals(-2, sortedList.getLong(1));
+    Assert.assertEquals(1, sortedList.getTime(2));
+  }
 }
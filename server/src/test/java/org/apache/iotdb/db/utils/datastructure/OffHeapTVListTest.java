@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.db.rescon.OffHeapMemoryManager;
+import org.apache.iotdb.db.rescon.PrimitiveArrayManager;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.utils.BitMap;
+
+import io.netty.util.internal.PlatformDependent;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Random;
+
+public class OffHeapTVListTest {
+
+  @Test
+  public void testSortSameAsOnHeap() {
+    Random random = new Random();
+    TVList offHeapList = TVList.newList(TSDataType.INT64, true);
+    TVList onHeapList = TVList.newList(TSDataType.INT64);
+    Assert.assertTrue(offHeapList instanceof OffHeapLongTVList);
+    for (int i = 0; i < 10000; i++) {
+      long time = random.nextInt(10000);
+      long value = random.nextLong();
+      offHeapList.putLong(time, value);
+      onHeapList.putLong(time, value);
+    }
+    Assert.assertFalse(offHeapList.isSorted());
+    offHeapList.sort();
+    onHeapList.sort();
+    Assert.assertTrue(offHeapList.isSorted());
+    Assert.assertEquals(onHeapList.rowCount(), offHeapList.rowCount());
+    Assert.assertEquals(onHeapList.getMinTime(), offHeapList.getMinTime());
+    Assert.assertEquals(onHeapList.serializedSize(), offHeapList.serializedSize());
+    for (int i = 0; i < offHeapList.rowCount(); i++) {
+      Assert.assertEquals(onHeapList.getTime(i), offHeapList.getTime(i));
+    }
+    // the sort is not stable, so only check the timestamps and the multiset of values
+    long onHeapSum = 0;
+    long offHeapSum = 0;
+    for (int i = 0; i < offHeapList.rowCount(); i++) {
+      onHeapSum += onHeapList.getLong(i);
+      offHeapSum += offHeapList.getLong(i);
+    }
+    Assert.assertEquals(onHeapSum, offHeapSum);
+    offHeapList.clear();
+    Assert.assertEquals(0, offHeapList.rowCount());
+  }
+
+  @Test
+  public void testPutDoublesAndBuildTsBlock() {
+    int size = 1000;
+    long[] times = new long[size];
+    double[] values = new double[size];
+    BitMap bitMap = new BitMap(size);
+    for (int i = 0; i < size; i++) {
+      times[i] = size - i;
+      values[i] = (size - i) * 1.5;
+      if (i % 100 == 0) {
+        bitMap.mark(i);
+      }
+    }
+    TVList offHeapList = TVList.newList(TSDataType.DOUBLE, true);
+    TVList onHeapList = TVList.newList(TSDataType.DOUBLE);
+    offHeapList.putDoubles(times, values, bitMap, 0, size);
+    onHeapList.putDoubles(times, values, bitMap, 0, size);
+    // duplicated timestamp, only the last one is kept in the TsBlock
+    offHeapList.putDouble(500, -1);
+    onHeapList.putDouble(500, -1);
+    Assert.assertEquals(onHeapList.rowCount(), offHeapList.rowCount());
+    offHeapList.sort();
+    onHeapList.sort();
+
+    TsBlock expected =
+        onHeapList.buildTsBlock(
+            2, TSEncoding.RLE, Collections.singletonList(new TimeRange(100, 200)));
+    TsBlock actual =
+        offHeapList.buildTsBlock(
+            2, TSEncoding.RLE, Collections.singletonList(new TimeRange(100, 200)));
+    Assert.assertEquals(expected.getPositionCount(), actual.getPositionCount());
+    for (int i = 0; i < expected.getPositionCount(); i++) {
+      Assert.assertEquals(expected.getTimeByIndex(i), actual.getTimeByIndex(i));
+      Assert.assertEquals(expected.getColumn(0).getDouble(i), actual.getColumn(0).getDouble(i), 0);
+    }
+  }
+
+  @Test
+  public void testDeleteAndClone() {
+    TVList tvList = TVList.newList(TSDataType.INT32, true);
+    for (int i = 0; i < 1000; i++) {
+      tvList.putInt(i, i);
+    }
+    Assert.assertEquals(500, tvList.delete(250, 749));
+    Assert.assertEquals(500, tvList.rowCount());
+    TVList clonedList = tvList.clone();
+    tvList.clear();
+    Assert.assertEquals(500, clonedList.rowCount());
+    for (int i = 0; i < clonedList.rowCount(); i++) {
+      int expected = i < 250 ? i : i + 500;
+      Assert.assertEquals(expected, clonedList.getTime(i));
+      Assert.assertEquals(expected, clonedList.getInt(i));
+    }
+    clonedList.clear();
+  }
+
+  @Test
+  public void testBooleanAndFloat() {
+    TVList booleanList = TVList.newList(TSDataType.BOOLEAN, true);
+    TVList floatList = TVList.newList(TSDataType.FLOAT, true);
+    for (int i = 100; i > 0; i--) {
+      booleanList.putBoolean(i, i % 2 == 0);
+      floatList.putFloat(i, i / 4.0f);
+    }
+    booleanList.sort();
+    floatList.sort();
+    for (int i = 0; i < 100; i++) {
+      Assert.assertEquals(i + 1, booleanList.getTime(i));
+      Assert.assertEquals((i + 1) % 2 == 0, booleanList.getBoolean(i));
+      Assert.assertEquals((i + 1) / 4.0f, floatList.getFloat(i), 0);
+    }
+    Assert.assertTrue(TVList.newList(TSDataType.TEXT, true) instanceof TimBinaryTVList);
+    Assert.assertEquals(
+        OffHeapTVList.slabMemCost(TSDataType.BOOLEAN),
+        TVList.tvListArrayOffHeapMemCost(TSDataType.BOOLEAN, true));
+    Assert.assertEquals(0, TVList.tvListArrayOffHeapMemCost(TSDataType.TEXT, true));
+    booleanList.clear();
+    floatList.clear();
+  }
+
+  @Test
+  public void testOffHeapMemoryNotChargedToHeap() {
+    // only the slab objects are on heap
+    Assert.assertEquals(
+        OffHeapTVList.slabHeapMemCost(), TVList.tvListArrayMemCost(TSDataType.INT64, true));
+    Assert.assertTrue(
+        TVList.tvListArrayMemCost(TSDataType.INT64, true)
+            < TVList.tvListArrayMemCost(TSDataType.INT64));
+    Assert.assertEquals(
+        TVList.tvListArrayMemCost(TSDataType.INT64),
+        TVList.tvListArrayMemCost(TSDataType.INT64, false));
+    Assert.assertEquals(0, TVList.tvListArrayOffHeapMemCost(TSDataType.INT64, false));
+  }
+
+  @Test
+  public void testOffHeapMemoryBudget() {
+    OffHeapMemoryManager manager = OffHeapMemoryManager.getInstance();
+    Assert.assertTrue(manager.getTotalMemory() > 0);
+    Assert.assertTrue(manager.getTotalMemory() <= PlatformDependent.maxDirectMemory());
+
+    long slabMemCost = OffHeapTVList.slabMemCost(TSDataType.INT64);
+    OffHeapTVList tvList = (OffHeapTVList) TVList.newList(TSDataType.INT64, true);
+    long usedMemory = manager.getUsedMemory();
+    for (int i = 0; i < PrimitiveArrayManager.ARRAY_SIZE * 3; i++) {
+      tvList.putLong(i, i);
+    }
+    Assert.assertEquals(3 * slabMemCost, tvList.getOffHeapMemCost());
+    Assert.assertTrue(manager.getUsedMemory() >= usedMemory + 3 * slabMemCost - 1);
+
+    long totalMemory = manager.getTotalMemory();
+    try {
+      manager.setTotalMemory(manager.getUsedMemory() + slabMemCost);
+      Assert.assertTrue(manager.isAvailable(slabMemCost));
+      Assert.assertFalse(manager.isAvailable(slabMemCost + 1));
+    } finally {
+      manager.setTotalMemory(totalMemory);
+    }
+
+    // the sorted slabs are released right after sorting
+    tvList.putLong(-1, -1);
+    tvList.sort();
+    Assert.assertEquals(4 * slabMemCost, tvList.getOffHeapMemCost());
+    tvList.clear();
+    Assert.assertEquals(0, tvList.getOffHeapMemCost());
+  }
+
+  @Test
+  public void testQueriedListReleasedByGC() throws InterruptedException {
+    OffHeapMemoryManager manager = OffHeapMemoryManager.getInstance();
+    long usedMemory = manager.getUsedMemory();
+    OffHeapTVList tvList = (OffHeapTVList) TVList.newList(TSDataType.DOUBLE, true);
+    for (int i = 0; i < PrimitiveArrayManager.ARRAY_SIZE * 2; i++) {
+      tvList.putDouble(i, i);
+    }
+    tvList.increaseReferenceCount();
+    // the slabs may still be read by queries, so they are kept in the budget
+    tvList.clear();
+    Assert.assertEquals(
+        2 * OffHeapTVList.slabMemCost(TSDataType.DOUBLE), tvList.getOffHeapMemCost());
+
+    tvList = null;
+    for (int i = 0; i < 100 && manager.getUsedMemory() > usedMemory; i++) {
+      System.gc();
+      Thread.sleep(50);
+    }
+    Assert.assertTrue(manager.getUsedMemory() <= usedMemory);
+  }
+}
@@ -23,10 +23,17 @@ import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertTabletNode;
 import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.db.wal.io.WALByteBufReader;
 import org.apache.iotdb.db.wal.io.WALReader;
 import org.apache.iotdb.db.wal.utils.WALFileUtils;
+import org.apache.iotdb.db.wal.utils.listener.WALFlushListener;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 
 import org.junit.After;
 import org.junit.Before;
@@ -36,6 +43,7 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
@@ -44,6 +52,8 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public abstract class WALBufferCommonTest {
@@ -157,4 +167,123 @@ public abstract class WALBufferCommonTest {
       config.setWalBufferSize(prevWalBufferSize);
     }
   }
+
+  @Test
+  public void testHugeWriteWithCompression() throws Exception {
+    CompressionType prevWalCompressionType = config.getWalCompressionType();
+    config.setWalCompressionType(CompressionType.LZ4);
+    try {
+      walBuffer.close();
+      EnvironmentUtils.cleanDir(logDirectory);
+      walBuffer = new WALBuffer(identifier, logDirectory);
+      // the huge entry is larger than half of the wal buffer, so it spans three buffers
+      int rowNum = config.getWalBufferSize() / 16 * 6 / 5;
+      long[] times = new long[rowNum];
+      double[] values = new double[rowNum];
+      Random random = new Random(0);
+      for (int i = 0; i < rowNum; i++) {
+        times[i] = i;
+        values[i] = random.nextDouble();
+      }
+      InsertTabletNode hugeNode =
+          new InsertTabletNode(
+              new PlanNodeId(""),
+              new PartialPath(devicePath),
+              false,
+              new String[] {"s1"},
+              new TSDataType[] {TSDataType.DOUBLE},
+              times,
+              null,
+              new Object[] {values},
+              rowNum);
+      hugeNode.setMeasurementSchemas(new MeasurementSchema[1]);
+
+      List<WALEntry> expectedWALEntries = new ArrayList<>();
+      for (int i = 0; i < 100; ++i) {
+        expectedWALEntries.add(new WALInfoEntry(0, getInsertRowPlan(devicePath, i)));
+      }
+      expectedWALEntries.add(new WALInfoEntry(0, hugeNode));
+      for (int i = 100; i < 200; ++i) {
+        expectedWALEntries.add(new WALInfoEntry(0, getInsertRowPlan(devicePath, i)));
+      }
+      for (WALEntry walEntry : expectedWALEntries) {
+        walBuffer.write(walEntry);
+      }
+      assertTrue(expectedWALEntries.get(100).serializedSize() > config.getWalBufferSize());
+      // seal the wal file
+      WALEntry rollSignal = new WALSignalEntry(WALEntryType.ROLL_WAL_LOG_WRITER_SIGNAL, true);
+      walBuffer.write(rollSignal);
+      assertEquals(
+          WALFlushListener.Status.SUCCESS, rollSignal.getWalFlushListener().waitForResult());
+
+      File[] walFiles = WALFileUtils.listAllWALFiles(new File(logDirectory));
+      assertNotNull(walFiles);
+      WALFileUtils.ascSortByVersionId(walFiles);
+      // read the entries as recovery does
+      List<WALEntry> actualWALEntries = new ArrayList<>();
+      List<Integer> actualSizes = new ArrayList<>();
+      // the last file is opened by rolling and still being written
+      for (int i = 0; i < walFiles.length - 1; i++) {
+        File walFile = walFiles[i];
+        try (WALReader walReader = new WALReader(walFile, true)) {
+          while (walReader.hasNext()) {
+            actualWALEntries.add(walReader.next());
+          }
+        }
+        try (WALByteBufReader walByteBufReader = new WALByteBufReader(walFile)) {
+          while (walByteBufReader.hasNext()) {
+            actualSizes.add(walByteBufReader.next().remaining());
+          }
+        }
+      }
+      assertEquals(expectedWALEntries, actualWALEntries);
+      List<Integer> expectedSizes = new ArrayList<>();
+      for (WALEntry walEntry : expectedWALEntries) {
+        expectedSizes.add(walEntry.serializedSize());
+      }
+      assertEquals(expectedSizes, actualSizes);
+    } finally {
+      config.setWalCompressionType(prevWalCompressionType);
+    }
+  }
+
+  @Test
+  public void testGroupCommitByWaiters() throws Exception {
+    // fsync is triggered by waiting writers instead of the long delay
+    long prevFsyncWalDelayInMs = config.getFsyncWalDelayInMs();
+    int prevWalGroupCommitWaiterNum = config.getWalGroupCommitWaiterNum();
+    config.setFsyncWalDelayInMs(10_000);
+    config.setWalGroupCommitWaiterNum(1);
+    try {
+      int threadsNum = 3;
+      ExecutorService executorService = Executors.newFixedThreadPool(threadsNum);
+      List<Future<Void>> futures = new ArrayList<>();
+      long startTime = System.currentTimeMillis();
+      for (int i = 0; i < threadsNum; ++i) {
+        int memTableId = i;
+        Callable<Void> writeTask =
+            () -> {
+              for (int j = 0; j < 10; ++j) {
+                WALEntry walEntry =
+                    new WALInfoEntry(
+                        memTableId, getInsertRowPlan(devicePath + memTableId, j), true);
+                walBuffer.write(walEntry);
+                assertEquals(
+                    WALFlushListener.Status.SUCCESS,
+                    walEntry.getWalFlushListener().waitForResult());
+              }
+              return null;
+            };
+        futures.add(executorService.submit(writeTask));
+      }
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+      executorService.shutdown();
+      assertTrue(System.currentTimeMillis() - startTime < config.getFsyncWalDelayInMs());
+    } finally {
+      config.setFsyncWalDelayInMs(prevFsyncWalDelayInMs);
+      config.setWalGroupCommitWaiterNum(prevWalGroupCommitWaiterNum);
+    }
+  }
 }
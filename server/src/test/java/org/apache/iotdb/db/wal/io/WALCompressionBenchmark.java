@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.wal.io;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.wal.buffer.WALEntry;
+import org.apache.iotdb.db.wal.buffer.WALInfoEntry;
+import org.apache.iotdb.db.wal.utils.WALByteBufferForTest;
+import org.apache.iotdb.db.wal.utils.WALFileStatus;
+import org.apache.iotdb.db.wal.utils.WALFileUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+import static org.apache.iotdb.db.wal.node.WALNode.DEFAULT_SEARCH_INDEX;
+
+/**
+ * Wal compression benchmark. Write the same insert nodes into wal files with each compression type
+ * and get bytes written, write time and recovery (read back) time.
+ */
+public class WALCompressionBenchmark {
+
+  private static final String DEVICE_PATH = "root.test_sg.test_d";
+  private static final int BUFFER_SIZE = 8 * 1024 * 1024;
+  private static final int BUFFER_NUM = 32;
+
+  public static void main(String[] args) throws IOException, IllegalPathException {
+    File walFile =
+        new File(
+            TestConstant.BASE_OUTPUT_PATH.concat(
+                WALFileUtils.getLogFileName(0, 0, WALFileStatus.CONTAINS_NONE_SEARCH_INDEX)));
+    // fill a buffer with insert nodes, like WALBuffer does
+    WALByteBufferForTest buffer = new WALByteBufferForTest(ByteBuffer.allocateDirect(BUFFER_SIZE));
+    WALMetaData metaData = new WALMetaData();
+    WALEntry rowEntry = new WALInfoEntry(1, WALFileTest.getInsertRowNode(DEVICE_PATH));
+    WALEntry tabletEntry = new WALInfoEntry(1, WALFileTest.getInsertTabletNode(DEVICE_PATH));
+    while (buffer.getBuffer().remaining()
+        >= rowEntry.serializedSize() + tabletEntry.serializedSize()) {
+      rowEntry.serialize(buffer);
+      metaData.add(rowEntry.serializedSize(), DEFAULT_SEARCH_INDEX);
+      tabletEntry.serialize(buffer);
+      metaData.add(tabletEntry.serializedSize(), DEFAULT_SEARCH_INDEX);
+    }
+    int rawSize = buffer.getBuffer().position();
+
+    for (CompressionType compressionType :
+        new CompressionType[] {
+          CompressionType.UNCOMPRESSED,
+          CompressionType.SNAPPY,
+          CompressionType.LZ4,
+          CompressionType.ZSTD,
+          CompressionType.GZIP
+        }) {
+      Files.deleteIfExists(walFile.toPath());
+      long startTime = System.currentTimeMillis();
+      try (WALWriter walWriter = new WALWriter(walFile, compressionType)) {
+        for (int i = 0; i < BUFFER_NUM; i++) {
+          buffer.getBuffer().position(rawSize);
+          walWriter.write(buffer.getBuffer(), metaData);
+          walWriter.force();
+        }
+      }
+      long writeTime = System.currentTimeMillis() - startTime;
+
+      startTime = System.currentTimeMillis();
+      int entriesNum = 0;
+      try (WALReader walReader = new WALReader(walFile)) {
+        while (walReader.hasNext()) {
+          walReader.next();
+          entriesNum++;
+        }
+      }
+      long recoveryTime = System.currentTimeMillis() - startTime;
+
+      System.out.println(
+          String.format(
+              "Compression type: %s, "
+                  + "Bytes of entries: %d, "
+                  + "Bytes written: %d, "
+                  + "Write time: %d ms, "
+                  + "Recovery time of %d entries: %d ms. ",
+              compressionType,
+              (long) rawSize * BUFFER_NUM,
+              walFile.length(),
+              writeTime,
+              entriesNum,
+              recoveryTime));
+    }
+    Files.deleteIfExists(walFile.toPath());
+  }
+}
@@ -34,6 +34,7 @@ import org.apache.iotdb.db.wal.buffer.WALInfoEntry;
 import org.apache.iotdb.db.wal.utils.WALByteBufferForTest;
 import org.apache.iotdb.db.wal.utils.WALFileStatus;
 import org.apache.iotdb.db.wal.utils.WALFileUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.BitMap;
@@ -48,10 +49,13 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import static org.apache.iotdb.db.wal.node.WALNode.DEFAULT_SEARCH_INDEX;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class WALFileTest {
   private final File walFile =
@@ -158,6 +162,60 @@ public class WALFileTest {
     assertEquals(expectedWALEntries, actualWALEntries);
   }
 
+  @Test
+  public void testReadCompressedFile() throws IOException, IllegalPathException {
+    int fakeMemTableId = 1;
+    List<WALEntry> expectedWALEntries = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      expectedWALEntries.add(new WALInfoEntry(fakeMemTableId, getInsertRowNode(devicePath)));
+      expectedWALEntries.add(new WALInfoEntry(fakeMemTableId, getInsertTabletNode(devicePath)));
+      expectedWALEntries.add(new WALInfoEntry(fakeMemTableId, getDeleteDataNode(devicePath)));
+    }
+    int rawSize = 0;
+    for (WALEntry walEntry : expectedWALEntries) {
+      rawSize += walEntry.serializedSize();
+    }
+    // write entries as two compressed blocks
+    List<ByteBuffer> expectedBuffers = new ArrayList<>();
+    try (WALWriter walWriter = new WALWriter(walFile, CompressionType.LZ4)) {
+      int half = expectedWALEntries.size() / 2;
+      for (List<WALEntry> entries :
+          Arrays.asList(
+              expectedWALEntries.subList(0, half),
+              expectedWALEntries.subList(half, expectedWALEntries.size()))) {
+        WALByteBufferForTest buffer = new WALByteBufferForTest(ByteBuffer.allocate(rawSize));
+        WALMetaData metaData = new WALMetaData();
+        for (WALEntry walEntry : entries) {
+          int position = buffer.getBuffer().position();
+          walEntry.serialize(buffer);
+          metaData.add(walEntry.serializedSize(), DEFAULT_SEARCH_INDEX);
+          ByteBuffer expectedBuffer = buffer.getBuffer().duplicate();
+          expectedBuffer.flip();
+          expectedBuffer.position(position);
+          expectedBuffers.add(expectedBuffer.slice());
+        }
+        walWriter.write(buffer.getBuffer(), metaData);
+      }
+      assertTrue(walWriter.size() < rawSize);
+    }
+    // test WALReader.readAll
+    List<WALEntry> actualWALEntries = new ArrayList<>();
+    try (WALReader walReader = new WALReader(walFile)) {
+      while (walReader.hasNext()) {
+        actualWALEntries.add(walReader.next());
+      }
+    }
+    assertEquals(expectedWALEntries, actualWALEntries);
+    // test WALByteBufReader
+    List<ByteBuffer> actualBuffers = new ArrayList<>();
+    try (WALByteBufReader walByteBufReader = new WALByteBufReader(walFile)) {
+      while (walByteBufReader.hasNext()) {
+        actualBuffers.add(walByteBufReader.next());
+      }
+    }
+    assertEquals(expectedBuffers, actualBuffers);
+  }
+
   public static InsertRowPlan getInsertRowPlan(String devicePath) throws IllegalPathException {
     long time = 110L;
     TSDataType[] dataTypes =
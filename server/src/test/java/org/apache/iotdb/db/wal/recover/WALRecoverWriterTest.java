@@ -27,10 +27,12 @@ import org.apache.iotdb.db.wal.buffer.WALEntry;
 import org.apache.iotdb.db.wal.buffer.WALInfoEntry;
 import org.apache.iotdb.db.wal.io.WALByteBufReader;
 import org.apache.iotdb.db.wal.io.WALMetaData;
+import org.apache.iotdb.db.wal.io.WALReader;
 import org.apache.iotdb.db.wal.io.WALWriter;
 import org.apache.iotdb.db.wal.utils.WALByteBufferForTest;
 import org.apache.iotdb.db.wal.utils.WALFileStatus;
 import org.apache.iotdb.db.wal.utils.WALFileUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
@@ -152,6 +154,48 @@ public class WALRecoverWriterTest {
     }
   }
 
+  @Test
+  public void testCompressedFileWithBrokenMagicString() throws IOException, IllegalPathException {
+    // prepare file
+    WALMetaData walMetaData = new WALMetaData();
+    WALEntry walEntry = new WALInfoEntry(1, getInsertRowNode());
+    int size = walEntry.serializedSize();
+    int entriesNum = 10;
+    WALByteBufferForTest buffer = new WALByteBufferForTest(ByteBuffer.allocate(size * entriesNum));
+    for (int i = 0; i < entriesNum; i++) {
+      walEntry.serialize(buffer);
+      walMetaData.add(size, 1);
+    }
+    try (WALWriter walWriter = new WALWriter(logFile, CompressionType.ZSTD)) {
+      walWriter.write(buffer.getBuffer(), walMetaData);
+    }
+    long len = logFile.length();
+    try (FileChannel channel = FileChannel.open(logFile.toPath(), StandardOpenOption.APPEND)) {
+      channel.truncate(len - 1);
+    }
+    // rebuild metadata like WALNodeRecoverTask
+    WALMetaData recoveredMetaData = new WALMetaData();
+    try (WALReader walReader = new WALReader(logFile, true)) {
+      while (walReader.hasNext()) {
+        recoveredMetaData.add(walReader.next().serializedSize(), 1);
+      }
+      recoveredMetaData.addCompressedBlocks(walReader.getCompressedBlocks());
+    }
+    Assert.assertEquals(1, recoveredMetaData.getBlocksSize().size());
+    // recover
+    WALRecoverWriter walRecoverWriter = new WALRecoverWriter(logFile);
+    walRecoverWriter.recover(recoveredMetaData);
+    // verify file
+    try (WALByteBufReader reader = new WALByteBufReader(logFile)) {
+      for (int i = 0; i < entriesNum; i++) {
+        Assert.assertTrue(reader.hasNext());
+        Assert.assertEquals(size, reader.next().capacity());
+      }
+      Assert.assertFalse(reader.hasNext());
+      Assert.assertEquals(1, reader.getFirstSearchIndex());
+    }
+  }
+
   public static InsertRowNode getInsertRowNode() throws IllegalPathException {
     String devicePath = "root.test_sg.test_d";
     long time = 110L;
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.session;
+
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.RpcUtils;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.service.rpc.thrift.IClientRPCService;
+import org.apache.iotdb.service.rpc.thrift.TSCloseOperationReq;
+import org.apache.iotdb.service.rpc.thrift.TSFetchResultsReq;
+import org.apache.iotdb.service.rpc.thrift.TSFetchResultsResp;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.thrift.TException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * The result set of a query in Apache Arrow format. The results are fetched from the server batch
+ * by batch, and each batch is returned as a {@link VectorSchemaRoot}. The first column is "Time"
+ * unless the timestamps are ignored by the query.
+ *
+ * <p>The returned VectorSchemaRoot is only valid until the next call of {@link #next()} or {@link
+ * #close()}, copy the data out of it if it's used later.
+ */
+public class ArrowSessionDataSet implements AutoCloseable {
+
+  private final String sql;
+  private final long queryId;
+  private final long statementId;
+  private final long sessionId;
+  private final long timeout;
+  private IClientRPCService.Iface client;
+  private int fetchSize;
+
+  private final BufferAllocator allocator = new RootAllocator();
+  private final Deque<ByteBuffer> cachedBatches = new ArrayDeque<>();
+  private ArrowStreamReader currentReader;
+  private boolean emptyResultSet;
+  private boolean isClosed;
+
+  public ArrowSessionDataSet(
+      String sql,
+      long queryId,
+      long statementId,
+      IClientRPCService.Iface client,
+      long sessionId,
+      List<ByteBuffer> arrowBatches,
+      int fetchSize,
+      long timeout) {
+    this.sql = sql;
+    this.queryId = queryId;
+    this.statementId = statementId;
+    this.client = client;
+    this.sessionId = sessionId;
+    this.fetchSize = fetchSize;
+    this.timeout = timeout;
+    if (arrowBatches == null || arrowBatches.isEmpty()) {
+      this.emptyResultSet = true;
+    } else {
+      this.cachedBatches.addAll(arrowBatches);
+    }
+  }
+
+  public int getFetchSize() {
+    return fetchSize;
+  }
+
+  public void setFetchSize(int fetchSize) {
+    this.fetchSize = fetchSize;
+  }
+
+  public boolean hasNext() throws StatementExecutionException, IoTDBConnectionException {
+    while (cachedBatches.isEmpty()) {
+      if (emptyResultSet || isClosed) {
+        closeOperationHandle();
+        return false;
+      }
+      fetchResults();
+    }
+    return true;
+  }
+
+  /**
+   * Get the next record batch. The returned VectorSchemaRoot is released when this method is called
+   * again or the data set is closed.
+   */
+  public VectorSchemaRoot next() throws StatementExecutionException, IoTDBConnectionException {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    releaseCurrentBatch();
+    ByteBuffer batch = cachedBatches.poll();
+    byte[] bytes = new byte[batch.remaining()];
+    batch.get(bytes);
+    currentReader = new ArrowStreamReader(new ByteArrayInputStream(bytes), allocator);
+    try {
+      currentReader.loadNextBatch();
+      return currentReader.getVectorSchemaRoot();
+    } catch (IOException e) {
+      throw new StatementExecutionException("Cannot read the record batch: " + e.getMessage());
+    }
+  }
+
+  private void fetchResults() throws StatementExecutionException, IoTDBConnectionException {
+    TSFetchResultsReq req = new TSFetchResultsReq(sessionId, sql, fetchSize, queryId, true);
+    req.setTimeout(timeout);
+    req.setArrowFormat(true);
+    try {
+      TSFetchResultsResp resp = client.fetchResults(req);
+      RpcUtils.verifySuccess(resp.getStatus());
+      if (!resp.hasResultSet || resp.getArrowBatches() == null) {
+        emptyResultSet = true;
+      } else {
+        cachedBatches.addAll(resp.getArrowBatches());
+      }
+    } catch (TException e) {
+      throw new IoTDBConnectionException(
+          "Cannot fetch result from server, because of network connection: {} ", e);
+    }
+  }
+
+  private void releaseCurrentBatch() throws StatementExecutionException {
+    if (currentReader != null) {
+      try {
+        currentReader.close();
+      } catch (IOException e) {
+        throw new StatementExecutionException("Cannot release the record batch: " + e.getMessage());
+      } finally {
+        currentReader = null;
+      }
+    }
+  }
+
+  public void closeOperationHandle() throws StatementExecutionException, IoTDBConnectionException {
+    if (isClosed) {
+      return;
+    }
+    try {
+      TSCloseOperationReq closeReq = new TSCloseOperationReq(sessionId);
+      closeReq.setStatementId(statementId);
+      closeReq.setQueryId(queryId);
+      RpcUtils.verifySuccess(client.closeOperation(closeReq));
+    } catch (TException e) {
+      throw new IoTDBConnectionException(e.getMessage());
+    } finally {
+      cachedBatches.clear();
+      client = null;
+      isClosed = true;
+    }
+  }
+
+  @Override
+  public void close() throws IoTDBConnectionException, StatementExecutionException {
+    try {
+      closeOperationHandle();
+    } finally {
+      releaseCurrentBatch();
+      allocator.close();
+    }
+  }
+}
@@ -686,6 +686,31 @@ public class Session {
     }
   }
 
+  /**
+   * execute query sql and get the result set in Apache Arrow format, users must close the returned
+   * data set if they do not use it any more.
+   *
+   * @param sql query statement
+   * @return result set of Arrow record batches
+   */
+  public ArrowSessionDataSet executeArrowQueryStatement(String sql)
+      throws StatementExecutionException, IoTDBConnectionException {
+    return executeArrowQueryStatement(sql, queryTimeoutInMs);
+  }
+
+  /**
+   * execute query sql with explicit timeout and get the result set in Apache Arrow format
+   *
+   * @param sql query statement
+   * @param timeoutInMs the timeout of this query, in milliseconds
+   * @return result set of Arrow record batches
+   */
+  public ArrowSessionDataSet executeArrowQueryStatement(String sql, long timeoutInMs)
+      throws StatementExecutionException, IoTDBConnectionException {
+    logger.debug("{} execute arrow query {}", defaultSessionConnection.getEndPoint(), sql);
+    return defaultSessionConnection.executeArrowQueryStatement(sql, timeoutInMs);
+  }
+
   /**
    * execute non query statement
    *
@@ -375,6 +375,41 @@ public class SessionConnection {
         timeout);
   }
 
+  protected ArrowSessionDataSet executeArrowQueryStatement(String sql, long timeout)
+      throws StatementExecutionException, IoTDBConnectionException {
+    TSExecuteStatementReq execReq = new TSExecuteStatementReq(sessionId, sql, statementId);
+    execReq.setFetchSize(session.fetchSize);
+    execReq.setTimeout(timeout);
+    execReq.setArrowFormat(true);
+    TSExecuteStatementResp execResp;
+    try {
+      execResp = client.executeQueryStatement(execReq);
+    } catch (TException e) {
+      if (reconnect()) {
+        try {
+          execReq.setSessionId(sessionId);
+          execReq.setStatementId(statementId);
+          execResp = client.executeQueryStatement(execReq);
+        } catch (TException tException) {
+          throw new IoTDBConnectionException(tException);
+        }
+      } else {
+        throw new IoTDBConnectionException(logForReconnectionFailure());
+      }
+    }
+
+    RpcUtils.verifySuccess(execResp.getStatus());
+    return new ArrowSessionDataSet(
+        sql,
+        execResp.getQueryId(),
+        statementId,
+        client,
+        sessionId,
+        execResp.getArrowBatches(),
+        session.fetchSize,
+        timeout);
+  }
+
   protected void executeNonQueryStatement(String sql)
       throws IoTDBConnectionException, StatementExecutionException {
     TSExecuteStatementReq execReq = new TSExecuteStatementReq(sessionId, sql, statementId);
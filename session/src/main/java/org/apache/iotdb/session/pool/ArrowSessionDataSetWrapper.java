@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.session.pool;
+
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.ArrowSessionDataSet;
+import org.apache.iotdb.session.Session;
+
+import org.apache.arrow.vector.VectorSchemaRoot;
+
+public class ArrowSessionDataSetWrapper implements AutoCloseable {
+
+  ArrowSessionDataSet sessionDataSet;
+  Session session;
+  SessionPool pool;
+
+  public ArrowSessionDataSetWrapper(
+      ArrowSessionDataSet sessionDataSet, Session session, SessionPool pool) {
+    this.sessionDataSet = sessionDataSet;
+    this.session = session;
+    this.pool = pool;
+  }
+
+  protected Session getSession() {
+    return session;
+  }
+
+  public int getBatchSize() {
+    return sessionDataSet.getFetchSize();
+  }
+
+  public void setBatchSize(int batchSize) {
+    sessionDataSet.setFetchSize(batchSize);
+  }
+
+  /**
+   * If there is an Exception, and you do not want to use the resultset anymore, you have to release
+   * the resultset manually by calling closeResultSet
+   */
+  public boolean hasNext() throws IoTDBConnectionException, StatementExecutionException {
+    return sessionDataSet.hasNext();
+  }
+
+  /**
+   * If there is an Exception, and you do not want to use the resultset anymore, you have to release
+   * the resultset manually by calling closeResultSet. The returned batch is valid until the next
+   * call of this method or the wrapper is closed.
+   */
+  public VectorSchemaRoot next() throws IoTDBConnectionException, StatementExecutionException {
+    return sessionDataSet.next();
+  }
+
+  /** close this dataset to release the session and the last record batch */
+  @Override
+  public void close() {
+    pool.closeResultSet(this);
+  }
+}
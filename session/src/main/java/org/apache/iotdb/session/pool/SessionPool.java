@@ -20,6 +20,7 @@ package org.apache.iotdb.session.pool;
 
 import org.apache.iotdb.rpc.IoTDBConnectionException;
 import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.session.ArrowSessionDataSet;
 import org.apache.iotdb.session.Config;
 import org.apache.iotdb.session.Session;
 import org.apache.iotdb.session.SessionDataSet;
@@ -478,6 +479,21 @@ public class SessionPool {
     }
   }
 
+  public void closeResultSet(ArrowSessionDataSetWrapper wrapper) {
+    boolean putback = true;
+    try {
+      wrapper.sessionDataSet.close();
+    } catch (IoTDBConnectionException | StatementExecutionException e) {
+      tryConstructNewSession();
+      putback = false;
+    } finally {
+      Session session = occupied.remove(wrapper.session);
+      if (putback && session != null) {
+        putBack(wrapper.session);
+      }
+    }
+  }
+
   @SuppressWarnings({"squid:S2446"})
   private void tryConstructNewSession() {
     Session session = constructNewSession();
@@ -2213,6 +2229,36 @@ public class SessionPool {
     return null;
   }
 
+  /**
+   * execute query sql and get the result set in Apache Arrow format, users must call
+   * closeResultSet(ArrowSessionDataSetWrapper) if they do not use the data set any more.
+   *
+   * @param sql query statement
+   * @return result set of Arrow record batches
+   */
+  @SuppressWarnings("squid:S2095") // Suppress wrapper not closed warning
+  public ArrowSessionDataSetWrapper executeArrowQueryStatement(String sql)
+      throws IoTDBConnectionException, StatementExecutionException {
+    for (int i = 0; i < RETRY; i++) {
+      Session session = getSession();
+      try {
+        ArrowSessionDataSet resp = session.executeArrowQueryStatement(sql);
+        ArrowSessionDataSetWrapper wrapper = new ArrowSessionDataSetWrapper(resp, session, this);
+        occupy(session);
+        return wrapper;
+      } catch (IoTDBConnectionException e) {
+        // TException means the connection is broken, remove it and get a new one.
+        logger.warn("executeArrowQueryStatement failed", e);
+        cleanSessionAndMayThrowConnectionException(session, i, e);
+      } catch (StatementExecutionException | RuntimeException e) {
+        putBack(session);
+        throw e;
+      }
+    }
+    // never go here
+    return null;
+  }
+
   /**
    * execute non query statement
    *
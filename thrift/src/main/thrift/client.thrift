@@ -66,6 +66,8 @@ struct TSExecuteStatementResp {
   10: optional list<string> sgColumns
   11: optional list<byte> aliasColumns
   12: optional TSTracingInfo tracingInfo
+  // the result in Apache Arrow IPC stream format, one stream per record batch, if arrowFormat is set
+  13: optional list<binary> arrowBatches
 }
 
 enum TSProtocolVersion {
@@ -126,6 +128,9 @@ struct TSExecuteStatementReq {
   6: optional bool enableRedirectQuery;
 
   7: optional bool jdbcQuery;
+
+  // return the result in Apache Arrow IPC stream format instead of TSQueryDataSet
+  8: optional bool arrowFormat;
 }
 
 struct TSExecuteBatchStatementReq{
@@ -165,6 +170,8 @@ struct TSFetchResultsReq{
   4: required i64 queryId
   5: required bool isAlign
   6: optional i64 timeout
+  // return the result in Apache Arrow IPC stream format instead of TSQueryDataSet
+  7: optional bool arrowFormat
 }
 
 struct TSFetchResultsResp{
@@ -173,6 +180,8 @@ struct TSFetchResultsResp{
   3: required bool isAlign
   4: optional TSQueryDataSet queryDataSet
   5: optional TSQueryNonAlignDataSet nonAlignQueryDataSet
+  // the result in Apache Arrow IPC stream format, one stream per record batch, if arrowFormat is set
+  6: optional list<binary> arrowBatches
 }
 
 struct TSFetchMetadataResp{
@@ -19,10 +19,12 @@
 
 package org.apache.iotdb.tsfile.compress;
 
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.exception.compress.CompressionTypeNotSupportedException;
 import org.apache.iotdb.tsfile.exception.compress.GZIPCompressOverflowException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
+import com.github.luben.zstd.Zstd;
 import net.jpountz.lz4.LZ4Compressor;
 import net.jpountz.lz4.LZ4Factory;
 import org.xerial.snappy.Snappy;
@@ -32,12 +34,14 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 import static org.apache.iotdb.tsfile.file.metadata.enums.CompressionType.GZIP;
 import static org.apache.iotdb.tsfile.file.metadata.enums.CompressionType.LZ4;
 import static org.apache.iotdb.tsfile.file.metadata.enums.CompressionType.SNAPPY;
+import static org.apache.iotdb.tsfile.file.metadata.enums.CompressionType.ZSTD;
 
 /** compress data according to type in schema. */
 public interface ICompressor extends Serializable {
@@ -65,6 +69,8 @@ public interface ICompressor extends Serializable {
         return new IOTDBLZ4Compressor();
       case GZIP:
         return new GZIPCompressor();
+      case ZSTD:
+        return new ZstdCompressor();
       default:
         throw new CompressionTypeNotSupportedException(name.toString());
     }
@@ -311,4 +317,95 @@ public interface ICompressor extends Serializable {
       return GZIP;
     }
   }
+
+  class ZstdCompressor implements ICompressor {
+
+    private final int compressionLevel;
+
+    public ZstdCompressor() {
+      this(TSFileDescriptor.getInstance().getConfig().getZstdCompressionLevel());
+    }
+
+    public ZstdCompressor(int compressionLevel) {
+      this.compressionLevel = compressionLevel;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) {
+      if (data == null) {
+        return new byte[0];
+      }
+      return Zstd.compress(data, compressionLevel);
+    }
+
+    @Override
+    public byte[] compress(byte[] data, int offset, int length) throws IOException {
+      byte[] maxCompressed = new byte[getMaxBytesForCompression(length)];
+      int compressedSize = compress(data, offset, length, maxCompressed);
+      return compressedSize < maxCompressed.length
+          ? Arrays.copyOf(maxCompressed, compressedSize)
+          : maxCompressed;
+    }
+
+    @Override
+    public int compress(byte[] data, int offset, int length, byte[] compressed) throws IOException {
+      return compress(data, offset, length, compressed, 0, compressed.length);
+    }
+
+    /** The two ByteBuffers must both be direct or both be backed by arrays. */
+    @Override
+    public int compress(ByteBuffer data, ByteBuffer compressed) throws IOException {
+      if (data.isDirect() && compressed.isDirect()) {
+        try {
+          return Zstd.compress(compressed, data, compressionLevel);
+        } catch (RuntimeException e) {
+          throw new IOException(e);
+        }
+      }
+      int compressedSize =
+          compress(
+              data.array(),
+              data.arrayOffset() + data.position(),
+              data.remaining(),
+              compressed.array(),
+              compressed.arrayOffset() + compressed.position(),
+              compressed.remaining());
+      data.position(data.limit());
+      compressed.position(compressed.position() + compressedSize);
+      return compressedSize;
+    }
+
+    private int compress(
+        byte[] data,
+        int offset,
+        int length,
+        byte[] compressed,
+        int compressedOffset,
+        int compressedLength)
+        throws IOException {
+      long compressedSize =
+          Zstd.compressByteArray(
+              compressed,
+              compressedOffset,
+              compressedLength,
+              data,
+              offset,
+              length,
+              compressionLevel);
+      if (Zstd.isError(compressedSize)) {
+        throw new IOException(Zstd.getErrorName(compressedSize));
+      }
+      return (int) compressedSize;
+    }
+
+    @Override
+    public int getMaxBytesForCompression(int uncompressedDataSize) {
+      return (int) Zstd.compressBound(uncompressedDataSize);
+    }
+
+    @Override
+    public CompressionType getType() {
+      return ZSTD;
+    }
+  }
 }
@@ -22,6 +22,7 @@ package org.apache.iotdb.tsfile.compress;
 import org.apache.iotdb.tsfile.exception.compress.CompressionTypeNotSupportedException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
+import com.github.luben.zstd.Zstd;
 import net.jpountz.lz4.LZ4Compressor;
 import net.jpountz.lz4.LZ4Factory;
 import net.jpountz.lz4.LZ4SafeDecompressor;
@@ -54,6 +55,8 @@ public interface IUnCompressor {
         return new LZ4UnCompressor();
       case GZIP:
         return new GZIPUnCompressor();
+      case ZSTD:
+        return new ZstdUnCompressor();
       default:
         throw new CompressionTypeNotSupportedException(name.toString());
     }
@@ -236,7 +239,7 @@ public interface IUnCompressor {
     public int uncompress(byte[] byteArray, int offset, int length, byte[] output, int outOffset)
         throws IOException {
       try {
-        return decompressor.decompress(byteArray, offset, length, output, offset);
+        return decompressor.decompress(byteArray, offset, length, output, outOffset);
       } catch (RuntimeException e) {
         logger.error(UNCOMPRESS_INPUT_ERROR, e);
         throw new IOException(e);
@@ -312,4 +315,85 @@ public interface IUnCompressor {
       return CompressionType.GZIP;
     }
   }
+
+  class ZstdUnCompressor implements IUnCompressor {
+
+    @Override
+    public int getUncompressedLength(byte[] array, int offset, int length) throws IOException {
+      long uncompressedLength = Zstd.getFrameContentSize(array, offset, length);
+      if (uncompressedLength < 0) {
+        throw new IOException("Unknown uncompressed length of the ZSTD frame");
+      }
+      return (int) uncompressedLength;
+    }
+
+    @Override
+    public int getUncompressedLength(ByteBuffer buffer) throws IOException {
+      if (!buffer.isDirect()) {
+        return getUncompressedLength(
+            buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+      }
+      long uncompressedLength = Zstd.getFrameContentSize(buffer);
+      if (uncompressedLength < 0) {
+        throw new IOException("Unknown uncompressed length of the ZSTD frame");
+      }
+      return (int) uncompressedLength;
+    }
+
+    @Override
+    public byte[] uncompress(byte[] byteArray) throws IOException {
+      if (byteArray == null) {
+        return new byte[0];
+      }
+      byte[] output = new byte[getUncompressedLength(byteArray, 0, byteArray.length)];
+      uncompress(byteArray, 0, byteArray.length, output, 0);
+      return output;
+    }
+
+    @Override
+    public int uncompress(byte[] byteArray, int offset, int length, byte[] output, int outOffset)
+        throws IOException {
+      long uncompressedSize =
+          Zstd.decompressByteArray(
+              output, outOffset, output.length - outOffset, byteArray, offset, length);
+      if (Zstd.isError(uncompressedSize)) {
+        throw new IOException(Zstd.getErrorName(uncompressedSize));
+      }
+      return (int) uncompressedSize;
+    }
+
+    /** The two ByteBuffers must both be direct or both be backed by arrays. */
+    @Override
+    public int uncompress(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException {
+      if (compressed == null || !compressed.hasRemaining()) {
+        return 0;
+      }
+      if (compressed.isDirect() && uncompressed.isDirect()) {
+        try {
+          return Zstd.decompress(uncompressed, compressed);
+        } catch (RuntimeException e) {
+          throw new IOException(e);
+        }
+      }
+      long uncompressedSize =
+          Zstd.decompressByteArray(
+              uncompressed.array(),
+              uncompressed.arrayOffset() + uncompressed.position(),
+              uncompressed.remaining(),
+              compressed.array(),
+              compressed.arrayOffset() + compressed.position(),
+              compressed.remaining());
+      if (Zstd.isError(uncompressedSize)) {
+        throw new IOException(Zstd.getErrorName(uncompressedSize));
+      }
+      compressed.position(compressed.limit());
+      uncompressed.position(uncompressed.position() + (int) uncompressedSize);
+      return (int) uncompressedSize;
+    }
+
+    @Override
+    public CompressionType getCodecName() {
+      return CompressionType.ZSTD;
+    }
+  }
 }
@@ -1151,6 +1151,18 @@ public class TsFileSequenceReader implements AutoCloseable {
     return readData(-1, header.getCompressedSize());
   }
 
+  /**
+   * read the compressed data of one page at the given position. Unlike {@link
+   * #readCompressedPage(PageHeader)}, the position of the input is not changed, so it is thread
+   * safe.
+   *
+   * @param position the file offset of the page data (after the page header)
+   * @param compressedSize the compressed size of the page data
+   */
+  public ByteBuffer readCompressedPage(long position, int compressedSize) throws IOException {
+    return readData(position, compressedSize);
+  }
+
   public ByteBuffer readPage(PageHeader header, CompressionType type) throws IOException {
     ByteBuffer buffer = readData(-1, header.getCompressedSize());
     if (header.getUncompressedSize() == 0 || type == CompressionType.UNCOMPRESSED) {
@@ -123,6 +123,12 @@ public interface Column {
   /** Returns the array to determine whether each position of the column is null or not. */
   boolean[] isNull();
 
+  /**
+   * Returns the offset of the first position of this column in the arrays returned by {@link
+   * #getInts()}, {@link #getDoubles()}, etc., and by {@link #isNull()} if {@link #mayHaveNull()}.
+   */
+  int getArrayOffset();
+
   /** Returns the number of positions in this block. */
   int getPositionCount();
 
@@ -147,6 +153,13 @@ public interface Column {
    */
   Column subColumn(int fromIndex);
 
+  /**
+   * Returns a column of the values at the specified positions, which are copied into new arrays.
+   * The positions must be valid in this column and may be used as the selection of rows, e.g.,
+   * those satisfying a filter.
+   */
+  Column copyPositions(int[] positions, int offset, int length);
+
   /** reverse the column */
   void reverse();
 }
@@ -32,6 +32,7 @@ public class ColumnEncoderFactory {
     encodingToEncoder.put(ColumnEncoding.BYTE_ARRAY, new ByteArrayColumnEncoder());
     encodingToEncoder.put(ColumnEncoding.BINARY_ARRAY, new BinaryArrayColumnEncoder());
     encodingToEncoder.put(ColumnEncoding.RLE, new RunLengthColumnEncoder());
+    encodingToEncoder.put(ColumnEncoding.TIME_DELTA, new TimeDeltaColumnEncoder());
   }
 
   public static ColumnEncoder get(ColumnEncoding columnEncoding) {
@@ -33,7 +33,9 @@ public enum ColumnEncoding {
   /** TEXT. */
   BINARY_ARRAY((byte) 3),
   /** All data types. */
-  RLE((byte) 4);
+  RLE((byte) 4),
+  /** TIME, the first timestamp followed by the zigzag var long deltas of adjacent timestamps. */
+  TIME_DELTA((byte) 5);
 
   private final byte value;
 
@@ -61,6 +63,8 @@ public enum ColumnEncoding {
         return BINARY_ARRAY;
       case 4:
         return RLE;
+      case 5:
+        return TIME_DELTA;
       default:
         throw new IllegalArgumentException("Invalid value: " + value);
     }
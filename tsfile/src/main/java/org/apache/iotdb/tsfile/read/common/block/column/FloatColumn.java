@@ -27,6 +27,7 @@ import java.util.Arrays;
 import java.util.Optional;
 
 import static io.airlift.slice.SizeOf.sizeOf;
+import static org.apache.iotdb.tsfile.read.common.block.column.ColumnUtil.checkArrayRange;
 import static org.apache.iotdb.tsfile.read.common.block.column.ColumnUtil.checkValidRegion;
 
 public class FloatColumn implements Column {
@@ -121,6 +122,11 @@ public class FloatColumn implements Column {
     return valueIsNull;
   }
 
+  @Override
+  public int getArrayOffset() {
+    return arrayOffset;
+  }
+
   @Override
   public int getPositionCount() {
     return positionCount;
@@ -145,6 +151,23 @@ public class FloatColumn implements Column {
     return new FloatColumn(arrayOffset + fromIndex, positionCount - fromIndex, valueIsNull, values);
   }
 
+  @Override
+  public Column copyPositions(int[] positions, int offset, int length) {
+    checkArrayRange(positions, offset, length);
+    float[] newValues = new float[length];
+    for (int i = 0; i < length; i++) {
+      newValues[i] = values[positions[offset + i] + arrayOffset];
+    }
+    boolean[] newValueIsNull = null;
+    if (valueIsNull != null) {
+      newValueIsNull = new boolean[length];
+      for (int i = 0; i < length; i++) {
+        newValueIsNull[i] = valueIsNull[positions[offset + i] + arrayOffset];
+      }
+    }
+    return new FloatColumn(0, length, newValueIsNull, newValues);
+  }
+
   @Override
   public void reverse() {
     for (int i = arrayOffset, j = arrayOffset + positionCount - 1; i < j; i++, j--) {
@@ -0,0 +1,306 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.common.block.column;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.type.TypeFactory;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
+
+import org.openjdk.jol.info.ClassLayout;
+
+import static java.util.Objects.requireNonNull;
+import static org.apache.iotdb.tsfile.read.common.block.column.ColumnUtil.checkArrayRange;
+import static org.apache.iotdb.tsfile.read.common.block.column.ColumnUtil.checkValidRegion;
+
+/**
+ * A column whose values are at the mapped positions of a source column, e.g., the rows of one
+ * series after time join. Single values are read from the source column through the positions, and
+ * the values are only copied into a new column when the arrays of the column are required, so that
+ * the rows discarded by the consumers, e.g., LIMIT and filters, are never copied.
+ */
+public class LazyColumn implements Column {
+
+  private static final int INSTANCE_SIZE = ClassLayout.parseClass(LazyColumn.class).instanceSize();
+
+  private final Column source;
+
+  // positions in the source column, negative for null, whose value is the default one; the array
+  // may be shared with the regions of this column, so it is copied before being modified
+  private int[] positions;
+
+  private int arrayOffset;
+  private final int positionCount;
+
+  // the number of positions mapped to the source column, i.e., not null
+  private final int mappedPositionCount;
+
+  private final boolean mayHaveNull;
+
+  // the values copied from the source column, created on demand
+  private Column materialized;
+
+  public LazyColumn(Column source, int[] positions, int positionCount) {
+    this(source, positions, 0, positionCount);
+  }
+
+  LazyColumn(Column source, int[] positions, int arrayOffset, int positionCount) {
+    this.source = requireNonNull(source, "source is null");
+    if (arrayOffset < 0) {
+      throw new IllegalArgumentException("arrayOffset is negative");
+    }
+    this.arrayOffset = arrayOffset;
+    if (positionCount < 0) {
+      throw new IllegalArgumentException("positionCount is negative");
+    }
+    this.positionCount = positionCount;
+
+    if (positions.length - arrayOffset < positionCount) {
+      throw new IllegalArgumentException("positions length is less than positionCount");
+    }
+    this.positions = positions;
+
+    int nullPositionCount = 0;
+    for (int i = arrayOffset; i < arrayOffset + positionCount; i++) {
+      if (positions[i] < 0) {
+        nullPositionCount++;
+      }
+    }
+    this.mappedPositionCount = positionCount - nullPositionCount;
+    this.mayHaveNull = nullPositionCount > 0 || source.mayHaveNull();
+  }
+
+  @Override
+  public TSDataType getDataType() {
+    return source.getDataType();
+  }
+
+  @Override
+  public ColumnEncoding getEncoding() {
+    // serialized as the materialized column
+    switch (getDataType()) {
+      case BOOLEAN:
+        return ColumnEncoding.BYTE_ARRAY;
+      case INT32:
+      case FLOAT:
+        return ColumnEncoding.INT32_ARRAY;
+      case INT64:
+      case DOUBLE:
+        return ColumnEncoding.INT64_ARRAY;
+      case TEXT:
+        return ColumnEncoding.BINARY_ARRAY;
+      default:
+        throw new IllegalArgumentException("Unknown data type: " + getDataType());
+    }
+  }
+
+  @Override
+  public boolean getBoolean(int position) {
+    int sourcePosition = getSourcePosition(position);
+    return sourcePosition >= 0 && source.getBoolean(sourcePosition);
+  }
+
+  @Override
+  public int getInt(int position) {
+    int sourcePosition = getSourcePosition(position);
+    return sourcePosition < 0 ? 0 : source.getInt(sourcePosition);
+  }
+
+  @Override
+  public long getLong(int position) {
+    int sourcePosition = getSourcePosition(position);
+    return sourcePosition < 0 ? 0 : source.getLong(sourcePosition);
+  }
+
+  @Override
+  public float getFloat(int position) {
+    int sourcePosition = getSourcePosition(position);
+    return sourcePosition < 0 ? 0 : source.getFloat(sourcePosition);
+  }
+
+  @Override
+  public double getDouble(int position) {
+    int sourcePosition = getSourcePosition(position);
+    return sourcePosition < 0 ? 0 : source.getDouble(sourcePosition);
+  }
+
+  @Override
+  public Binary getBinary(int position) {
+    int sourcePosition = getSourcePosition(position);
+    return sourcePosition < 0 ? null : source.getBinary(sourcePosition);
+  }
+
+  @Override
+  public Object getObject(int position) {
+    int sourcePosition = getSourcePosition(position);
+    return sourcePosition < 0 ? null : source.getObject(sourcePosition);
+  }
+
+  @Override
+  public boolean[] getBooleans() {
+    return getMaterialized().getBooleans();
+  }
+
+  @Override
+  public int[] getInts() {
+    return getMaterialized().getInts();
+  }
+
+  @Override
+  public long[] getLongs() {
+    return getMaterialized().getLongs();
+  }
+
+  @Override
+  public float[] getFloats() {
+    return getMaterialized().getFloats();
+  }
+
+  @Override
+  public double[] getDoubles() {
+    return getMaterialized().getDoubles();
+  }
+
+  @Override
+  public Binary[] getBinaries() {
+    return getMaterialized().getBinaries();
+  }
+
+  @Override
+  public Object[] getObjects() {
+    return getMaterialized().getObjects();
+  }
+
+  @Override
+  public TsPrimitiveType getTsPrimitiveType(int position) {
+    int sourcePosition = getSourcePosition(position);
+    return sourcePosition < 0 ? null : source.getTsPrimitiveType(sourcePosition);
+  }
+
+  @Override
+  public boolean mayHaveNull() {
+    return mayHaveNull;
+  }
+
+  @Override
+  public boolean isNull(int position) {
+    int sourcePosition = getSourcePosition(position);
+    return sourcePosition < 0 || source.isNull(sourcePosition);
+  }
+
+  @Override
+  public boolean[] isNull() {
+    return getMaterialized().isNull();
+  }
+
+  @Override
+  public int getArrayOffset() {
+    return getMaterialized().getArrayOffset();
+  }
+
+  @Override
+  public int getPositionCount() {
+    return positionCount;
+  }
+
+  /**
+   * The source column and the positions array are shared by the columns mapped to it, e.g., the
+   * output TsBlocks of a time join over one input TsBlock, so each column is charged the share of
+   * them in proportion to its positions, and the shares add up to the whole source column once.
+   */
+  @Override
+  public long getRetainedSizeInBytes() {
+    long size = INSTANCE_SIZE + (long) positionCount * Integer.BYTES;
+    int sourcePositionCount = source.getPositionCount();
+    if (sourcePositionCount > 0) {
+      size += source.getRetainedSizeInBytes() * mappedPositionCount / sourcePositionCount;
+    }
+    if (materialized != null) {
+      size += materialized.getRetainedSizeInBytes();
+    }
+    return size;
+  }
+
+  @Override
+  public Column getRegion(int positionOffset, int length) {
+    checkValidRegion(getPositionCount(), positionOffset, length);
+    return new LazyColumn(source, positions, positionOffset + arrayOffset, length);
+  }
+
+  @Override
+  public Column subColumn(int fromIndex) {
+    if (fromIndex > positionCount) {
+      throw new IllegalArgumentException("fromIndex is not valid");
+    }
+    return new LazyColumn(source, positions, arrayOffset + fromIndex, positionCount - fromIndex);
+  }
+
+  /** Only the mapped positions are copied, and the values are still read from the source. */
+  @Override
+  public Column copyPositions(int[] positions, int offset, int length) {
+    checkArrayRange(positions, offset, length);
+    int[] newPositions = new int[length];
+    for (int i = 0; i < length; i++) {
+      newPositions[i] = this.positions[positions[offset + i] + arrayOffset];
+    }
+    return new LazyColumn(source, newPositions, 0, length);
+  }
+
+  /** The positions are reversed into a new array, since the array is shared with the regions. */
+  @Override
+  public void reverse() {
+    int[] reversedPositions = new int[positionCount];
+    for (int i = 0; i < positionCount; i++) {
+      reversedPositions[i] = positions[arrayOffset + positionCount - 1 - i];
+    }
+    positions = reversedPositions;
+    arrayOffset = 0;
+    if (materialized != null) {
+      materialized.reverse();
+    }
+  }
+
+  /** @return whether the values have been copied from the source column */
+  public boolean isMaterialized() {
+    return materialized != null;
+  }
+
+  private Column getMaterialized() {
+    if (materialized == null) {
+      ColumnBuilder builder = TypeFactory.getType(getDataType()).createColumnBuilder(positionCount);
+      for (int i = 0; i < positionCount; i++) {
+        int sourcePosition = positions[arrayOffset + i];
+        if (sourcePosition < 0 || source.isNull(sourcePosition)) {
+          builder.appendNull();
+        } else {
+          builder.write(source, sourcePosition);
+        }
+      }
+      materialized = builder.build();
+    }
+    return materialized;
+  }
+
+  private int getSourcePosition(int position) {
+    if (position < 0 || position >= getPositionCount()) {
+      throw new IllegalArgumentException("position is not valid");
+    }
+    return positions[arrayOffset + position];
+  }
+}
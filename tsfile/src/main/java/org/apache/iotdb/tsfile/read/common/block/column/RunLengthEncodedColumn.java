@@ -28,6 +28,7 @@ import java.util.Arrays;
 
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
+import static org.apache.iotdb.tsfile.read.common.block.column.ColumnUtil.checkArrayRange;
 import static org.apache.iotdb.tsfile.read.common.block.column.ColumnUtil.checkValidRegion;
 
 public class RunLengthEncodedColumn implements Column {
@@ -189,6 +190,12 @@ public class RunLengthEncodedColumn implements Column {
     return res;
   }
 
+  @Override
+  public int getArrayOffset() {
+    // the arrays are materialized from the value
+    return 0;
+  }
+
   @Override
   public int getPositionCount() {
     return positionCount;
@@ -213,6 +220,12 @@ public class RunLengthEncodedColumn implements Column {
     return new RunLengthEncodedColumn(value, positionCount - fromIndex);
   }
 
+  @Override
+  public Column copyPositions(int[] positions, int offset, int length) {
+    checkArrayRange(positions, offset, length);
+    return new RunLengthEncodedColumn(value, length);
+  }
+
   @Override
   public void reverse() {
     // do nothing because the underlying column has only one value
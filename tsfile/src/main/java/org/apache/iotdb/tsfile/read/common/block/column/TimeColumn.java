@@ -23,6 +23,7 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.openjdk.jol.info.ClassLayout;
 
 import static io.airlift.slice.SizeOf.sizeOf;
+import static org.apache.iotdb.tsfile.read.common.block.column.ColumnUtil.checkArrayRange;
 import static org.apache.iotdb.tsfile.read.common.block.column.ColumnUtil.checkValidRegion;
 
 public class TimeColumn implements Column {
@@ -99,6 +100,11 @@ public class TimeColumn implements Column {
     return null;
   }
 
+  @Override
+  public int getArrayOffset() {
+    return arrayOffset;
+  }
+
   @Override
   public int getPositionCount() {
     return positionCount;
@@ -123,6 +129,16 @@ public class TimeColumn implements Column {
     return new TimeColumn(arrayOffset + fromIndex, positionCount - fromIndex, values);
   }
 
+  @Override
+  public TimeColumn copyPositions(int[] positions, int offset, int length) {
+    checkArrayRange(positions, offset, length);
+    long[] newValues = new long[length];
+    for (int i = 0; i < length; i++) {
+      newValues[i] = values[positions[offset + i] + arrayOffset];
+    }
+    return new TimeColumn(0, length, newValues);
+  }
+
   @Override
   public void reverse() {
     for (int i = arrayOffset, j = arrayOffset + positionCount - 1; i < j; i++, j--) {
@@ -144,6 +160,11 @@ public class TimeColumn implements Column {
     return values;
   }
 
+  @Override
+  public long[] getLongs() {
+    return values;
+  }
+
   private void checkReadablePosition(int position) {
     if (position < 0 || position >= getPositionCount()) {
       throw new IllegalArgumentException("position is not valid");
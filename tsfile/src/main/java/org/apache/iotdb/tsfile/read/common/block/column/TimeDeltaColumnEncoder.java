@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.read.common.block.column;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes a time column as its first timestamp and the deltas of adjacent timestamps, which are
+ * usually small and take one or two bytes each in var long format.
+ */
+public class TimeDeltaColumnEncoder implements ColumnEncoder {
+
+  @Override
+  public TimeColumn readTimeColumn(ByteBuffer input, int positionCount) {
+
+    // Serialized data layout:
+    //    +-------------+-----------------------+
+    //    | first value | deltas                |
+    //    +-------------+-----------------------+
+    //    | int64       | list[zigzag var long] |
+    //    +-------------+-----------------------+
+
+    long[] values = new long[positionCount];
+    if (positionCount > 0) {
+      values[0] = input.getLong();
+      for (int i = 1; i < positionCount; i++) {
+        values[i] = values[i - 1] + ReadWriteForEncodingUtils.readVarLong(input);
+      }
+    }
+    return new TimeColumn(0, positionCount, values);
+  }
+
+  @Override
+  public Column readColumn(ByteBuffer input, TSDataType dataType, int positionCount) {
+    throw new UnsupportedOperationException("TIME_DELTA encoding is only for time columns.");
+  }
+
+  @Override
+  public void writeColumn(DataOutputStream output, Column column) throws IOException {
+    int positionCount = column.getPositionCount();
+    if (positionCount == 0) {
+      return;
+    }
+    long lastValue = column.getLong(0);
+    output.writeLong(lastValue);
+    for (int i = 1; i < positionCount; i++) {
+      long value = column.getLong(i);
+      ReadWriteForEncodingUtils.writeVarLong(value - lastValue, output);
+      lastValue = value;
+    }
+  }
+}
@@ -31,6 +31,20 @@ import java.util.List;
 
 public class TsBlockSerde {
 
+  /**
+   * whether to write time columns in {@link ColumnEncoding#TIME_DELTA}, which is smaller but can't
+   * be read by the deserializers of old versions.
+   */
+  private final boolean deltaEncodeTimeColumn;
+
+  public TsBlockSerde() {
+    this(false);
+  }
+
+  public TsBlockSerde(boolean deltaEncodeTimeColumn) {
+    this.deltaEncodeTimeColumn = deltaEncodeTimeColumn;
+  }
+
   /**
    * Deserialize a tsblock.
    *
@@ -102,13 +116,15 @@ public class TsBlockSerde {
     dataOutputStream.writeInt(tsBlock.getPositionCount());
 
     // Column encodings.
-    tsBlock.getTimeColumn().getEncoding().serializeTo(dataOutputStream);
+    ColumnEncoding timeColumnEncoding =
+        deltaEncodeTimeColumn ? ColumnEncoding.TIME_DELTA : tsBlock.getTimeColumn().getEncoding();
+    timeColumnEncoding.serializeTo(dataOutputStream);
     for (int i = 0; i < tsBlock.getValueColumnCount(); i++) {
       tsBlock.getColumn(i).getEncoding().serializeTo(dataOutputStream);
     }
 
     // Time column.
-    ColumnEncoder columnEncoder = ColumnEncoderFactory.get(tsBlock.getTimeColumn().getEncoding());
+    ColumnEncoder columnEncoder = ColumnEncoderFactory.get(timeColumnEncoding);
     columnEncoder.writeColumn(dataOutputStream, tsBlock.getTimeColumn());
 
     for (int i = 0; i < tsBlock.getValueColumnCount(); i++) {
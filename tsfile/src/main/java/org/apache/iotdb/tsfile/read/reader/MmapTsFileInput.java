@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.read.reader;
+
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * A TsFileInput of a sealed (read-only) local file, which maps the whole file into memory. Reads
+ * are copied from the mapped regions without system calls.
+ *
+ * <p>The file must not be modified while it is mapped. The mapped regions never leave this class,
+ * and each read holds a reference to them, so that they can be unmapped explicitly by the given
+ * unmapper as soon as the input is closed and the last in-flight read is done, instead of staying
+ * mapped until GC (e.g., after the file is deleted by compaction).
+ */
+public class MmapTsFileInput implements TsFileInput {
+
+  private static final Logger logger = LoggerFactory.getLogger(MmapTsFileInput.class);
+
+  /** a MappedByteBuffer can not be larger than Integer.MAX_VALUE bytes */
+  private static final long MAX_REGION_SIZE = Integer.MAX_VALUE;
+
+  private final FileChannel channel;
+  private final String filePath;
+  private final long size;
+  private final long regionSize;
+  private final MappedByteBuffer[] regions;
+  private final Consumer<MappedByteBuffer> unmapper;
+
+  /** one reference for being open, and one for each in-flight read */
+  private final AtomicInteger referenceCount = new AtomicInteger(1);
+
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+
+  /** The mapped regions are left to GC once the input is closed. */
+  public MmapTsFileInput(Path file) throws IOException {
+    this(file, region -> {});
+  }
+
+  /**
+   * @param unmapper unmaps a region explicitly, it is called once for each region when the input is
+   *     closed and no read is in flight.
+   */
+  public MmapTsFileInput(Path file, Consumer<MappedByteBuffer> unmapper) throws IOException {
+    this(file, MAX_REGION_SIZE, unmapper);
+  }
+
+  MmapTsFileInput(Path file, long regionSize, Consumer<MappedByteBuffer> unmapper)
+      throws IOException {
+    this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    this.filePath = file.toString();
+    this.regionSize = regionSize;
+    this.unmapper = unmapper;
+    try {
+      this.size = channel.size();
+      int regionNum = (int) ((size + regionSize - 1) / regionSize);
+      this.regions = new MappedByteBuffer[regionNum];
+      for (int i = 0; i < regionNum; i++) {
+        long start = i * regionSize;
+        regions[i] =
+            channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(regionSize, size - start));
+      }
+    } catch (IOException e) {
+      // the regions mapped so far are left to GC
+      logger.error("Error happened while mapping {}", filePath);
+      channel.close();
+      throw e;
+    }
+  }
+
+  /** @return false if the regions have been (or are being) unmapped */
+  private boolean retain() {
+    while (true) {
+      int count = referenceCount.get();
+      if (count <= 0) {
+        return false;
+      }
+      if (referenceCount.compareAndSet(count, count + 1)) {
+        return true;
+      }
+    }
+  }
+
+  private void release() {
+    if (referenceCount.decrementAndGet() == 0) {
+      for (int i = 0; i < regions.length; i++) {
+        unmapper.accept(regions[i]);
+        regions[i] = null;
+      }
+    }
+  }
+
+  @Override
+  public long size() {
+    return size;
+  }
+
+  @Override
+  public long position() throws IOException {
+    try {
+      return channel.position();
+    } catch (IOException e) {
+      logger.error("Error happened while getting {} current position", filePath);
+      throw e;
+    }
+  }
+
+  @Override
+  public TsFileInput position(long newPosition) throws IOException {
+    try {
+      channel.position(newPosition);
+      return this;
+    } catch (IOException e) {
+      logger.error("Error happened while changing {} position to {}", filePath, newPosition);
+      throw e;
+    }
+  }
+
+  @Override
+  public int read(ByteBuffer dst) throws IOException {
+    long position = position();
+    int readSize = read(dst, position);
+    if (readSize > 0) {
+      position(position + readSize);
+    }
+    return readSize;
+  }
+
+  @Override
+  public int read(ByteBuffer dst, long position) throws IOException {
+    if (position >= size) {
+      return -1;
+    }
+    if (!retain()) {
+      throw new ClosedChannelException();
+    }
+    try {
+      return readMapped(dst, position);
+    } finally {
+      release();
+    }
+  }
+
+  private int readMapped(ByteBuffer dst, long position) {
+    int readSize = (int) Math.min(dst.remaining(), size - position);
+    int remaining = readSize;
+    while (remaining > 0) {
+      ByteBuffer region = regions[(int) (position / regionSize)].duplicate();
+      int offset = (int) (position % regionSize);
+      int length = Math.min(remaining, region.capacity() - offset);
+      region.position(offset);
+      region.limit(offset + length);
+      dst.put(region);
+      position += length;
+      remaining -= length;
+    }
+    return readSize;
+  }
+
+  @Override
+  public int read() throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(1);
+    return read(buffer) == 1 ? buffer.get(0) & 0xFF : -1;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    return read(ByteBuffer.wrap(b, off, len));
+  }
+
+  @Override
+  public FileChannel wrapAsFileChannel() {
+    return channel;
+  }
+
+  @Override
+  public InputStream wrapAsInputStream() {
+    return Channels.newInputStream(channel);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!closed.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      channel.close();
+    } catch (IOException e) {
+      logger.error("Error happened while closing {}", filePath);
+      throw e;
+    } finally {
+      release();
+    }
+  }
+
+  @Override
+  public int readInt() throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES);
+    if (read(buffer) != Integer.BYTES) {
+      throw new IOException("reach the end of " + filePath);
+    }
+    buffer.flip();
+    return buffer.getInt();
+  }
+
+  @Override
+  public String readVarIntString(long offset) throws IOException {
+    ByteBuffer byteBuffer = ByteBuffer.allocate(5);
+    read(byteBuffer, offset);
+    byteBuffer.flip();
+    int strLength = ReadWriteForEncodingUtils.readVarInt(byteBuffer);
+    if (strLength < 0) {
+      return null;
+    } else if (strLength == 0) {
+      return "";
+    }
+    int varIntLength = ReadWriteForEncodingUtils.varIntSize(strLength);
+    byte[] bytes = new byte[strLength];
+    read(ByteBuffer.wrap(bytes), offset + varIntLength);
+    return new String(bytes, 0, strLength);
+  }
+
+  @Override
+  public String getFilePath() {
+    return filePath;
+  }
+}
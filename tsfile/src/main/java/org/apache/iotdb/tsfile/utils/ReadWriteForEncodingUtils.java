@@ -218,6 +218,46 @@ public class ReadWriteForEncodingUtils {
     return writeUnsignedVarInt(uValue, buffer);
   }
 
+  /**
+   * write a long value to stream using unsigned var long format, every seven bits are written from
+   * low bit to high bit like {@link #writeUnsignedVarInt(int, OutputStream)}.
+   *
+   * @return the number of bytes that the value consume.
+   */
+  public static int writeUnsignedVarLong(long value, OutputStream out) throws IOException {
+    int position = 1;
+    while ((value & 0xFFFFFFFFFFFFFF80L) != 0L) {
+      out.write((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+      position++;
+    }
+    out.write((int) (value & 0x7F));
+    return position;
+  }
+
+  /** write a long value to stream using zigzag var long format. */
+  public static int writeVarLong(long value, OutputStream out) throws IOException {
+    return writeUnsignedVarLong((value << 1) ^ (value >> 63), out);
+  }
+
+  /** read an unsigned var long in buffer. */
+  public static long readUnsignedVarLong(ByteBuffer buffer) {
+    long value = 0;
+    int i = 0;
+    long b = 0;
+    while (buffer.hasRemaining() && ((b = buffer.get()) & 0x80) != 0) {
+      value |= (b & 0x7F) << i;
+      i += 7;
+    }
+    return value | (b << i);
+  }
+
+  /** read a zigzag var long in buffer. */
+  public static long readVarLong(ByteBuffer buffer) {
+    long value = readUnsignedVarLong(buffer);
+    return (value >>> 1) ^ -(value & 1);
+  }
+
   /**
    * Returns the encoding size in bytes of its input value.
    *
@@ -26,6 +26,8 @@ import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
@@ -248,6 +250,88 @@ public class ChunkWriterImpl implements IChunkWriter {
     checkPageSizeAndMayOpenANewPage();
   }
 
+  /**
+   * Write a batch of points from the columns. The batch is split where the points would trigger the
+   * page checks when written one by one, so the pages are sealed at the same points. Null values
+   * are skipped.
+   */
+  public void write(TimeColumn timeColumn, Column valueColumn, int batchSize) {
+    if (isSdtEncoding
+        || valueColumn.mayHaveNull()
+        || timeColumn.getArrayOffset() != valueColumn.getArrayOffset()) {
+      writeByPoint(timeColumn, valueColumn, batchSize);
+      return;
+    }
+    long[] times = timeColumn.getTimes();
+    int arrayOffset = timeColumn.getArrayOffset();
+    int written = 0;
+    while (written < batchSize) {
+      int pointNumber = (int) pageWriter.getPointNumber();
+      int nextCheckPoint =
+          Math.min(
+              maxNumberOfPointsInPage, Math.max(valueCountInOnePageForNextCheck, pointNumber + 1));
+      int length = Math.min(batchSize - written, Math.max(1, nextCheckPoint - pointNumber));
+      int offset = arrayOffset + written;
+      switch (measurementSchema.getType()) {
+        case BOOLEAN:
+          pageWriter.write(times, valueColumn.getBooleans(), length, offset);
+          break;
+        case INT32:
+          pageWriter.write(times, valueColumn.getInts(), length, offset);
+          break;
+        case INT64:
+          pageWriter.write(times, valueColumn.getLongs(), length, offset);
+          break;
+        case FLOAT:
+          pageWriter.write(times, valueColumn.getFloats(), length, offset);
+          break;
+        case DOUBLE:
+          pageWriter.write(times, valueColumn.getDoubles(), length, offset);
+          break;
+        case TEXT:
+          pageWriter.write(times, valueColumn.getBinaries(), length, offset);
+          break;
+        default:
+          throw new UnsupportedOperationException(
+              "Unknown data type " + measurementSchema.getType());
+      }
+      checkPageSizeAndMayOpenANewPage();
+      written += length;
+    }
+  }
+
+  private void writeByPoint(TimeColumn timeColumn, Column valueColumn, int batchSize) {
+    for (int i = 0; i < batchSize; i++) {
+      if (valueColumn.isNull(i)) {
+        continue;
+      }
+      long time = timeColumn.getLong(i);
+      switch (measurementSchema.getType()) {
+        case BOOLEAN:
+          write(time, valueColumn.getBoolean(i));
+          break;
+        case INT32:
+          write(time, valueColumn.getInt(i));
+          break;
+        case INT64:
+          write(time, valueColumn.getLong(i));
+          break;
+        case FLOAT:
+          write(time, valueColumn.getFloat(i));
+          break;
+        case DOUBLE:
+          write(time, valueColumn.getDouble(i));
+          break;
+        case TEXT:
+          write(time, valueColumn.getBinary(i));
+          break;
+        default:
+          throw new UnsupportedOperationException(
+              "Unknown data type " + measurementSchema.getType());
+      }
+    }
+  }
+
   /**
    * check occupied memory size, if it exceeds the PageSize threshold, construct a page and put it
    * to pageBuffer
@@ -365,7 +449,7 @@ public class ChunkWriterImpl implements IChunkWriter {
       // serialize pageHeader  see writePageToPageBuffer method
       if (numOfPages == 0) { // record the firstPageStatistics
         this.firstPageStatistics = header.getStatistics();
-        this.sizeWithoutStatistic +=
+        this.sizeWithoutStatistic =
             ReadWriteForEncodingUtils.writeUnsignedVarInt(header.getUncompressedSize(), pageBuffer);
         this.sizeWithoutStatistic +=
             ReadWriteForEncodingUtils.writeUnsignedVarInt(header.getCompressedSize(), pageBuffer);
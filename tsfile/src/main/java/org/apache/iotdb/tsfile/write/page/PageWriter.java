@@ -180,6 +180,60 @@ public class PageWriter {
     statistics.update(timestamps, values, batchSize);
   }
 
+  /** write time series from the arrayOffset of the arrays into encoder */
+  public void write(long[] timestamps, boolean[] values, int batchSize, int arrayOffset) {
+    for (int i = arrayOffset; i < batchSize + arrayOffset; i++) {
+      timeEncoder.encode(timestamps[i], timeOut);
+      valueEncoder.encode(values[i], valueOut);
+      statistics.update(timestamps[i], values[i]);
+    }
+  }
+
+  /** write time series from the arrayOffset of the arrays into encoder */
+  public void write(long[] timestamps, int[] values, int batchSize, int arrayOffset) {
+    for (int i = arrayOffset; i < batchSize + arrayOffset; i++) {
+      timeEncoder.encode(timestamps[i], timeOut);
+      valueEncoder.encode(values[i], valueOut);
+      statistics.update(timestamps[i], values[i]);
+    }
+  }
+
+  /** write time series from the arrayOffset of the arrays into encoder */
+  public void write(long[] timestamps, long[] values, int batchSize, int arrayOffset) {
+    for (int i = arrayOffset; i < batchSize + arrayOffset; i++) {
+      timeEncoder.encode(timestamps[i], timeOut);
+      valueEncoder.encode(values[i], valueOut);
+      statistics.update(timestamps[i], values[i]);
+    }
+  }
+
+  /** write time series from the arrayOffset of the arrays into encoder */
+  public void write(long[] timestamps, float[] values, int batchSize, int arrayOffset) {
+    for (int i = arrayOffset; i < batchSize + arrayOffset; i++) {
+      timeEncoder.encode(timestamps[i], timeOut);
+      valueEncoder.encode(values[i], valueOut);
+      statistics.update(timestamps[i], values[i]);
+    }
+  }
+
+  /** write time series from the arrayOffset of the arrays into encoder */
+  public void write(long[] timestamps, double[] values, int batchSize, int arrayOffset) {
+    for (int i = arrayOffset; i < batchSize + arrayOffset; i++) {
+      timeEncoder.encode(timestamps[i], timeOut);
+      valueEncoder.encode(values[i], valueOut);
+      statistics.update(timestamps[i], values[i]);
+    }
+  }
+
+  /** write time series from the arrayOffset of the arrays into encoder */
+  public void write(long[] timestamps, Binary[] values, int batchSize, int arrayOffset) {
+    for (int i = arrayOffset; i < batchSize + arrayOffset; i++) {
+      timeEncoder.encode(timestamps[i], timeOut);
+      valueEncoder.encode(values[i], valueOut);
+      statistics.update(timestamps[i], values[i]);
+    }
+  }
+
   /** flush all data remained in encoders. */
   private void prepareEndWriteOnePage() throws IOException {
     timeEncoder.flush(timeOut);
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.common.block;
+
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnEncoder;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnEncoderFactory;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnEncoding;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public class TimeDeltaColumnEncoderTest {
+
+  @Test
+  public void testTimeColumn() throws IOException {
+    long[] values = {
+      1_000L, 2_000L, 3_000L, 2_500L, Long.MAX_VALUE, Long.MIN_VALUE, -1L, 0L, 0L, 127L
+    };
+    TimeColumn input = new TimeColumn(values.length, values);
+    ColumnEncoder encoder = ColumnEncoderFactory.get(ColumnEncoding.TIME_DELTA);
+
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    encoder.writeColumn(new DataOutputStream(byteArrayOutputStream), input);
+
+    ByteBuffer buffer = ByteBuffer.wrap(byteArrayOutputStream.toByteArray());
+    TimeColumn output = encoder.readTimeColumn(buffer, values.length);
+    Assert.assertFalse(buffer.hasRemaining());
+    Assert.assertEquals(values.length, output.getPositionCount());
+    Assert.assertEquals(input.getRetainedSizeInBytes(), output.getRetainedSizeInBytes());
+    for (int i = 0; i < values.length; i++) {
+      Assert.assertEquals(values[i], output.getLong(i));
+    }
+  }
+
+  @Test
+  public void testRegularTimeColumn() throws IOException {
+    final int positionCount = 1000;
+    long[] values = new long[positionCount];
+    for (int i = 0; i < positionCount; i++) {
+      values[i] = 1_600_000_000_000L + i * 1000L;
+    }
+    ColumnEncoder encoder = ColumnEncoderFactory.get(ColumnEncoding.TIME_DELTA);
+
+    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    encoder.writeColumn(
+        new DataOutputStream(byteArrayOutputStream), new TimeColumn(positionCount, values));
+    // the first timestamp and a 2-byte delta for each of the others
+    Assert.assertEquals(8 + 2 * (positionCount - 1), byteArrayOutputStream.size());
+
+    TimeColumn output =
+        encoder.readTimeColumn(ByteBuffer.wrap(byteArrayOutputStream.toByteArray()), positionCount);
+    for (int i = 0; i < positionCount; i++) {
+      Assert.assertEquals(values[i], output.getLong(i));
+    }
+  }
+}
@@ -25,6 +25,8 @@ import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.BinaryColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnEncoding;
+import org.apache.iotdb.tsfile.read.common.block.column.IntColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.RunLengthEncodedColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.TsBlockSerde;
 import org.apache.iotdb.tsfile.utils.Binary;
@@ -186,4 +188,34 @@ public class TsBlockSerdeTest {
       fail();
     }
   }
+
+  @Test
+  public void testDeltaEncodeTimeColumn() throws IOException {
+    final int positionCount = 10;
+    long[] times = new long[positionCount];
+    for (int i = 0; i < positionCount; i++) {
+      times[i] = 100L * i;
+    }
+    TsBlock tsBlock =
+        new TsBlock(
+            new TimeColumn(positionCount, times),
+            new RunLengthEncodedColumn(
+                new IntColumn(1, Optional.empty(), new int[] {7}), positionCount));
+
+    ByteBuffer output = new TsBlockSerde(true).serialize(tsBlock);
+    output.rewind();
+    // value column count, data type, position count
+    output.position(Integer.BYTES + 1 + Integer.BYTES);
+    assertEquals(ColumnEncoding.TIME_DELTA, ColumnEncoding.deserializeFrom(output));
+    assertEquals(ColumnEncoding.RLE, ColumnEncoding.deserializeFrom(output));
+
+    output.rewind();
+    TsBlock deserializedTsBlock = new TsBlockSerde().deserialize(output);
+    assertEquals(positionCount, deserializedTsBlock.getPositionCount());
+    assertEquals(ColumnEncoding.RLE, deserializedTsBlock.getColumn(0).getEncoding());
+    for (int i = 0; i < positionCount; i++) {
+      assertEquals(times[i], deserializedTsBlock.getTimeByIndex(i));
+      assertEquals(7, deserializedTsBlock.getColumn(0).getInt(i));
+    }
+  }
 }
@@ -103,4 +103,19 @@ public class CompressTest {
     String result = new String(uncompressed, StandardCharsets.UTF_8);
     assertEquals(inputString, result);
   }
+
+  @Test
+  public void lz4CompressorWithOffsetTest() throws IOException {
+    byte[] input = inputString.getBytes(StandardCharsets.UTF_8);
+    ICompressor compressor = new ICompressor.IOTDBLZ4Compressor();
+    IUnCompressor unCompressor = new IUnCompressor.LZ4UnCompressor();
+    byte[] compressed = new byte[compressor.getMaxBytesForCompression(input.length)];
+    int size = compressor.compress(input, 0, input.length, compressed);
+    // the compressed bytes are behind a 5-byte header
+    byte[] withHeader = new byte[5 + size];
+    System.arraycopy(compressed, 0, withHeader, 5, size);
+    byte[] uncompressed = new byte[input.length];
+    assertEquals(input.length, unCompressor.uncompress(withHeader, 5, size, uncompressed, 0));
+    assertEquals(inputString, new String(uncompressed, StandardCharsets.UTF_8));
+  }
 }
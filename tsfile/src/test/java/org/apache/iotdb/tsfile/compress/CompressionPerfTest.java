@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.compress;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.constant.TestConstant;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.utils.TsFileGeneratorUtils;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.apache.iotdb.tsfile.common.constant.TsFileConstant.PATH_SEPARATOR;
+
+/**
+ * This is used to compare the compression ratio and speed of the compressors on the sample data
+ * generated by {@link TsFileGeneratorUtils}, only the correctness of the written files is asserted.
+ * User could change {@code POINT_NUM} for larger data test.
+ */
+public class CompressionPerfTest {
+
+  private static final int DEVICE_NUM = 5;
+  private static final int MEASUREMENT_NUM = 10;
+  private static final int POINT_NUM = 10000;
+
+  private final TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+  private final String filePath = TestConstant.BASE_OUTPUT_PATH.concat("compressionPerf.tsfile");
+  private CompressionType oldCompressor;
+  private int oldMaxPointNumInPage;
+
+  @Before
+  public void setUp() {
+    oldCompressor = config.getCompressor();
+    oldMaxPointNumInPage = config.getMaxNumberOfPointsInPage();
+  }
+
+  @After
+  public void tearDown() {
+    config.setCompressor(oldCompressor.name());
+    config.setMaxNumberOfPointsInPage(oldMaxPointNumInPage);
+    File file = new File(filePath);
+    if (file.exists()) {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void compareCompressors() throws IOException, WriteProcessException {
+    long uncompressedSize = 0;
+    for (CompressionType type :
+        new CompressionType[] {
+          CompressionType.UNCOMPRESSED,
+          CompressionType.SNAPPY,
+          CompressionType.LZ4,
+          CompressionType.ZSTD
+        }) {
+      config.setCompressor(type.name());
+      long time = System.currentTimeMillis();
+      File file =
+          TsFileGeneratorUtils.generateNonAlignedTsFile(
+              filePath, DEVICE_NUM, MEASUREMENT_NUM, POINT_NUM, 0, 0, 0, 1000);
+      long writeTime = System.currentTimeMillis() - time;
+
+      time = System.currentTimeMillis();
+      long pointNum = readAllPoints(file);
+      long readTime = System.currentTimeMillis() - time;
+      Assert.assertEquals((long) DEVICE_NUM * MEASUREMENT_NUM * POINT_NUM, pointNum);
+
+      if (type == CompressionType.UNCOMPRESSED) {
+        uncompressedSize = file.length();
+      }
+      System.out.printf(
+          "%s: file size %d, ratio %.3f, write time cost %d ms, read time cost %d ms%n",
+          type, file.length(), (double) file.length() / uncompressedSize, writeTime, readTime);
+      file.delete();
+    }
+  }
+
+  private long readAllPoints(File file) throws IOException {
+    long pointNum = 0;
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath())) {
+      for (int i = 0; i < DEVICE_NUM; i++) {
+        for (int j = 0; j < MEASUREMENT_NUM; j++) {
+          Path path =
+              new Path(TsFileGeneratorUtils.testStorageGroup + PATH_SEPARATOR + "d" + i, "s" + j);
+          for (ChunkMetadata chunkMetadata : reader.getChunkMetadataList(path)) {
+            ChunkReader chunkReader = new ChunkReader(reader.readMemChunk(chunkMetadata), null);
+            while (chunkReader.hasNextSatisfiedPage()) {
+              BatchData batchData = chunkReader.nextPageData();
+              pointNum += batchData.length();
+            }
+          }
+        }
+      }
+    }
+    return pointNum;
+  }
+}
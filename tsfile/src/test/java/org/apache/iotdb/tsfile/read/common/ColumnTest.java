@@ -23,12 +23,14 @@ import org.apache.iotdb.tsfile.read.common.block.column.BinaryColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.BinaryColumnBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.BooleanColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.BooleanColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.common.block.column.DoubleColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.DoubleColumnBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.FloatColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.FloatColumnBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.IntColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.IntColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.LazyColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.LongColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.LongColumnBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.RunLengthEncodedColumn;
@@ -319,4 +321,173 @@ public class ColumnTest {
       Assert.assertTrue(e.getMessage().contains("fromIndex is not valid"));
     }
   }
+
+  @Test
+  public void timeColumnCopyPositionsTest() {
+    TimeColumnBuilder columnBuilder = new TimeColumnBuilder(null, 10);
+    for (int i = 0; i < 10; i++) {
+      columnBuilder.writeLong(i);
+    }
+    TimeColumn timeColumn = ((TimeColumn) columnBuilder.build().subColumn(2));
+    timeColumn = timeColumn.copyPositions(new int[] {-1, 0, 3, 7}, 1, 3);
+    Assert.assertEquals(3, timeColumn.getPositionCount());
+    Assert.assertEquals(2, timeColumn.getLong(0));
+    Assert.assertEquals(5, timeColumn.getLong(1));
+    Assert.assertEquals(9, timeColumn.getLong(2));
+    try {
+      timeColumn.copyPositions(new int[] {0, 1}, 1, 2);
+      Assert.fail();
+    } catch (IndexOutOfBoundsException e) {
+      Assert.assertTrue(e.getMessage().contains("Invalid offset 1 and length 2"));
+    }
+  }
+
+  @Test
+  public void intColumnCopyPositionsTest() {
+    IntColumnBuilder columnBuilder = new IntColumnBuilder(null, 10);
+    for (int i = 0; i < 10; i++) {
+      if (i % 2 == 0) {
+        columnBuilder.appendNull();
+      } else {
+        columnBuilder.writeInt(i);
+      }
+    }
+    IntColumn intColumn = (IntColumn) columnBuilder.build().getRegion(1, 9);
+    intColumn = (IntColumn) intColumn.copyPositions(new int[] {0, 1, 8}, 0, 3);
+    Assert.assertEquals(3, intColumn.getPositionCount());
+    Assert.assertFalse(intColumn.isNull(0));
+    Assert.assertEquals(1, intColumn.getInt(0));
+    Assert.assertTrue(intColumn.isNull(1));
+    Assert.assertEquals(9, intColumn.getInt(2));
+  }
+
+  @Test
+  public void binaryColumnCopyPositionsTest() {
+    BinaryColumnBuilder columnBuilder = new BinaryColumnBuilder(null, 10);
+    for (int i = 0; i < 10; i++) {
+      columnBuilder.writeBinary(Binary.valueOf(String.valueOf(i)));
+    }
+    BinaryColumn binaryColumn = (BinaryColumn) columnBuilder.build();
+    binaryColumn = (BinaryColumn) binaryColumn.copyPositions(new int[] {4, 6}, 0, 2);
+    Assert.assertEquals(2, binaryColumn.getPositionCount());
+    Assert.assertFalse(binaryColumn.mayHaveNull());
+    Assert.assertEquals("4", binaryColumn.getBinary(0).getStringValue());
+    Assert.assertEquals("6", binaryColumn.getBinary(1).getStringValue());
+  }
+
+  @Test
+  public void runLengthEncodedColumnCopyPositionsTest() {
+    LongColumnBuilder longColumnBuilder = new LongColumnBuilder(null, 1);
+    longColumnBuilder.writeLong(1);
+    Column column = new RunLengthEncodedColumn(longColumnBuilder.build(), 10);
+    column = column.copyPositions(new int[] {1, 3, 5}, 0, 3);
+    Assert.assertTrue(column instanceof RunLengthEncodedColumn);
+    Assert.assertEquals(3, column.getPositionCount());
+    Assert.assertEquals(1, column.getLong(2));
+  }
+
+  @Test
+  public void lazyColumnTest() {
+    IntColumnBuilder columnBuilder = new IntColumnBuilder(null, 10);
+    for (int i = 0; i < 10; i++) {
+      if (i == 5) {
+        columnBuilder.appendNull();
+      } else {
+        columnBuilder.writeInt(i);
+      }
+    }
+    Column source = columnBuilder.build().getRegion(2, 8);
+    LazyColumn lazyColumn = new LazyColumn(source, new int[] {0, -1, 3, 6}, 4);
+    Assert.assertEquals(4, lazyColumn.getPositionCount());
+    Assert.assertTrue(lazyColumn.mayHaveNull());
+    Assert.assertEquals(2, lazyColumn.getInt(0));
+    Assert.assertTrue(lazyColumn.isNull(1));
+    Assert.assertTrue(lazyColumn.isNull(2));
+    Assert.assertEquals(8, lazyColumn.getInt(3));
+
+    Column region = lazyColumn.getRegion(2, 2);
+    Assert.assertTrue(region.isNull(0));
+    Assert.assertEquals(8, region.getInt(1));
+
+    Column copied = lazyColumn.copyPositions(new int[] {3, 0}, 0, 2);
+    Assert.assertTrue(copied instanceof LazyColumn);
+    Assert.assertEquals(8, copied.getInt(0));
+    Assert.assertEquals(2, copied.getInt(1));
+    Assert.assertFalse(((LazyColumn) copied).isMaterialized());
+
+    // the arrays are only copied when required
+    Assert.assertFalse(lazyColumn.isMaterialized());
+    int[] values = lazyColumn.getInts();
+    boolean[] isNull = lazyColumn.isNull();
+    int offset = lazyColumn.getArrayOffset();
+    Assert.assertTrue(lazyColumn.isMaterialized());
+    Assert.assertEquals(2, values[offset]);
+    Assert.assertTrue(isNull[offset + 1]);
+    Assert.assertTrue(isNull[offset + 2]);
+    Assert.assertEquals(8, values[offset + 3]);
+
+    lazyColumn.reverse();
+    Assert.assertEquals(8, lazyColumn.getInt(0));
+    Assert.assertEquals(8, lazyColumn.getInts()[lazyColumn.getArrayOffset()]);
+  }
+
+  @Test
+  public void lazyColumnReverseRegionTest() {
+    IntColumnBuilder columnBuilder = new IntColumnBuilder(null, 10);
+    for (int i = 0; i < 10; i++) {
+      columnBuilder.writeInt(i);
+    }
+    Column source = columnBuilder.build();
+    LazyColumn lazyColumn = new LazyColumn(source, new int[] {0, 2, 4, 6, 8}, 5);
+
+    Column region = lazyColumn.getRegion(1, 3);
+    region.reverse();
+    Assert.assertEquals(6, region.getInt(0));
+    Assert.assertEquals(4, region.getInt(1));
+    Assert.assertEquals(2, region.getInt(2));
+    // the positions shared with the parent are not modified
+    for (int i = 0; i < 5; i++) {
+      Assert.assertEquals(i * 2, lazyColumn.getInt(i));
+    }
+
+    lazyColumn.reverse();
+    Assert.assertEquals(8, lazyColumn.getInt(0));
+    Assert.assertEquals(0, lazyColumn.getInt(4));
+    Assert.assertEquals(6, region.getInt(0));
+    Assert.assertEquals(2, region.getInt(2));
+  }
+
+  @Test
+  public void lazyColumnRetainedSizeTest() {
+    IntColumnBuilder columnBuilder = new IntColumnBuilder(null, 100);
+    for (int i = 0; i < 100; i++) {
+      columnBuilder.writeInt(i);
+    }
+    Column source = columnBuilder.build();
+    long sourceSize = source.getRetainedSizeInBytes();
+
+    // one source column feeds several output columns, e.g. of a time join
+    int[] positions = new int[100];
+    for (int i = 0; i < 100; i++) {
+      positions[i] = i;
+    }
+    LazyColumn lazyColumn = new LazyColumn(source, positions, 100);
+    long sourceShare = 0;
+    for (int i = 0; i < 4; i++) {
+      Column region = lazyColumn.getRegion(i * 25, 25);
+      long regionShare =
+          region.getRetainedSizeInBytes()
+              - lazyColumn.getRegion(0, 0).getRetainedSizeInBytes()
+              - 25 * Integer.BYTES;
+      Assert.assertEquals(sourceSize / 4, regionShare, 1);
+      sourceShare += regionShare;
+    }
+    Assert.assertEquals(sourceSize, sourceShare, 4);
+
+    // the null positions don't retain the source column
+    LazyColumn nullColumn = new LazyColumn(source, new int[] {-1, -1}, 2);
+    Assert.assertEquals(
+        lazyColumn.getRegion(0, 0).getRetainedSizeInBytes() + 2 * Integer.BYTES,
+        nullColumn.getRetainedSizeInBytes());
+  }
 }
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.reader;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.constant.TestConstant;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.FilePathUtils;
+import org.apache.iotdb.tsfile.utils.TsFileGeneratorUtils;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.iotdb.tsfile.common.constant.TsFileConstant.PATH_SEPARATOR;
+
+public class MmapTsFileInputTest {
+  private final String testStorageGroup = TsFileGeneratorUtils.testStorageGroup;
+  private final File SEQ_DIRS =
+      new File(
+          TestConstant.BASE_OUTPUT_PATH
+              + "data"
+              + File.separator
+              + "sequence"
+              + File.separator
+              + testStorageGroup
+              + File.separator
+              + "0"
+              + File.separator
+              + "0");
+
+  private File file;
+  private final int oldMaxPointNumInPage =
+      TSFileDescriptor.getInstance().getConfig().getMaxNumberOfPointsInPage();
+  private final int deviceNum = 3;
+  private final int measurementNum = 5;
+
+  @Before
+  public void setUp() throws IOException, WriteProcessException {
+    TSFileDescriptor.getInstance().getConfig().setMaxNumberOfPointsInPage(100);
+    if (!SEQ_DIRS.exists()) {
+      Assert.assertTrue(SEQ_DIRS.mkdirs());
+    }
+    String fileName =
+        System.currentTimeMillis() + FilePathUtils.FILE_NAME_SEPARATOR + "0-0-0.tsfile";
+    String filePath = SEQ_DIRS.getPath() + File.separator + fileName;
+    file =
+        TsFileGeneratorUtils.generateNonAlignedTsFile(
+            filePath, deviceNum, measurementNum, 500, 0, 0, 0, 0);
+  }
+
+  @After
+  public void tearDown() {
+    TSFileDescriptor.getInstance().getConfig().setMaxNumberOfPointsInPage(oldMaxPointNumInPage);
+    if (file.exists()) {
+      file.delete();
+    }
+    if (SEQ_DIRS.exists()) {
+      SEQ_DIRS.delete();
+    }
+  }
+
+  @Test
+  public void testReadAcrossRegions() throws IOException {
+    byte[] expected = Files.readAllBytes(file.toPath());
+    // use a small region size so that the file is mapped into many regions
+    MmapTsFileInput input = new MmapTsFileInput(file.toPath(), 1000, region -> {});
+    try {
+      Assert.assertEquals(expected.length, input.size());
+
+      ByteBuffer buffer = ByteBuffer.allocate(expected.length);
+      Assert.assertEquals(expected.length, input.read(buffer, 0));
+      Assert.assertArrayEquals(expected, buffer.array());
+
+      buffer = ByteBuffer.allocate(1500);
+      Assert.assertEquals(1500, input.read(buffer, 900));
+      for (int i = 0; i < 1500; i++) {
+        Assert.assertEquals(expected[900 + i], buffer.get(i));
+      }
+
+      input.position(expected.length - 10);
+      buffer = ByteBuffer.allocate(100);
+      Assert.assertEquals(10, input.read(buffer));
+      Assert.assertEquals(expected.length, input.position());
+      Assert.assertEquals(-1, input.read(buffer));
+    } finally {
+      input.close();
+    }
+  }
+
+  @Test
+  public void testUnmapOnClose() throws IOException {
+    byte[] expected = Files.readAllBytes(file.toPath());
+    List<MappedByteBuffer> unmapped = new ArrayList<>();
+    MmapTsFileInput input = new MmapTsFileInput(file.toPath(), 1000, unmapped::add);
+    ByteBuffer buffer = ByteBuffer.allocate(100);
+    Assert.assertEquals(100, input.read(buffer, 0));
+    Assert.assertTrue(unmapped.isEmpty());
+
+    input.close();
+    Assert.assertEquals((expected.length + 999) / 1000, unmapped.size());
+    long unmappedSize = 0;
+    for (MappedByteBuffer region : unmapped) {
+      unmappedSize += region.capacity();
+    }
+    Assert.assertEquals(expected.length, unmappedSize);
+
+    // closing again does not unmap the regions twice
+    input.close();
+    Assert.assertEquals((expected.length + 999) / 1000, unmapped.size());
+    try {
+      input.read(ByteBuffer.allocate(100), 0);
+      Assert.fail();
+    } catch (ClosedChannelException e) {
+      // the regions have been unmapped
+    }
+  }
+
+  @Test
+  public void testReadMemChunk() throws IOException {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath());
+        TsFileSequenceReader mmapReader =
+            new TsFileSequenceReader(new MmapTsFileInput(file.toPath()))) {
+      for (int i = 0; i < deviceNum; i++) {
+        for (int j = 0; j < measurementNum; j++) {
+          Path path = new Path(testStorageGroup + PATH_SEPARATOR + "d" + i, "s" + j);
+          for (ChunkMetadata chunkMetadata : mmapReader.getChunkMetadataList(path)) {
+            Chunk expected = reader.readMemChunk(chunkMetadata);
+            Chunk actual = mmapReader.readMemChunk(chunkMetadata);
+            Assert.assertEquals(
+                expected.getHeader().getMeasurementID(), actual.getHeader().getMeasurementID());
+            Assert.assertEquals(
+                expected.getHeader().getDataSize(), actual.getHeader().getDataSize());
+            Assert.assertEquals(expected.getData(), actual.getData());
+          }
+        }
+      }
+    }
+  }
+}
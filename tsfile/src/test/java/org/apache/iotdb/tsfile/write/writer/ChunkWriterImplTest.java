@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.write.writer;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
+import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import static org.junit.Assert.assertArrayEquals;
+
+public class ChunkWriterImplTest {
+
+  private static final int POINT_NUM = 1000;
+  private static final int BATCH_SIZE = 37;
+
+  private final TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+  private int oldMaxNumberOfPointsInPage;
+
+  @Before
+  public void setUp() {
+    oldMaxNumberOfPointsInPage = config.getMaxNumberOfPointsInPage();
+    config.setMaxNumberOfPointsInPage(100);
+  }
+
+  @After
+  public void tearDown() {
+    config.setMaxNumberOfPointsInPage(oldMaxNumberOfPointsInPage);
+  }
+
+  @Test
+  public void testBatchWriteSameAsPointWrite() throws IOException {
+    MeasurementSchema schema =
+        new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.RLE, CompressionType.SNAPPY);
+    TsBlock tsBlock = buildTsBlock(false);
+
+    ChunkWriterImpl pointWriter = new ChunkWriterImpl(schema, true);
+    for (int i = 0; i < POINT_NUM; i++) {
+      pointWriter.write(tsBlock.getTimeByIndex(i), tsBlock.getColumn(0).getLong(i));
+    }
+
+    ChunkWriterImpl batchWriter = new ChunkWriterImpl(schema, true);
+    // write with regions so that the array offset of the columns is not zero
+    for (int i = 0; i < POINT_NUM; i += BATCH_SIZE) {
+      TsBlock region = tsBlock.getRegion(i, Math.min(BATCH_SIZE, POINT_NUM - i));
+      batchWriter.write(region.getTimeColumn(), region.getColumn(0), region.getPositionCount());
+    }
+
+    assertArrayEquals(serialize(pointWriter), serialize(batchWriter));
+  }
+
+  @Test
+  public void testBatchWriteSkipNull() throws IOException {
+    MeasurementSchema schema =
+        new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.PLAIN, CompressionType.SNAPPY);
+    TsBlock tsBlock = buildTsBlock(true);
+
+    ChunkWriterImpl pointWriter = new ChunkWriterImpl(schema, true);
+    for (int i = 0; i < POINT_NUM; i++) {
+      if (!tsBlock.getColumn(0).isNull(i)) {
+        pointWriter.write(tsBlock.getTimeByIndex(i), tsBlock.getColumn(0).getLong(i));
+      }
+    }
+
+    ChunkWriterImpl batchWriter = new ChunkWriterImpl(schema, true);
+    TimeColumn timeColumn = tsBlock.getTimeColumn();
+    Column valueColumn = tsBlock.getColumn(0);
+    batchWriter.write(timeColumn, valueColumn, POINT_NUM);
+
+    assertArrayEquals(serialize(pointWriter), serialize(batchWriter));
+  }
+
+  private TsBlock buildTsBlock(boolean withNull) {
+    TsBlockBuilder builder = new TsBlockBuilder(Collections.singletonList(TSDataType.INT64));
+    for (int i = 0; i < POINT_NUM; i++) {
+      builder.getTimeColumnBuilder().writeLong(i);
+      if (withNull && i % 7 == 0) {
+        builder.getColumnBuilder(0).appendNull();
+      } else {
+        builder.getColumnBuilder(0).writeLong(i * 3L);
+      }
+      builder.declarePosition();
+    }
+    return builder.build();
+  }
+
+  private byte[] serialize(ChunkWriterImpl chunkWriter) throws IOException {
+    TestTsFileOutput output = new TestTsFileOutput();
+    TsFileIOWriter writer = new TsFileIOWriter(output, true);
+    chunkWriter.writeToFileWriter(writer);
+    return output.publicBAOS.toByteArray();
+  }
+}